@@ -156,6 +156,8 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
         final boolean hasConflictAnnotations;
         /** If the element has a function to calculate conflict params. */
         final String conflictFunction;
+        /** If the element is a commutative mutator. */
+        final boolean commutative;
 
         public SmrMethodInfo(ExecutableElement method,
                              TypeElement interfaceOverride) {
@@ -194,6 +196,13 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
                         + conflictFunction + "'");
 
             }
+
+            commutative = mutator != null && mutator.commutative();
+            if (commutative && mutator.reset()) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Method "
+                        + method.getSimpleName()
+                        + " cannot be both a commutative and a reset mutator");
+            }
         }
 
         /** Return whether the given method has conflict annotations.
@@ -476,7 +485,16 @@ public class ObjectAnnotationProcessor extends AbstractProcessor {
                     }
 
                     // If a mutator, then log the update.
-                    if (mutator != null || mutatorAccessor != null) {
+                    if (m.commutative) {
+                        ms.addStatement("proxy" + CORFUSMR_FIELD
+                                        + ".logCommutativeUpdate($S,$L$L$L)",
+                                getSmrFunctionName(smrMethod),
+                                hasConflictData ? conflictField : "null",
+                                smrMethod.getParameters().size() > 0 ? "," : "",
+                                smrMethod.getParameters().stream()
+                                    .map(VariableElement::getSimpleName)
+                                    .collect(Collectors.joining(", ")));
+                    } else if (mutator != null || mutatorAccessor != null) {
                         ms.addStatement(
                                 (mutatorAccessor != null ? "long address"
                                         + CORFUSMR_FIELD + " = " : "")
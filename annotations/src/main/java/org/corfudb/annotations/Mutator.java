@@ -51,4 +51,15 @@ public @interface Mutator {
      * @return True, if no upcall should be generated.
      */
     boolean noUpcall() default false;
+
+    /** Whether this mutator commutes with every other commutative mutator of
+     * the object, such as an increment, an add to a set or a max. Commutative
+     * mutations are left out of the conflict set of write-after-write
+     * transactions, so concurrent transactions applying them to the same key
+     * do not abort each other: their updates are re-applied against the
+     * committed state in log order. They are still published as write
+     * conflicts, so concurrent transactions which read the key abort.
+     * @return True, if the mutator is commutative.
+     */
+    boolean commutative() default false;
 }
@@ -33,6 +33,23 @@ public interface ICorfuSMRProxy<T> {
     long logUpdate(String smrUpdateFunction, boolean keepUpcallResult,
                    Object[] conflictObject, Object... args);
 
+    /**
+     * Record an SMR function which commutes with the other commutative functions
+     * of the object to the log before returning. In a write-after-write transaction,
+     * its conflict objects are published to concurrent readers but do not make
+     * concurrent commutative writers abort.
+     * @param smrUpdateFunction     The name of the function to record.
+     * @param conflictObject        Fine-grained conflict information, if
+     *                              available.
+     * @param args                  The arguments to the function.
+     *
+     * @return  The address in the log the SMR function was recorded at.
+     */
+    default long logCommutativeUpdate(String smrUpdateFunction, Object[] conflictObject,
+                                      Object... args) {
+        return logUpdate(smrUpdateFunction, false, conflictObject, args);
+    }
+
     /**
      * Return the result of an upcall at the given timestamp.
      * @param timestamp             The timestamp to request the upcall for.
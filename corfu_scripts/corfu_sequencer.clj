@@ -6,6 +6,7 @@
 Usage:
   corfu_sequencer [-i <stream-id>] -c <config> [-e [-u <keystore> -f <keystore_password_file>] [-r <truststore> -w <truststore_password_file>] [-g -o <username_file> -j <password_file>]] latest
   corfu_sequencer [-i <stream-id>] -c <config> [-e [-u <keystore> -f <keystore_password_file>] [-r <truststore> -w <truststore_password_file>] [-g -o <username_file> -j <password_file>]] next-token <num-tokens>
+  corfu_sequencer -c <config> [-e [-u <keystore> -f <keystore_password_file>] [-r <truststore> -w <truststore_password_file>] [-g -o <username_file> -j <password_file>]] abort-stats
 Options:
   -i <stream-id>, --stream-id <stream-id>                                                ID or name of the stream to work with.
   -c <config>, --config <config>                                                         Configuration string to use.
@@ -34,11 +35,22 @@ Options:
                                                    (java.util.Collections/singleton stream)) num-tokens))
            (getToken))))
 
+(defn print-abort-stats []
+  (let [stats (.. *r (getLayoutView) (getRuntimeLayout) (getPrimarySequencerClient)
+                  (requestAbortStats) (get))]
+    (println "Aborts by cause:")
+    (doseq [[cause count] (.. stats (getCauses))] (println (format "  %s: %d" cause count)))
+    (println "Hot streams:")
+    (doseq [[stream count] (.. stats (getHotStreams))] (println (format "  %s: %d" stream count)))
+    (println "Hot keys:")
+    (doseq [[key count] (.. stats (getHotKeys))] (println (format "  %s: %d" key count)))))
+
 (get-runtime (.. localcmd (get "--config")) localcmd)
 (connect-runtime)
 ; determine what to do
 (cond (.. localcmd (get "latest")) (get-token stream 0)
   (.. localcmd (get "next-token")) (get-token stream (Integer/parseInt (.. localcmd (get "<num-tokens>"))))
+  (.. localcmd (get "abort-stats")) (print-abort-stats)
   :else (println "Unknown arguments.")
   )
 
@@ -20,6 +20,8 @@ import org.corfudb.infrastructure.BatchWriterOperation.Type;
 import org.corfudb.infrastructure.log.StreamLog;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogRecordsMsg;
+import org.corfudb.protocols.wireprotocol.LogRecordsRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.TailsRequest;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
@@ -157,6 +159,10 @@ public class BatchProcessor implements AutoCloseable {
                                 RangeWriteMsg writeRange = (RangeWriteMsg) currOp.getMsg().getPayload();
                                 streamLog.append(writeRange.getEntries());
                                 break;
+                            case RECORDS_WRITE:
+                                LogRecordsMsg writeRecords = (LogRecordsMsg) currOp.getMsg().getPayload();
+                                streamLog.appendRecords(writeRecords.getOrderedRecords());
+                                break;
                             case RESET:
                                 streamLog.reset();
                                 break;
@@ -181,8 +187,18 @@ public class BatchProcessor implements AutoCloseable {
                                 currOp.setResultValue(tails);
                                 break;
                             case LOG_ADDRESS_SPACE_QUERY:
-                                // Retrieve the address space for every stream in the log.
-                                currOp.setResultValue(streamLog.getStreamsAddressSpace());
+                                // Retrieve the address space for every stream in the log, or only
+                                // the addresses at or after the requested address if one is given.
+                                Object fromAddress = currOp.getMsg().getPayload();
+                                currOp.setResultValue(fromAddress == null
+                                        ? streamLog.getStreamsAddressSpace()
+                                        : streamLog.getStreamsAddressSpace((Long) fromAddress));
+                                break;
+                            case RECORDS_QUERY:
+                                LogRecordsRequest recordsRequest =
+                                        (LogRecordsRequest) currOp.getMsg().getPayload();
+                                currOp.setResultValue(streamLog.readRecords(
+                                        recordsRequest.getStart(), recordsRequest.getEnd()));
                                 break;
                             default:
                                 log.warn("Unknown BatchWriterOperation {}", currOp);
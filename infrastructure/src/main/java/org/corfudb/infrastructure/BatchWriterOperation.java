@@ -18,12 +18,14 @@ public class BatchWriterOperation<T> {
         SHUTDOWN,
         WRITE,
         RANGE_WRITE,
+        RECORDS_WRITE,
         TRIM,
         PREFIX_TRIM,
         SEAL,
         RESET,
         TAILS_QUERY,
-        LOG_ADDRESS_SPACE_QUERY
+        LOG_ADDRESS_SPACE_QUERY,
+        RECORDS_QUERY
     }
 
     private final Type type;
@@ -59,7 +59,10 @@ public class CorfuServer {
                     + "[-b] [-g -o <username_file> -j <password_file>] "
                     + "[-k <seqcache>] [-T <threads>] [-B <size>] [-i <channel-implementation>] "
                     + "[-H <seconds>] [-I <cluster-id>] [-x <ciphers>] [-z <tls-protocols>]] "
-                    + "[-P <prefix>] [-R <retention>] [--agent] <port>\n"
+                    + "[-P <prefix>] [-R <retention>] [--sequencer-hot-streams=<count>] "
+                    + "[--sequencer-partitions=<count>] [--sequencer-group-commit-window=<micros>] "
+                    + "[--state-transfer-window=<count>] [--failure-detector-quorum-ratio=<ratio>] "
+                    + "[--pooled-buffers] [--agent] <port>\n"
                     + "\n"
                     + "Options:\n"
                     + " -l <path>, --log-path=<path>                                             "
@@ -85,6 +88,8 @@ public class CorfuServer {
                     + " -i <channel-implementation>, --implementation <channel-implementation>   "
                     + "              The type of channel to use (auto, nio, epoll, kqueue)"
                     + "[default: nio].\n"
+                    + " --pooled-buffers                                                         "
+                    + "              Use pooled direct buffers on the message path.\n"
                     + " -m, --memory                                                             "
                     + "              Run the unit in-memory (non-persistent).\n"
                     + "                                                                          "
@@ -108,8 +113,30 @@ public class CorfuServer {
                     + "                                                                          "
                     + " -k <seqcache>, --sequencer-cache-size=<seqcache>                         "
                     + "               The size of the sequencer's cache. [default: 250000].\n    "
+                    + " --sequencer-hot-streams=<count>                                          "
+                    + "              Maximum number of stream address spaces the sequencer keeps\n"
+                    + "                                                                          "
+                    + "              in memory, the rest are spilled to the log path. 0 keeps all\n"
+                    + "                                                                          "
+                    + "              of them in memory [default: 0].\n                           "
+                    + " --sequencer-partitions=<count>                                           "
+                    + "              Experimental, number of partitions of the sequencer's per\n"
+                    + "                                                                          "
+                    + "              stream state, each running on its own thread [default: 1].\n"
+                    + " --sequencer-group-commit-window=<micros>                                 "
+                    + "              Commit the transactions arriving at the sequencer within this\n"
+                    + "                                                                          "
+                    + "              many microseconds together, 0 commits together the ones already\n"
+                    + "                                                                          "
+                    + "              queued. Requires a single sequencer partition.\n"
                     + " -B <size> --batch-size=<size>                                            "
                     + "              The read/write batch size used for data transfer operations [default: 100].\n"
+                    + " --state-transfer-window=<count>                                          "
+                    + "              Number of batches a state transfer keeps in flight [default: 4].\n"
+                    + " --failure-detector-quorum-ratio=<ratio>                                  "
+                    + "              Fraction of the polled nodes whose responses end a failure\n"
+                    + "                                                                          "
+                    + "              detector iteration early, 1 waits for every node [default: 0.5].\n"
                     + " -R <retention>, --metadata-retention=<retention>                         "
                     + "              Maximum number of system reconfigurations (i.e. layouts)    "
                     + "retained for debugging purposes [default: 1000].\n"
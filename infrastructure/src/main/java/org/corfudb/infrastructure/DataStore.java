@@ -1,31 +1,19 @@
 package org.corfudb.infrastructure;
 
-import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
-
 import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.CacheWriter;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.LoadingCache;
-import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.util.JsonUtils;
 
 import javax.annotation.Nonnull;
-import javax.annotation.Nullable;
-import java.io.IOException;
-import java.nio.ByteBuffer;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Stores data as JSON.
@@ -34,11 +22,14 @@ import java.util.function.Consumer;
  *
  * <p>In in-memory mode, the "cache" is actually the store, so we never evict anything from it.
  *
- * <p>In persistent mode, we use a {@link LoadingCache}, where an in-memory map is backed by disk.
- * In this scheme, the key for each value is also the name of the file where the value is stored.
- * The key is determined as (prefix + "_" + key).
- * The cache here serves mostly for easily managed synchronization of in-memory/file.
- * Some on-disk files will be deleted when their number exceed user specified limit.
+ * <p>In persistent mode, every put and delete is appended to a {@link DataStoreJournal} under
+ * the log path, and returns once the journal is synced. Concurrent updates share a sync.
+ * Updates are only visible, in the journal and in the cache, once they are durable.
+ * The key of each value is determined as (prefix + "_" + key).
+ * The cache holds the deserialized values of recently used keys, and is bounded by
+ * {@link DataStore::dsCacheSize}.
+ * After every update, the cleanup task is invoked with the prefix of the updated key, so that
+ * the number of keys under some prefixes doesn't exceed a user specified limit.
  *
  * <p>If 'opts' either has '--memory=true' or a log-path for storing files is not provided,
  * the store is just an in memory cache.
@@ -49,6 +40,9 @@ import java.util.function.Consumer;
 @Slf4j
 public class DataStore implements IDataStore {
 
+    /**
+     * Extension of the files of the file-per-key format, which are imported into the journal.
+     */
     static final String EXTENSION = ".ds";
 
     @Getter
@@ -60,25 +54,35 @@ public class DataStore implements IDataStore {
 
     private final boolean inMem;
 
+    private final DataStoreJournal journal;
+
     private Consumer<String> cleanupTask;
 
     /**
      * Return a new DataStore object.
      *
      * @param opts        map of option strings
-     * @param cleanupTask method to cleanup DataStore files
+     * @param cleanupTask method to cleanup the keys of a prefix
      */
     public DataStore(@Nonnull Map<String, Object> opts,
                      @Nonnull Consumer<String> cleanupTask) {
+        this(opts, cleanupTask, DataStoreJournal.DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    DataStore(@Nonnull Map<String, Object> opts,
+              @Nonnull Consumer<String> cleanupTask,
+              long compactionThreshold) {
 
         if ((opts.containsKey("--memory") && (Boolean) opts.get("--memory")) || !opts.containsKey("--log-path")) {
             this.logDirPath = null;
-            this.cleanupTask = fileName -> { };
+            this.cleanupTask = prefix -> { };
+            this.journal = null;
             cache = buildMemoryDs();
             inMem = true;
         } else {
             this.logDirPath = (String) opts.get("--log-path");
             this.cleanupTask = cleanupTask;
+            this.journal = new DataStoreJournal(Paths.get(logDirPath), compactionThreshold);
             cache = buildPersistentDs();
             inMem = false;
         }
@@ -104,8 +108,7 @@ public class DataStore implements IDataStore {
     }
 
     /**
-     * obtain a {@link LoadingCache}.
-     * The cache is backed up by file-per-key under {@link DataStore::logDirPath}.
+     * obtain a cache of the values deserialized from the journal.
      * The cache size is bounded by {@link DataStore::dsCacheSize}.
      *
      * @return the cache object
@@ -113,82 +116,15 @@ public class DataStore implements IDataStore {
     private Cache<String, Object> buildPersistentDs() {
         return Caffeine.newBuilder()
                 .recordStats()
-                .writer(new CacheWriter<String, Object>() {
-                    @Override
-                    public synchronized void write(@Nonnull String key, @Nonnull Object value) {
-
-                        if (value == NullValue.NULL_VALUE) {
-                            return;
-                        }
-
-                        try {
-                            String dsFileName = key + EXTENSION;
-                            Path path = Paths.get(logDirPath, dsFileName);
-                            Path tmpPath = Paths.get(logDirPath, dsFileName + ".tmp");
-
-                            String jsonPayload = JsonUtils.parser.toJson(value, value.getClass());
-                            byte[] bytes = jsonPayload.getBytes();
-
-                            ByteBuffer buffer = ByteBuffer.allocate(bytes.length
-                                    + Integer.BYTES);
-                            buffer.putInt(getChecksum(bytes));
-                            buffer.put(bytes);
-                            Files.write(tmpPath, buffer.array(), StandardOpenOption.CREATE,
-                                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SYNC);
-                            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING,
-                                    StandardCopyOption.ATOMIC_MOVE);
-                            syncDirectory(logDirPath);
-                            // Invoking the cleanup on each disk file write is fine for performance
-                            // since DataStore files are not supposed to change too frequently
-                            cleanupTask.accept(dsFileName);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-
-                    @Override
-                    public synchronized void delete(@Nonnull String key,
-                                                    @Nullable Object value,
-                                                    @Nonnull RemovalCause cause) {
-                        try {
-                            Path path = Paths.get(logDirPath, key);
-                            Files.deleteIfExists(path);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                })
                 .maximumSize(dsCacheSize)
                 .build();
     }
 
     @Override
-    public synchronized <T> void put(Class<T> tclass, String prefix, String key, T value) {
+    public <T> void put(Class<T> tclass, String prefix, String key, T value) {
         put(new KvRecord<>(prefix, key, tclass), value);
     }
 
-    private <T> T load(Class<T> tClass, String key) {
-        try {
-            Path path = Paths.get(logDirPath, key + EXTENSION);
-            if (Files.notExists(path)) {
-                return null;
-            }
-            byte[] bytes = Files.readAllBytes(path);
-            ByteBuffer buf = ByteBuffer.wrap(bytes);
-            int checksum = buf.getInt();
-            byte[] strBytes = Arrays.copyOfRange(bytes, 4, bytes.length);
-            if (checksum != getChecksum(strBytes)) {
-                throw new DataCorruptionException();
-            }
-
-            String json = new String(strBytes);
-            T val = JsonUtils.parser.fromJson(json, tClass);
-            return val;
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     /**
      * Since the cache can't maintain key->null mappings, this enum
      * is a place holder for null to allow keys to map to null.
@@ -203,13 +139,41 @@ public class DataStore implements IDataStore {
     }
 
     @Override
-    public synchronized <T> void delete(Class<T> tclass, String prefix, String key) {
+    public <T> void delete(Class<T> tclass, String prefix, String key) {
         delete(new KvRecord<>(prefix, key, tclass));
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>In persistent mode, the value is durable when this method returns.
+     */
     @Override
-    public synchronized <T> void put(KvRecord<T> key, T value) {
-        cache.put(key.getFullKeyName(), value);
+    public <T> void put(KvRecord<T> key, T value) {
+        String path = key.getFullKeyName();
+        if (inMem) {
+            synchronized (this) {
+                cache.put(path, value);
+            }
+            return;
+        }
+
+        String json = JsonUtils.parser.toJson(value, value.getClass());
+        long sequence;
+        synchronized (this) {
+            sequence = journal.append(path, json);
+        }
+        // Sync outside of the lock, so that concurrent updates are synced together.
+        journal.sync(sequence);
+        synchronized (this) {
+            // A concurrent update of the key may have been synced after this one.
+            if (json.equals(journal.get(path))) {
+                cache.put(path, value);
+            } else {
+                cache.invalidate(path);
+            }
+        }
+        cleanupTask.accept(key.getPrefix());
     }
 
     @Override
@@ -217,14 +181,14 @@ public class DataStore implements IDataStore {
         String path = key.getFullKeyName();
         Object val = cache.get(path, k -> {
             if (!inMem) {
-                T loadedVal = load(key.getDataType(), path);
-                if (loadedVal != null) {
-                    return loadedVal;
+                String json = journal.get(path);
+                if (json != null) {
+                    return JsonUtils.parser.fromJson(json, key.getDataType());
                 }
             }
 
             // We need to maintain a path -> null mapping for keys that were loaded, but
-            // were empty. This is required to prevent loading an empty key more than once, which is expensive.
+            // were empty. This is required to prevent loading an empty key more than once.
             return NullValue.NULL_VALUE;
         });
 
@@ -237,8 +201,44 @@ public class DataStore implements IDataStore {
         return value == null ? defaultValue : value;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>In persistent mode, the deletion is durable when this method returns.
+     */
     @Override
-    public synchronized <T> void delete(KvRecord<T> key) {
-        cache.invalidate(key.getFullKeyName());
+    public <T> void delete(KvRecord<T> key) {
+        String path = key.getFullKeyName();
+        if (inMem) {
+            synchronized (this) {
+                cache.invalidate(path);
+            }
+            return;
+        }
+
+        long sequence;
+        synchronized (this) {
+            sequence = journal.append(path, null);
+        }
+        journal.sync(sequence);
+        synchronized (this) {
+            cache.invalidate(path);
+        }
+    }
+
+    /**
+     * Get the keys which have a value under a prefix.
+     *
+     * @param prefix namespace of the keys
+     * @return the keys, without the prefix
+     */
+    public synchronized Set<String> getKeys(String prefix) {
+        String keyPrefix = prefix + "_";
+        Set<String> paths = inMem ? cache.asMap().keySet() : journal.keys();
+        return paths.stream()
+                .filter(path -> path.startsWith(keyPrefix))
+                .filter(path -> !inMem || cache.getIfPresent(path) != NullValue.NULL_VALUE)
+                .map(path -> path.substring(keyPrefix.length()))
+                .collect(Collectors.toSet());
     }
 }
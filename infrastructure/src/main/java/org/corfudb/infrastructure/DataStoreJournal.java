@@ -0,0 +1,417 @@
+package org.corfudb.infrastructure;
+
+import static org.corfudb.infrastructure.utils.Persistence.syncDirectory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.exceptions.DataCorruptionException;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only journal persisting the {@link DataStore} entries of a server.
+ *
+ * <p>Every put or delete of a key is appended to a single journal file as a record:
+ * checksum (4 bytes) | payload length (4 bytes) | payload. The payload is the operation (1 byte),
+ * the key and, for puts, the JSON encoded value, both as length prefixed UTF-8 strings.
+ * The live entries are kept in memory and rebuilt by replaying the journal when it is opened.
+ *
+ * <p>Records are appended by {@link #append(String, String)} and made durable by
+ * {@link #sync(long)}. Writers calling sync concurrently are group committed: one of them
+ * writes and fsyncs every pending record on behalf of all of them. The in-memory entries only
+ * reflect durable records, a batch is applied to them once it is written and synced.
+ *
+ * <p>Once the journal grows over the compaction threshold and more than twice the size of its
+ * live entries, it is rewritten with only the live entries and atomically replaces the old one.
+ * The entries are copied under the lock and written out without holding it.
+ *
+ * <p>On open, a record torn by a crash at the end of the journal is discarded, while a corrupted
+ * record followed by other records fails with a {@link DataCorruptionException}. The entries of
+ * the file-per-key format ({@link DataStore#EXTENSION} files) are imported once into the journal.
+ */
+@Slf4j
+class DataStoreJournal {
+
+    static final String JOURNAL_FILE = "datastore.journal";
+
+    static final long DEFAULT_COMPACTION_THRESHOLD = 4 * 1024 * 1024;
+
+    private static final byte OP_PUT = 0;
+    private static final byte OP_DELETE = 1;
+
+    private static final int RECORD_HEADER_SIZE = Integer.BYTES * 2;
+
+    private final Path dir;
+
+    private final Path journalPath;
+
+    private final long compactionThreshold;
+
+    /**
+     * JSON encoded value of every live key, as of the last durable record.
+     */
+    private final Map<String, String> entries = new HashMap<>();
+
+    /**
+     * Size of the records of the live keys, i.e. size of the journal once compacted.
+     */
+    private long liveBytes;
+
+    @Getter
+    private long journalSize;
+
+    private List<PendingRecord> pending = new ArrayList<>();
+
+    /**
+     * Sequence number of the last appended record.
+     */
+    private long appended;
+
+    /**
+     * Sequence number of the last durable record.
+     */
+    private volatile long durable;
+
+    private final Object flushLock = new Object();
+
+    DataStoreJournal(@NonNull Path dir, long compactionThreshold) {
+        this.dir = dir;
+        this.journalPath = dir.resolve(JOURNAL_FILE);
+        this.compactionThreshold = compactionThreshold;
+
+        try {
+            replay();
+            importLegacyFiles();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Get the JSON encoded value of a key.
+     *
+     * @param key full key name
+     * @return the value, or null if the key has no value
+     */
+    synchronized String get(@NonNull String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Get the live keys.
+     *
+     * @return a copy of the keys which have a value
+     */
+    synchronized Set<String> keys() {
+        return Collections.unmodifiableSet(new HashSet<>(entries.keySet()));
+    }
+
+    /**
+     * Append a put or a delete of a key. The change is durable, and visible to
+     * {@link #get(String)}, once {@link #sync(long)} returns for the returned sequence number.
+     *
+     * @param key  full key name
+     * @param json JSON encoded value, or null to delete the key
+     * @return the sequence number of the record
+     */
+    synchronized long append(@NonNull String key, @Nullable String json) {
+        pending.add(new PendingRecord(key, json, encode(key, json)));
+        return ++appended;
+    }
+
+    /**
+     * Wait until a record is durable, writing and syncing all the pending records if no other
+     * writer is doing it already.
+     *
+     * @param sequence sequence number returned by {@link #append(String, String)}
+     */
+    void sync(long sequence) {
+        if (durable >= sequence) {
+            return;
+        }
+
+        synchronized (flushLock) {
+            if (durable >= sequence) {
+                // Written along with the batch of another writer.
+                return;
+            }
+
+            List<PendingRecord> batch;
+            long batchSequence;
+            synchronized (this) {
+                batch = pending;
+                batchSequence = appended;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                journalSize += write(batch.stream()
+                        .map(record -> record.buffer)
+                        .collect(Collectors.toList()));
+            } catch (IOException e) {
+                // Nothing was applied, the batch is written again by the next sync.
+                synchronized (this) {
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                throw new RuntimeException(e);
+            }
+
+            synchronized (this) {
+                batch.forEach(record -> apply(record.key, record.json));
+            }
+            durable = batchSequence;
+            maybeCompact();
+        }
+    }
+
+    /**
+     * Append records at the end of the journal and fsync it.
+     *
+     * @return the number of bytes written
+     */
+    private long write(List<ByteBuffer> records) throws IOException {
+        boolean created = Files.notExists(journalPath);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            long position = channel.size();
+            try {
+                channel.position(position);
+                for (ByteBuffer record : records) {
+                    ByteBuffer buf = record.duplicate();
+                    while (buf.hasRemaining()) {
+                        written += channel.write(buf);
+                    }
+                }
+                channel.force(true);
+            } catch (IOException e) {
+                // Don't leave a partial batch ahead of the records appended next.
+                channel.truncate(position);
+                throw e;
+            }
+        }
+
+        if (created) {
+            syncDirectory(dir.toString());
+        }
+        return written;
+    }
+
+    /**
+     * Rewrite the journal with the live entries only, if it grew too large. Runs under the flush
+     * lock, so no record is written to the journal meanwhile and the live entries reflect exactly
+     * its content. Only the copy of the entries is taken under the lock of the journal, records
+     * are still appended while the compacted journal is written.
+     */
+    private void maybeCompact() {
+        Map<String, String> snapshot;
+        long snapshotBytes;
+        synchronized (this) {
+            if (journalSize <= compactionThreshold || journalSize <= liveBytes * 2) {
+                return;
+            }
+            snapshot = new HashMap<>(entries);
+            snapshotBytes = liveBytes;
+        }
+
+        Path tmpPath = dir.resolve(JOURNAL_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmpPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Map.Entry<String, String> entry : snapshot.entrySet()) {
+                ByteBuffer buf = encode(entry.getKey(), entry.getValue());
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            log.error("maybeCompact: Failed to compact {}, keeping the journal", journalPath, e);
+            return;
+        }
+
+        try {
+            Files.move(tmpPath, journalPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(dir.toString());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        log.debug("maybeCompact: Compacted {} from {} to {} bytes", journalPath, journalSize,
+                snapshotBytes);
+        journalSize = snapshotBytes;
+    }
+
+    /**
+     * Rebuild the live entries from the journal, truncating a record torn at its end.
+     */
+    private void replay() throws IOException {
+        Files.deleteIfExists(dir.resolve(JOURNAL_FILE + ".tmp"));
+        if (Files.notExists(journalPath)) {
+            return;
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(journalPath));
+        int records = 0;
+        while (buf.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buf.position();
+            int checksum = buf.getInt();
+            int length = buf.getInt();
+            if (length < 0 || length > buf.remaining()) {
+                buf.position(start);
+                break;
+            }
+
+            byte[] payload = new byte[length];
+            buf.get(payload);
+            if (checksum != DataStore.getChecksum(payload)) {
+                if (buf.hasRemaining()) {
+                    log.error("replay: Corrupted record at {} in {}", start, journalPath);
+                    throw new DataCorruptionException();
+                }
+                buf.position(start);
+                break;
+            }
+
+            ByteBuffer payloadBuf = ByteBuffer.wrap(payload);
+            byte op = payloadBuf.get();
+            String key = readString(payloadBuf);
+            apply(key, op == OP_PUT ? readString(payloadBuf) : null);
+            records++;
+        }
+
+        journalSize = buf.position();
+        if (buf.position() < buf.limit()) {
+            log.warn("replay: Discarding {} bytes torn at the end of {}",
+                    buf.limit() - buf.position(), journalPath);
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(buf.position());
+                channel.force(true);
+            }
+        }
+
+        log.info("replay: Replayed {} records, {} live keys", records, entries.size());
+    }
+
+    /**
+     * Import the entries stored in the file-per-key format, then delete their files.
+     */
+    private void importLegacyFiles() throws IOException {
+        File[] legacyFiles = dir.toFile().listFiles((d, name) -> name.endsWith(DataStore.EXTENSION)
+                || name.endsWith(DataStore.EXTENSION + ".tmp"));
+        if (legacyFiles == null || legacyFiles.length == 0) {
+            return;
+        }
+
+        Map<String, String> imported = new HashMap<>();
+        List<ByteBuffer> records = new ArrayList<>();
+        for (File file : legacyFiles) {
+            String name = file.getName();
+            if (!name.endsWith(DataStore.EXTENSION)) {
+                continue;
+            }
+
+            byte[] bytes = Files.readAllBytes(file.toPath());
+            ByteBuffer buf = ByteBuffer.wrap(bytes);
+            int checksum = buf.getInt();
+            byte[] strBytes = Arrays.copyOfRange(bytes, Integer.BYTES, bytes.length);
+            if (checksum != DataStore.getChecksum(strBytes)) {
+                log.error("importLegacyFiles: Corrupted file {}", file);
+                throw new DataCorruptionException();
+            }
+
+            String key = name.substring(0, name.length() - DataStore.EXTENSION.length());
+            if (!entries.containsKey(key)) {
+                String json = new String(strBytes);
+                records.add(encode(key, json));
+                imported.put(key, json);
+            }
+        }
+
+        journalSize += write(records);
+        imported.forEach(this::apply);
+        for (File file : legacyFiles) {
+            Files.deleteIfExists(file.toPath());
+        }
+        syncDirectory(dir.toString());
+        log.info("importLegacyFiles: Imported {} keys from {} files", records.size(),
+                legacyFiles.length);
+    }
+
+    private void apply(String key, @Nullable String json) {
+        String previous = json == null ? entries.remove(key) : entries.put(key, json);
+        if (previous != null) {
+            liveBytes -= recordSize(key, previous);
+        }
+        if (json != null) {
+            liveBytes += recordSize(key, json);
+        }
+    }
+
+    /**
+     * A record appended to the journal, applied to the live entries once it is durable.
+     */
+    @AllArgsConstructor
+    private static class PendingRecord {
+        final String key;
+        @Nullable
+        final String json;
+        final ByteBuffer buffer;
+    }
+
+    private static long recordSize(String key, String json) {
+        return RECORD_HEADER_SIZE + 1 + Integer.BYTES * 2
+                + key.getBytes(StandardCharsets.UTF_8).length
+                + json.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static ByteBuffer encode(String key, @Nullable String json) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = json == null ? null : json.getBytes(StandardCharsets.UTF_8);
+
+        int length = 1 + Integer.BYTES + keyBytes.length
+                + (jsonBytes == null ? 0 : Integer.BYTES + jsonBytes.length);
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put(jsonBytes == null ? OP_DELETE : OP_PUT);
+        payload.putInt(keyBytes.length);
+        payload.put(keyBytes);
+        if (jsonBytes != null) {
+            payload.putInt(jsonBytes.length);
+            payload.put(jsonBytes);
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+        record.putInt(DataStore.getChecksum(payload.array()));
+        record.putInt(length);
+        record.put(payload.array());
+        record.flip();
+        return record;
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getInt()];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
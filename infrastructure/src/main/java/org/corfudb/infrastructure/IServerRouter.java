@@ -11,6 +11,27 @@ import java.util.List;
 public interface IServerRouter {
     void sendResponse(ChannelHandlerContext ctx, CorfuMsg inMsg, CorfuMsg outMsg);
 
+    /**
+     * Send a response without flushing the channel, so that several responses can be
+     * written out together by a single {@link #flush(ChannelHandlerContext)}.
+     *
+     * @param ctx    The context of the channel handler.
+     * @param inMsg  The incoming message.
+     * @param outMsg The response to the incoming message.
+     */
+    default void sendResponseNoFlush(ChannelHandlerContext ctx, CorfuMsg inMsg, CorfuMsg outMsg) {
+        sendResponse(ctx, inMsg, outMsg);
+    }
+
+    /**
+     * Flush the responses sent with {@link #sendResponseNoFlush(ChannelHandlerContext, CorfuMsg, CorfuMsg)}.
+     *
+     * @param ctx The context of the channel handler.
+     */
+    default void flush(ChannelHandlerContext ctx) {
+        // Responses are flushed as they are sent.
+    }
+
     /**
      * Get the current epoch.
      */
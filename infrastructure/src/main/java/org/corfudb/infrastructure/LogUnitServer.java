@@ -15,9 +15,12 @@ import org.corfudb.infrastructure.log.StreamLogFiles;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.ExceptionMsg;
 import org.corfudb.protocols.wireprotocol.FillHoleRequest;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogRecordsMsg;
+import org.corfudb.protocols.wireprotocol.LogRecordsRequest;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
@@ -171,6 +174,23 @@ public class LogUnitServer extends AbstractServer {
                 });
     }
 
+    /**
+     * Service an incoming request for the part of the log address space at or after a given
+     * address. This is used on sequencer bootstrap to complete a sequencer snapshot.
+     */
+    @ServerHandler(type = CorfuMsgType.LOG_ADDRESS_SPACE_DELTA_REQUEST)
+    public void handleLogAddressSpaceDeltaRequest(CorfuPayloadMsg<Long> msg, ChannelHandlerContext ctx,
+                                                  IServerRouter r) {
+        log.debug("handleLogAddressSpaceDeltaRequest: received a log address space request {}", msg);
+        batchWriter.<StreamsAddressResponse>addTask(LOG_ADDRESS_SPACE_QUERY, msg)
+                .thenAccept(tailsResp -> r.sendResponse(ctx, msg,
+                        CorfuMsgType.LOG_ADDRESS_SPACE_RESPONSE.payloadMsg(tailsResp)))
+                .exceptionally(ex -> {
+                    handleException(ex, ctx, msg, r);
+                    return null;
+                });
+    }
+
     /**
      * Service an incoming request to retrieve the starting address of this logging unit.
      */
@@ -199,6 +219,8 @@ public class LogUnitServer extends AbstractServer {
             r.sendResponse(ctx, msg, CorfuMsgType.ERROR_VALUE_ADOPTED.payloadMsg(vae.getReadResponse()));
         } else if (ex.getCause() instanceof TrimmedException) {
             r.sendResponse(ctx, msg, CorfuMsgType.ERROR_TRIMMED.msg());
+        } else if (ex.getCause() instanceof DataCorruptionException) {
+            r.sendResponse(ctx, msg, CorfuMsgType.ERROR_DATA_CORRUPTION.msg());
         } else {
             throw new LogUnitException(ex);
         }
@@ -241,6 +263,23 @@ public class LogUnitServer extends AbstractServer {
                 });
     }
 
+    /**
+     * Services incoming writes of records in their stored format, which are appended to the
+     * stream log as they are.
+     */
+    @ServerHandler(type = CorfuMsgType.LOG_RECORDS_WRITE)
+    public void recordsWrite(CorfuPayloadMsg<LogRecordsMsg> msg,
+                             ChannelHandlerContext ctx, IServerRouter r) {
+        log.debug("recordsWrite: Writing {} records", msg.getPayload().getRecords().size());
+
+        batchWriter.addTask(RECORDS_WRITE, msg)
+                .thenRun(() -> r.sendResponse(ctx, msg, CorfuMsgType.WRITE_OK.msg()))
+                .exceptionally(ex -> {
+                    handleException(ex, ctx, msg, r);
+                    return null;
+                });
+    }
+
     @ServerHandler(type = CorfuMsgType.FILL_HOLE)
     private void fillHole(CorfuPayloadMsg<FillHoleRequest> msg, ChannelHandlerContext ctx,
                           IServerRouter r) {
@@ -321,6 +360,36 @@ public class LogUnitServer extends AbstractServer {
         }
     }
 
+    /**
+     * Services a request for the records stored at a range of addresses. The records are
+     * read from the stream log in their stored format, bypassing the data cache. The read is
+     * queued on the batch processor like the other log-wide queries, so it is ordered after
+     * the writes queued before it and rejected if its epoch is sealed.
+     */
+    @ServerHandler(type = CorfuMsgType.LOG_RECORDS_REQUEST)
+    private void readRecords(CorfuPayloadMsg<LogRecordsRequest> msg, ChannelHandlerContext ctx,
+                             IServerRouter r) {
+        LogRecordsRequest request = msg.getPayload();
+        log.trace("readRecords: {}-{}", request.getStart(), request.getEnd());
+
+        batchWriter.<Map<Long, byte[]>>addTask(RECORDS_QUERY, msg)
+                .thenAccept(records -> r.sendResponse(ctx, msg, CorfuMsgType.LOG_RECORDS_RESPONSE
+                        .payloadMsg(new LogRecordsMsg(records))))
+                .exceptionally(ex -> {
+                    try {
+                        handleException(ex, ctx, msg, r);
+                    } catch (LogUnitException e) {
+                        // Not a log unit error, reply anyway so that the client doesn't time out.
+                        log.error("readRecords: Failed to read {}-{}", request.getStart(),
+                                request.getEnd(), ex);
+                        Throwable cause = ex.getCause() == null ? ex : ex.getCause();
+                        r.sendResponse(ctx, msg, CorfuMsgType.ERROR_SERVER_EXCEPTION
+                                .payloadMsg(new ExceptionMsg(cause)));
+                    }
+                    return null;
+                });
+    }
+
     @ServerHandler(type = CorfuMsgType.COMPACT_REQUEST)
     private void handleCompactRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r) {
         log.debug("handleCompactRequest: received a compact request {}", msg);
@@ -66,6 +66,16 @@ public class ManagementAgent {
     @Getter(AccessLevel.PROTECTED)
     private final LocalMonitoringService localMonitoringService;
 
+    /**
+     * Interval in snapshotting the primary sequencer's address space.
+     */
+    private static final Duration SEQUENCER_SNAPSHOT_INTERVAL = Duration.ofSeconds(30);
+
+    /**
+     * Service to periodically snapshot the primary sequencer for fast sequencer failover.
+     */
+    private final SequencerSnapshotService sequencerSnapshotService;
+
     /**
      * Interval in executing the failure detection policy.
      * In milliseconds.
@@ -93,6 +103,7 @@ public class ManagementAgent {
         this.runtimeSingletonResource = runtimeSingletonResource;
         this.serverContext = serverContext;
         this.localMonitoringService = new LocalMonitoringService(serverContext, runtimeSingletonResource);
+        this.sequencerSnapshotService = new SequencerSnapshotService(serverContext, runtimeSingletonResource);
 
         Layout managementLayout = serverContext.copyManagementLayout();
         // If no state was preserved, there is no layout to recover.
@@ -188,6 +199,7 @@ public class ManagementAgent {
         if (!shutdown) {
             localMonitoringService.start(METRICS_POLL_INTERVAL);
             remoteMonitoringService.start(POLICY_EXECUTE_INTERVAL);
+            sequencerSnapshotService.start(SEQUENCER_SNAPSHOT_INTERVAL);
         }
     }
 
@@ -217,6 +229,7 @@ public class ManagementAgent {
 
         remoteMonitoringService.shutdown();
         localMonitoringService.shutdown();
+        sequencerSnapshotService.shutdown();
 
         log.info("Management Agent shutting down.");
     }
@@ -131,6 +131,7 @@ public class ManagementServer extends AbstractServer {
         HeartbeatCounter counter = new HeartbeatCounter();
 
         FailureDetector failureDetector = new FailureDetector(counter, serverContext.getLocalEndpoint());
+        failureDetector.setPollQuorumRatio(serverContext.getFailureDetectorQuorumRatio());
 
         // Creating a management agent.
         ClusterState defaultView = ClusterState.builder()
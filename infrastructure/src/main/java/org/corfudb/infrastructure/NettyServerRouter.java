@@ -90,6 +90,24 @@ public class NettyServerRouter extends ChannelInboundHandlerAdapter implements I
         log.trace("Sent response: {}", outMsg);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendResponseNoFlush(ChannelHandlerContext ctx, CorfuMsg inMsg, CorfuMsg outMsg) {
+        outMsg.copyBaseFields(inMsg);
+        ctx.write(outMsg, ctx.voidPromise());
+        log.trace("Sent response: {}", outMsg);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        ctx.flush();
+    }
+
     /**
      * Validate the epoch of a CorfuMsg, and send a WRONG_EPOCH response if
      * the server is in the wrong epoch. Ignored if the message type is reset (which
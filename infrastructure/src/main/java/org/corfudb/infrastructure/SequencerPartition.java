@@ -0,0 +1,67 @@
+package org.corfudb.infrastructure;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The per stream state of the sequencer for a subset of the streams: stream tails (used for
+ * backpointers), stream address spaces and the conflict-parameters cache.
+ *
+ * <p>A partition is only ever accessed from its own single threaded executor, or from the
+ * sequencer's coordinator while the partition's executor is parked.
+ */
+@Getter
+class SequencerPartition {
+
+    /**
+     * Index of this partition, streams are assigned to partitions by hash.
+     */
+    private final int index;
+
+    /**
+     * Executor owning this partition's state.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Per stream map to last issued global-log position, used for backpointers.
+     */
+    @Setter
+    @NonNull
+    private Map<UUID, Long> streamTails = new HashMap<>();
+
+    /**
+     * Per stream address spaces.
+     */
+    private final TieredStreamAddressMap addressSpaces;
+
+    /**
+     * Conflict-parameters of transactions on this partition's streams.
+     */
+    private final SequencerServerCache cache;
+
+    SequencerPartition(int index, @NonNull ExecutorService executor,
+                       @NonNull TieredStreamAddressMap addressSpaces, @NonNull SequencerServerCache cache) {
+        this.index = index;
+        this.executor = executor;
+        this.addressSpaces = addressSpaces;
+        this.cache = cache;
+    }
+
+    /**
+     * Get the partition that owns a stream.
+     *
+     * @param streamId      stream id.
+     * @param numPartitions number of partitions.
+     * @return index of the partition owning the stream.
+     */
+    static int partitionOf(UUID streamId, int numPartitions) {
+        return Math.floorMod(streamId.hashCode(), numPartitions);
+    }
+}
@@ -1,12 +1,16 @@
 package org.corfudb.infrastructure;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Timer;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.Uninterruptibles;
 import io.netty.channel.ChannelHandlerContext;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.Getter;
 import lombok.Setter;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
@@ -30,18 +34,31 @@ import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.MetricsUtils;
+import org.corfudb.util.TxAbortAnalytics;
 import org.corfudb.util.Utils;
 
 import java.lang.invoke.MethodHandles;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * This server implements the sequencer functionality of Corfu.
@@ -79,6 +96,18 @@ import java.util.concurrent.Executors;
  * commits, the sequencer updates the tails of all the streams and the cache
  * of conflict parameters.
  *
+ * <p>Experimentally, the per stream state can be split into several partitions
+ * ({@link Config#partitions}), each owning a subset of the streams and running on its own
+ * thread. Global addresses are still handed out by a single atomic counter. Requests on the
+ * streams of a single partition run on that partition's thread; requests spanning partitions
+ * run on a coordinator thread while every partition involved is parked.
+ *
+ * <p>With group commit ({@link Config#groupCommitWindow}), transaction token requests
+ * arriving within a short window are resolved together, in arrival order, and their responses
+ * are flushed at once. A transaction of the batch is resolved against the transactions of
+ * the batch committed before it, exactly as if the requests were served one at a time, and
+ * the committed transactions get a contiguous block of addresses.
+ *
  * <p>Created by mwei on 12/8/15.
  */
 @Slf4j
@@ -93,22 +122,22 @@ public class SequencerServer extends AbstractServer {
      * - {@link SequencerServer::globalLogTail}:
      * global log first available position (initially, 0).
      */
-    @Getter
-    private long globalLogTail = Address.getMinAddress();
-
-    private long trimMark = Address.NON_ADDRESS;
+    private final AtomicLong globalLogTail = new AtomicLong(Address.getMinAddress());
 
     /**
-     * - {@link SequencerServer::streamTailToGlobalTailMap}:
-     * per streams map to last issued global-log position. used for backpointers.
+     * Highest trim mark received. Only modified while all the partitions are parked, but read
+     * by the partition threads, hence volatile.
      */
-    private Map<UUID, Long> streamTailToGlobalTailMap = new HashMap<>();
+    private volatile long trimMark = Address.NON_ADDRESS;
 
     /**
-     * Per streams map and their corresponding address space (an address space is defined by the stream's addresses
-     *  and its latest trim mark)
+     * Per stream state, split by stream id. Each partition holds the streams' tails (used for
+     * backpointers), their address spaces (an address space is defined by the stream's addresses
+     * and its latest trim mark, least recently used address spaces are spilled to disk when
+     * more than {@link Config#maxHotStreams} streams are tracked) and the conflict-parameters
+     * cache of the streams.
      */
-    private Map<UUID, StreamAddressSpace> streamsAddressMap = new HashMap<>();
+    private final SequencerPartition[] partitions;
 
     /**
      * A map to cache the name of timers to avoid creating timer names on each call.
@@ -121,9 +150,6 @@ public class SequencerServer extends AbstractServer {
     @Getter
     private final CorfuMsgHandler handler = CorfuMsgHandler.generateHandler(MethodHandles.lookup(), this);
 
-    @Getter
-    private final SequencerServerCache cache;
-
     @Getter
     @Setter
     private volatile long sequencerEpoch = Layout.INVALID_EPOCH;
@@ -133,11 +159,47 @@ public class SequencerServer extends AbstractServer {
      * observes as the primary sequencer. i.e. this sequencer has been the
      * primary sequencer for all the consecutive epochs from this epoch to
      * {@link this#sequencerEpoch}
+     * Only modified while all the partitions are parked, but read by the partition threads,
+     * hence volatile.
      */
     @Getter
-    private long epochRangeLowerBound = Layout.INVALID_EPOCH;
+    private volatile long epochRangeLowerBound = Layout.INVALID_EPOCH;
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Microseconds during which transaction token requests are accumulated before being
+     * committed together, negative if group commit is disabled.
+     */
+    private final long groupCommitWindow;
+
+    /**
+     * Transaction token requests waiting for the next group commit, only accessed by the
+     * sequencer's thread: group commit is disabled when the sequencer is partitioned.
+     */
+    private List<PendingTxToken> pendingTxTokens = new ArrayList<>();
 
-    private final ExecutorService executor;
+    private final Timer groupCommitTimer = ServerContext.getMetrics()
+            .timer(CorfuComponent.INFRA_SEQUENCER + "tx-group-commit");
+
+    private final Histogram groupCommitSizes = ServerContext.getMetrics()
+            .histogram(CorfuComponent.INFRA_SEQUENCER + "tx-group-commit.size");
+
+    /**
+     * Aborts of the transactions resolved by this sequencer, by cause, stream and conflict key.
+     */
+    private final TxAbortAnalytics abortAnalytics = new TxAbortAnalytics(ServerContext.getMetrics(),
+            CorfuComponent.INFRA_SEQUENCER + "tx-aborts.", TxAbortAnalytics.DEFAULT_TOP_K);
+
+    /**
+     * Runs requests spanning several partitions, null unless partitioning is enabled.
+     */
+    private final ExecutorService coordinator;
+
+    /**
+     * Reads and serializes the snapshots of the address spaces of all streams.
+     */
+    private final ExecutorService snapshotExecutor;
 
     /**
      * Returns a new SequencerServer.
@@ -149,17 +211,144 @@ public class SequencerServer extends AbstractServer {
         Config config = Config.parse(serverContext.getServerConfig());
 
         // Sequencer server is single threaded by current design
-        this.executor = Executors.newSingleThreadExecutor(
+        this.executor = Executors.newSingleThreadScheduledExecutor(
                 new ServerThreadFactory("sequencer-", new ServerThreadFactory.ExceptionHandler()));
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(
+                new ServerThreadFactory("sequencer-snapshot-", new ServerThreadFactory.ExceptionHandler()));
 
 
-        globalLogTail = config.getInitialToken();
+        globalLogTail.set(config.getInitialToken());
 
-        this.cache = new SequencerServerCache(config.getCacheSize());
+        Path spillDir = null;
+        String logPath = serverContext.getServerConfig(String.class, "--log-path");
+        if (!Boolean.TRUE.equals(serverContext.getServerConfig(Boolean.class, "--memory")) && logPath != null) {
+            spillDir = Paths.get(logPath, "sequencer");
+        }
+
+        final int numPartitions = config.getPartitions();
+        if (config.getGroupCommitWindow() >= 0 && numPartitions > 1) {
+            log.warn("SequencerServer: Group commit is not supported with {} partitions, disabling it",
+                    numPartitions);
+            this.groupCommitWindow = -1;
+        } else {
+            this.groupCommitWindow = config.getGroupCommitWindow();
+        }
+        this.partitions = new SequencerPartition[numPartitions];
+        if (numPartitions == 1) {
+            this.coordinator = null;
+            this.partitions[0] = new SequencerPartition(0, executor,
+                    new TieredStreamAddressMap(config.getMaxHotStreams(), spillDir, ServerContext.getMetrics()),
+                    new SequencerServerCache(config.getCacheSize()));
+        } else {
+            log.info("SequencerServer: Running with {} partitions", numPartitions);
+            this.coordinator = Executors.newSingleThreadExecutor(
+                    new ServerThreadFactory("sequencer-coordinator-", new ServerThreadFactory.ExceptionHandler()));
+            final long maxHotStreamsPerPartition = config.getMaxHotStreams() == TieredStreamAddressMap.UNBOUNDED
+                    ? TieredStreamAddressMap.UNBOUNDED : Math.max(1L, config.getMaxHotStreams() / numPartitions);
+            for (int i = 0; i < numPartitions; i++) {
+                String partitionName = "partition-" + i;
+                this.partitions[i] = new SequencerPartition(i,
+                        Executors.newSingleThreadExecutor(new ServerThreadFactory("sequencer-" + partitionName + "-",
+                                new ServerThreadFactory.ExceptionHandler())),
+                        new TieredStreamAddressMap(maxHotStreamsPerPartition,
+                                spillDir == null ? null : spillDir.resolve(partitionName),
+                                ServerContext.getMetrics(),
+                                CorfuComponent.INFRA_SEQUENCER + partitionName + ".address-space."),
+                        new SequencerServerCache(Math.max(1L, config.getCacheSize() / numPartitions)));
+            }
+        }
 
         setUpTimerNameCache();
     }
 
+    /**
+     * Global log first available position.
+     */
+    public long getGlobalLogTail() {
+        return globalLogTail.get();
+    }
+
+    /**
+     * Conflict-parameters cache of the first partition, which is the only partition unless
+     * partitioning is enabled.
+     */
+    public SequencerServerCache getCache() {
+        return partitions[0].getCache();
+    }
+
+    /**
+     * Get the partition owning a stream.
+     */
+    private SequencerPartition partition(UUID streamId) {
+        return partitions[SequencerPartition.partitionOf(streamId, partitions.length)];
+    }
+
+    /**
+     * Run a task that accesses the state of the given streams. With a single partition the
+     * task runs inline, on the sequencer's thread. A task on the streams of one partition runs
+     * on that partition's thread, and a task spanning partitions runs on the coordinator.
+     *
+     * @param streams streams accessed by the task.
+     * @param task    the task.
+     */
+    private void runOnPartitions(Collection<UUID> streams, Runnable task) {
+        if (partitions.length == 1) {
+            task.run();
+            return;
+        }
+
+        BitSet involved = new BitSet(partitions.length);
+        streams.forEach(streamId -> involved.set(SequencerPartition.partitionOf(streamId, partitions.length)));
+        if (involved.isEmpty()) {
+            task.run();
+        } else if (involved.cardinality() == 1) {
+            partitions[involved.nextSetBit(0)].getExecutor().execute(task);
+        } else {
+            runCoordinated(involved, task);
+        }
+    }
+
+    /**
+     * Run a task that accesses the state of all streams.
+     *
+     * @param task the task.
+     */
+    private void runOnAllPartitions(Runnable task) {
+        if (partitions.length == 1) {
+            task.run();
+            return;
+        }
+
+        BitSet all = new BitSet(partitions.length);
+        all.set(0, partitions.length);
+        runCoordinated(all, task);
+    }
+
+    /**
+     * Run a task on the coordinator once the executors of all the involved partitions are
+     * parked. The coordinator is single threaded and parks partitions one request at a time,
+     * so two requests can never wait on each other's partitions.
+     *
+     * @param involved indexes of the partitions to park.
+     * @param task     the task.
+     */
+    private void runCoordinated(BitSet involved, Runnable task) {
+        coordinator.execute(() -> {
+            CountDownLatch parked = new CountDownLatch(involved.cardinality());
+            CountDownLatch done = new CountDownLatch(1);
+            try {
+                involved.stream().forEach(i -> partitions[i].getExecutor().execute(() -> {
+                    parked.countDown();
+                    Uninterruptibles.awaitUninterruptibly(done);
+                }));
+                Uninterruptibles.awaitUninterruptibly(parked);
+                task.run();
+            } finally {
+                done.countDown();
+            }
+        });
+    }
+
     @Override
     public boolean isServerReadyToHandleMsg(CorfuMsg msg) {
         if (getState() != ServerState.READY){
@@ -182,7 +371,18 @@ public class SequencerServer extends AbstractServer {
 
     @Override
     public List<ExecutorService> getExecutors() {
-        return Collections.singletonList(executor);
+        if (partitions.length == 1) {
+            return Arrays.asList(executor, snapshotExecutor);
+        }
+
+        List<ExecutorService> executors = new ArrayList<>();
+        executors.add(executor);
+        executors.add(snapshotExecutor);
+        executors.add(coordinator);
+        for (SequencerPartition partition : partitions) {
+            executors.add(partition.getExecutor());
+        }
+        return executors;
     }
 
     /**
@@ -240,24 +440,27 @@ public class SequencerServer extends AbstractServer {
             return new TxResolutionResponse(TokenType.TX_ABORT_SEQ_TRIM);
         }
 
-        for (Map.Entry<UUID, Set<byte[]>> conflictStream : txInfo.getConflictSet().entrySet()) {
+        for (Map.Entry<UUID, long[]> conflictStream : txInfo.getConflictSet().entrySet()) {
+            SequencerPartition partition = partition(conflictStream.getKey());
+            SequencerServerCache cache = partition.getCache();
 
             // if conflict-parameters are present, check for conflict based on conflict-parameter
             // updates
-            Set<byte[]> conflictParamSet = conflictStream.getValue();
+            long[] conflictParamSet = conflictStream.getValue();
             //check for conflict based on streams updates
-            if (conflictParamSet == null || conflictParamSet.isEmpty()) {
+            if (conflictParamSet == null || conflictParamSet.length == 0) {
                 UUID streamId = conflictStream.getKey();
-                Long sequence = streamTailToGlobalTailMap.get(streamId);
+                Long sequence = partition.getStreamTails().get(streamId);
                 if (sequence != null && sequence > txSnapshotTimestamp.getSequence()) {
                     log.debug("ABORT[{}] conflict-stream[{}](ts={})", txInfo, Utils.toReadableId(streamId), sequence);
-                    return new TxResolutionResponse(TokenType.TX_ABORT_CONFLICT);
+                    return new TxResolutionResponse(TokenType.TX_ABORT_CONFLICT, sequence,
+                            TokenResponse.NO_CONFLICT_KEY, streamId);
                 }
                 continue;
             }
 
             // for each key pair, check for conflict; if not present, check against the wildcard
-            for (byte[] conflictParam : conflictParamSet) {
+            for (long conflictParam : conflictParamSet) {
 
                 Long keyAddress = cache.getIfPresent(new ConflictTxStream(conflictStream.getKey(), conflictParam));
 
@@ -268,7 +471,7 @@ public class SequencerServer extends AbstractServer {
                     return new TxResolutionResponse(
                             TokenType.TX_ABORT_CONFLICT,
                             keyAddress,
-                            conflictParam,
+                            Utils.longToBigEndianByteArray(conflictParam),
                             conflictStream.getKey()
                     );
                 }
@@ -318,19 +521,20 @@ public class SequencerServer extends AbstractServer {
         Token token;
         if (req.getStreams().isEmpty()) {
             // Global tail query
-            token = new Token(sequencerEpoch, globalLogTail - 1);
+            token = new Token(sequencerEpoch, globalLogTail.get() - 1);
             streamTails = Collections.emptyList();
         } else if (req.getStreams().size() == 1) {
             // single stream query
-            token = new Token(sequencerEpoch, streamTailToGlobalTailMap.getOrDefault(streams.get(0), Address.NON_EXIST));
+            UUID stream = streams.get(0);
+            token = new Token(sequencerEpoch, partition(stream).getStreamTails().getOrDefault(stream, Address.NON_EXIST));
             streamTails = Collections.emptyList();
         } else {
             // multiple stream query, the token is populated with the global tail and the tail queries are stored in
             // streamTails
-            token = new Token(sequencerEpoch, globalLogTail - 1);
+            token = new Token(sequencerEpoch, globalLogTail.get() - 1);
             streamTails = new ArrayList<>(streams.size());
             for (UUID stream : streams) {
-                streamTails.add(streamTailToGlobalTailMap.getOrDefault(stream, Address.NON_EXIST));
+                streamTails.add(partition(stream).getStreamTails().getOrDefault(stream, Address.NON_EXIST));
             }
         }
 
@@ -343,18 +547,20 @@ public class SequencerServer extends AbstractServer {
     @ServerHandler(type = CorfuMsgType.SEQUENCER_TRIM_REQ)
     public void trimCache(CorfuPayloadMsg<Long> msg, ChannelHandlerContext ctx, IServerRouter r) {
         log.info("trimCache: Starting cache eviction");
-        if (trimMark < msg.getPayload()) {
-            // Advance the trim mark, if the new trim request has a higher trim mark.
-            trimMark = msg.getPayload();
-            cache.invalidateUpTo(trimMark);
-
-            // Remove trimmed addresses from each address map and set new trim mark
-            for(StreamAddressSpace streamAddressSpace : streamsAddressMap.values()) {
-                streamAddressSpace.trim(trimMark);
+        runOnAllPartitions(() -> {
+            if (trimMark < msg.getPayload()) {
+                // Advance the trim mark, if the new trim request has a higher trim mark.
+                trimMark = msg.getPayload();
+                for (SequencerPartition partition : partitions) {
+                    partition.getCache().invalidateUpTo(trimMark);
+
+                    // Remove trimmed addresses from each address map and set new trim mark
+                    partition.getAddressSpaces().trim(trimMark);
+                }
             }
-        }
 
-        r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
+            r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
+        });
     }
 
     /**
@@ -363,7 +569,14 @@ public class SequencerServer extends AbstractServer {
     @ServerHandler(type = CorfuMsgType.BOOTSTRAP_SEQUENCER)
     public void resetServer(CorfuPayloadMsg<SequencerRecoveryMsg> msg,
                                          ChannelHandlerContext ctx, IServerRouter r) {
+        runOnAllPartitions(() -> handleReset(msg, ctx, r));
+    }
+
+    private void handleReset(CorfuPayloadMsg<SequencerRecoveryMsg> msg,
+                             ChannelHandlerContext ctx, IServerRouter r) {
         log.info("Reset sequencer server.");
+        // Serve the pending transactions in the epoch they were sent in.
+        commitTxTokens();
         long initialToken = msg.getPayload().getGlobalTail();
         final Map<UUID, StreamAddressSpace> addressSpaceMap = msg.getPayload().getStreamsAddressMap();
         final long bootstrapMsgEpoch = msg.getPayload().getSequencerEpoch();
@@ -406,24 +619,33 @@ public class SequencerServer extends AbstractServer {
         // Note, this is correct, but conservative (may lead to false abort).
         // It is necessary because we reset the sequencer.
         if (!bootstrapWithoutTailsUpdate) {
-            // Evict all entries from the cache. This eviction triggers the callback modifying the maxConflictWildcard.
-            cache.invalidateAll();
-            globalLogTail = initialToken;
-            cache.updateMaxConflictAddress(initialToken - 1);
-
-            // Clear the existing map as it could have been populated by an earlier reset.
-            streamTailToGlobalTailMap = new HashMap<>();
+            globalLogTail.set(initialToken);
+            List<Map<UUID, StreamAddressSpace>> partitionAddressSpaces = new ArrayList<>(partitions.length);
+            for (SequencerPartition partition : partitions) {
+                // Evict all entries from the cache. This eviction triggers the callback modifying the
+                // maxConflictWildcard.
+                partition.getCache().invalidateAll();
+                partition.getCache().updateMaxConflictAddress(initialToken - 1);
+
+                // Clear the existing map as it could have been populated by an earlier reset.
+                partition.setStreamTails(new HashMap<>());
+                partitionAddressSpaces.add(new HashMap<>());
+            }
 
             // Set tail for every stream
             for(Map.Entry<UUID, StreamAddressSpace> streamAddressSpace : addressSpaceMap.entrySet()) {
                 Long streamTail = streamAddressSpace.getValue().getTail();
                 log.trace("On Sequencer reset, tail for stream {} set to {}", streamAddressSpace.getKey(), streamTail);
-                streamTailToGlobalTailMap.put(streamAddressSpace.getKey(), streamTail);
+                SequencerPartition partition = partition(streamAddressSpace.getKey());
+                partition.getStreamTails().put(streamAddressSpace.getKey(), streamTail);
+                partitionAddressSpaces.get(partition.getIndex())
+                        .put(streamAddressSpace.getKey(), streamAddressSpace.getValue());
             }
 
             // Reset streams address map
-            this.streamsAddressMap = new HashMap<>();
-            this.streamsAddressMap.putAll(addressSpaceMap);
+            for (SequencerPartition partition : partitions) {
+                partition.getAddressSpaces().reset(partitionAddressSpaces.get(partition.getIndex()));
+            }
         }
 
         // Update epochRangeLowerBound if the bootstrap epoch is not consecutive.
@@ -435,8 +657,14 @@ public class SequencerServer extends AbstractServer {
         sequencerEpoch = bootstrapMsgEpoch;
         serverContext.setSequencerEpoch(bootstrapMsgEpoch);
 
-        log.info("Sequencer reset with token = {}, size {} streamTailToGlobalTailMap = {}, sequencerEpoch = {}",
-                globalLogTail, streamTailToGlobalTailMap.size(), streamTailToGlobalTailMap, sequencerEpoch);
+        if (partitions.length == 1) {
+            log.info("Sequencer reset with token = {}, size {} streamTailToGlobalTailMap = {}, sequencerEpoch = {}",
+                    globalLogTail.get(), partitions[0].getStreamTails().size(), partitions[0].getStreamTails(),
+                    sequencerEpoch);
+        } else {
+            log.info("Sequencer reset with token = {}, {} partitions, sequencerEpoch = {}",
+                    globalLogTail.get(), partitions.length, sequencerEpoch);
+        }
         r.sendResponse(ctx, msg, CorfuMsgType.ACK.msg());
     }
 
@@ -451,6 +679,15 @@ public class SequencerServer extends AbstractServer {
         r.sendResponse(ctx, msg, new CorfuPayloadMsg<>(CorfuMsgType.SEQUENCER_METRICS_RESPONSE, sequencerMetrics));
     }
 
+    /**
+     * Service an incoming request for the aggregated transaction aborts.
+     */
+    @ServerHandler(type = CorfuMsgType.SEQUENCER_ABORT_STATS_REQUEST)
+    public void handleAbortStatsRequest(CorfuMsg msg, ChannelHandlerContext ctx, IServerRouter r) {
+        r.sendResponse(ctx, msg, CorfuMsgType.SEQUENCER_ABORT_STATS_RESPONSE
+                .payloadMsg(abortAnalytics.getStats()));
+    }
+
     /**
      * Service an incoming token request.
      */
@@ -462,26 +699,47 @@ public class SequencerServer extends AbstractServer {
         TokenRequest req = msg.getPayload();
         final Timer timer = getTimer(req.getReqType());
 
-        // dispatch request handler according to request type while collecting the timer metrics
-        try (Timer.Context context = MetricsUtils.getConditionalContext(timer)) {
-            switch (req.getReqType()) {
-                case TokenRequest.TK_QUERY:
-                    handleTokenQuery(msg, ctx, r);
-                    return;
+        final Runnable handler;
+        Collection<UUID> streams = req.getStreams();
+        switch (req.getReqType()) {
+            case TokenRequest.TK_QUERY:
+                handler = () -> handleTokenQuery(msg, ctx, r);
+                break;
 
-                case TokenRequest.TK_RAW:
-                    handleRawToken(msg, ctx, r);
-                    return;
+            case TokenRequest.TK_RAW:
+                handler = () -> handleRawToken(msg, ctx, r);
+                streams = Collections.emptyList();
+                break;
 
-                case TokenRequest.TK_TX:
-                    handleTxToken(msg, ctx, r);
-                    return;
+            case TokenRequest.TK_TX:
+                handler = groupCommitWindow < 0
+                        ? () -> handleTxToken(msg, ctx, r)
+                        : () -> enqueueTxToken(msg, ctx, r);
+                streams = getTxStreams(req);
+                break;
 
-                default:
-                    handleAllocation(msg, ctx, r);
-                    return;
-            }
+            default:
+                handler = () -> handleAllocation(msg, ctx, r);
+                break;
         }
+
+        // dispatch request handler according to request type while collecting the timer metrics
+        runOnPartitions(streams, () -> {
+            try (Timer.Context context = MetricsUtils.getConditionalContext(timer)) {
+                handler.run();
+            }
+        });
+    }
+
+    /**
+     * All the streams whose state a transaction token request reads or modifies.
+     */
+    private Set<UUID> getTxStreams(TokenRequest req) {
+        Set<UUID> streams = new HashSet<>(req.getStreams());
+        TxResolutionInfo txInfo = req.getTxnResolution();
+        streams.addAll(txInfo.getConflictSet().keySet());
+        streams.addAll(txInfo.getWriteConflictParams().keySet());
+        return streams;
     }
 
     /**
@@ -509,8 +767,7 @@ public class SequencerServer extends AbstractServer {
 
         // The global tail points to an open slot, not the last written slot,
         // so return the new token with current global tail and then update it.
-        Token token = new Token(sequencerEpoch, globalLogTail);
-        globalLogTail += req.getNumTokens();
+        Token token = new Token(sequencerEpoch, globalLogTail.getAndAdd(req.getNumTokens()));
         r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(
                 new TokenResponse(token, Collections.emptyMap())));
     }
@@ -537,12 +794,7 @@ public class SequencerServer extends AbstractServer {
         TxResolutionResponse txResolutionResponse = txnCanCommit(req.getTxnResolution());
         if (txResolutionResponse.getTokenType() != TokenType.NORMAL) {
             // If the txn aborts, then DO NOT hand out a token.
-            Token newToken = new Token(sequencerEpoch, txResolutionResponse.getAddress());
-            r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(new TokenResponse(
-                    txResolutionResponse.getTokenType(),
-                    txResolutionResponse.getConflictingKey(),
-                    txResolutionResponse.getConflictingStream(),
-                    newToken, Collections.emptyMap(), Collections.emptyList())));
+            r.sendResponse(ctx, msg, txAbortResponse(txResolutionResponse));
             return;
         }
 
@@ -553,9 +805,156 @@ public class SequencerServer extends AbstractServer {
     }
 
     /**
-     * this method does the actual allocation of log addresses,
-     * it also maintains stream-tails, returns a map of stream-tails for backpointers,
-     * and maintains a conflict-parameters map.
+     * The response to a transaction token request which aborts, recording the abort.
+     */
+    private CorfuMsg txAbortResponse(TxResolutionResponse txResolutionResponse) {
+        final byte[] conflictKey = txResolutionResponse.getConflictingKey();
+        final UUID conflictStream = txResolutionResponse.getConflictingStream();
+        abortAnalytics.recordAbort(txResolutionResponse.getTokenType().toString(),
+                TokenResponse.NO_CONFLICT_STREAM.equals(conflictStream) ? null : conflictStream,
+                conflictKey.length == Long.BYTES ? Longs.fromByteArray(conflictKey) : null);
+
+        Token newToken = new Token(sequencerEpoch, txResolutionResponse.getAddress());
+        return CorfuMsgType.TOKEN_RES.payloadMsg(new TokenResponse(
+                txResolutionResponse.getTokenType(),
+                txResolutionResponse.getConflictingKey(),
+                txResolutionResponse.getConflictingStream(),
+                newToken, Collections.emptyMap(), Collections.emptyList()));
+    }
+
+    /**
+     * Add a transaction token request to the next group commit, which is scheduled when the
+     * first request of the group arrives.
+     *
+     * @param msg corfu message containing transaction token
+     * @param ctx netty ChannelHandlerContext
+     * @param r   server router
+     */
+    private void enqueueTxToken(CorfuPayloadMsg<TokenRequest> msg, ChannelHandlerContext ctx, IServerRouter r) {
+        pendingTxTokens.add(new PendingTxToken(msg, ctx, r));
+        if (pendingTxTokens.size() >= Config.MAX_GROUP_COMMIT_SIZE) {
+            commitTxTokens();
+        } else if (pendingTxTokens.size() == 1) {
+            executor.schedule(this::commitTxTokens, groupCommitWindow, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    /**
+     * Resolve the pending transaction token requests in arrival order, hand out a contiguous
+     * block of addresses to the transactions which commit, and flush all the responses.
+     */
+    private void commitTxTokens() {
+        if (pendingTxTokens.isEmpty()) {
+            return;
+        }
+
+        final List<PendingTxToken> batch = pendingTxTokens;
+        pendingTxTokens = new ArrayList<>();
+        groupCommitSizes.update(batch.size());
+
+        try (Timer.Context context = MetricsUtils.getConditionalContext(groupCommitTimer)) {
+            // First, resolve every transaction against the state of the sequencer and against
+            // the transactions of the batch which commit before it. The sequencer's state is
+            // only updated once the whole batch is resolved.
+            final long firstAddress = globalLogTail.get();
+            long nextAddress = firstAddress;
+            final Map<UUID, Long> batchStreamTails = new HashMap<>();
+            final Map<ConflictTxStream, Long> batchConflictParams = new HashMap<>();
+            final TxResolutionResponse[] resolutions = new TxResolutionResponse[batch.size()];
+            for (int i = 0; i < batch.size(); i++) {
+                final TokenRequest req = batch.get(i).getMsg().getPayload();
+                TxResolutionResponse resolution = txnCanCommit(req.getTxnResolution());
+                if (resolution.getTokenType() == TokenType.NORMAL) {
+                    resolution = txnCanCommitInBatch(req.getTxnResolution(), batchStreamTails,
+                            batchConflictParams);
+                }
+
+                resolutions[i] = resolution;
+                if (resolution.getTokenType() != TokenType.NORMAL) {
+                    continue;
+                }
+
+                nextAddress += req.getNumTokens();
+                final long lastAddress = nextAddress - 1;
+                for (UUID id : req.getStreams()) {
+                    batchStreamTails.put(id, lastAddress);
+                }
+                req.getTxnResolution().getWriteConflictParams().forEach((id, conflictParams) -> {
+                    for (long conflictParam : conflictParams) {
+                        batchConflictParams.put(new ConflictTxStream(id, conflictParam), lastAddress);
+                    }
+                });
+            }
+
+            // Then, allocate the addresses of the committed transactions in one pass and
+            // flush each channel once.
+            long currentTail = globalLogTail.getAndAdd(nextAddress - firstAddress);
+            final Map<ChannelHandlerContext, IServerRouter> channels = new LinkedHashMap<>();
+            for (int i = 0; i < batch.size(); i++) {
+                final PendingTxToken pending = batch.get(i);
+                final CorfuMsg response;
+                if (resolutions[i].getTokenType() == TokenType.NORMAL) {
+                    final TokenRequest req = pending.getMsg().getPayload();
+                    response = CorfuMsgType.TOKEN_RES.payloadMsg(new TokenResponse(
+                            new Token(sequencerEpoch, currentTail), allocate(req, currentTail)));
+                    currentTail += req.getNumTokens();
+                } else {
+                    response = txAbortResponse(resolutions[i]);
+                }
+
+                pending.getRouter().sendResponseNoFlush(pending.getCtx(), pending.getMsg(), response);
+                channels.put(pending.getCtx(), pending.getRouter());
+            }
+            channels.forEach((ctx, r) -> r.flush(ctx));
+        }
+    }
+
+    /**
+     * Check a transaction of a group commit for conflicts with the transactions of the group
+     * which commit before it, the same way as {@link #txnCanCommit(TxResolutionInfo)}.
+     *
+     * @param txInfo              info provided by corfuRuntime for conflict resolution
+     * @param batchStreamTails    tails of the streams written by the group so far
+     * @param batchConflictParams addresses of the conflict parameters written by the group so far
+     * @return an instance of transaction resolution response
+     */
+    private TxResolutionResponse txnCanCommitInBatch(TxResolutionInfo txInfo,
+                                                     Map<UUID, Long> batchStreamTails,
+                                                     Map<ConflictTxStream, Long> batchConflictParams) {
+        final long txSnapshotSequence = txInfo.getSnapshotTimestamp().getSequence();
+        for (Map.Entry<UUID, long[]> conflictStream : txInfo.getConflictSet().entrySet()) {
+            final UUID streamId = conflictStream.getKey();
+            final long[] conflictParamSet = conflictStream.getValue();
+            if (conflictParamSet == null || conflictParamSet.length == 0) {
+                Long sequence = batchStreamTails.get(streamId);
+                if (sequence != null && sequence > txSnapshotSequence) {
+                    log.debug("ABORT[{}] group conflict-stream[{}](ts={})", txInfo,
+                            Utils.toReadableId(streamId), sequence);
+                    return new TxResolutionResponse(TokenType.TX_ABORT_CONFLICT, sequence,
+                            TokenResponse.NO_CONFLICT_KEY, streamId);
+                }
+                continue;
+            }
+
+            for (long conflictParam : conflictParamSet) {
+                Long keyAddress = batchConflictParams.get(new ConflictTxStream(streamId, conflictParam));
+                if (keyAddress != null && keyAddress > txSnapshotSequence) {
+                    log.debug("ABORT[{}] group conflict-key[{}](ts={})", txInfo, conflictParam, keyAddress);
+                    return new TxResolutionResponse(
+                            TokenType.TX_ABORT_CONFLICT,
+                            keyAddress,
+                            Utils.longToBigEndianByteArray(conflictParam),
+                            streamId
+                    );
+                }
+            }
+        }
+
+        return new TxResolutionResponse(TokenType.NORMAL);
+    }
+
+    /**
+     * this method serves token-requests for allocation of log addresses.
      *
      * @param msg corfu message containing allocation
      * @param ctx netty ChannelHandlerContext
@@ -567,7 +966,28 @@ public class SequencerServer extends AbstractServer {
 
         // extend the tail of the global log by the requested # of tokens
         // currentTail is the first available position in the global log
-        long newTail = globalLogTail + req.getNumTokens();
+        final long currentTail = globalLogTail.getAndAdd(req.getNumTokens());
+        final Map<UUID, Long> backPointers = allocate(req, currentTail);
+
+        log.trace("token {} backpointers {}", currentTail, backPointers);
+
+        // return the token response with the global tail and the streams backpointers
+        Token token = new Token(sequencerEpoch, currentTail);
+        r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(
+                new TokenResponse(token, backPointers)));
+    }
+
+    /**
+     * this method does the actual allocation of log addresses,
+     * it maintains stream-tails, returns a map of stream-tails for backpointers,
+     * and maintains a conflict-parameters map.
+     *
+     * @param req         the token request
+     * @param currentTail the first address allocated to the request
+     * @return the streams backpointers
+     */
+    private ImmutableMap<UUID, Long> allocate(TokenRequest req, long currentTail) {
+        final long newTail = currentTail + req.getNumTokens();
 
         // for each stream:
         //   1. obtain the last back-pointer for this stream, if exists; -1L otherwise.
@@ -577,7 +997,8 @@ public class SequencerServer extends AbstractServer {
         for (UUID id : req.getStreams()) {
 
             // step 1. and 2. (comment above)
-            streamTailToGlobalTailMap.compute(id, (k, v) -> {
+            SequencerPartition partition = partition(id);
+            partition.getStreamTails().compute(id, (k, v) -> {
                 if (v == null) {
                     backPointerMap.put(k, Address.NON_EXIST);
                     return newTail - 1;
@@ -588,16 +1009,10 @@ public class SequencerServer extends AbstractServer {
             });
 
             // step 3. add allocated addresses to each stream's address map (to keep track of all updates to this stream)
-            streamsAddressMap.compute(id, (streamId, addressMap) -> {
-                if (addressMap == null) {
-                    addressMap = new StreamAddressSpace(Address.NON_ADDRESS, new Roaring64NavigableMap());
-                }
-
-                for (long i = globalLogTail; i < newTail; i++) {
-                    addressMap.addAddress(i);
-                }
-                return addressMap;
-            });
+            StreamAddressSpace addressMap = partition.getAddressSpaces().getOrCreate(id);
+            for (long i = currentTail; i < newTail; i++) {
+                addressMap.addAddress(i);
+            }
         }
 
         // update the cache of conflict parameters
@@ -607,50 +1022,88 @@ public class SequencerServer extends AbstractServer {
                     .forEach((key, value) -> {
                         // insert an entry with the new timestamp using the
                         // hash code based on the param and the stream id.
-                        value.forEach(conflictParam ->
-                                cache.put(new ConflictTxStream(key, conflictParam), newTail - 1));
+                        SequencerServerCache cache = partition(key).getCache();
+                        for (long conflictParam : value) {
+                            cache.put(new ConflictTxStream(key, conflictParam), newTail - 1);
+                        }
                     });
         }
 
-        log.trace("token {} backpointers {}", globalLogTail, backPointerMap.build());
-
-        // return the token response with the global tail and the streams backpointers
-        Token token = new Token(sequencerEpoch, globalLogTail);
-        globalLogTail = newTail;
-        r.sendResponse(ctx, msg, CorfuMsgType.TOKEN_RES.payloadMsg(
-                new TokenResponse(token, backPointerMap.build())));
+        return backPointerMap.build();
     }
 
     /**
      * This method handles the request of streams addresses.
      *
-     * The request of address spaces can be of two types:
+     * The request of address spaces can be of three types:
      *      - For specific streams (and specific ranges for each stream).
      *      - For all streams (complete range).
+     *      - For all streams, only the addresses since a global tail known to the client.
      *
      * The response contains the requested streams address maps and the global log tail.
+     * Address maps of all streams are a snapshot taken in constant time while the partitions are
+     * parked. It is read and sent on the snapshot executor while the sequencer keeps modifying
+     * its own address maps.
      */
     @ServerHandler(type = CorfuMsgType.STREAMS_ADDRESS_REQUEST)
     private void handleStreamsAddressRequest(CorfuPayloadMsg<StreamsAddressRequest> msg,
                                              ChannelHandlerContext ctx, IServerRouter r) {
         StreamsAddressRequest req = msg.getPayload();
-        Map<UUID, StreamAddressSpace> streamsAddressMap;
 
         switch (req.getReqType()) {
             case StreamsAddressRequest.STREAMS:
-                streamsAddressMap = getStreamsAddresses(req.getStreamsRanges());
+                List<UUID> streams = req.getStreamsRanges().stream()
+                        .map(StreamAddressRange::getStreamID)
+                        .collect(Collectors.toList());
+                runOnPartitions(streams, () -> sendStreamsAddressResponse(msg, ctx, r,
+                        getGlobalLogTail(), getStreamsAddresses(req.getStreamsRanges())));
+                break;
+
+            case StreamsAddressRequest.ALL_STREAMS_DELTA:
+                runOnAllPartitions(() -> sendStreamsAddressResponse(msg, ctx, r,
+                        getGlobalLogTail(), getStreamsAddressesSince(req.getGlobalTail())));
                 break;
 
             default:
                 // Retrieve address space for all streams
-                streamsAddressMap = new HashMap<>(this.streamsAddressMap);
+                runOnAllPartitions(() -> {
+                    final long globalTail = getGlobalLogTail();
+                    List<TieredStreamAddressMap.Snapshot> snapshots = new ArrayList<>(partitions.length);
+                    for (SequencerPartition partition : partitions) {
+                        snapshots.add(partition.getAddressSpaces().snapshot());
+                    }
+                    snapshotExecutor.execute(() -> sendSnapshotsResponse(msg, ctx, r, globalTail, snapshots));
+                });
                 break;
         }
+    }
 
+    private void sendStreamsAddressResponse(CorfuPayloadMsg<StreamsAddressRequest> msg,
+                                            ChannelHandlerContext ctx, IServerRouter r,
+                                            long globalTail,
+                                            Map<UUID, StreamAddressSpace> streamsAddressMap) {
         log.trace("handleStreamsAddressRequest: return address space for streams [{}]",
                 streamsAddressMap.keySet());
         r.sendResponse(ctx, msg, CorfuMsgType.STREAMS_ADDRESS_RESPONSE.payloadMsg(
-                new StreamsAddressResponse(getGlobalLogTail(), streamsAddressMap)));
+                new StreamsAddressResponse(globalTail, streamsAddressMap)));
+    }
+
+    /**
+     * Resolve the snapshots of the address spaces of all partitions and send them, closing
+     * the snapshots even if they can not be read.
+     */
+    private void sendSnapshotsResponse(CorfuPayloadMsg<StreamsAddressRequest> msg,
+                                       ChannelHandlerContext ctx, IServerRouter r, long globalTail,
+                                       List<TieredStreamAddressMap.Snapshot> snapshots) {
+        try {
+            Map<UUID, StreamAddressSpace> streamsAddressMap = new HashMap<>();
+            for (TieredStreamAddressMap.Snapshot snapshot : snapshots) {
+                streamsAddressMap.putAll(snapshot.resolve());
+            }
+            sendStreamsAddressResponse(msg, ctx, r, globalTail, streamsAddressMap);
+        } finally {
+            snapshots.forEach(TieredStreamAddressMap.Snapshot::close);
+        }
     }
 
     /**
@@ -666,10 +1119,11 @@ public class SequencerServer extends AbstractServer {
         for (StreamAddressRange streamAddressRange : addressRanges) {
             UUID streamId = streamAddressRange.getStreamID();
             // Get all addresses in the requested range
-            if (streamsAddressMap.containsKey(streamId)) {
-                addressMap = streamsAddressMap.get(streamId).getAddressesInRange(streamAddressRange);
+            StreamAddressSpace streamAddressSpace = partition(streamId).getAddressSpaces().get(streamId);
+            if (streamAddressSpace != null) {
+                addressMap = streamAddressSpace.getAddressesInRange(streamAddressRange);
                 requestedAddressSpaces.put(streamId,
-                        new StreamAddressSpace(streamsAddressMap.get(streamId).getTrimMark(), addressMap));
+                        new StreamAddressSpace(streamAddressSpace.getTrimMark(), addressMap));
             } else {
                 log.warn("handleStreamsAddressRequest: address space map is not present for stream {}. " +
                         "Verify this is a valid stream.", streamId);
@@ -679,9 +1133,39 @@ public class SequencerServer extends AbstractServer {
         return requestedAddressSpaces;
     }
 
+    /**
+     * Return the addresses of every stream written since the given global tail. Only streams
+     * whose tail is at or beyond the global tail are visited.
+     *
+     * @param globalTail log tail of a previous response, i.e. the first address not yet known
+     *                   to the requester.
+     * @return map of stream to the address space written since globalTail.
+     */
+    private Map<UUID, StreamAddressSpace> getStreamsAddressesSince(long globalTail) {
+        Map<UUID, StreamAddressSpace> delta = new HashMap<>();
+
+        for (SequencerPartition partition : partitions) {
+            partition.getStreamTails().forEach((streamId, streamTail) -> {
+                if (streamTail < globalTail) {
+                    return;
+                }
+
+                StreamAddressSpace streamAddressSpace = partition.getAddressSpaces().get(streamId);
+                if (streamAddressSpace != null) {
+                    delta.put(streamId, streamAddressSpace.getAddressesFrom(globalTail));
+                }
+            });
+        }
+
+        return delta;
+    }
+
     @Override
     public void shutdown() {
         super.shutdown();
+        for (SequencerPartition partition : partitions) {
+            partition.getAddressSpaces().close();
+        }
     }
 
     /**
@@ -695,10 +1179,35 @@ public class SequencerServer extends AbstractServer {
         private final long initialToken;
         @Default
         private final long cacheSize = DEFAULT_CACHE_SIZE;
+        @Default
+        private final long maxHotStreams = TieredStreamAddressMap.UNBOUNDED;
+        /**
+         * Number of partitions of the per stream state, experimental. The cache size and the
+         * number of hot streams are split evenly across partitions.
+         */
+        @Default
+        private final int partitions = 1;
+        /**
+         * Microseconds during which transaction token requests are accumulated and committed
+         * together, negative to disable group commit. With 0, only the requests already queued
+         * are committed together. Group commit requires a single partition.
+         */
+        @Default
+        private final long groupCommitWindow = -1L;
+
+        /**
+         * Maximum number of transaction token requests committed together.
+         */
+        private static final int MAX_GROUP_COMMIT_SIZE = 1024;
 
         public static Config parse(Map<String, Object> opts) {
             long cacheSize = Utils.parseLong(opts.getOrDefault("--sequencer-cache-size", DEFAULT_CACHE_SIZE));
             long initialToken = Utils.parseLong(opts.get("--initial-token"));
+            long maxHotStreams = Utils.parseLong(opts.getOrDefault("--sequencer-hot-streams",
+                    TieredStreamAddressMap.UNBOUNDED));
+            int partitions = (int) Math.max(1L, Utils.parseLong(opts.getOrDefault("--sequencer-partitions", 1)));
+            Object groupCommitWindowOpt = opts.get("--sequencer-group-commit-window");
+            long groupCommitWindow = groupCommitWindowOpt == null ? -1L : Utils.parseLong(groupCommitWindowOpt);
 
             if (Address.nonAddress(initialToken)) {
                 initialToken = Address.getMinAddress();
@@ -707,7 +1216,20 @@ public class SequencerServer extends AbstractServer {
             return Config.builder()
                     .initialToken(initialToken)
                     .cacheSize(cacheSize)
+                    .maxHotStreams(maxHotStreams)
+                    .partitions(partitions)
+                    .groupCommitWindow(groupCommitWindow)
                     .build();
         }
     }
+
+    /**
+     * A transaction token request waiting for a group commit.
+     */
+    @Value
+    private static class PendingTxToken {
+        CorfuPayloadMsg<TokenRequest> msg;
+        ChannelHandlerContext ctx;
+        IServerRouter router;
+    }
 }
@@ -9,7 +9,6 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.runtime.view.Address;
-import org.corfudb.util.Utils;
 
 import javax.annotation.Nonnull;
 import java.util.UUID;
@@ -191,21 +190,21 @@ public class SequencerServerCache {
     }
 
     /**
-     * Contains the conflict hash code for a stream ID and conflict param.
+     * Contains the conflict fingerprint for a stream ID and conflict param.
      */
     @EqualsAndHashCode
     public static class ConflictTxStream {
         private final UUID streamId;
-        private final String conflictParam;
+        private final long conflictParam;
 
-        public ConflictTxStream(UUID streamId, byte[] conflictParam) {
+        public ConflictTxStream(UUID streamId, long conflictParam) {
             this.streamId = streamId;
-            this.conflictParam = Utils.bytesToHex(conflictParam);
+            this.conflictParam = conflictParam;
         }
 
         @Override
         public String toString() {
-            return streamId.toString() + conflictParam;
+            return streamId.toString() + Long.toHexString(conflictParam);
         }
     }
 }
@@ -0,0 +1,86 @@
+package org.corfudb.infrastructure;
+
+import static org.corfudb.util.LambdaUtils.runSansThrow;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.view.Layout;
+import org.corfudb.util.concurrent.SingletonResource;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequencer Snapshot Service periodically takes a snapshot of the primary sequencer's
+ * address space and keeps it in the management runtime's layout management view.
+ *
+ * <p>Failover moves the primary sequencer to another node, so the snapshot is held by every
+ * management agent other than the primary's own. Whichever agent drives the failover can then
+ * bootstrap the new primary from the snapshot and only the part of the log written after it.
+ * After the first snapshot only the addresses issued since the previous one are pulled, until
+ * the primary sequencer or the epoch changes.
+ */
+@Slf4j
+class SequencerSnapshotService implements MonitoringService {
+
+    private final ServerContext serverContext;
+    private final SingletonResource<CorfuRuntime> runtimeSingletonResource;
+
+    private final ScheduledExecutorService snapshotService;
+
+    SequencerSnapshotService(@NonNull ServerContext serverContext,
+                             @NonNull SingletonResource<CorfuRuntime> runtimeSingletonResource) {
+        this.serverContext = serverContext;
+        this.runtimeSingletonResource = runtimeSingletonResource;
+
+        this.snapshotService = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat(serverContext.getThreadPrefix() + "SequencerSnapshot")
+                        .build());
+    }
+
+    /**
+     * Task to snapshot the primary sequencer. Skipped when this node is the primary
+     * sequencer, as the snapshot would be lost along with it.
+     */
+    private void takeSnapshot() {
+        Layout layout = serverContext.copyManagementLayout();
+        if (layout == null) {
+            log.debug("takeSnapshot: Management Server not bootstrapped.");
+            return;
+        }
+
+        if (layout.getPrimarySequencer().equals(serverContext.getLocalEndpoint())) {
+            return;
+        }
+
+        runtimeSingletonResource.get().getLayoutManagementView().refreshSequencerSnapshot(layout);
+    }
+
+    /**
+     * Runs the task to periodically snapshot the primary sequencer.
+     */
+    @Override
+    public void start(Duration monitoringInterval) {
+        snapshotService.scheduleWithFixedDelay(
+                () -> runSansThrow(this::takeSnapshot),
+                monitoringInterval.toMillis(),
+                monitoringInterval.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Shuts down the snapshot executor service.
+     */
+    @Override
+    public void shutdown() {
+        snapshotService.shutdownNow();
+        log.info("Sequencer Snapshot Task shutting down.");
+    }
+}
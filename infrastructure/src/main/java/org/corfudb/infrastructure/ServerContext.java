@@ -8,10 +8,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import io.netty.channel.EventLoopGroup;
 
-import java.io.File;
-import java.nio.file.Files;
 import java.time.Duration;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -31,6 +28,8 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import org.corfudb.comm.ChannelImplementation;
+import org.corfudb.comm.CorfuByteBufAllocator;
+import org.corfudb.infrastructure.management.FailureDetector;
 import org.corfudb.protocols.wireprotocol.failuredetector.FailureDetectorMetrics;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
@@ -138,10 +137,15 @@ public class ServerContext implements AutoCloseable {
      */
     public ServerContext(Map<String, Object> serverConfig) {
         this.serverConfig = serverConfig;
-        this.dataStore = new DataStore(serverConfig, this::dataStoreFileCleanup);
+        this.dataStore = new DataStore(serverConfig, this::dataStoreCleanup);
         generateNodeId();
         this.failureHandlerPolicy = new ConservativeFailureHandlerPolicy();
 
+        getChannelImplementation().ensureAvailability();
+        if (isPooledBuffersEnabled()) {
+            CorfuByteBufAllocator.setPooled(true);
+        }
+
         // Setup the netty event loops. In tests, these loops may be provided by
         // a test framework to save resources.
         final boolean providedEventLoops =
@@ -188,45 +192,44 @@ public class ServerContext implements AutoCloseable {
     }
 
     /**
-     * Cleanup the DataStore files with names that are prefixes of the specified
-     * fileName when so that the number of these files don't exceed the user-defined
-     * retention limit. Cleanup is always done on files with lower epochs.
+     * Get the fraction of the polled nodes whose responses make up a quorum for the failure
+     * detector.
+     *
+     * @return the quorum ratio, {@link FailureDetector#DEFAULT_POLL_QUORUM_RATIO} if not set.
+     */
+    double getFailureDetectorQuorumRatio() {
+        String ratio = getServerConfig(String.class, "--failure-detector-quorum-ratio");
+        return ratio == null ? FailureDetector.DEFAULT_POLL_QUORUM_RATIO : Double.parseDouble(ratio);
+    }
+
+    /**
+     * Cleanup the DataStore keys of the specified prefix so that the number
+     * of these keys doesn't exceed the user-defined retention limit.
+     * Cleanup is always done on keys with lower epochs.
      */
-    private void dataStoreFileCleanup(String fileName) {
-        String logDirPath = getServerConfig(String.class, "--log-path");
-        if (logDirPath == null) {
+    private void dataStoreCleanup(String prefix) {
+        if (!getDsFilePrefixesForCleanup().contains(prefix)) {
             return;
         }
 
-        File logDir = new File(logDirPath);
-        Set<String> prefixesToClean = getDsFilePrefixesForCleanup();
         int numRetention = Integer.parseInt(getServerConfig(String.class, "--metadata-retention"));
+        Set<String> keys = dataStore.getKeys(prefix);
+        if (keys.size() <= numRetention) {
+            log.debug("DataStore cleanup not started for prefix: {}.", prefix);
+            return;
+        }
 
-        prefixesToClean.stream()
-                .filter(fileName::startsWith)
-                .forEach(prefix -> {
-                    File[] foundFiles = logDir.listFiles((dir, name) -> name.startsWith(prefix));
-                    if (foundFiles == null || foundFiles.length <= numRetention) {
-                        log.debug("DataStore cleanup not started for prefix: {}.", prefix);
-                        return;
-                    }
-                    log.debug("Start cleaning up DataStore files with prefix: {}.", prefix);
-                    Arrays.stream(foundFiles)
-                            .sorted(Comparator.comparingInt(file -> {
-                                // Extract epoch number from file name and cast to int for comparision
-                                Matcher matcher = Pattern.compile("\\d+").matcher(file.getName());
-                                return matcher.find(prefix.length()) ? Integer.parseInt(matcher.group()) : 0;
-                            }))
-                            .limit(foundFiles.length - numRetention)
-                            .forEach(file -> {
-                                try {
-                                    if (Files.deleteIfExists(file.toPath())) {
-                                        log.info("Removed DataStore file: {}", file.getName());
-                                    }
-                                } catch (Exception e) {
-                                    log.error("Error when cleaning up DataStore files", e);
-                                }
-                            });
+        log.debug("Start cleaning up DataStore keys with prefix: {}.", prefix);
+        keys.stream()
+                .sorted(Comparator.comparingLong(key -> {
+                    // Extract epoch number from the key for comparison
+                    Matcher matcher = Pattern.compile("\\d+").matcher(key);
+                    return matcher.find() ? Long.parseLong(matcher.group()) : 0L;
+                }))
+                .limit(keys.size() - numRetention)
+                .forEach(key -> {
+                    dataStore.delete(Object.class, prefix, key);
+                    log.info("Removed DataStore key: {}_{}", prefix, key);
                 });
     }
 
@@ -240,6 +243,16 @@ public class ServerContext implements AutoCloseable {
         return ChannelImplementation.valueOf(type.toUpperCase());
     }
 
+    /**
+     * Whether pooled direct buffers should be used on the message path.
+     *
+     * @return True if the server was started with --pooled-buffers.
+     */
+    boolean isPooledBuffersEnabled() {
+        Boolean pooled = getServerConfig(Boolean.class, "--pooled-buffers");
+        return pooled != null && pooled;
+    }
+
     /**
      * Get an instance of {@link CorfuRuntimeParameters} representing the default Corfu Runtime's
      * parameters.
@@ -247,7 +260,7 @@ public class ServerContext implements AutoCloseable {
      * @return an instance of {@link CorfuRuntimeParameters}
      */
     public CorfuRuntimeParameters getDefaultRuntimeParameters() {
-        return CorfuRuntime.CorfuRuntimeParameters.builder()
+        CorfuRuntimeParameters params = CorfuRuntime.CorfuRuntimeParameters.builder()
                 .nettyEventLoop(clientGroup)
                 .shutdownNettyEventLoop(false)
                 .tlsEnabled((Boolean) serverConfig.get("--enable-tls"))
@@ -259,7 +272,14 @@ public class ServerContext implements AutoCloseable {
                 .usernameFile((String) serverConfig.get("--sasl-plain-text-username-file"))
                 .passwordFile((String) serverConfig.get("--sasl-plain-text-password-file"))
                 .bulkReadSize(Integer.parseInt((String) serverConfig.get("--batch-size")))
+                .pooledBuffers(isPooledBuffersEnabled())
                 .build();
+
+        String stateTransferWindow = (String) serverConfig.get("--state-transfer-window");
+        if (stateTransferWindow != null) {
+            params.setStateTransferWindow(Integer.parseInt(stateTransferWindow));
+        }
+        return params;
     }
 
     /**
@@ -0,0 +1,631 @@
+package org.corfudb.infrastructure;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.corfudb.util.CorfuComponent;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The sequencer's per stream address spaces, bounded in memory.
+ *
+ * <p>Up to {@code maxHotStreams} address spaces are kept in memory in access order. When
+ * the limit is exceeded the least recently used address space is run-length optimized,
+ * serialized and appended to a spill file, and paged back in the next time it is accessed.
+ * Paged in records leave garbage behind in the spill file, which is compacted into a new spill
+ * file once garbage outweighs live records.
+ *
+ * <p>Trims are applied eagerly to in-memory address spaces and lazily, on page in, to
+ * spilled ones.
+ *
+ * <p>Snapshots of the whole map ({@link #snapshot()}) take constant time. Every stream keeps
+ * the versions of its address space still needed by unresolved snapshots, and every snapshot
+ * starts a new generation of the map: the first write to an address space after a snapshot
+ * copies it, and the copy becomes the stream's current version. The versions a snapshot sees
+ * are never modified, so it is resolved ({@link Snapshot#resolve()}) outside of the sequencer's
+ * thread while the sequencer keeps issuing tokens. Spilled versions are read from the spill
+ * file on resolution, and the spill file is kept until no snapshot can read it anymore.
+ *
+ * <p>This class is not thread-safe, it is only accessed from the sequencer's thread, except
+ * for the resolution of its snapshots.
+ */
+@Slf4j
+public class TieredStreamAddressMap implements AutoCloseable {
+
+    /**
+     * Value of maxHotStreams that keeps every address space in memory.
+     */
+    public static final long UNBOUNDED = 0L;
+
+    private static final String SPILL_FILE_NAME = "stream_address_spaces.spill";
+    private static final long MIN_COMPACTION_SIZE = 64L * 1024 * 1024;
+    private static final int RECORD_HEADER_SIZE = Long.BYTES;
+
+    /**
+     * Default prefix of the metrics exported by this map.
+     */
+    public static final String METRIC_PREFIX = CorfuComponent.INFRA_SEQUENCER + "address-space.";
+
+    /**
+     * A spill file, open until it is replaced and no snapshot reads it anymore.
+     */
+    private static class SpillFile {
+        final Path path;
+        final FileChannel channel;
+        final AtomicInteger references = new AtomicInteger(1);
+
+        SpillFile(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        SpillFile retain() {
+            references.incrementAndGet();
+            return this;
+        }
+
+        void release() {
+            if (references.decrementAndGet() > 0) {
+                return;
+            }
+
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("release: Failed to remove spill file {}", path, e);
+            }
+        }
+    }
+
+    /**
+     * Location of a spilled address space in a spill file.
+     */
+    @AllArgsConstructor
+    private static class SpillRecord {
+        final SpillFile file;
+        final long offset;
+        final int length;
+    }
+
+    /**
+     * A version of the address space of a stream: in memory, spilled, or removed if neither.
+     */
+    private static class Version {
+        /**
+         * Generation of the map in which this version became the current one.
+         */
+        final long generation;
+
+        @Nullable
+        final StreamAddressSpace addressSpace;
+
+        @Nullable
+        final SpillRecord spillRecord;
+
+        /**
+         * The next older version still needed by a snapshot, if any.
+         */
+        volatile Version older;
+
+        /**
+         * Run-length optimized copy handed out to snapshots, and the trim mark it was read at.
+         */
+        private StreamAddressSpace snapshotCopy;
+        private long snapshotTrimMark;
+
+        Version(long generation, @Nullable StreamAddressSpace addressSpace,
+                @Nullable SpillRecord spillRecord, @Nullable Version older) {
+            this.generation = generation;
+            this.addressSpace = addressSpace;
+            this.spillRecord = spillRecord;
+            this.older = older;
+        }
+
+        boolean isRemoved() {
+            return addressSpace == null && spillRecord == null;
+        }
+
+        /**
+         * Get a copy of this version for snapshots, reusing the copy of a previous snapshot if
+         * it was read at the same trim mark.
+         *
+         * @param trimMark trim mark of the snapshot, applied to spilled address spaces.
+         * @param copies   counter of the copies made.
+         * @return a copy which must not be modified.
+         */
+        synchronized StreamAddressSpace getSnapshotCopy(long trimMark, Counter copies) {
+            if (snapshotCopy == null || (spillRecord != null && snapshotTrimMark != trimMark)) {
+                snapshotCopy = addressSpace != null ? addressSpace.copy() : readRecord(spillRecord, trimMark);
+                snapshotCopy.getAddressMap().runOptimize();
+                snapshotTrimMark = trimMark;
+                copies.inc();
+            }
+            return snapshotCopy;
+        }
+    }
+
+    /**
+     * The versions of the address space of a stream, newest first.
+     */
+    private static class Slot {
+        volatile Version current;
+    }
+
+    private final long maxHotStreams;
+
+    private final LinkedHashMap<UUID, Slot> hotStreams;
+
+    private final Map<UUID, Slot> spilledStreams = new HashMap<>();
+
+    /**
+     * Every stream of the map, and the removed streams still needed by unresolved snapshots.
+     */
+    private final Map<UUID, Slot> streams = new ConcurrentHashMap<>();
+
+    /**
+     * Generations of the unresolved snapshots.
+     */
+    private final ConcurrentSkipListSet<Long> pendingSnapshots = new ConcurrentSkipListSet<>();
+
+    /**
+     * Current generation of the map, incremented by every snapshot.
+     */
+    private volatile long generation = 0L;
+
+    @Nullable
+    private final Path spillDir;
+
+    @Nullable
+    private SpillFile spillFile;
+
+    private int spillFileIndex = 0;
+
+    private long spillFileSize = 0L;
+
+    private long liveSpilledBytes = 0L;
+
+    /**
+     * Highest trim mark seen, applied to spilled address spaces on page in.
+     */
+    private long trimMark = Address.NON_ADDRESS;
+
+    private final Counter pageIns;
+    private final Counter spills;
+    private final Counter snapshotCopies;
+
+    /**
+     * Create a tiered stream address map.
+     *
+     * @param maxHotStreams Number of address spaces to keep in memory, or {@link #UNBOUNDED}.
+     * @param spillDir      Directory for the spill file, or null to keep everything in memory.
+     * @param metrics       Registry to export memory and page in metrics to.
+     */
+    public TieredStreamAddressMap(long maxHotStreams, @Nullable Path spillDir,
+                                  @Nonnull MetricRegistry metrics) {
+        this(maxHotStreams, spillDir, metrics, METRIC_PREFIX);
+    }
+
+    /**
+     * Create a tiered stream address map.
+     *
+     * @param maxHotStreams Number of address spaces to keep in memory, or {@link #UNBOUNDED}.
+     * @param spillDir      Directory for the spill file, or null to keep everything in memory.
+     * @param metrics       Registry to export memory and page in metrics to.
+     * @param metricPrefix  Prefix of the exported metric names.
+     */
+    public TieredStreamAddressMap(long maxHotStreams, @Nullable Path spillDir,
+                                  @Nonnull MetricRegistry metrics, @Nonnull String metricPrefix) {
+        this.maxHotStreams = spillDir == null ? UNBOUNDED : maxHotStreams;
+        this.spillDir = this.maxHotStreams == UNBOUNDED ? null : spillDir;
+        this.hotStreams = new LinkedHashMap<UUID, Slot>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Slot> eldest) {
+                if (TieredStreamAddressMap.this.maxHotStreams != UNBOUNDED
+                        && size() > TieredStreamAddressMap.this.maxHotStreams) {
+                    spill(eldest.getKey(), eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        pageIns = metrics.counter(metricPrefix + "page-ins");
+        spills = metrics.counter(metricPrefix + "spills");
+        snapshotCopies = metrics.counter(metricPrefix + "snapshot-copies");
+        try {
+            metrics.register(metricPrefix + "hot-streams", (Gauge<Integer>) hotStreams::size);
+            metrics.register(metricPrefix + "spilled-streams", (Gauge<Integer>) spilledStreams::size);
+            metrics.register(metricPrefix + "spilled-bytes", (Gauge<Long>) () -> liveSpilledBytes);
+            metrics.register(metricPrefix + "spill-file-bytes", (Gauge<Long>) () -> spillFileSize);
+        } catch (IllegalArgumentException e) {
+            // Re-registering metrics during test runs, not a problem
+        }
+
+        removeStaleSpillFiles();
+        openSpillFile();
+    }
+
+    /**
+     * Get the address space of a stream, paging it in if it was spilled. The returned
+     * address space must not be modified, see {@link #getOrCreate(UUID)}.
+     *
+     * @param streamId stream id.
+     * @return The stream's address space, or null if the stream is unknown.
+     */
+    @Nullable
+    public StreamAddressSpace get(UUID streamId) {
+        Slot slot = getHotSlot(streamId);
+        return slot == null ? null : slot.current.addressSpace;
+    }
+
+    /**
+     * Get the address space of a stream for modification, creating an empty one if the
+     * stream is unknown. If a snapshot was taken since the address space was last modified,
+     * it is copied first.
+     *
+     * @param streamId stream id.
+     * @return The stream's address space.
+     */
+    @Nonnull
+    public StreamAddressSpace getOrCreate(UUID streamId) {
+        Slot slot = getHotSlot(streamId);
+        if (slot == null) {
+            slot = streams.computeIfAbsent(streamId, id -> new Slot());
+            update(slot, new StreamAddressSpace(Address.NON_ADDRESS, new Roaring64NavigableMap()), null);
+            hotStreams.put(streamId, slot);
+        }
+        return getOwned(slot);
+    }
+
+    /**
+     * Get the in-memory address space of a slot for modification, copying it if a snapshot
+     * may read it.
+     */
+    private StreamAddressSpace getOwned(Slot slot) {
+        Version current = slot.current;
+        if (current.generation != generation) {
+            update(slot, current.addressSpace.copy(), null);
+        }
+        return slot.current.addressSpace;
+    }
+
+    /**
+     * Make a new version current. The current version replaced is kept if a snapshot may
+     * read it, and the older versions no snapshot can read are dropped.
+     */
+    private void update(Slot slot, @Nullable StreamAddressSpace addressSpace,
+                        @Nullable SpillRecord spillRecord) {
+        Version current = slot.current;
+        Version older = current == null || current.generation != generation ? current : current.older;
+        slot.current = new Version(generation, addressSpace, spillRecord, prune(older));
+    }
+
+    /**
+     * Drop the versions older than the newest version each unresolved snapshot reads.
+     *
+     * @param older the versions no longer current, newest first.
+     * @return the versions still needed.
+     */
+    @Nullable
+    private Version prune(@Nullable Version older) {
+        Long oldestSnapshot = pendingSnapshots.ceiling(Long.MIN_VALUE);
+        if (oldestSnapshot == null) {
+            return null;
+        }
+
+        for (Version version = older; version != null; version = version.older) {
+            if (version.generation < oldestSnapshot) {
+                version.older = null;
+                break;
+            }
+        }
+        return older;
+    }
+
+    @Nullable
+    private Slot getHotSlot(UUID streamId) {
+        Slot slot = hotStreams.get(streamId);
+        if (slot != null) {
+            return slot;
+        }
+
+        slot = spilledStreams.remove(streamId);
+        if (slot == null) {
+            return null;
+        }
+
+        SpillRecord record = slot.current.spillRecord;
+        update(slot, readRecord(record, trimMark), null);
+        liveSpilledBytes -= record.length;
+        pageIns.inc();
+        hotStreams.put(streamId, slot);
+        return slot;
+    }
+
+    /**
+     * Whether an address space exists for the stream, in memory or spilled.
+     */
+    public boolean containsKey(UUID streamId) {
+        return hotStreams.containsKey(streamId) || spilledStreams.containsKey(streamId);
+    }
+
+    /**
+     * Number of streams, in memory and spilled.
+     */
+    public int size() {
+        return hotStreams.size() + spilledStreams.size();
+    }
+
+    /**
+     * Trim all addresses lower or equal to the trim mark.
+     *
+     * @param newTrimMark upper limit of addresses to trim.
+     */
+    public void trim(long newTrimMark) {
+        trimMark = Math.max(trimMark, newTrimMark);
+        if (!Address.isAddress(trimMark)) {
+            return;
+        }
+
+        for (Slot slot : hotStreams.values()) {
+            if (slot.current.addressSpace.getAddressMap().rankLong(trimMark) == 0) {
+                // Nothing to trim, keep the version snapshots read
+                continue;
+            }
+            getOwned(slot).trim(trimMark);
+        }
+    }
+
+    /**
+     * Replace all address spaces.
+     *
+     * @param addressSpaces the new address spaces.
+     */
+    public void reset(Map<UUID, StreamAddressSpace> addressSpaces) {
+        streams.values().forEach(slot -> update(slot, null, null));
+        hotStreams.clear();
+        spilledStreams.clear();
+        liveSpilledBytes = 0L;
+        trimMark = Address.NON_ADDRESS;
+        openSpillFile();
+        addressSpaces.forEach((streamId, addressSpace) -> {
+            Slot slot = streams.computeIfAbsent(streamId, id -> new Slot());
+            update(slot, addressSpace, null);
+            hotStreams.put(streamId, slot);
+        });
+        streams.values().removeIf(slot -> slot.current.isRemoved() && slot.current.older == null);
+    }
+
+    /**
+     * Take a snapshot of the address spaces of all streams, in constant time. The snapshot
+     * must be closed once resolved, so that the versions and the spill file it reads can be
+     * dropped.
+     *
+     * @return the snapshot.
+     */
+    public Snapshot snapshot() {
+        final long snapshotGeneration = ++generation;
+        pendingSnapshots.add(snapshotGeneration);
+        return new Snapshot(snapshotGeneration, trimMark, spillFile == null ? null : spillFile.retain());
+    }
+
+    /**
+     * The address spaces of all streams at the time of a {@link #snapshot()}.
+     */
+    public class Snapshot implements AutoCloseable {
+        private final long generation;
+        private final long trimMark;
+
+        @Nullable
+        private final SpillFile spillFile;
+
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Snapshot(long generation, long trimMark, @Nullable SpillFile spillFile) {
+            this.generation = generation;
+            this.trimMark = trimMark;
+            this.spillFile = spillFile;
+        }
+
+        /**
+         * Read the address spaces of the snapshot, on any thread. In-memory address spaces
+         * are copied and run-length optimized, spilled ones are read from the spill file.
+         * Versions unmodified since a previous snapshot reuse its copies.
+         *
+         * <p>The address spaces returned may be shared with other snapshots and must not be
+         * modified.
+         *
+         * @return map of every stream to its address space.
+         */
+        public Map<UUID, StreamAddressSpace> resolve() {
+            if (closed.get()) {
+                throw new IllegalStateException("Snapshot " + generation + " is closed");
+            }
+
+            Map<UUID, StreamAddressSpace> addressSpaces = new HashMap<>();
+            streams.forEach((streamId, slot) -> {
+                Version version = slot.current;
+                while (version != null && version.generation >= generation) {
+                    version = version.older;
+                }
+                if (version != null && !version.isRemoved()) {
+                    addressSpaces.put(streamId, version.getSnapshotCopy(trimMark, snapshotCopies));
+                }
+            });
+            return addressSpaces;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                pendingSnapshots.remove(generation);
+                if (spillFile != null) {
+                    spillFile.release();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            spillFile.release();
+            spillFile = null;
+        }
+    }
+
+    private void removeStaleSpillFiles() {
+        if (spillDir == null || !Files.isDirectory(spillDir)) {
+            return;
+        }
+
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(spillDir, SPILL_FILE_NAME + "*")) {
+            for (Path path : stale) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("removeStaleSpillFiles: Failed to remove spill files in {}", spillDir, e);
+        }
+    }
+
+    private void openSpillFile() {
+        if (spillDir == null) {
+            return;
+        }
+
+        close();
+        spillFile = newSpillFile();
+        spillFileSize = 0L;
+    }
+
+    private SpillFile newSpillFile() {
+        try {
+            Files.createDirectories(spillDir);
+            return new SpillFile(spillDir.resolve(SPILL_FILE_NAME + "." + spillFileIndex++));
+        } catch (IOException e) {
+            throw new UnrecoverableCorfuError("Unable to open sequencer spill file", e);
+        }
+    }
+
+    private void spill(UUID streamId, Slot slot) {
+        Version current = slot.current;
+        Roaring64NavigableMap addressMap = current.addressSpace.getAddressMap();
+
+        try {
+            if (current.generation == generation) {
+                // Snapshots may be reading the address space otherwise
+                addressMap.runOptimize();
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                    RECORD_HEADER_SIZE + (int) addressMap.serializedSizeInBytes());
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeLong(current.addressSpace.getTrimMark());
+            addressMap.serialize(out);
+            out.flush();
+
+            ByteBuffer record = ByteBuffer.wrap(bytes.toByteArray());
+            int length = record.remaining();
+            long offset = spillFileSize;
+            while (record.hasRemaining()) {
+                spillFile.channel.write(record, offset + record.position());
+            }
+
+            spillFileSize += length;
+            liveSpilledBytes += length;
+            update(slot, null, new SpillRecord(spillFile, offset, length));
+            spilledStreams.put(streamId, slot);
+            spills.inc();
+        } catch (IOException e) {
+            throw new UnrecoverableCorfuError("Unable to spill address space of stream " + streamId, e);
+        }
+
+        if (spillFileSize > MIN_COMPACTION_SIZE && spillFileSize > 2 * liveSpilledBytes) {
+            compact();
+        }
+    }
+
+    private static StreamAddressSpace readRecord(SpillRecord record, long trimMark) {
+        ByteBuffer buffer = ByteBuffer.allocate(record.length);
+        try {
+            while (buffer.hasRemaining()) {
+                if (record.file.channel.read(buffer, record.offset + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of spill file");
+                }
+            }
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer.array()));
+            long streamTrimMark = in.readLong();
+            Roaring64NavigableMap addressMap = new Roaring64NavigableMap();
+            addressMap.deserialize(in);
+
+            StreamAddressSpace addressSpace = new StreamAddressSpace(streamTrimMark, addressMap);
+            addressSpace.trim(trimMark);
+            return addressSpace;
+        } catch (IOException e) {
+            throw new UnrecoverableCorfuError("Unable to read spilled address space", e);
+        }
+    }
+
+    /**
+     * Copy the live records of the spill file into a new spill file. The old spill file is
+     * removed once no snapshot reads it anymore.
+     */
+    private void compact() {
+        SpillFile compacted = newSpillFile();
+        try {
+            long offset = 0L;
+            for (Slot slot : spilledStreams.values()) {
+                SpillRecord record = slot.current.spillRecord;
+                long transferred = 0L;
+                while (transferred < record.length) {
+                    long count = record.file.channel.transferTo(record.offset + transferred,
+                            record.length - transferred, compacted.channel);
+                    if (count <= 0) {
+                        throw new IOException("Unexpected end of spill file");
+                    }
+                    transferred += count;
+                }
+                update(slot, null, new SpillRecord(compacted, offset, record.length));
+                offset += record.length;
+            }
+
+            log.debug("compact: Spill file compacted from {} to {} bytes", spillFileSize, offset);
+            spillFile.release();
+            spillFile = compacted;
+            spillFileSize = offset;
+        } catch (IOException e) {
+            compacted.release();
+            throw new UnrecoverableCorfuError("Unable to compact sequencer spill file", e);
+        }
+    }
+}
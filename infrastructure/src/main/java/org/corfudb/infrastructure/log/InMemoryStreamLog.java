@@ -1,11 +1,13 @@
 package org.corfudb.infrastructure.log;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -64,6 +66,23 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
         logMetadata.update(entry);
     }
 
+    @Override
+    public synchronized void appendRecords(List<byte[]> records) {
+        List<LogData> entries = records.stream()
+                .map(StreamLogFiles::decodeRecord)
+                .collect(Collectors.toList());
+
+        for (int ind = 0; ind < entries.size(); ind++) {
+            LogData written = logCache.get(entries.get(ind).getGlobalAddress());
+            if (written != null && !isTrimmed(written.getGlobalAddress())
+                    && !Arrays.equals(StreamLogFiles.encodeRecord(written), records.get(ind))) {
+                throw new OverwriteException(OverwriteCause.DIFF_DATA);
+            }
+        }
+
+        append(entries);
+    }
+
     private boolean isTrimmed(long address) {
         return address < startingAddress || trimmed.contains(address);
     }
@@ -130,6 +149,18 @@ public class InMemoryStreamLog implements StreamLog, StreamLogWithRankedAddressS
         return logCache.get(address);
     }
 
+    @Override
+    public Map<Long, byte[]> readRecords(long start, long end) {
+        Map<Long, byte[]> records = new HashMap<>();
+        for (long address = start; address <= end; address++) {
+            LogData entry = logCache.get(address);
+            if (entry != null && !isTrimmed(address)) {
+                records.put(address, StreamLogFiles.encodeRecord(entry));
+            }
+        }
+        return records;
+    }
+
     @Override
     public void sync(boolean force){
         //no-op
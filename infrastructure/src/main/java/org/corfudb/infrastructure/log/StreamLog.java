@@ -1,7 +1,10 @@
 package org.corfudb.infrastructure.log;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.corfudb.protocols.wireprotocol.LogData;
@@ -9,6 +12,8 @@ import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.OverwriteCause;
+import org.corfudb.runtime.exceptions.OverwriteException;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
 
 /**
  * An interface definition that specifies an api to interact with a StreamLog.
@@ -34,6 +39,30 @@ public interface StreamLog {
      */
     void append(List<LogData> entries);
 
+    /**
+     * Append records in their stored format (see {@link #readRecords(long, long)}), for instance
+     * read from another log unit. The checksums of every record are validated before any of them
+     * is written. Records of trimmed addresses, and records identical to the ones already
+     * written, are skipped.
+     *
+     * @param records records ordered by address
+     * @throws OverwriteException if an address already holds a different record
+     */
+    void appendRecords(List<byte[]> records);
+
+    /**
+     * Ingest a pre-built segment file, for instance restored from a backup or copied from
+     * another log unit, in place of a segment which holds no data yet. The whole file is
+     * validated before it is installed.
+     *
+     * @param segmentFile segment file, named after its segment ({@code <segment>.log})
+     * @return the number of entries ingested
+     */
+    default int ingestSegment(Path segmentFile) {
+        throw new UnsupportedOperationException("Segment files can't be ingested by "
+                + getClass().getSimpleName());
+    }
+
     /**
      * Given an address, read the corresponding stream entry.
      * @param address  address to read from the log
@@ -41,6 +70,17 @@ public interface StreamLog {
      */
     LogData read(long address);
 
+    /**
+     * Read the records stored at a range of addresses in their stored format: a metadata header
+     * holding the length and checksums of the record, followed by the serialized entry.
+     * Addresses which are not written or are trimmed are omitted.
+     *
+     * @param start first address (inclusive)
+     * @param end   last address (inclusive)
+     * @return records keyed by address
+     */
+    Map<Long, byte[]> readRecords(long start, long end);
+
     /**
      * Prefix trim the global log.
      * @param address address to trim the log up to
@@ -72,6 +112,24 @@ public interface StreamLog {
      */
     StreamsAddressResponse getStreamsAddressSpace();
 
+    /**
+     * Get the address space for every stream, restricted to addresses greater than or
+     * equal to fromAddress. Streams without such addresses are omitted.
+     *
+     * @param fromAddress lowest address (inclusive) to include.
+     */
+    default StreamsAddressResponse getStreamsAddressSpace(long fromAddress) {
+        StreamsAddressResponse addressSpace = getStreamsAddressSpace();
+        Map<UUID, StreamAddressSpace> delta = new HashMap<>();
+        addressSpace.getAddressMap().forEach((streamId, streamAddressSpace) -> {
+            StreamAddressSpace streamDelta = streamAddressSpace.getAddressesFrom(fromAddress);
+            if (!streamDelta.isEmpty()) {
+                delta.put(streamId, streamDelta);
+            }
+        });
+        return new StreamsAddressResponse(addressSpace.getLogTail(), delta);
+    }
+
     /**
      * Get the first untrimmed address in the address space.
      */
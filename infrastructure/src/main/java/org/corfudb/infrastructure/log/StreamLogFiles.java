@@ -28,6 +28,7 @@ import org.corfudb.runtime.exceptions.DataCorruptionException;
 import org.corfudb.runtime.exceptions.OverwriteCause;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
+import org.corfudb.runtime.view.Address;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -42,8 +43,10 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -240,6 +243,65 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return getByteBuffer(metadata, message);
     }
 
+    /**
+     * Encode an entry as a record in stored format.
+     *
+     * @param entry entry to encode
+     * @return the record's metadata followed by the serialized entry
+     */
+    public static byte[] encodeRecord(LogData entry) {
+        return getByteBufferWithMetaData(getLogEntry(entry.getGlobalAddress(), entry)).array();
+    }
+
+    /**
+     * Decode a record in stored format, validating its checksums.
+     *
+     * @param record the record's metadata followed by the serialized entry
+     * @return the decoded entry
+     */
+    static LogData decodeRecord(byte[] record) {
+        return getLogData(parseRecordEntry(record, parseRecordMetadata(record)));
+    }
+
+    /**
+     * Parse the metadata of a record in stored format and validate the record's length
+     * against it.
+     */
+    private static Metadata parseRecordMetadata(byte[] record) {
+        if (record.length < METADATA_SIZE) {
+            throw new DataCorruptionException("Record of " + record.length + " bytes has no metadata");
+        }
+
+        Metadata metadata;
+        try {
+            metadata = Metadata.parseFrom(Arrays.copyOfRange(record, 0, METADATA_SIZE));
+        } catch (InvalidProtocolBufferException e) {
+            throw new DataCorruptionException("Can't parse record metadata", e);
+        }
+
+        if (metadata.getLengthChecksum() != Checksum.getChecksum(metadata.getLength())
+                || metadata.getLength() != record.length - METADATA_SIZE) {
+            throw new DataCorruptionException("Record metadata: invalid length");
+        }
+        return metadata;
+    }
+
+    /**
+     * Parse the entry of a record in stored format, validating its checksum.
+     */
+    private static LogEntry parseRecordEntry(byte[] record, Metadata metadata) {
+        byte[] payload = Arrays.copyOfRange(record, METADATA_SIZE, record.length);
+        if (metadata.getPayloadChecksum() != Checksum.getChecksum(payload)) {
+            throw new DataCorruptionException("Record checksum mismatch");
+        }
+
+        try {
+            return LogEntry.parseFrom(payload);
+        } catch (InvalidProtocolBufferException e) {
+            throw new DataCorruptionException("Can't parse record entry", e);
+        }
+    }
+
     @Override
     public long getLogTail() {
         return logMetadata.getGlobalTail();
@@ -282,10 +344,8 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
             return;
         }
 
-        // TODO(Maithem): Although this operation is persisted to disk,
-        // the startingAddress can be lost even after the method has completed.
-        // This is due to the fact that updates on the local datastore don't
-        // expose disk sync functionality.
+        // The data store syncs its journal before returning, so the new starting
+        // address is durable once the trim is acknowledged.
         long newStartingAddress = address + 1;
         dataStore.updateStartingAddress(newStartingAddress);
         syncTailSegment(address);
@@ -381,8 +441,11 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         log.info("trimPrefix: completed, end segment {}", endSegment);
     }
 
-    private LogData getLogData(LogEntry entry) {
-        ByteBuf data = Unpooled.wrappedBuffer(entry.getData().toByteArray());
+    static LogData getLogData(LogEntry entry) {
+        return getLogData(entry, Unpooled.wrappedBuffer(entry.getData().toByteArray()));
+    }
+
+    private static LogData getLogData(LogEntry entry, ByteBuf data) {
         LogData logData = new LogData(org.corfudb.protocols.wireprotocol
                 .DataType.typeMap.get((byte) entry.getDataType().getNumber()), data);
 
@@ -739,7 +802,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return handle;
     }
 
-    private Map<String, Long> getStrLongMap(Map<UUID, Long> uuidLongMap) {
+    private static Map<String, Long> getStrLongMap(Map<UUID, Long> uuidLongMap) {
         Map<String, Long> stringLongMap = new HashMap<>();
 
         for (Map.Entry<UUID, Long> entry : uuidLongMap.entrySet()) {
@@ -750,7 +813,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     @SuppressWarnings("checkstyle:abbreviationaswordinname")  // Due to deprecation
-    private Map<UUID, Long> getUUIDLongMap(Map<String, Long> stringLongMap) {
+    private static Map<UUID, Long> getUUIDLongMap(Map<String, Long> stringLongMap) {
         Map<UUID, Long> uuidLongMap = new HashMap<>();
 
         for (Map.Entry<String, Long> entry : stringLongMap.entrySet()) {
@@ -761,7 +824,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     @SuppressWarnings("checkstyle:abbreviationaswordinname") // Due to deprecation
-    private Set<String> getStrUUID(Set<UUID> uuids) {
+    private static Set<String> getStrUUID(Set<UUID> uuids) {
         Set<String> strUUIds = new HashSet<>();
 
         for (UUID uuid : uuids) {
@@ -771,7 +834,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return strUUIds;
     }
 
-    private LogEntry getLogEntry(long address, LogData entry) {
+    private static LogEntry getLogEntry(long address, LogData entry) {
         byte[] data = new byte[0];
 
         if (entry.getData() != null) {
@@ -815,7 +878,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         return logEntryBuilder.build();
     }
 
-    private Optional<Types.DataRank> createProtobufsDataRank(IMetadata entry) {
+    private static Optional<Types.DataRank> createProtobufsDataRank(IMetadata entry) {
         IMetadata.DataRank rank = entry.getRank();
         if (rank == null) {
             return Optional.empty();
@@ -829,7 +892,7 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
     }
 
     @Nullable
-    private IMetadata.DataRank createDataRank(LogEntry entity) {
+    private static IMetadata.DataRank createDataRank(LogEntry entity) {
         if (!entity.hasRank()) {
             return null;
         }
@@ -848,30 +911,46 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
      */
     private Map<Long, AddressMetaData> writeRecords(SegmentHandle segment,
                                                     List<LogData> entries) throws IOException {
-        Map<Long, AddressMetaData> recordsMap = new HashMap<>();
-
         List<ByteBuffer> entryBuffs = new ArrayList<>();
-        int totalBytes = 0;
-
         List<Metadata> metadataList = new ArrayList<>();
 
         for (LogData curr : entries) {
             LogEntry logEntry = getLogEntry(curr.getGlobalAddress(), curr);
             Metadata metadata = getMetadata(logEntry);
             metadataList.add(metadata);
-            ByteBuffer record = getByteBuffer(metadata, logEntry);
-            totalBytes += record.limit();
-            entryBuffs.add(record);
+            entryBuffs.add(getByteBuffer(metadata, logEntry));
         }
 
+        return writeSerializedRecords(segment, entryBuffs, metadataList, entries);
+    }
+
+    /**
+     * Write serialized records, each made of its metadata followed by its log entry, to the
+     * log file.
+     *
+     * @param segment      segment handle to the logfile
+     * @param records      serialized records
+     * @param metadataList metadata of the records
+     * @param entries      entries of the records, to update the tails
+     * @return A map of AddressMetaData for the written records
+     * @throws IOException IO exception
+     */
+    private Map<Long, AddressMetaData> writeSerializedRecords(SegmentHandle segment,
+                                                              List<ByteBuffer> records,
+                                                              List<Metadata> metadataList,
+                                                              List<LogData> entries)
+            throws IOException {
+        Map<Long, AddressMetaData> recordsMap = new HashMap<>();
+
+        int totalBytes = records.stream().mapToInt(ByteBuffer::remaining).sum();
         ByteBuffer allRecordsBuf = ByteBuffer.allocate(totalBytes);
 
         try (MultiReadWriteLock.AutoCloseableLock ignored =
                      segmentLocks.acquireWriteLock(segment.getSegment())) {
-            for (int ind = 0; ind < entryBuffs.size(); ind++) {
+            for (int ind = 0; ind < records.size(); ind++) {
                 long channelOffset = segment.getWriteChannel().position()
                         + allRecordsBuf.position() + METADATA_SIZE;
-                allRecordsBuf.put(entryBuffs.get(ind));
+                allRecordsBuf.put(records.get(ind));
                 Metadata metadata = metadataList.get(ind);
                 recordsMap.put(entries.get(ind).getGlobalAddress(),
                         new AddressMetaData(metadata.getPayloadChecksum(),
@@ -1125,6 +1204,299 @@ public class StreamLogFiles implements StreamLog, StreamLogWithRankedAddressSpac
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The records are written to the segment files as they are, without being decoded and
+     * re-encoded. Only the entries' stream metadata is decoded, to update the tails.
+     */
+    @Override
+    public void appendRecords(List<byte[]> records) {
+        // Validate every record before writing any of them.
+        List<Metadata> metadataList = new ArrayList<>(records.size());
+        List<LogEntry> entries = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            Metadata metadata = parseRecordMetadata(record);
+            LogEntry entry = parseRecordEntry(record, metadata);
+            if (!entries.isEmpty()
+                    && entry.getGlobalAddress() <= entries.get(entries.size() - 1).getGlobalAddress()) {
+                throw new IllegalArgumentException("Records not ordered by address: "
+                        + entry.getGlobalAddress());
+            }
+            metadataList.add(metadata);
+            entries.add(entry);
+        }
+
+        // Write the records segment by segment.
+        int from = 0;
+        while (from < entries.size()) {
+            long segment = entries.get(from).getGlobalAddress() / RECORDS_PER_LOG_FILE;
+            int to = from + 1;
+            while (to < entries.size()
+                    && entries.get(to).getGlobalAddress() / RECORDS_PER_LOG_FILE == segment) {
+                to++;
+            }
+
+            writeRawRecords(records.subList(from, to), metadataList.subList(from, to),
+                    entries.subList(from, to));
+            from = to;
+        }
+    }
+
+    /**
+     * Write records in stored format, which all belong to the same segment. Records of
+     * trimmed addresses are skipped, as are records of written addresses which are
+     * identical to the stored ones.
+     *
+     * @throws OverwriteException if an address holds a different record
+     */
+    private void writeRawRecords(List<byte[]> records, List<Metadata> metadataList,
+                                 List<LogEntry> entries) {
+        SegmentHandle sh = getSegmentHandleForAddress(entries.get(0).getGlobalAddress());
+
+        try {
+            List<ByteBuffer> pendingRecords = new ArrayList<>();
+            List<Metadata> pendingMetadata = new ArrayList<>();
+            List<LogData> pendingEntries = new ArrayList<>();
+            for (int ind = 0; ind < entries.size(); ind++) {
+                long address = entries.get(ind).getGlobalAddress();
+                if (isTrimmed(address) || sh.getTrimmedAddresses().contains(address)) {
+                    continue;
+                }
+
+                AddressMetaData written = sh.getKnownAddresses().get(address);
+                if (written != null) {
+                    if (!Arrays.equals(readRawRecord(sh, written), records.get(ind))) {
+                        log.error("Disk_write[{}]: Overwrite with a different record", address);
+                        throw new OverwriteException(OverwriteCause.DIFF_DATA);
+                    }
+                    continue;
+                }
+
+                pendingRecords.add(ByteBuffer.wrap(records.get(ind)));
+                pendingMetadata.add(metadataList.get(ind));
+                pendingEntries.add(getLogData(entries.get(ind), Unpooled.EMPTY_BUFFER));
+            }
+
+            if (pendingRecords.isEmpty()) {
+                return;
+            }
+
+            sh.getKnownAddresses().putAll(
+                    writeSerializedRecords(sh, pendingRecords, pendingMetadata, pendingEntries));
+        } catch (IOException e) {
+            log.error("Disk_write[{}-{}]: Exception", entries.get(0).getGlobalAddress(),
+                    entries.get(entries.size() - 1).getGlobalAddress(), e);
+            throw new RuntimeException(e);
+        } finally {
+            sh.release();
+        }
+    }
+
+    @Override
+    public Map<Long, byte[]> readRecords(long start, long end) {
+        Map<Long, byte[]> records = new HashMap<>();
+        long address = Math.max(start, dataStore.getStartingAddress());
+        // Do not open segments past the tail.
+        long last = Math.min(end, getLogTail());
+
+        while (address <= last) {
+            SegmentHandle sh = getSegmentHandleForAddress(address);
+            long segmentEnd = Math.min(last, (sh.getSegment() + 1) * RECORDS_PER_LOG_FILE - 1);
+
+            try {
+                for (; address <= segmentEnd; address++) {
+                    AddressMetaData metaData = sh.getKnownAddresses().get(address);
+                    if (metaData == null || sh.getPendingTrims().contains(address)) {
+                        continue;
+                    }
+
+                    records.put(address, readRawRecord(sh, metaData));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                sh.release();
+            }
+        }
+
+        return records;
+    }
+
+    /**
+     * Read a record in stored format: its metadata followed by its log entry.
+     */
+    private static byte[] readRawRecord(SegmentHandle sh, AddressMetaData metaData)
+            throws IOException {
+        // The record starts with its metadata, which precedes the entry's offset.
+        ByteBuffer record = ByteBuffer.allocate(METADATA_SIZE + metaData.length);
+        long recordOffset = metaData.offset - METADATA_SIZE;
+        while (record.hasRemaining()) {
+            if (sh.getReadChannel().read(record, recordOffset + record.position()) < 0) {
+                throw new IOException("Unexpected end of file " + sh.getFileName());
+            }
+        }
+        return record.array();
+    }
+
+    /**
+     * Ingest a pre-built segment file, for instance restored from a backup or copied from the
+     * log directory of another log unit, in place of a segment which holds no data yet on this
+     * log unit.
+     *
+     * <p>The file is first copied next to the segment files and validated sequentially: its
+     * header has to match this log's version and checksum mode, and every record has to be
+     * complete, pass its checksums and belong to the segment. Only then is it atomically moved
+     * in place of the segment, whose address space is loaded from the validation pass, and the
+     * tail metadata is rebuilt from the same pass.
+     *
+     * @param segmentFile segment file, named after its segment ({@code <segment>.log})
+     * @return the number of entries ingested
+     */
+    @Override
+    public synchronized int ingestSegment(Path segmentFile) {
+        long segment = parseSegment(segmentFile);
+        long segmentStart = segment * RECORDS_PER_LOG_FILE;
+        Path target = logDir.resolve(segment + ".log");
+        Path staged = logDir.resolve(segment + ".log.ingest");
+
+        try (MultiReadWriteLock.AutoCloseableLock ignored = segmentLocks.acquireWriteLock(segment)) {
+            SegmentHandle current = getSegmentHandleForAddress(segmentStart);
+            try {
+                if (!current.getKnownAddresses().isEmpty() || current.getRefCount() > 1) {
+                    throw new IllegalStateException("Segment " + segment + " already holds data");
+                }
+            } finally {
+                current.release();
+            }
+
+            Map<Long, AddressMetaData> addresses = new HashMap<>();
+            List<LogData> entries = new ArrayList<>();
+            try {
+                Files.copy(segmentFile, staged, StandardCopyOption.REPLACE_EXISTING);
+                validateSegment(staged, segment, addresses, entries);
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory(logDir.toString());
+            } catch (IOException e) {
+                log.error("ingestSegment: Failed to install {} as segment {}", segmentFile, segment, e);
+                throw new RuntimeException(e);
+            } finally {
+                FileUtils.deleteQuietly(staged.toFile());
+            }
+
+            // Replace the handle of the empty segment by one on the ingested file.
+            SegmentHandle replaced = writeChannels.remove(target.toString());
+            if (replaced != null) {
+                replaced.close();
+            }
+            installSegmentHandle(segment, target, addresses);
+
+            long maxAddress = Address.NON_ADDRESS;
+            for (LogData entry : entries) {
+                if (isTrimmed(entry.getGlobalAddress())) {
+                    continue;
+                }
+                logMetadata.update(entry);
+                maxAddress = Math.max(maxAddress, entry.getGlobalAddress());
+            }
+            if (maxAddress != Address.NON_ADDRESS) {
+                syncTailSegment(maxAddress);
+            }
+
+            log.info("ingestSegment: Ingested {} entries from {} as segment {}",
+                    entries.size(), segmentFile, segment);
+            return entries.size();
+        }
+    }
+
+    private static long parseSegment(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        if (!name.endsWith(".log")) {
+            throw new IllegalArgumentException("Not a segment file: " + segmentFile);
+        }
+        try {
+            return Long.parseLong(name.substring(0, name.length() - ".log".length()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a segment file: " + segmentFile, e);
+        }
+    }
+
+    /**
+     * Validate a segment file in a single sequential pass, collecting the address space of the
+     * segment and the metadata of its entries (without their payloads).
+     */
+    private void validateSegment(Path file, long segment, Map<Long, AddressMetaData> addresses,
+                                 List<LogData> entries) throws IOException {
+        String fileName = file.toString();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            LogHeader header = parseHeader(channel, fileName);
+            if (header == null) {
+                throw new DataCorruptionException("Partially written header in " + fileName);
+            }
+            if (header.getVersion() != VERSION) {
+                throw new DataCorruptionException("Log version " + header.getVersion() + " of "
+                        + fileName + " should match the LogUnit log version " + VERSION);
+            }
+            if (verify && !header.getVerifyChecksum()) {
+                throw new DataCorruptionException("Log file " + fileName
+                        + " not generated with check sums, can't verify!");
+            }
+
+            while (channel.size() - channel.position() > 0) {
+                long channelOffset = channel.position();
+                Metadata metadata = parseMetadata(channel, fileName);
+                ByteBuffer payload = metadata == null ? null : getPayloadForMetadata(channel, metadata);
+                if (payload == null) {
+                    throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                            "Partially written record", channel, fileName));
+                }
+                if (metadata.getPayloadChecksum() != Checksum.getChecksum(payload.array())) {
+                    throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                            "Checksum mismatch", channel, fileName));
+                }
+
+                LogEntry entry;
+                try {
+                    entry = LogEntry.parseFrom(payload.array());
+                } catch (InvalidProtocolBufferException e) {
+                    throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                            "Invalid entry", channel, fileName), e);
+                }
+
+                long address = entry.getGlobalAddress();
+                if (address / RECORDS_PER_LOG_FILE != segment || addresses.containsKey(address)) {
+                    throw new DataCorruptionException(getDataCorruptionErrorMessage(
+                            "Unexpected address " + address, channel, fileName));
+                }
+
+                addresses.put(address, new AddressMetaData(metadata.getPayloadChecksum(),
+                        metadata.getLength(), channelOffset + METADATA_SIZE));
+                entries.add(getLogData(entry, Unpooled.EMPTY_BUFFER));
+            }
+        }
+    }
+
+    private void installSegmentHandle(long segment, Path file,
+                                      Map<Long, AddressMetaData> addresses) {
+        String filePath = file.toString();
+        FileChannel writeCh = null;
+        FileChannel readCh = null;
+        try {
+            writeCh = getChannel(filePath, false);
+            readCh = getChannel(filePath, true);
+            writeCh.position(writeCh.size());
+
+            SegmentHandle sh = new SegmentHandle(segment, writeCh, readCh, filePath);
+            sh.getKnownAddresses().putAll(addresses);
+            writeChannels.put(filePath, sh);
+        } catch (IOException e) {
+            log.error("Error opening file {}", filePath, e);
+            IOUtils.closeQuietly(writeCh);
+            IOUtils.closeQuietly(readCh);
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public LogData read(long address) {
         if (isTrimmed(address)) {
@@ -3,6 +3,7 @@ package org.corfudb.infrastructure.management;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.management.failuredetector.ClusterGraph;
+import org.corfudb.infrastructure.management.failuredetector.IncrementalClusterGraph;
 import org.corfudb.protocols.wireprotocol.ClusterState;
 import org.corfudb.protocols.wireprotocol.failuredetector.NodeRank;
 
@@ -24,8 +25,14 @@ public class CompleteGraphAdvisor implements ClusterAdvisor {
 
     private final String localEndpoint;
 
+    /**
+     * Symmetric graph of the cluster, updated with the connectivity changes of every cluster state.
+     */
+    private final IncrementalClusterGraph clusterGraph;
+
     public CompleteGraphAdvisor(@NonNull String localEndpoint) {
         this.localEndpoint = localEndpoint;
+        this.clusterGraph = new IncrementalClusterGraph(localEndpoint);
     }
 
     @Override
@@ -59,9 +66,7 @@ public class CompleteGraphAdvisor implements ClusterAdvisor {
                 clusterState, unresponsiveServers
         );
 
-        ClusterGraph graph = ClusterGraph.toClusterGraph(clusterState, localEndpoint);
-
-        ClusterGraph symmetric = graph.toSymmetric();
+        ClusterGraph symmetric = clusterGraph.update(clusterState);
         Optional<NodeRank> maybeDecisionMaker = symmetric.getDecisionMaker();
 
         if (!maybeDecisionMaker.isPresent()) {
@@ -132,7 +137,7 @@ public class CompleteGraphAdvisor implements ClusterAdvisor {
         }
 
         //Transform a ClusterState to the ClusterGraph and make it symmetric (symmetric failures)
-        ClusterGraph symmetricGraph = ClusterGraph.toClusterGraph(clusterState, localEndpoint).toSymmetric();
+        ClusterGraph symmetricGraph = clusterGraph.update(clusterState);
 
         //See if local node is healed.
         return symmetricGraph.findFullyConnectedNode(localEndpoint, unresponsiveServers);
@@ -146,6 +151,6 @@ public class CompleteGraphAdvisor implements ClusterAdvisor {
      */
     @Override
     public ClusterGraph getGraph(ClusterState clusterState) {
-        return ClusterGraph.toClusterGraph(clusterState, localEndpoint).toSymmetric();
+        return clusterGraph.update(clusterState);
     }
 }
@@ -1,9 +1,12 @@
 package org.corfudb.infrastructure.management;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
+import lombok.AllArgsConstructor;
 import lombok.Builder.Default;
 import lombok.Getter;
 import lombok.NonNull;
@@ -17,8 +20,10 @@ import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.IClientRouter;
 import org.corfudb.runtime.clients.ManagementClient;
+import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.Sleep;
 
 import javax.annotation.Nonnull;
@@ -29,7 +34,12 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 /**
@@ -38,7 +48,12 @@ import java.util.stream.Collectors;
  * excluding unresponsiveServers from all endpoints.
  * For every poll method call invoked, it starts a polling round and generates a poll report.
  * Each polling round comprises of "failureThreshold" number of iterations.
- * - We asynchronously poll every known responsive member in the layout.
+ * - We asynchronously poll every known responsive member in the layout. An iteration ends
+ * once every node responded, or once a quorum of nodes responded and every other node is
+ * past its own adaptive timeout (see {@link NodeLatencyTracker}). The polls still in flight
+ * are not waited for: they are carried into the next iterations, and the next rounds, until
+ * they complete or hit the network timeout. A node is never failed before it, and is reported
+ * with its last known state meanwhile.
  * - Poll result aggregation.
  * - If we complete an iteration without detecting failures, we end the round successfully.
  * The management Server ensures only one instance of this class and hence this is NOT thread safe.
@@ -47,6 +62,19 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FailureDetector implements IDetector {
 
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+
+    private static final Timer pollRoundTimer =
+            metrics.timer(CorfuComponent.INFRA_FAILURE_DETECTOR + "poll-round");
+
+    private static final Timer pollIterationTimer =
+            metrics.timer(CorfuComponent.INFRA_FAILURE_DETECTOR + "poll-iteration");
+
+    /**
+     * Duration of the polling rounds which detected failed nodes.
+     */
+    private static final Timer detectionTimer =
+            metrics.timer(CorfuComponent.INFRA_FAILURE_DETECTOR + "detection");
 
     /**
      * Number of iterations to execute to detect a failure in a round.
@@ -66,11 +94,57 @@ public class FailureDetector implements IDetector {
     @Setter
     private NetworkStretcher networkStretcher = NetworkStretcher.builder().build();
 
+    /**
+     * Default fraction of the polled nodes whose responses make up a quorum.
+     */
+    public static final double DEFAULT_POLL_QUORUM_RATIO = 0.5;
+
+    /**
+     * Fraction of the polled nodes whose responses make up a quorum: a polling iteration
+     * doesn't wait for the nodes past their adaptive timeout once more than this fraction of
+     * the nodes responded. A ratio of 1 waits for every node.
+     */
+    @Getter
+    private double pollQuorumRatio = DEFAULT_POLL_QUORUM_RATIO;
+
+    /**
+     * Polls which did not complete within the iteration they were sent in, carried into the
+     * next iterations until their result is reported.
+     */
+    private final Map<String, CompletableFuture<NodeState>> inFlightPolls = new HashMap<>();
+
+    /**
+     * The last completed poll of every node, reported while a newer poll is in flight.
+     */
+    private final Map<String, CompletableFuture<NodeState>> lastCompletedPolls = new HashMap<>();
+
+    /**
+     * Epoch of the carried polls.
+     */
+    private long carriedPollsEpoch = Layout.INVALID_EPOCH;
+
+    @Getter
+    @NonNull
+    @Setter
+    private NodeLatencyTracker latencyTracker = new NodeLatencyTracker();
+
     public FailureDetector(HeartbeatCounter heartbeatCounter, String localEndpoint) {
         this.heartbeatCounter = heartbeatCounter;
         this.localEndpoint = localEndpoint;
     }
 
+    /**
+     * Set the fraction of the polled nodes whose responses make up a quorum.
+     *
+     * @param pollQuorumRatio a ratio in [0, 1]
+     */
+    public void setPollQuorumRatio(double pollQuorumRatio) {
+        if (pollQuorumRatio < 0 || pollQuorumRatio > 1) {
+            throw new IllegalArgumentException("Invalid poll quorum ratio: " + pollQuorumRatio);
+        }
+        this.pollQuorumRatio = pollQuorumRatio;
+    }
+
     /**
      * Executes the policy once.
      * Checks for changes in the layout.
@@ -128,18 +202,27 @@ public class FailureDetector implements IDetector {
             throw new IllegalStateException("Invalid failure threshold");
         }
 
+        Timer.Context roundContext = pollRoundTimer.time();
+        long roundStart = System.nanoTime();
+
+        if (epoch != carriedPollsEpoch) {
+            inFlightPolls.clear();
+            lastCompletedPolls.clear();
+            carriedPollsEpoch = epoch;
+        }
+        inFlightPolls.keySet().retainAll(allServers);
+        lastCompletedPolls.keySet().retainAll(allServers);
+
         List<PollReport> reports = new ArrayList<>();
         for (int iteration = 0; iteration < failureThreshold; iteration++) {
-            PollReport currReport = pollIteration(
-                    allServers, router, epoch, sequencerMetrics, responsiveServers
-            );
-            reports.add(currReport);
+            PolledIteration currIteration = pollIteration(allServers, router, epoch);
+            reports.add(collectReport(currIteration, epoch, sequencerMetrics, responsiveServers));
 
-            Duration restInterval = networkStretcher.getRestInterval(currReport.getElapsedTime());
-            if (!currReport.getFailedNodes().isEmpty()) {
+            Duration restInterval = networkStretcher.getRestInterval(currIteration.elapsedTime);
+            if (!currIteration.getFailedNodes().isEmpty()) {
                 networkStretcher.modifyIterationTimeouts();
 
-                Set<String> allReachableNodes = currReport.getAllReachableNodes();
+                Set<String> allReachableNodes = currIteration.getReachableNodes();
                 tuneRoutersResponseTimeout(
                         router, allReachableNodes, networkStretcher.getCurrentPeriod()
                 );
@@ -179,9 +262,12 @@ public class FailureDetector implements IDetector {
                 .clusterStates(clusterStates)
                 .build();
 
-        Duration totalElapsedTime = reports.stream()
-                .map(PollReport::getElapsedTime)
-                .reduce(Duration.ZERO, Duration::plus);
+        Duration totalElapsedTime = Duration.ofNanos(System.nanoTime() - roundStart);
+
+        long roundNanos = roundContext.stop();
+        if (!failedNodesAggregated.isEmpty()) {
+            detectionTimer.update(roundNanos, TimeUnit.NANOSECONDS);
+        }
 
         return PollReport.builder()
                 .pollEpoch(epoch)
@@ -215,54 +301,99 @@ public class FailureDetector implements IDetector {
     }
 
     /**
-     * Poll iteration step, provides a {@link PollReport} composed from pings and {@link NodeState}-s collected by
-     * this node from the cluster.
+     * Poll iteration step, pings all nodes and returns once the iteration can end.
+     * The polls still in flight are carried into the next iteration, see
+     * {@link #pollAsync(Set, Map, long)}.
+     *
+     * @param allServers    all servers in the cluster
+     * @param clientRouters client clientRouters
+     * @param epoch         current epoch
+     * @return the polls of the iteration
+     */
+    private PolledIteration pollIteration(
+            Set<String> allServers, Map<String, IClientRouter> clientRouters, long epoch) {
+
+        log.trace("Poll iteration. Epoch: {}", epoch);
+
+        long start = System.currentTimeMillis();
+        Timer.Context iterationContext = pollIterationTimer.time();
+
+        Map<String, CompletableFuture<NodeState>> polls = pollAsync(allServers, clientRouters, epoch);
+
+        Duration elapsedTime = Duration.ofMillis(System.currentTimeMillis() - start);
+        iterationContext.stop();
+
+        inFlightPolls.clear();
+        polls.forEach((server, poll) -> {
+            if (poll.isDone()) {
+                lastCompletedPolls.put(server, poll);
+            } else {
+                inFlightPolls.put(server, poll);
+            }
+        });
+
+        return new PolledIteration(polls, elapsedTime);
+    }
+
+    /**
+     * Provides a {@link PollReport} composed from pings and {@link NodeState}-s collected by
+     * this node from the cluster in a poll iteration. Does not wait for the polls still in
+     * flight: their nodes are reported with the result of their last completed poll, or as
+     * reachable but not ready if they never responded.
      * Algorithm:
-     * - ping all nodes
      * - collect all node states
      * - collect wrong epochs
      * - collect connected/failed nodes
      * - calculate if current layout slot is unfilled
      * - build poll report
      *
-     * @param allServers        all servers in the cluster
-     * @param clientRouters     client clientRouters
+     * @param iteration         the polls of the iteration
      * @param epoch             current epoch
      * @param sequencerMetrics  metrics
      * @param responsiveServers all responsive servers in a cluster
      * @return a poll report
      */
-    private PollReport pollIteration(
-            Set<String> allServers, Map<String, IClientRouter> clientRouters, long epoch,
-            SequencerMetrics sequencerMetrics, ImmutableList<String> responsiveServers) {
-
-        log.trace("Poll iteration. Epoch: {}", epoch);
-
-        long start = System.currentTimeMillis();
+    private PollReport collectReport(
+            PolledIteration iteration, long epoch, SequencerMetrics sequencerMetrics,
+            ImmutableList<String> responsiveServers) {
+
+        Map<String, CompletableFuture<NodeState>> polls = new HashMap<>();
+        iteration.polls.forEach((server, poll) -> {
+            if (poll.isDone()) {
+                polls.put(server, poll);
+            } else {
+                polls.put(server, lastCompletedPolls.getOrDefault(server,
+                        CompletableFuture.completedFuture(NodeState.getNotReadyNodeState(
+                                server, Layout.INVALID_EPOCH, NodeState.INVALID_HEARTBEAT_COUNTER))));
+            }
+        });
 
         ClusterStateCollector clusterCollector = ClusterStateCollector.builder()
                 .localEndpoint(localEndpoint)
-                .clusterState(pollAsync(allServers, clientRouters, epoch))
+                .clusterState(polls)
                 .heartbeatCounter(heartbeatCounter)
                 .build();
 
         //Cluster state internal map.
         ClusterState clusterState = clusterCollector.collectClusterState(epoch, sequencerMetrics);
 
-        Duration elapsedTime = Duration.ofMillis(System.currentTimeMillis() - start);
-
         return PollReport.builder()
                 .pollEpoch(epoch)
                 .responsiveServers(responsiveServers)
                 .wrongEpochs(clusterCollector.collectWrongEpochs())
                 .clusterState(clusterState)
-                .elapsedTime(elapsedTime)
+                .elapsedTime(iteration.elapsedTime)
                 .build();
     }
 
     /**
      * Poll all members servers once asynchronously and store their futures in
-     * pollCompletableFutures.
+     * pollCompletableFutures. The nodes whose poll of a previous iteration is still in flight,
+     * or completed but not reported yet, are not polled again: that poll is used instead.
+     * Waits for every poll to complete, or for a quorum of nodes to respond and every other
+     * node to be past its adaptive timeout. In the latter case the polls still in flight are
+     * returned as they are: the adaptive timeouts only end the iteration early, a node is
+     * failed only when its poll fails or hits the network timeout.
      *
      * @param allServers    All active members in the layout.
      * @param clientRouters Map of routers for all active members.
@@ -271,29 +402,127 @@ public class FailureDetector implements IDetector {
      */
     private Map<String, CompletableFuture<NodeState>> pollAsync(
             Set<String> allServers, Map<String, IClientRouter> clientRouters, long epoch) {
+        long start = System.nanoTime();
+        AtomicInteger missingResponses = new AtomicInteger(getPollQuorum(allServers.size()));
+        CompletableFuture<Void> quorum = new CompletableFuture<>();
+
         // Poll servers for health.  All ping activity will happen in the background.
         Map<String, CompletableFuture<NodeState>> clusterState = new HashMap<>();
         allServers.forEach(s -> {
-            try {
-                clusterState.put(s, new ManagementClient(clientRouters.get(s), epoch).sendNodeStateRequest());
-            } catch (Exception e) {
-                CompletableFuture<NodeState> cf = new CompletableFuture<>();
-                cf.completeExceptionally(e);
-                clusterState.put(s, cf);
+            CompletableFuture<NodeState> cf = inFlightPolls.get(s);
+            if (cf == null) {
+                cf = sendPoll(s, clientRouters.get(s), epoch);
             }
+
+            cf.whenComplete((nodeState, ex) -> {
+                if (isResponse(ex) && missingResponses.decrementAndGet() == 0) {
+                    quorum.complete(null);
+                }
+            });
+            clusterState.put(s, cf);
         });
 
         //Ping all nodes in parallel.
         //Possible exceptions are held by their CompletableFutures. They will be handled in pollIteration method
+        CompletableFuture<Void> allPolls = CFUtils.allOf(clusterState.values());
         try {
-            CFUtils.allOf(clusterState.values()).join();
+            CompletableFuture.anyOf(allPolls, quorum).join();
         } catch (Exception ex) {
             //ignore
         }
 
+        if (allPolls.isDone()) {
+            return clusterState;
+        }
+
+        // A quorum responded, only wait for the other nodes up to their own timeouts.
+        Duration maxTimeout = networkStretcher.getCurrentPeriod();
+        clusterState.forEach((server, cf) -> {
+            long deadline = start + latencyTracker.getTimeout(server, maxTimeout).toNanos();
+            try {
+                cf.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException te) {
+                log.debug("pollAsync: {} did not respond within its adaptive timeout", server);
+                latencyTracker.recordTimeout(server);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                //Held by the future, handled in collectReport method
+            }
+        });
+
         return clusterState;
     }
 
+    /**
+     * Send a poll to a node, recording its round trip time once it responds.
+     *
+     * @param server polled node
+     * @param router router to the node
+     * @param epoch  current epoch
+     * @return the poll
+     */
+    private CompletableFuture<NodeState> sendPoll(String server, IClientRouter router, long epoch) {
+        long start = System.nanoTime();
+        CompletableFuture<NodeState> cf;
+        try {
+            cf = new ManagementClient(router, epoch).sendNodeStateRequest();
+        } catch (Exception e) {
+            cf = new CompletableFuture<>();
+            cf.completeExceptionally(e);
+        }
+
+        cf.whenComplete((nodeState, ex) -> {
+            if (isResponse(ex)) {
+                latencyTracker.record(server, Duration.ofNanos(System.nanoTime() - start));
+            } else if (unwrap(ex) instanceof TimeoutException) {
+                latencyTracker.recordTimeout(server);
+            }
+        });
+        return cf;
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException ? ex.getCause() : ex;
+    }
+
+    /**
+     * Whether a poll completed with this exception got a response. Nodes responding with a
+     * wrong epoch responded.
+     */
+    private static boolean isResponse(Throwable ex) {
+        Throwable cause = unwrap(ex);
+        return cause == null || cause instanceof WrongEpochException;
+    }
+
+    /**
+     * Get the number of responses making up a quorum of polled nodes.
+     *
+     * @param numServers number of polled nodes
+     * @return the number of responses after which only the nodes within their timeout are awaited
+     */
+    @VisibleForTesting
+    int getPollQuorum(int numServers) {
+        return Math.min(numServers, (int) Math.floor(numServers * pollQuorumRatio) + 1);
+    }
+
+    /**
+     * Whether a completed poll reached its node. Nodes responding with a wrong epoch are reachable.
+     *
+     * @param poll completed poll
+     * @return true if the node responded
+     */
+    private static boolean isReachable(CompletableFuture<NodeState> poll) {
+        try {
+            poll.join();
+            return true;
+        } catch (CompletionException e) {
+            return e.getCause() instanceof WrongEpochException;
+        } catch (CancellationException e) {
+            return false;
+        }
+    }
+
     /**
      * Set the timeoutResponse for all the routers connected to the given endpoints with the
      * given value.
@@ -312,4 +541,32 @@ public class FailureDetector implements IDetector {
         });
     }
 
+    /**
+     * The polls of a poll iteration, some of which may still be in flight.
+     */
+    @AllArgsConstructor
+    private static class PolledIteration {
+        private final Map<String, CompletableFuture<NodeState>> polls;
+        private final Duration elapsedTime;
+
+        /**
+         * Nodes which responded, including the ones with a wrong epoch.
+         */
+        Set<String> getReachableNodes() {
+            return polls.entrySet().stream()
+                    .filter(poll -> poll.getValue().isDone() && isReachable(poll.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+        }
+
+        /**
+         * Nodes whose polls already failed. Polls still in flight are not failed yet.
+         */
+        Set<String> getFailedNodes() {
+            return polls.entrySet().stream()
+                    .filter(poll -> poll.getValue().isDone() && !isReachable(poll.getValue()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+        }
+    }
 }
@@ -0,0 +1,140 @@
+package org.corfudb.infrastructure.management;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import lombok.NonNull;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.util.CorfuComponent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the round trip times of the failure detector's polls to every node and derives an
+ * individual adaptive timeout for each node from them.
+ *
+ * <p>The timeout of a node follows its smoothed round trip time plus four times its smoothed
+ * deviation, as TCP's retransmission timeout does, and is never lower than the recent 99th
+ * percentile of its round trip times. It doubles every time the node misses it, until the node
+ * responds again. Nodes which never responded get the maximum timeout.
+ *
+ * <p>The adaptive timeouts only decide how long a polling iteration waits for the slow nodes
+ * once a quorum responded. A node is never failed on them, its poll is carried into the next
+ * iterations until it completes or hits the configured network timeout.
+ */
+public class NodeLatencyTracker {
+
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+
+    private static final String RTT_HISTOGRAM_PREFIX = CorfuComponent.INFRA_FAILURE_DETECTOR + "rtt.";
+
+    /**
+     * Gain of the smoothed round trip time.
+     */
+    private static final double RTT_GAIN = 0.125;
+
+    /**
+     * Gain of the smoothed round trip time deviation.
+     */
+    private static final double DEVIATION_GAIN = 0.25;
+
+    private static final int DEVIATION_FACTOR = 4;
+
+    private static final int MAX_BACKOFF = 8;
+
+    /**
+     * Lower bound of the adaptive timeouts, which keeps iterations from ending early on short
+     * pauses of fast nodes.
+     */
+    private final Duration minTimeout;
+
+    private final Map<String, NodeLatency> nodes = new ConcurrentHashMap<>();
+
+    public NodeLatencyTracker() {
+        this(Duration.ofMillis(500));
+    }
+
+    public NodeLatencyTracker(@NonNull Duration minTimeout) {
+        this.minTimeout = minTimeout;
+    }
+
+    /**
+     * Record the round trip time of a poll which got a response.
+     *
+     * @param endpoint polled node
+     * @param rtt      round trip time
+     */
+    public void record(@NonNull String endpoint, @NonNull Duration rtt) {
+        nodes.computeIfAbsent(endpoint, e -> new NodeLatency()).record(rtt.toNanos());
+        metrics.histogram(RTT_HISTOGRAM_PREFIX + endpoint)
+                .update(TimeUnit.NANOSECONDS.toMicros(rtt.toNanos()));
+    }
+
+    /**
+     * Record that a poll did not get a response within the node's timeout.
+     *
+     * @param endpoint polled node
+     */
+    public void recordTimeout(@NonNull String endpoint) {
+        NodeLatency latency = nodes.get(endpoint);
+        if (latency != null) {
+            latency.backOff();
+        }
+    }
+
+    /**
+     * Get the adaptive timeout of a node.
+     *
+     * @param endpoint   polled node
+     * @param maxTimeout upper bound of the timeout
+     * @return the time to wait for a response of the node before ending an iteration early
+     */
+    public Duration getTimeout(@NonNull String endpoint, @NonNull Duration maxTimeout) {
+        NodeLatency latency = nodes.get(endpoint);
+        if (latency == null) {
+            return maxTimeout;
+        }
+
+        long timeout = Math.max(latency.getTimeoutNanos(), minTimeout.toNanos());
+        return Duration.ofNanos(Math.min(timeout, maxTimeout.toNanos()));
+    }
+
+    /**
+     * Latency statistics of a single node.
+     */
+    private static class NodeLatency {
+        private final Histogram histogram = new Histogram(new ExponentiallyDecayingReservoir());
+
+        private double smoothedRtt;
+        private double deviation;
+        private boolean initialized;
+        private int backoff = 1;
+
+        synchronized void record(long rttNanos) {
+            if (!initialized) {
+                smoothedRtt = rttNanos;
+                deviation = rttNanos / 2.0;
+                initialized = true;
+            } else {
+                deviation = (1 - DEVIATION_GAIN) * deviation
+                        + DEVIATION_GAIN * Math.abs(smoothedRtt - rttNanos);
+                smoothedRtt = (1 - RTT_GAIN) * smoothedRtt + RTT_GAIN * rttNanos;
+            }
+            backoff = 1;
+            histogram.update(rttNanos);
+        }
+
+        synchronized void backOff() {
+            backoff = Math.min(backoff * 2, MAX_BACKOFF);
+        }
+
+        synchronized long getTimeoutNanos() {
+            double timeout = Math.max(smoothedRtt + DEVIATION_FACTOR * deviation,
+                    histogram.getSnapshot().get99thPercentile());
+            return (long) (timeout * backoff);
+        }
+    }
+}
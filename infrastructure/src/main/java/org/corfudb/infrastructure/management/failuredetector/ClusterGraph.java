@@ -1,6 +1,9 @@
 package org.corfudb.infrastructure.management.failuredetector;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import lombok.Builder;
 import lombok.NonNull;
@@ -24,6 +27,7 @@ import java.util.NavigableSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -43,15 +47,24 @@ import java.util.stream.Collectors;
  * - transform all asymmetric failures to a symmetric ones. If there is an asymmetric failure
  * (node B can connect to node B, but node B can not connect to node A) between two nodes
  * then make it symmetric which means neither node A nor B can connect to each other.
+ * <p>
+ * A graph is immutable, the decision maker and failed nodes are computed once per graph.
  */
 @Builder
-@ToString
+@ToString(exclude = {"decisionMaker", "failedNodes"})
 @Slf4j
 public class ClusterGraph {
     private ImmutableMap<String, NodeConnectivity> graph;
     @NonNull
     private final String localNode;
 
+    private final Supplier<Optional<NodeRank>> decisionMaker = Suppliers.memoize(this::computeDecisionMaker);
+
+    /**
+     * Failed node, by list of unresponsive servers it has been looked for with.
+     */
+    private final Map<List<String>, Optional<NodeRank>> failedNodes = new ConcurrentHashMap<>();
+
     /**
      * Transform a cluster state to the cluster graph.
      * ClusterState contains some extra information, cluster graph is a pure representation of a graph of nodes.
@@ -116,18 +129,7 @@ public class ClusterGraph {
                             }
                         }
 
-                        //Get connection status for current node
-                        ConnectionStatus nodeConnection = getConnectionStatus(node, adjNode);
-                        //Get connection status for opposite node
-                        ConnectionStatus oppositeNodeConnection = getConnectionStatus(adjNode, node);
-
-                        //Symmetric failure - connection successful only if both nodes connected status is true
-                        //in the other case - make the failure symmetric
-                        ConnectionStatus status = ConnectionStatus.OK;
-                        if (EnumSet.of(nodeConnection, oppositeNodeConnection).contains(ConnectionStatus.FAILED)) {
-                            status = ConnectionStatus.FAILED;
-                        }
-                        newConnectivity.put(adjNodeName, status);
+                        newConnectivity.put(adjNodeName, getSymmetricConnectionStatus(node, adjNode));
                     });
 
             NodeConnectivity symmetricConnectivity = NodeConnectivity.builder()
@@ -150,6 +152,28 @@ public class ClusterGraph {
         return node.getEndpoint().equals(localNode);
     }
 
+    /**
+     * Get the symmetric connection status between two available nodes: the connection is
+     * successful only if both nodes see each other as connected.
+     *
+     * @param node    source node
+     * @param adjNode adjacent node
+     * @return connection status
+     */
+    static ConnectionStatus getSymmetricConnectionStatus(NodeConnectivity node, NodeConnectivity adjNode) {
+        //Get connection status for current node
+        ConnectionStatus nodeConnection = getConnectionStatus(node, adjNode);
+        //Get connection status for opposite node
+        ConnectionStatus oppositeNodeConnection = getConnectionStatus(adjNode, node);
+
+        //Symmetric failure - connection successful only if both nodes connected status is true
+        //in the other case - make the failure symmetric
+        if (EnumSet.of(nodeConnection, oppositeNodeConnection).contains(ConnectionStatus.FAILED)) {
+            return ConnectionStatus.FAILED;
+        }
+        return ConnectionStatus.OK;
+    }
+
     /**
      * Get a decision maker node to detect a failure. It must have:
      * - highest number of successful connections in the graph.
@@ -171,6 +195,10 @@ public class ClusterGraph {
      * @return a decision maker node
      */
     public Optional<NodeRank> getDecisionMaker() {
+        return decisionMaker.get();
+    }
+
+    private Optional<NodeRank> computeDecisionMaker() {
         log.trace("Get decision maker");
 
         NavigableSet<NodeRank> nodes = getNodeRanks();
@@ -200,6 +228,10 @@ public class ClusterGraph {
      * @return failed node
      */
     public Optional<NodeRank> findFailedNode(List<String> unresponsiveServers) {
+        return failedNodes.computeIfAbsent(ImmutableList.copyOf(unresponsiveServers), this::computeFailedNode);
+    }
+
+    private Optional<NodeRank> computeFailedNode(List<String> unresponsiveServers) {
         log.trace("Looking for failed node");
 
         NavigableSet<NodeRank> nodes = getNodeRanks();
@@ -338,7 +370,7 @@ public class ClusterGraph {
      * @param targetNode second node
      * @return connection status
      */
-    private ConnectionStatus getConnectionStatus(NodeConnectivity sourceNode, NodeConnectivity targetNode) {
+    private static ConnectionStatus getConnectionStatus(NodeConnectivity sourceNode, NodeConnectivity targetNode) {
 
         if (sourceNode == null || targetNode == null) {
             String errMsg = "Source or target node is null. Source: " + sourceNode + ", target: " + targetNode;
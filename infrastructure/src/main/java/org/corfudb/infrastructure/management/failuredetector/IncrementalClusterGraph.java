@@ -0,0 +1,192 @@
+package org.corfudb.infrastructure.management.failuredetector;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.wireprotocol.ClusterState;
+import org.corfudb.protocols.wireprotocol.NodeState;
+import org.corfudb.protocols.wireprotocol.failuredetector.NodeConnectivity;
+import org.corfudb.protocols.wireprotocol.failuredetector.NodeConnectivity.ConnectionStatus;
+import org.corfudb.protocols.wireprotocol.failuredetector.NodeConnectivity.NodeConnectivityType;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the symmetric {@link ClusterGraph} of a cluster across failure detection cycles,
+ * instead of transforming every cluster state from scratch.
+ * <p>
+ * Every cycle, only the nodes whose connectivity changed since the previous cluster state are
+ * applied: their own connectivity is made symmetric again, and every other node only gets its
+ * connection status to them updated. The connectivity of the nodes left unchanged is reused as
+ * is. While the connectivity of the cluster doesn't change, the same graph is provided, along
+ * with the decision maker and failed nodes it already computed.
+ * <p>
+ * Produces the same graph as {@link ClusterGraph#toClusterGraph(ClusterState, String)}
+ * followed by {@link ClusterGraph#toSymmetric()}.
+ */
+@Slf4j
+public class IncrementalClusterGraph {
+
+    @NonNull
+    private final String localNode;
+
+    /**
+     * Connectivity of every node, as reported in the last cluster state.
+     */
+    private final Map<String, NodeConnectivity> reported = new HashMap<>();
+
+    /**
+     * Symmetric connection statuses of the available nodes.
+     */
+    private final Map<String, Map<String, ConnectionStatus>> symmetricStatuses = new HashMap<>();
+
+    /**
+     * Symmetric connectivity of every node.
+     */
+    private final Map<String, NodeConnectivity> symmetric = new HashMap<>();
+
+    private ClusterGraph graph;
+
+    public IncrementalClusterGraph(@NonNull String localNode) {
+        this.localNode = localNode;
+    }
+
+    /**
+     * Apply a cluster state.
+     *
+     * @param clusterState latest cluster state
+     * @return the symmetric graph of the cluster state
+     */
+    public synchronized ClusterGraph update(@NonNull ClusterState clusterState) {
+        Map<String, NodeConnectivity> current = new HashMap<>();
+        for (NodeState nodeState : clusterState.getNodes().values()) {
+            current.put(nodeState.getConnectivity().getEndpoint(), nodeState.getConnectivity());
+        }
+
+        Set<String> changed = new HashSet<>();
+        reported.keySet().forEach(endpoint -> {
+            if (!current.containsKey(endpoint)) {
+                changed.add(endpoint);
+            }
+        });
+        current.forEach((endpoint, connectivity) -> {
+            if (!connectivity.equals(reported.get(endpoint))) {
+                changed.add(endpoint);
+            }
+        });
+
+        if (graph != null && changed.isEmpty()) {
+            return graph;
+        }
+
+        try {
+            apply(current, changed);
+        } catch (RuntimeException e) {
+            // Start from scratch on the next cluster state.
+            reset();
+            throw e;
+        }
+
+        log.trace("update: Applied changes of {}", changed);
+        return graph;
+    }
+
+    private void apply(Map<String, NodeConnectivity> current, Set<String> changed) {
+        for (String endpoint : changed) {
+            NodeConnectivity connectivity = current.get(endpoint);
+            if (connectivity == null) {
+                reported.remove(endpoint);
+                symmetricStatuses.remove(endpoint);
+                symmetric.remove(endpoint);
+            } else {
+                reported.put(endpoint, connectivity);
+            }
+        }
+
+        Set<String> updated = new HashSet<>();
+        reported.forEach((endpoint, node) -> {
+            if (changed.contains(endpoint)) {
+                symmetricStatuses.put(endpoint, computeStatuses(node));
+                updated.add(endpoint);
+                return;
+            }
+
+            if (node.getType() == NodeConnectivityType.UNAVAILABLE) {
+                return;
+            }
+
+            Map<String, ConnectionStatus> statuses = symmetricStatuses.get(endpoint);
+            for (String adjNodeName : changed) {
+                if (node.getConnectivity().containsKey(adjNodeName)) {
+                    ConnectionStatus status = getStatus(node, adjNodeName);
+                    if (statuses.put(adjNodeName, status) != status) {
+                        updated.add(endpoint);
+                    }
+                }
+            }
+        });
+
+        for (String endpoint : updated) {
+            NodeConnectivity node = reported.get(endpoint);
+            if (node.getType() == NodeConnectivityType.UNAVAILABLE) {
+                symmetric.put(endpoint, node);
+                continue;
+            }
+
+            symmetric.put(endpoint, NodeConnectivity.builder()
+                    .endpoint(endpoint)
+                    .connectivity(ImmutableMap.copyOf(symmetricStatuses.get(endpoint)))
+                    .type(node.getType())
+                    .build());
+        }
+
+        graph = ClusterGraph.builder()
+                .localNode(localNode)
+                .graph(ImmutableMap.copyOf(symmetric))
+                .build();
+    }
+
+    /**
+     * Compute the symmetric connection statuses of a node to all its adjacent nodes.
+     */
+    private Map<String, ConnectionStatus> computeStatuses(NodeConnectivity node) {
+        Map<String, ConnectionStatus> statuses = new HashMap<>();
+        if (node.getType() == NodeConnectivityType.UNAVAILABLE) {
+            return statuses;
+        }
+
+        node.getConnectivity()
+                .keySet()
+                .forEach(adjNodeName -> statuses.put(adjNodeName, getStatus(node, adjNodeName)));
+        return statuses;
+    }
+
+    /**
+     * Get the symmetric connection status of an available node to an adjacent node,
+     * see {@link ClusterGraph#toSymmetric()}.
+     */
+    private ConnectionStatus getStatus(NodeConnectivity node, String adjNodeName) {
+        NodeConnectivity adjNode = reported.get(adjNodeName);
+        if (adjNode == null) {
+            throw new IllegalArgumentException("Adjacent node not found: " + adjNodeName);
+        }
+
+        //If current node is not the local node and another node is unavailable we don't change
+        // the adjacent node connectivity matrix, we leave it as is
+        if (adjNode.getType() == NodeConnectivityType.UNAVAILABLE && !node.getEndpoint().equals(localNode)) {
+            return node.getConnectionStatus(adjNodeName);
+        }
+
+        return ClusterGraph.getSymmetricConnectionStatus(node, adjNode);
+    }
+
+    private void reset() {
+        reported.clear();
+        symmetricStatuses.clear();
+        symmetric.clear();
+        graph = null;
+    }
+}
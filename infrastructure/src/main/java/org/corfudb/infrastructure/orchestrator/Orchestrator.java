@@ -7,6 +7,7 @@ import io.netty.channel.ChannelHandlerContext;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.IServerRouter;
 import org.corfudb.infrastructure.ServerContext;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransferCheckpoints;
 import org.corfudb.infrastructure.orchestrator.workflows.AddNodeWorkflow;
 import org.corfudb.infrastructure.orchestrator.workflows.ForceRemoveWorkflow;
 import org.corfudb.infrastructure.orchestrator.workflows.HealNodeWorkflow;
@@ -69,10 +70,13 @@ public class Orchestrator {
 
     final ExecutorService executor;
 
+    final StateTransferCheckpoints transferCheckpoints;
+
     public Orchestrator(@Nonnull SingletonResource<CorfuRuntime> runtime,
                         @Nonnull ServerContext serverContext) {
         this.serverContext = serverContext;
         this.getRuntime = runtime;
+        this.transferCheckpoints = new StateTransferCheckpoints(serverContext.getDataStore());
 
         executor = Executors.newFixedThreadPool(Runtime.getRuntime()
                 .availableProcessors(), new ThreadFactory() {
@@ -111,7 +115,8 @@ public class Orchestrator {
                 query(msg, ctx, r);
                 break;
             case ADD_NODE:
-                workflow = new AddNodeWorkflow((AddNodeRequest) orchReq.getRequest());
+                workflow = new AddNodeWorkflow((AddNodeRequest) orchReq.getRequest(),
+                        transferCheckpoints);
                 dispatch(workflow, msg, ctx, r);
                 break;
             case REMOVE_NODE:
@@ -119,7 +124,8 @@ public class Orchestrator {
                 dispatch(workflow, msg, ctx, r);
                 break;
             case HEAL_NODE:
-                workflow = new HealNodeWorkflow((HealNodeRequest) orchReq.getRequest());
+                workflow = new HealNodeWorkflow((HealNodeRequest) orchReq.getRequest(),
+                        transferCheckpoints);
                 dispatch(workflow, msg, ctx, r);
                 break;
             case FORCE_REMOVE_NODE:
@@ -127,7 +133,8 @@ public class Orchestrator {
                 dispatch(workflow, msg, ctx, r);
                 break;
             case RESTORE_REDUNDANCY_MERGE_SEGMENTS:
-                workflow = new RestoreRedundancyMergeSegmentsWorkflow((RestoreRedundancyMergeSegmentsRequest) orchReq.getRequest());
+                workflow = new RestoreRedundancyMergeSegmentsWorkflow(
+                        (RestoreRedundancyMergeSegmentsRequest) orchReq.getRequest(), transferCheckpoints);
                 dispatch(workflow, msg, ctx, r);
                 break;
             default:
@@ -20,6 +20,12 @@ import org.corfudb.runtime.view.Layout;
  */
 public class RestoreRedundancyMergeSegments extends Action {
 
+    private final StateTransferCheckpoints transferCheckpoints;
+
+    public RestoreRedundancyMergeSegments(StateTransferCheckpoints transferCheckpoints) {
+        this.transferCheckpoints = transferCheckpoints;
+    }
+
     /**
      * Returns set of nodes which are present in the next index but not in the specified segment. These
      * nodes have reduced redundancy and state needs to be transferred only to these before these segments can be
@@ -64,10 +70,14 @@ public class RestoreRedundancyMergeSegments extends Action {
             // Currently the state is transferred for the complete segment.
             // TODO: Add stripe specific transfer granularity for optimization.
             // Transfer the replicated segment to the difference set calculated above.
-            StateTransfer.transfer(layout, lowRedundancyServers, runtime, layout.getFirstSegment());
+            Layout.LayoutSegment transferredSegment = layout.getFirstSegment();
+            StateTransfer.transfer(layout, lowRedundancyServers, runtime, transferredSegment,
+                    transferCheckpoints);
 
             // Merge the 2 segments.
             runtime.getLayoutManagementView().mergeSegments(new Layout(layout));
+            lowRedundancyServers.forEach(
+                    endpoint -> transferCheckpoints.remove(endpoint, transferredSegment));
 
             // Refresh layout
             runtime.invalidateLayout();
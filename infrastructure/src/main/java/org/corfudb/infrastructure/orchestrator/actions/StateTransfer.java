@@ -1,50 +1,95 @@
 package org.corfudb.infrastructure.orchestrator.actions;
 
-import com.google.common.collect.ContiguousSet;
-import com.google.common.collect.DiscreteDomain;
-import com.google.common.collect.Range;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
+import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.corfudb.protocols.wireprotocol.ILogData;
+import org.corfudb.infrastructure.log.StreamLogFiles;
 import org.corfudb.protocols.wireprotocol.LogData;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.view.Layout;
+import org.corfudb.runtime.view.RuntimeLayout;
 import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
 
 /**
  * State transfer utility.
+ *
+ * <p>A segment is transferred in chunks of bulk read size addresses, a window of which is
+ * kept in flight. Each chunk is read directly from one of the healthy replicas of its stripes,
+ * rotating over the replicas from chunk to chunk, as records in the log unit's stored format,
+ * and relayed unchanged to the destination nodes, which validate and append them as is.
+ * The progress is checkpointed so that a restarted transfer resumes from the last contiguously
+ * transferred chunk. The caller removes the checkpoints once the transferred segment is
+ * reflected in the layout.
  * Created by zlokhandwala on 2019-02-06.
  */
 @Slf4j
 public class StateTransfer {
 
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+
+    private static final Meter transferredEntries =
+            metrics.meter(CorfuComponent.INFRA_STATE_TRANSFER + "entries");
+
+    private static final Meter transferredBytes =
+            metrics.meter(CorfuComponent.INFRA_STATE_TRANSFER + "bytes");
+
+    /**
+     * Minimum time between two checkpoints of a transfer's progress.
+     */
+    private static final long CHECKPOINT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
     private StateTransfer() {
         // Hide implicit public constructor.
     }
 
+    /**
+     * A chunk of the segment being transferred.
+     */
+    @AllArgsConstructor
+    private static class Chunk {
+        final long end;
+        final Future<Void> result;
+    }
+
     /**
      * Fetch and propagate the trimMark to the new/healing nodes. Else, a FastLoader reading from
      * them will have to mark all the already trimmed entries as holes.
      * Transfer an address segment from a cluster to a set of specified nodes.
      * There are no cluster reconfigurations, hence no epoch change side effects.
      *
-     * @param layout    layout
-     * @param endpoints destination nodes
-     * @param runtime   The runtime to read the segment from
-     * @param segment   segment to transfer
+     * @param layout      layout
+     * @param endpoints   destination nodes
+     * @param runtime     The runtime to read the segment from
+     * @param segment     segment to transfer
+     * @param checkpoints progress of previous attempts of this transfer
      */
     public static void transfer(Layout layout,
                                 Set<String> endpoints,
                                 CorfuRuntime runtime,
-                                Layout.LayoutSegment segment) throws ExecutionException, InterruptedException {
+                                Layout.LayoutSegment segment,
+                                StateTransferCheckpoints checkpoints)
+            throws ExecutionException, InterruptedException {
 
         if (endpoints.isEmpty()) {
             log.debug("stateTransfer: No server needs to transfer for segment [{} - {}], " +
@@ -53,6 +98,8 @@ public class StateTransfer {
         }
 
         int batchSize = runtime.getParameters().getBulkReadSize();
+        int window = Math.max(1, runtime.getParameters().getStateTransferWindow());
+        RuntimeLayout runtimeLayout = runtime.getLayoutView().getRuntimeLayout(layout);
 
         long trimMark = runtime.getAddressSpaceView().getTrimMark().getSequence();
         // Send the trimMark to the new/healing nodes.
@@ -65,9 +112,7 @@ public class StateTransfer {
                     // Since the LU will reject trim decisions made from older epochs, we
                     // need to adjust the new trim mark to have the new layout's epoch.
                     Token prefixToken = new Token(layout.getEpoch(), trimMark - 1);
-                    return runtime.getLayoutView().getRuntimeLayout(layout)
-                            .getLogUnitClient(endpoint)
-                            .prefixTrim(prefixToken);
+                    return runtimeLayout.getLogUnitClient(endpoint).prefixTrim(prefixToken);
                 })
                 .forEach(CFUtils::getUninterruptibly);
 
@@ -79,47 +124,203 @@ public class StateTransfer {
 
         // State transfer should start from segment start address or trim mark whichever is lower.
         long segmentStart = Math.max(trimMark, segment.getStart());
+        long transferStart = getResumeAddress(runtimeLayout, endpoints, segment, checkpoints,
+                segmentStart);
+        if (transferStart > segmentStart) {
+            log.info("stateTransfer: Resuming transfer of segment [{} - {}] to {} from {}",
+                    segment.getStart(), segment.getEnd(), endpoints, transferStart);
+        }
+
+        // Healthy replicas which the segment's stripes can be read from.
+        List<List<String>> sources = segment.getStripes().stream()
+                .map(stripe -> stripe.getLogServers().stream()
+                        .filter(server -> !endpoints.contains(server)
+                                && !layout.getUnresponsiveServers().contains(server))
+                        .collect(Collectors.toList()))
+                .collect(Collectors.toList());
 
-        for (long chunkStart = segmentStart; chunkStart < segment.getEnd()
-                ; chunkStart = chunkStart + batchSize) {
-            long chunkEnd = Math.min((chunkStart + batchSize - 1), segment.getEnd() - 1);
+        ExecutorService executor = Executors.newFixedThreadPool(window,
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("StateTransfer-%d")
+                        .build());
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        long transferredUntil = transferStart;
+        long lastCheckpoint = System.nanoTime();
 
-            long ts1 = System.currentTimeMillis();
+        try {
+            int chunkIndex = 0;
+            for (long chunkStart = transferStart; chunkStart < segment.getEnd()
+                    ; chunkStart = chunkStart + batchSize) {
+                long chunkEnd = Math.min((chunkStart + batchSize - 1), segment.getEnd() - 1);
 
-            Map<Long, ILogData> dataMap = runtime.getAddressSpaceView()
-                    .fetchAll(ContiguousSet.create(Range.closed(chunkStart, chunkEnd),
-                            DiscreteDomain.longs()), true);
+                if (inFlight.size() == window) {
+                    transferredUntil = awaitChunk(inFlight.poll());
+                    if (System.nanoTime() - lastCheckpoint >= CHECKPOINT_INTERVAL_NANOS) {
+                        checkpoint(checkpoints, endpoints, segment, transferredUntil);
+                        lastCheckpoint = System.nanoTime();
+                    }
+                }
 
-            long ts2 = System.currentTimeMillis();
+                final long start = chunkStart;
+                final int sourceIndex = chunkIndex++;
+                inFlight.add(new Chunk(chunkEnd, executor.submit(() -> {
+                    transferChunk(runtime, runtimeLayout, segment, sources, endpoints,
+                            start, chunkEnd, sourceIndex);
+                    return null;
+                })));
+            }
 
-            log.info("stateTransfer: read {}-{} in {} ms", chunkStart, chunkEnd, (ts2 - ts1));
+            while (!inFlight.isEmpty()) {
+                transferredUntil = awaitChunk(inFlight.poll());
+            }
+        } finally {
+            executor.shutdownNow();
+            if (transferredUntil > transferStart) {
+                checkpoint(checkpoints, endpoints, segment, transferredUntil);
+            }
+        }
+    }
 
-            List<LogData> entries = new ArrayList<>();
-            for (long x = chunkStart; x <= chunkEnd; x++) {
-                if (!dataMap.containsKey(x)) {
-                    log.error("Missing address {} in range {}-{}", x, chunkStart, chunkEnd);
-                    throw new IllegalStateException("Missing address");
+    /**
+     * Get the address a transfer should resume from, which is the lowest checkpoint of all the
+     * destination nodes. A checkpoint is discarded if its node does not hold the last address
+     * it covers anymore, for instance because the node has been reset since.
+     */
+    private static long getResumeAddress(RuntimeLayout runtimeLayout,
+                                         Set<String> endpoints,
+                                         Layout.LayoutSegment segment,
+                                         StateTransferCheckpoints checkpoints,
+                                         long segmentStart) {
+        long resumeAddress = segment.getEnd();
+        for (String endpoint : endpoints) {
+            long transferredUntil = checkpoints.get(endpoint, segment).orElse(segmentStart);
+            if (transferredUntil > segmentStart) {
+                long lastTransferred = transferredUntil - 1;
+                LogData data = CFUtils.getUninterruptibly(runtimeLayout
+                        .getLogUnitClient(endpoint).read(lastTransferred))
+                        .getAddresses().get(lastTransferred);
+                if (data == null || data.isEmpty()) {
+                    log.info("getResumeAddress: Discarding checkpoint {} of {}, address {} is missing",
+                            transferredUntil, endpoint, lastTransferred);
+                    transferredUntil = segmentStart;
                 }
-                entries.add((LogData) dataMap.get(x));
+            } else {
+                transferredUntil = segmentStart;
             }
+            resumeAddress = Math.min(resumeAddress, transferredUntil);
+        }
+        return resumeAddress;
+    }
+
+    private static void checkpoint(StateTransferCheckpoints checkpoints, Set<String> endpoints,
+                                   Layout.LayoutSegment segment, long transferredUntil) {
+        endpoints.forEach(endpoint -> checkpoints.put(endpoint, segment, transferredUntil));
+    }
 
-            for (String endpoint : endpoints) {
-                // Write segment chunk to the new logunit
-                ts1 = System.currentTimeMillis();
-                boolean transferSuccess = runtime.getLayoutView().getRuntimeLayout(layout)
-                        .getLogUnitClient(endpoint)
-                        .writeRange(entries).get();
-                ts2 = System.currentTimeMillis();
-
-                if (!transferSuccess) {
-                    log.error("stateTransfer: Failed to transfer {}-{} to {}", chunkStart,
-                            chunkEnd, endpoint);
-                    throw new IllegalStateException("Failed to transfer!");
+    /**
+     * Wait for a chunk to be transferred.
+     *
+     * @return the first address after the chunk
+     */
+    private static long awaitChunk(Chunk chunk) throws ExecutionException, InterruptedException {
+        chunk.result.get();
+        return chunk.end + 1;
+    }
+
+    /**
+     * Read a chunk from the replicas and write it to the destination nodes.
+     */
+    private static void transferChunk(CorfuRuntime runtime,
+                                      RuntimeLayout runtimeLayout,
+                                      Layout.LayoutSegment segment,
+                                      List<List<String>> sources,
+                                      Set<String> endpoints,
+                                      long chunkStart,
+                                      long chunkEnd,
+                                      int sourceIndex) {
+        long ts1 = System.currentTimeMillis();
+        Map<Long, byte[]> records = readChunk(runtime, runtimeLayout, segment, sources,
+                chunkStart, chunkEnd, sourceIndex);
+        long ts2 = System.currentTimeMillis();
+
+        log.info("stateTransfer: read {}-{} in {} ms", chunkStart, chunkEnd, (ts2 - ts1));
+
+        long bytes = 0;
+        for (long x = chunkStart; x <= chunkEnd; x++) {
+            if (!records.containsKey(x)) {
+                log.error("Missing address {} in range {}-{}", x, chunkStart, chunkEnd);
+                throw new IllegalStateException("Missing address");
+            }
+            bytes += records.get(x).length;
+        }
+
+        for (String endpoint : endpoints) {
+            // Write segment chunk to the new logunit. Records already present on the
+            // log unit, written by a previous attempt, are compared and skipped by it.
+            ts1 = System.currentTimeMillis();
+            boolean transferSuccess = CFUtils.getUninterruptibly(
+                    runtimeLayout.getLogUnitClient(endpoint).writeRecords(records));
+            ts2 = System.currentTimeMillis();
+
+            if (!transferSuccess) {
+                log.error("stateTransfer: Failed to transfer {}-{} to {}",
+                        chunkStart, chunkEnd, endpoint);
+                throw new IllegalStateException("Failed to transfer!");
+            }
+
+            log.info("stateTransfer: Transferred address chunk [{}, {}] to {} in {} ms",
+                    chunkStart, chunkEnd, endpoint, (ts2 - ts1));
+        }
+
+        transferredEntries.mark(records.size());
+        transferredBytes.mark(bytes);
+    }
+
+    /**
+     * Read a chunk as records in stored format. Under chain replication any replica of a
+     * stripe holding an entry of a sealed segment holds its committed value, so every stripe is
+     * read from a single replica, picked round robin, which returns its records as stored
+     * without decoding them. Addresses which could not be read that way (other replication
+     * modes, unwritten on the chosen replica) go through the address space view, which applies
+     * the segment's replication protocol, and are encoded here.
+     */
+    private static Map<Long, byte[]> readChunk(CorfuRuntime runtime,
+                                               RuntimeLayout runtimeLayout,
+                                               Layout.LayoutSegment segment,
+                                               List<List<String>> sources,
+                                               long chunkStart,
+                                               long chunkEnd,
+                                               int sourceIndex) {
+        Map<Long, byte[]> records = new HashMap<>();
+
+        if (segment.getReplicationMode() == Layout.ReplicationMode.CHAIN_REPLICATION) {
+            // A log unit only holds the addresses of its own stripes, so every stripe
+            // is asked for the whole chunk.
+            Set<String> queried = new HashSet<>();
+            for (List<String> replicas : sources) {
+                if (replicas.isEmpty()) {
+                    continue;
+                }
+                String source = replicas.get(sourceIndex % replicas.size());
+                if (queried.add(source)) {
+                    records.putAll(CFUtils.getUninterruptibly(runtimeLayout
+                            .getLogUnitClient(source).readRecords(chunkStart, chunkEnd)));
                 }
+            }
+        }
 
-                log.info("stateTransfer: Transferred address chunk [{}, {}] to {} in {} ms",
-                        chunkStart, chunkEnd, endpoint, (ts2 - ts1));
+        List<Long> missing = new ArrayList<>();
+        for (long address = chunkStart; address <= chunkEnd; address++) {
+            if (!records.containsKey(address)) {
+                missing.add(address);
             }
         }
+        if (!missing.isEmpty()) {
+            runtime.getAddressSpaceView().fetchAll(missing, true).forEach((address, data) ->
+                    records.put(address, StreamLogFiles.encodeRecord((LogData) data)));
+        }
+
+        return records;
     }
 }
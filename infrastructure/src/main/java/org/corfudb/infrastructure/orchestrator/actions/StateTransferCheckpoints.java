@@ -0,0 +1,65 @@
+package org.corfudb.infrastructure.orchestrator.actions;
+
+import java.util.Optional;
+
+import lombok.NonNull;
+
+import org.corfudb.infrastructure.IDataStore;
+import org.corfudb.infrastructure.IDataStore.KvRecord;
+import org.corfudb.runtime.view.Layout.LayoutSegment;
+
+/**
+ * Persists the progress of state transfers, so that a state transfer restarted by an action
+ * retry or by a new workflow resumes where the previous attempt stopped instead of starting
+ * over from the beginning of the segment.
+ *
+ * <p>A checkpoint is the address up to which (excluded) a segment has been transferred to an
+ * endpoint. It is removed once the transfer completed and the layout was updated with it.
+ */
+public class StateTransferCheckpoints {
+
+    private static final String PREFIX_STATE_TRANSFER = "STATE_TRANSFER";
+
+    private final IDataStore dataStore;
+
+    public StateTransferCheckpoints(@NonNull IDataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    private static KvRecord<Long> getRecord(String endpoint, LayoutSegment segment) {
+        String key = endpoint + "_" + segment.getStart() + "_" + segment.getEnd();
+        return new KvRecord<>(PREFIX_STATE_TRANSFER, key, Long.class);
+    }
+
+    /**
+     * Get the address up to which a segment has been transferred to an endpoint.
+     *
+     * @param endpoint destination node
+     * @param segment  segment being transferred
+     * @return the first address not yet transferred, if a transfer was checkpointed
+     */
+    public Optional<Long> get(@NonNull String endpoint, @NonNull LayoutSegment segment) {
+        return Optional.ofNullable(dataStore.get(getRecord(endpoint, segment)));
+    }
+
+    /**
+     * Record the address up to which a segment has been transferred to an endpoint.
+     *
+     * @param endpoint         destination node
+     * @param segment          segment being transferred
+     * @param transferredUntil the first address not yet transferred
+     */
+    public void put(@NonNull String endpoint, @NonNull LayoutSegment segment, long transferredUntil) {
+        dataStore.put(getRecord(endpoint, segment), transferredUntil);
+    }
+
+    /**
+     * Remove the checkpoint of a segment transferred to an endpoint.
+     *
+     * @param endpoint destination node
+     * @param segment  segment which was transferred
+     */
+    public void remove(@NonNull String endpoint, @NonNull LayoutSegment segment) {
+        dataStore.delete(getRecord(endpoint, segment));
+    }
+}
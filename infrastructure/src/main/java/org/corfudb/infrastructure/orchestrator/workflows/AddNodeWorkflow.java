@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.orchestrator.Action;
 import org.corfudb.infrastructure.orchestrator.IWorkflow;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransferCheckpoints;
 import org.corfudb.protocols.wireprotocol.orchestrator.AddNodeRequest;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.AlreadyBootstrappedException;
@@ -37,6 +38,11 @@ public class AddNodeWorkflow implements IWorkflow {
 
     private final AddNodeRequest request;
 
+    /**
+     * Progress of the state transfers, kept across workflow restarts.
+     */
+    final StateTransferCheckpoints transferCheckpoints;
+
     Layout newLayout;
 
     @Getter
@@ -48,11 +54,13 @@ public class AddNodeWorkflow implements IWorkflow {
     /**
      * Creates a new add node workflow from a request.
      *
-     * @param request request to add a node
+     * @param request             request to add a node
+     * @param transferCheckpoints progress of the state transfers
      */
-    public AddNodeWorkflow(AddNodeRequest request) {
+    public AddNodeWorkflow(AddNodeRequest request, StateTransferCheckpoints transferCheckpoints) {
         this.id = UUID.randomUUID();
         this.request = request;
+        this.transferCheckpoints = transferCheckpoints;
         actions = ImmutableList.of(new BootstrapNode(),
                 new AddNodeToLayout(),
                 new RestoreRedundancy());
@@ -141,16 +149,21 @@ public class AddNodeWorkflow implements IWorkflow {
                 // Transfer only till the second last segment as the last segment is unbounded.
                 // The new server is already a part of the last segment. This is based on an
                 // assumption that the newly added node is not removed from the layout.
-                for (int i = 0; i < newLayout.getSegments().size() - 1; i++) {
+                List<Layout.LayoutSegment> transferredSegments = newLayout.getSegments()
+                        .subList(0, newLayout.getSegments().size() - 1);
+                for (Layout.LayoutSegment segment : transferredSegments) {
                     transfer(newLayout, Collections.singleton(request.getEndpoint()),
                             runtime,
-                            newLayout.getSegments().get(i));
+                            segment,
+                            transferCheckpoints);
                 }
 
                 final int stripeIndex = 0;
                 runtime.getLayoutManagementView()
                         .addLogUnitReplica(
                                 new Layout(newLayout), request.getEndpoint(), stripeIndex);
+                transferredSegments.forEach(
+                        segment -> transferCheckpoints.remove(request.getEndpoint(), segment));
                 runtime.invalidateLayout();
                 newLayout = runtime.getLayoutView().getLayout();
             } else {
@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableList;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.orchestrator.Action;
 import org.corfudb.infrastructure.orchestrator.actions.RestoreRedundancyMergeSegments;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransferCheckpoints;
 import org.corfudb.protocols.wireprotocol.orchestrator.AddNodeRequest;
 import org.corfudb.protocols.wireprotocol.orchestrator.HealNodeRequest;
 import org.corfudb.runtime.CorfuRuntime;
@@ -27,11 +28,12 @@ public class HealNodeWorkflow extends AddNodeWorkflow {
 
     private final HealNodeRequest request;
 
-    public HealNodeWorkflow(HealNodeRequest healNodeRequest) {
-        super(new AddNodeRequest(healNodeRequest.getEndpoint()));
+    public HealNodeWorkflow(HealNodeRequest healNodeRequest,
+                            StateTransferCheckpoints transferCheckpoints) {
+        super(new AddNodeRequest(healNodeRequest.getEndpoint()), transferCheckpoints);
         this.request = healNodeRequest;
         this.actions = ImmutableList.of(new HealNodeToLayout(),
-                new RestoreRedundancyMergeSegments());
+                new RestoreRedundancyMergeSegments(transferCheckpoints));
     }
 
     @Override
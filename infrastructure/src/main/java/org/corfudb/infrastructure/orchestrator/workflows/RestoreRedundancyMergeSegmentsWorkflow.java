@@ -13,6 +13,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.orchestrator.Action;
 import org.corfudb.infrastructure.orchestrator.IWorkflow;
 import org.corfudb.infrastructure.orchestrator.actions.RestoreRedundancyMergeSegments;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransferCheckpoints;
 import org.corfudb.protocols.wireprotocol.orchestrator.RestoreRedundancyMergeSegmentsRequest;
 
 /**
@@ -37,12 +38,14 @@ public class RestoreRedundancyMergeSegmentsWorkflow implements IWorkflow {
     /**
      * Creates a new merge segments workflow from a request.
      *
-     * @param request request to restore redundancy and merge a segment.
+     * @param request             request to restore redundancy and merge a segment.
+     * @param transferCheckpoints progress of the state transfers.
      */
-    public RestoreRedundancyMergeSegmentsWorkflow(RestoreRedundancyMergeSegmentsRequest request) {
+    public RestoreRedundancyMergeSegmentsWorkflow(RestoreRedundancyMergeSegmentsRequest request,
+                                                  StateTransferCheckpoints transferCheckpoints) {
         this.id = UUID.randomUUID();
         this.request = request;
-        this.actions = ImmutableList.of(new RestoreRedundancyMergeSegments());
+        this.actions = ImmutableList.of(new RestoreRedundancyMergeSegments(transferCheckpoints));
     }
 
     @Override
@@ -1,10 +1,18 @@
 package org.corfudb.infrastructure.management;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import org.corfudb.infrastructure.management.ClusterStateContext.HeartbeatCounter;
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
+import org.corfudb.protocols.wireprotocol.NodeState;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.runtime.clients.IClientRouter;
 import org.junit.Test;
@@ -12,6 +20,11 @@ import org.junit.Test;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class FailureDetectorTest {
 
@@ -44,4 +57,98 @@ public class FailureDetectorTest {
         assertThat(report.getReachableNodes()).isEmpty();
         assertThat(report.getFailedNodes()).containsExactly("a", "b", "c");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testPollQuorum() {
+        FailureDetector failureDetector = new FailureDetector(new HeartbeatCounter(), "a");
+        final int nodes = 9;
+        final int majority = 5;
+        assertThat(failureDetector.getPollQuorum(nodes)).isEqualTo(majority);
+        assertThat(failureDetector.getPollQuorum(1)).isEqualTo(1);
+    }
+
+    @Test
+    public void testConfiguredPollQuorum() {
+        FailureDetector failureDetector = new FailureDetector(new HeartbeatCounter(), "a");
+        final int nodes = 9;
+        failureDetector.setPollQuorumRatio(1);
+        assertThat(failureDetector.getPollQuorum(nodes)).isEqualTo(nodes);
+        failureDetector.setPollQuorumRatio(0);
+        assertThat(failureDetector.getPollQuorum(nodes)).isEqualTo(1);
+        assertThatThrownBy(() -> failureDetector.setPollQuorumRatio(2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Checks that a node missing its adaptive timeout ends the round early, without being
+     * failed, and that its poll is carried into the next round instead of being sent again.
+     */
+    @Test
+    public void slowNodeIsNotFailedBeforeNetworkTimeout() throws Exception {
+        final long epoch = 1;
+        final long slowResponseMs = 1000;
+        final int primingPolls = 10;
+        NetworkStretcher ns = NetworkStretcher.builder()
+                .initialPollInterval(Duration.ofMillis(50))
+                .currentPeriod(Duration.ofMillis(300))
+                .maxPeriod(Duration.ofSeconds(4))
+                .periodDelta(Duration.ofMillis(50))
+                .build();
+        NodeLatencyTracker tracker = new NodeLatencyTracker(Duration.ofMillis(10));
+        for (int i = 0; i < primingPolls; i++) {
+            tracker.record("c", Duration.ofMillis(1));
+        }
+
+        FailureDetector failureDetector = new FailureDetector(new HeartbeatCounter(), "a");
+        failureDetector.setNetworkStretcher(ns);
+        failureDetector.setLatencyTracker(tracker);
+        failureDetector.setFailureThreshold(1);
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        CountDownLatch slowResponse = new CountDownLatch(1);
+        try {
+            Map<String, IClientRouter> routerMap = new HashMap<>();
+            for (String server : ImmutableList.of("a", "b", "c")) {
+                IClientRouter router = mock(IClientRouter.class);
+                NodeState state = NodeState.getNotReadyNodeState(server, epoch, 0);
+                when(router.sendMessageAndGetCompletable(any(CorfuMsg.class))).thenAnswer(invocation -> {
+                    CompletableFuture<NodeState> response = new CompletableFuture<>();
+                    if (server.equals("c")) {
+                        scheduler.schedule(() -> {
+                            response.complete(state);
+                            slowResponse.countDown();
+                        }, slowResponseMs, TimeUnit.MILLISECONDS);
+                    } else {
+                        response.complete(state);
+                    }
+                    return response;
+                });
+                routerMap.put(server, router);
+            }
+
+            long start = System.nanoTime();
+            PollReport report = failureDetector.pollRound(
+                    epoch, ImmutableSet.of("a", "b", "c"), routerMap, SequencerMetrics.READY,
+                    ImmutableList.of("a", "b", "c")
+            );
+            Duration wallClock = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(wallClock).isLessThan(Duration.ofMillis(slowResponseMs));
+            assertThat(report.getElapsedTime()).isLessThanOrEqualTo(wallClock);
+            assertThat(report.getFailedNodes()).isEmpty();
+            assertThat(report.getReachableNodes()).containsExactlyInAnyOrder("a", "b", "c");
+
+            assertThat(slowResponse.await(slowResponseMs * 2, TimeUnit.MILLISECONDS)).isTrue();
+            report = failureDetector.pollRound(
+                    epoch, ImmutableSet.of("a", "b", "c"), routerMap, SequencerMetrics.READY,
+                    ImmutableList.of("a", "b", "c")
+            );
+            assertThat(report.getFailedNodes()).isEmpty();
+            assertThat(report.getReachableNodes()).containsExactlyInAnyOrder("a", "b", "c");
+            verify(routerMap.get("c"), times(1)).sendMessageAndGetCompletable(any(CorfuMsg.class));
+            verify(routerMap.get("b"), times(2)).sendMessageAndGetCompletable(any(CorfuMsg.class));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
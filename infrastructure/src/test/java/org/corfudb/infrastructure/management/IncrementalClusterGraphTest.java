@@ -0,0 +1,153 @@
+package org.corfudb.infrastructure.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.management.failuredetector.ClusterGraph;
+import org.corfudb.infrastructure.management.failuredetector.IncrementalClusterGraph;
+import org.corfudb.protocols.wireprotocol.ClusterState;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class IncrementalClusterGraphTest {
+
+    private static final int CYCLES = 200;
+
+    private static final int[] BENCHMARK_CLUSTER_SIZES = {50, 75, 100};
+    private static final int BENCHMARK_CYCLES = 2000;
+    private static final int BENCHMARK_CYCLES_PER_CHANGE = 10;
+
+    /**
+     * Tests that applying connectivity changes incrementally produces the same graph and
+     * decisions as transforming every cluster state from scratch.
+     */
+    @Test
+    public void testIncrementalGraphMatchesFullTransformation() {
+        final int smallCluster = 50;
+        final int largeCluster = 100;
+        assertMatchesFullTransformation(new SimulatedCluster(smallCluster, 1), 1);
+        assertMatchesFullTransformation(new SimulatedCluster(largeCluster, 2), 1);
+    }
+
+    /**
+     * Tests that the memoized decisions of a mostly healthy cluster, whose connectivity only
+     * changes once every few failure detection cycles, match the ones computed from scratch.
+     */
+    @Test
+    public void testStableClusterMatchesFullTransformation() {
+        final int clusterSize = 75;
+        final int cyclesPerChange = 10;
+        assertMatchesFullTransformation(new SimulatedCluster(clusterSize, clusterSize),
+                cyclesPerChange);
+    }
+
+    private void assertMatchesFullTransformation(SimulatedCluster cluster, int cyclesPerChange) {
+        IncrementalClusterGraph incremental = new IncrementalClusterGraph(cluster.getLocalNode());
+        List<String> unresponsive = Collections.singletonList(cluster.getNodes().get(1));
+
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            if (cycle % cyclesPerChange == 0) {
+                cluster.mutate();
+            }
+            ClusterState clusterState = cluster.clusterState();
+
+            ClusterGraph expected = ClusterGraph.toClusterGraph(clusterState, cluster.getLocalNode())
+                    .toSymmetric();
+            ClusterGraph actual = incremental.update(clusterState);
+
+            assertThat(actual.size()).isEqualTo(expected.size());
+            for (String node : cluster.getNodes()) {
+                assertThat(actual.getNodeConnectivity(node)).isEqualTo(expected.getNodeConnectivity(node));
+            }
+            assertThat(actual.getDecisionMaker()).isEqualTo(expected.getDecisionMaker());
+            assertThat(actual.findFailedNode(unresponsive)).isEqualTo(expected.findFailedNode(unresponsive));
+        }
+    }
+
+    /**
+     * Tests that the graph, and the decisions it computed, are kept while the connectivity of
+     * the cluster doesn't change.
+     */
+    @Test
+    public void testUnchangedConnectivityKeepsGraph() {
+        final int clusterSize = 5;
+        SimulatedCluster cluster = new SimulatedCluster(clusterSize, 0);
+        IncrementalClusterGraph incremental = new IncrementalClusterGraph(cluster.getLocalNode());
+
+        ClusterGraph graph = incremental.update(cluster.clusterState());
+        assertThat(incremental.update(cluster.clusterState())).isSameAs(graph);
+        assertThat(graph.getDecisionMaker()).isSameAs(graph.getDecisionMaker());
+        assertThat(graph.findFailedNode(Collections.emptyList()))
+                .isSameAs(graph.findFailedNode(Collections.emptyList()));
+
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            cluster.mutate();
+            ClusterGraph updated = incremental.update(cluster.clusterState());
+            if (updated != graph) {
+                return;
+            }
+        }
+        throw new AssertionError("Connectivity changes were not applied");
+    }
+
+    /**
+     * Compares the cost of a failure detection cycle's graph computations when every cluster
+     * state is transformed from scratch and when it is applied to an
+     * {@link IncrementalClusterGraph}. Every cycle looks for the decision maker and a failed
+     * node, and the cluster's connectivity changes once every few cycles, as it would in a
+     * mostly healthy cluster. The results are logged, run it manually.
+     */
+    @Test
+    @Ignore("Benchmark, run manually")
+    public void benchmarkIncrementalGraph() {
+        for (int clusterSize : BENCHMARK_CLUSTER_SIZES) {
+            SimulatedCluster cluster = new SimulatedCluster(clusterSize, clusterSize);
+            List<ClusterState> states = new ArrayList<>();
+            for (int cycle = 0; cycle < BENCHMARK_CYCLES; cycle++) {
+                if (cycle % BENCHMARK_CYCLES_PER_CHANGE == 0) {
+                    cluster.mutate();
+                }
+                states.add(cluster.clusterState());
+            }
+
+            // Warm up both implementations first.
+            runFull(states, cluster.getLocalNode());
+            runIncremental(states, cluster.getLocalNode());
+
+            long full = runFull(states, cluster.getLocalNode());
+            long incremental = runIncremental(states, cluster.getLocalNode());
+
+            log.info("benchmarkIncrementalGraph: {} nodes, full {} us/cycle, incremental {} us/cycle",
+                    clusterSize, TimeUnit.NANOSECONDS.toMicros(full / BENCHMARK_CYCLES),
+                    TimeUnit.NANOSECONDS.toMicros(incremental / BENCHMARK_CYCLES));
+        }
+    }
+
+    private long runFull(List<ClusterState> states, String localNode) {
+        long start = System.nanoTime();
+        for (ClusterState state : states) {
+            decide(ClusterGraph.toClusterGraph(state, localNode).toSymmetric());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runIncremental(List<ClusterState> states, String localNode) {
+        IncrementalClusterGraph graph = new IncrementalClusterGraph(localNode);
+        long start = System.nanoTime();
+        for (ClusterState state : states) {
+            decide(graph.update(state));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void decide(ClusterGraph graph) {
+        graph.getDecisionMaker();
+        graph.findFailedNode(Collections.emptyList());
+    }
+}
@@ -0,0 +1,74 @@
+package org.corfudb.infrastructure.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class NodeLatencyTrackerTest {
+
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(10);
+    private static final Duration MAX_TIMEOUT = Duration.ofSeconds(5);
+
+    @Test
+    public void testUnknownNodeGetsMaxTimeout() {
+        NodeLatencyTracker tracker = new NodeLatencyTracker(MIN_TIMEOUT);
+        assertThat(tracker.getTimeout("a", MAX_TIMEOUT)).isEqualTo(MAX_TIMEOUT);
+    }
+
+    /**
+     * Tests that every node gets its own timeout, following its round trip times.
+     */
+    @Test
+    public void testTimeoutsFollowRoundTripTimes() {
+        NodeLatencyTracker tracker = new NodeLatencyTracker(MIN_TIMEOUT);
+        final int samples = 20;
+        final Duration fastRtt = Duration.ofMillis(20);
+        final Duration slowRtt = Duration.ofMillis(400);
+        for (int i = 0; i < samples; i++) {
+            tracker.record("fast", fastRtt);
+            tracker.record("slow", slowRtt);
+        }
+
+        Duration fastTimeout = tracker.getTimeout("fast", MAX_TIMEOUT);
+        Duration slowTimeout = tracker.getTimeout("slow", MAX_TIMEOUT);
+        assertThat(fastTimeout).isGreaterThanOrEqualTo(fastRtt);
+        assertThat(fastTimeout).isLessThan(slowRtt);
+        assertThat(slowTimeout).isGreaterThanOrEqualTo(slowRtt);
+        assertThat(slowTimeout).isLessThan(MAX_TIMEOUT);
+    }
+
+    /**
+     * Tests that timeouts are bounded and back off until the node responds again.
+     */
+    @Test
+    public void testTimeoutBackOff() {
+        NodeLatencyTracker tracker = new NodeLatencyTracker(MIN_TIMEOUT);
+        final Duration rtt = Duration.ofMillis(100);
+        final int samples = 10;
+        for (int i = 0; i < samples; i++) {
+            tracker.record("a", rtt);
+        }
+        Duration timeout = tracker.getTimeout("a", MAX_TIMEOUT);
+
+        tracker.recordTimeout("a");
+        assertThat(tracker.getTimeout("a", MAX_TIMEOUT))
+                .isGreaterThanOrEqualTo(timeout.multipliedBy(2))
+                .isLessThanOrEqualTo(timeout.multipliedBy(2).plusNanos(1));
+
+        final int timeouts = 10;
+        for (int i = 0; i < timeouts; i++) {
+            tracker.recordTimeout("a");
+        }
+        assertThat(tracker.getTimeout("a", rtt)).isEqualTo(rtt);
+
+        tracker.record("a", rtt);
+        assertThat(tracker.getTimeout("a", MAX_TIMEOUT)).isLessThan(timeout.multipliedBy(2));
+
+        // Tiny round trip times are bounded by the minimum timeout
+        NodeLatencyTracker local = new NodeLatencyTracker(MIN_TIMEOUT);
+        local.record("a", Duration.ofNanos(1));
+        assertThat(local.getTimeout("a", MAX_TIMEOUT)).isEqualTo(MIN_TIMEOUT);
+    }
+}
@@ -0,0 +1,99 @@
+package org.corfudb.infrastructure.management;
+
+import com.google.common.collect.ImmutableMap;
+import org.corfudb.protocols.wireprotocol.ClusterState;
+import org.corfudb.protocols.wireprotocol.NodeState;
+import org.corfudb.protocols.wireprotocol.NodeState.HeartbeatTimestamp;
+import org.corfudb.protocols.wireprotocol.SequencerMetrics;
+import org.corfudb.protocols.wireprotocol.failuredetector.NodeConnectivity;
+import org.corfudb.protocols.wireprotocol.failuredetector.NodeConnectivity.ConnectionStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * A cluster whose connectivity changes randomly, link by link and node by node, providing the
+ * cluster states a failure detector would collect from it.
+ */
+class SimulatedCluster {
+
+    private final List<String> nodes = new ArrayList<>();
+    private final Map<String, Map<String, ConnectionStatus>> links = new HashMap<>();
+    private final Set<String> unavailable = new HashSet<>();
+    private final Random random;
+    private long heartbeat = 0;
+
+    SimulatedCluster(int numNodes, long seed) {
+        random = new Random(seed);
+        for (int i = 0; i < numNodes; i++) {
+            nodes.add("node" + i);
+        }
+        for (String node : nodes) {
+            Map<String, ConnectionStatus> connectivity = new HashMap<>();
+            nodes.forEach(adjacent -> connectivity.put(adjacent, ConnectionStatus.OK));
+            links.put(node, connectivity);
+        }
+    }
+
+    String getLocalNode() {
+        return nodes.get(0);
+    }
+
+    List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Make a node unavailable or available again, or flip the status of a link as seen by one
+     * of its ends.
+     */
+    void mutate() {
+        final int nodeMutationOdds = 4;
+        if (random.nextInt(nodeMutationOdds) == 0) {
+            String node = nodes.get(1 + random.nextInt(nodes.size() - 1));
+            if (!unavailable.remove(node)) {
+                unavailable.add(node);
+            }
+            return;
+        }
+
+        String source = nodes.get(random.nextInt(nodes.size()));
+        String target = nodes.get(random.nextInt(nodes.size()));
+        if (source.equals(target)) {
+            return;
+        }
+        Map<String, ConnectionStatus> connectivity = links.get(source);
+        connectivity.put(target, connectivity.get(target) == ConnectionStatus.OK
+                ? ConnectionStatus.FAILED : ConnectionStatus.OK);
+    }
+
+    /**
+     * Build the current cluster state, with new node states as a failure detector would.
+     */
+    ClusterState clusterState() {
+        heartbeat++;
+        Map<String, NodeState> nodeStates = new HashMap<>();
+        for (String node : nodes) {
+            if (unavailable.contains(node)) {
+                nodeStates.put(node, NodeState.getUnavailableNodeState(node));
+                continue;
+            }
+
+            nodeStates.put(node, NodeState.builder()
+                    .sequencerMetrics(SequencerMetrics.READY)
+                    .heartbeat(new HeartbeatTimestamp(0, heartbeat))
+                    .connectivity(NodeConnectivity.connectivity(node, ImmutableMap.copyOf(links.get(node))))
+                    .build());
+        }
+
+        return ClusterState.builder()
+                .localEndpoint(getLocalNode())
+                .nodes(ImmutableMap.copyOf(nodeStates))
+                .build();
+    }
+}
@@ -21,6 +21,7 @@ import java.util.concurrent.ThreadFactory;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
 
 /** An enum representing channel implementation types available to the client. */
 @AllArgsConstructor
@@ -62,6 +63,23 @@ public enum ChannelImplementation {
     @Getter
     final EventLoopGroupGenerator generator;
 
+    /**
+     * Verify that the native transport backing this implementation can be loaded.
+     * {@link #AUTO} falls back to NIO on its own, so only an explicitly requested
+     * native transport can be unavailable.
+     *
+     * @throws UnrecoverableCorfuError If the requested native transport is unavailable.
+     */
+    public void ensureAvailability() {
+        if (this == EPOLL && !Epoll.isAvailable()) {
+            throw new UnrecoverableCorfuError("Epoll transport requested but unavailable",
+                    Epoll.unavailabilityCause());
+        } else if (this == KQUEUE && !KQueue.isAvailable()) {
+            throw new UnrecoverableCorfuError("KQueue transport requested but unavailable",
+                    KQueue.unavailabilityCause());
+        }
+    }
+
     /**
      * A functional interface for generating event loops.
      */
@@ -0,0 +1,155 @@
+package org.corfudb.comm;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.util.CorfuComponent;
+import org.corfudb.util.MetricsUtils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Process-wide selection of the {@link ByteBufAllocator} used on the message path.
+ *
+ * <p>By default buffers are unpooled heap buffers. In pooled mode buffers come from the
+ * {@link PooledByteBufAllocator} (direct memory where the platform supports it). In both
+ * modes payload bytes are copied out of the network buffer into a {@code byte[]} when a
+ * message is decoded, so that decoded messages never hold on to pooled memory.
+ *
+ * <p>Allocation, encode, decode and copy rates are exported as meters through the default
+ * metrics registry, next to gauges of the JVM's heap allocations, its garbage collections
+ * and the pooled allocator's direct memory, so that the two modes can be compared.
+ */
+@Slf4j
+public final class CorfuByteBufAllocator {
+
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+    private static final String METRIC_PREFIX = CorfuComponent.NETTY_BUFFERS.toString();
+
+    private static final Meter allocatedBuffers = metrics.meter(METRIC_PREFIX + "allocated");
+    private static final Meter encodedBytes = metrics.meter(METRIC_PREFIX + "encoded-bytes");
+    private static final Meter decodedBytes = metrics.meter(METRIC_PREFIX + "decoded-bytes");
+    private static final Meter copiedBytes = metrics.meter(METRIC_PREFIX + "copied-bytes");
+
+    static {
+        register(METRIC_PREFIX + "jvm-allocated-bytes",
+                CorfuByteBufAllocator::getJvmAllocatedBytes);
+        register(METRIC_PREFIX + "gc-count", () -> ManagementFactory.getGarbageCollectorMXBeans()
+                .stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum());
+        register(METRIC_PREFIX + "gc-time", () -> ManagementFactory.getGarbageCollectorMXBeans()
+                .stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum());
+        register(METRIC_PREFIX + "pooled-direct-bytes",
+                () -> PooledByteBufAllocator.DEFAULT.metric().usedDirectMemory());
+    }
+
+    private static volatile boolean pooled = false;
+
+    private CorfuByteBufAllocator() {
+        // Preventing instantiation of this utility class
+    }
+
+    /**
+     * Enable or disable pooled direct buffers for this process.
+     *
+     * @param enabled True to use pooled direct buffers, false for unpooled heap buffers.
+     */
+    public static void setPooled(boolean enabled) {
+        if (pooled != enabled) {
+            log.info("setPooled: {} buffers on the message path",
+                    enabled ? "Pooled direct" : "Unpooled heap");
+        }
+        pooled = enabled;
+    }
+
+    /**
+     * Whether pooled direct buffers are enabled.
+     */
+    public static boolean isPooled() {
+        return pooled;
+    }
+
+    /**
+     * Get the allocator for the current mode.
+     *
+     * @return The {@link ByteBufAllocator} to use for message buffers.
+     */
+    public static ByteBufAllocator getAllocator() {
+        return pooled ? PooledByteBufAllocator.DEFAULT : UnpooledByteBufAllocator.DEFAULT;
+    }
+
+    /**
+     * Allocate a new buffer using the current mode. Pooled buffers are direct, unpooled
+     * buffers are heap buffers. The caller owns the returned buffer and must release it.
+     *
+     * @return A newly allocated {@link ByteBuf}.
+     */
+    public static ByteBuf buffer() {
+        if (MetricsUtils.isMetricsCollectionEnabled()) {
+            allocatedBuffers.mark();
+        }
+        return pooled ? PooledByteBufAllocator.DEFAULT.directBuffer()
+                : UnpooledByteBufAllocator.DEFAULT.heapBuffer();
+    }
+
+    /** Record the number of bytes written by the message encoder. */
+    public static void recordEncoded(int bytes) {
+        mark(encodedBytes, bytes);
+    }
+
+    /** Record the number of bytes consumed by the message decoder. */
+    public static void recordDecoded(int bytes) {
+        mark(decodedBytes, bytes);
+    }
+
+    /** Record the number of payload bytes copied out of a network buffer. */
+    public static void recordCopied(int bytes) {
+        mark(copiedBytes, bytes);
+    }
+
+    private static void mark(Meter meter, int bytes) {
+        if (MetricsUtils.isMetricsCollectionEnabled()) {
+            meter.mark(bytes);
+        }
+    }
+
+    private static void register(String name, Gauge<Long> gauge) {
+        try {
+            metrics.register(name, gauge);
+        } catch (IllegalArgumentException e) {
+            // Already registered by another class loader, not a problem
+        }
+    }
+
+    /**
+     * Get the number of bytes allocated on the heap by the live threads of the JVM, or -1 if
+     * the JVM does not measure them.
+     */
+    private static long getJvmAllocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+        long total = 0;
+        for (long allocated : allocations.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
@@ -1,11 +1,17 @@
 package org.corfudb.protocols.logprotocol;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,10 +26,16 @@ import org.corfudb.util.serializer.Serializers;
  */
 @Deprecated // TODO: Add replacement method that conforms to style
 @SuppressWarnings("checkstyle:abbreviation") // Due to deprecation
-@ToString(callSuper = true)
+@ToString(callSuper = true, exclude = "serializedArguments")
 @NoArgsConstructor
 public class SMREntry extends LogEntry implements ISMRConsumable {
 
+    /**
+     * The method names of the registered upcalls, by the hash of their encoding, so that
+     * deserialized entries share the method name instead of decoding a new string each.
+     */
+    private static final Map<Integer, String> methodNames = new ConcurrentHashMap<>();
+
     /**
      * The name of the SMR method. Note that this is limited to the size of a short.
      */
@@ -33,12 +45,17 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
     private String SMRMethod;
 
     /**
-     * The arguments to the SMR method, which could be 0.
+     * The arguments to the SMR method, which could be 0. Deserialized on first access.
      */
     @Deprecated // TODO: Add replacement method that conforms to style
     @SuppressWarnings("checkstyle:MemberName") // Due to deprecation
-    @Getter
-    private Object[] SMRArguments;
+    private volatile Object[] SMRArguments;
+
+    /**
+     * The serialized arguments (count, then length prefixed arguments) of a deserialized
+     * entry, until they are deserialized by {@link #getSMRArguments()}.
+     */
+    private ByteBuf serializedArguments;
 
     /**
      * The serializer used to serialize the SMR arguments.
@@ -93,29 +110,134 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         this.serializerType = serializer;
     }
 
+    /**
+     * Register the method names of an object's upcalls, so that entries of these methods
+     * share their names when deserialized.
+     *
+     * @param names The method names to register.
+     */
+    public static void registerMethodNames(Collection<String> names) {
+        for (String name : names) {
+            if (isAscii(name)) {
+                methodNames.putIfAbsent(hashMethodName(name), name);
+            }
+        }
+    }
+
+    /**
+     * Get the arguments to the SMR method, deserializing them on first access.
+     *
+     * @return The arguments to the SMR method.
+     */
+    public Object[] getSMRArguments() {
+        Object[] arguments = SMRArguments;
+        if (arguments == null) {
+            synchronized (this) {
+                arguments = SMRArguments;
+                if (arguments == null) {
+                    arguments = deserializeArguments(serializedArguments, runtime);
+                    SMRArguments = arguments;
+                    serializedArguments.release();
+                    serializedArguments = null;
+                }
+            }
+        }
+        return arguments;
+    }
+
     /**
      * This function provides the remaining buffer. Child entries
      * should initialize their contents based on the buffer.
      *
+     * <p>The arguments are not deserialized here, since entries skipped by the
+     * readers never need them. A retained slice of the buffer is kept instead
+     * when it is an unpooled heap buffer, and a copy of the bytes otherwise,
+     * so that pooled memory is not held by entries which are never applied.
+     *
      * @param b The remaining buffer.
      */
     @Override
     void deserializeBuffer(ByteBuf b, CorfuRuntime rt) {
         super.deserializeBuffer(b, rt);
         short methodLength = b.readShort();
-        byte[] methodBytes = new byte[methodLength];
-        b.readBytes(methodBytes, 0, methodLength);
-        SMRMethod = new String(methodBytes);
+        SMRMethod = readMethodName(b, methodLength);
         serializerType = Serializers.getSerializer(b.readByte());
+        int argumentsIndex = b.readerIndex();
         byte numArguments = b.readByte();
+        for (byte arg = 0; arg < numArguments; arg++) {
+            b.skipBytes(b.readInt());
+        }
+        int argumentsLength = b.readerIndex() - argumentsIndex;
+        if (b.hasArray() && b.alloc() instanceof UnpooledByteBufAllocator) {
+            serializedArguments = b.retainedSlice(argumentsIndex, argumentsLength);
+        } else {
+            serializedArguments = Unpooled.wrappedBuffer(
+                    ByteBufUtil.getBytes(b, argumentsIndex, argumentsLength));
+        }
+    }
+
+    /**
+     * Deserialize the arguments of an entry.
+     *
+     * @param b  The serialized arguments.
+     * @param rt The runtime to deserialize with.
+     * @return The arguments.
+     */
+    private Object[] deserializeArguments(ByteBuf b, CorfuRuntime rt) {
+        int index = b.readerIndex();
+        byte numArguments = b.getByte(index++);
         Object[] arguments = new Object[numArguments];
         for (byte arg = 0; arg < numArguments; arg++) {
-            int len = b.readInt();
-            ByteBuf objBuf = b.slice(b.readerIndex(), len);
+            int len = b.getInt(index);
+            index += Integer.BYTES;
+            ByteBuf objBuf = b.slice(index, len);
             arguments[arg] = serializerType.deserialize(objBuf, rt);
-            b.skipBytes(len);
+            index += len;
         }
-        SMRArguments = arguments;
+        return arguments;
+    }
+
+    /**
+     * Read a method name, returning the registered name if there is one.
+     *
+     * @param b      The buffer to read from.
+     * @param length The length of the encoded name.
+     * @return The method name.
+     */
+    private static String readMethodName(ByteBuf b, int length) {
+        int index = b.readerIndex();
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + b.getByte(index + i);
+        }
+
+        String name = methodNames.get(hash);
+        if (name != null && name.length() == length) {
+            boolean matches = true;
+            for (int i = 0; i < length && matches; i++) {
+                matches = name.charAt(i) == b.getByte(index + i);
+            }
+            if (matches) {
+                b.skipBytes(length);
+                return name;
+            }
+        }
+
+        byte[] methodBytes = new byte[length];
+        b.readBytes(methodBytes, 0, length);
+        return new String(methodBytes);
+    }
+
+    private static int hashMethodName(String name) {
+        int hash = 1;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + (byte) name.charAt(i);
+        }
+        return hash;
+    }
+
+    private static boolean isAscii(String name) {
+        return name.chars().allMatch(c -> c < 0x80);
     }
 
     @Override
@@ -124,8 +246,19 @@ public class SMREntry extends LogEntry implements ISMRConsumable {
         b.writeShort(SMRMethod.length());
         b.writeBytes(SMRMethod.getBytes());
         b.writeByte(serializerType.getType());
-        b.writeByte(SMRArguments.length);
-        Arrays.stream(SMRArguments)
+        if (SMRArguments == null) {
+            synchronized (this) {
+                // The arguments were never deserialized, so write them back as they were read.
+                if (serializedArguments != null) {
+                    b.writeBytes(serializedArguments, serializedArguments.readerIndex(),
+                            serializedArguments.readableBytes());
+                    return;
+                }
+            }
+        }
+        Object[] arguments = getSMRArguments();
+        b.writeByte(arguments.length);
+        Arrays.stream(arguments)
                 .forEach(x -> {
                     int lengthIndex = b.writerIndex();
                     b.writeInt(0);
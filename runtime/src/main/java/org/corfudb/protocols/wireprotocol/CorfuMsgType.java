@@ -53,12 +53,17 @@ public enum CorfuMsgType {
     SEQUENCER_METRICS_RESPONSE(25, new TypeToken<CorfuPayloadMsg<SequencerMetrics>>(){}, true),
     STREAMS_ADDRESS_REQUEST(26, new TypeToken<CorfuPayloadMsg<StreamsAddressRequest>>(){}),
     STREAMS_ADDRESS_RESPONSE(27, new TypeToken<CorfuPayloadMsg<StreamsAddressResponse>>(){}),
+    SEQUENCER_ABORT_STATS_REQUEST(28, TypeToken.of(CorfuMsg.class), true),
+    SEQUENCER_ABORT_STATS_RESPONSE(29, new TypeToken<CorfuPayloadMsg<TxAbortStats>>(){}, true),
 
     // Logging Unit Messages
     WRITE(30, new TypeToken<CorfuPayloadMsg<WriteRequest>>() {}),
     READ_REQUEST(31, new TypeToken<CorfuPayloadMsg<ReadRequest>>() {}),
     READ_RESPONSE(32, new TypeToken<CorfuPayloadMsg<ReadResponse>>() {}),
     MULTIPLE_READ_REQUEST(35, new TypeToken<CorfuPayloadMsg<MultipleReadRequest>>() {}),
+    LOG_RECORDS_REQUEST(36, new TypeToken<CorfuPayloadMsg<LogRecordsRequest>>() {}),
+    LOG_RECORDS_RESPONSE(37, new TypeToken<CorfuPayloadMsg<LogRecordsMsg>>() {}),
+    LOG_RECORDS_WRITE(40, new TypeToken<CorfuPayloadMsg<LogRecordsMsg>>() {}),
     FILL_HOLE(34, new TypeToken<CorfuPayloadMsg<FillHoleRequest>>() {}),
     PREFIX_TRIM(38, new TypeToken<CorfuPayloadMsg<TrimRequest>>() {}),
     TAIL_REQUEST(41, new TypeToken<CorfuPayloadMsg<TailsRequest>>(){}),
@@ -70,6 +75,7 @@ public enum CorfuMsgType {
     RESET_LOGUNIT(47, new TypeToken<CorfuPayloadMsg<Long>>(){}, true),
     LOG_ADDRESS_SPACE_REQUEST(48, TypeToken.of(CorfuMsg.class)),
     LOG_ADDRESS_SPACE_RESPONSE(49, new TypeToken<CorfuPayloadMsg<StreamsAddressResponse>>(){}),
+    LOG_ADDRESS_SPACE_DELTA_REQUEST(39, new TypeToken<CorfuPayloadMsg<Long>>(){}),
 
     WRITE_OK(50, TypeToken.of(CorfuMsg.class)),
     ERROR_TRIMMED(51, TypeToken.of(CorfuMsg.class)),
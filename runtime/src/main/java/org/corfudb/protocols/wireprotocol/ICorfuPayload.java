@@ -16,7 +16,6 @@ import org.corfudb.protocols.wireprotocol.IMetadata.DataRank;
 import org.corfudb.runtime.exceptions.SerializerException;
 import org.corfudb.runtime.view.Layout;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
-import org.corfudb.util.JsonUtils;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 import java.io.DataOutputStream;
@@ -28,7 +27,6 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.nio.charset.StandardCharsets;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -60,13 +58,7 @@ public interface ICorfuPayload<T> {
                         x.readBytes(bytes);
                         return new String(bytes);
                     })
-                    .put(Layout.class, x -> {
-                        int length = x.readInt();
-                        byte[] byteArray = new byte[length];
-                        x.readBytes(byteArray, 0, length);
-                        String str = new String(byteArray, StandardCharsets.UTF_8);
-                        return JsonUtils.parser.fromJson(str, Layout.class);
-                    })
+                    .put(Layout.class, Layout::deserialize)
                     .put(DataRank.class, x -> new DataRank(x.readLong(), new UUID(x.readLong(), x.readLong())))
                     .put(CheckpointEntryType.class, x -> CheckpointEntryType.typeMap.get(x.readByte()))
                     .put(UUID.class, x -> new UUID(x.readLong(), x.readLong()))
@@ -385,9 +377,7 @@ public interface ICorfuPayload<T> {
             buffer.writeInt(list.size());
             list.forEach(x -> serialize(buffer, x));
         } else if (payload instanceof Layout) {
-            byte[] b = JsonUtils.parser.toJson(payload).getBytes();
-            buffer.writeInt(b.length);
-            buffer.writeBytes(b);
+            ((Layout) payload).serialize(buffer);
         } else if (payload instanceof ByteBuf) {
             ByteBuf b = ((ByteBuf) payload).slice();
             b.resetReaderIndex();
@@ -413,10 +403,10 @@ public interface ICorfuPayload<T> {
             buffer.writeLong(streamRange.getEnd());
         } else if (payload instanceof Roaring64NavigableMap) {
             Roaring64NavigableMap mrb = (Roaring64NavigableMap) payload;
-            // Improve compression
-            mrb.runOptimize();
+            // The bitmap may still be read by its owner, so it is serialized as is and not
+            // run-length optimized here: owners optimize bitmaps before handing them out.
             try (ByteBufOutputStream outputStream = new ByteBufOutputStream(buffer);
-                 DataOutputStream dataOutputStream =  new DataOutputStream(outputStream)){
+                 DataOutputStream dataOutputStream = new DataOutputStream(outputStream)) {
                 mrb.serialize(dataOutputStream);
             } catch (IOException ioe) {
                 throw new SerializerException("Unexpected error while serializing to a byte array");
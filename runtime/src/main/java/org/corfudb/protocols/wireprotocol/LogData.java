@@ -9,6 +9,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.comm.CorfuByteBufAllocator;
 import org.corfudb.protocols.logprotocol.CheckpointEntry;
 import org.corfudb.protocols.logprotocol.LogEntry;
 import org.corfudb.runtime.CorfuRuntime;
@@ -101,9 +102,9 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     @Override
     public synchronized void acquireBuffer() {
         if (serializedCache == null) {
-            serializedCache = Unpooled.buffer();
+            serializedCache = CorfuByteBufAllocator.buffer();
             doSerializeInternal(serializedCache);
-            lastKnownSize = serializedCache.array().length;
+            lastKnownSize = serializedCache.readableBytes();
         } else {
             serializedCache.retain();
         }
@@ -131,7 +132,11 @@ public class LogData implements ICorfuPayload<LogData>, IMetadata, ILogData {
     public LogData(ByteBuf buf) {
         type = ICorfuPayload.fromBuffer(buf, DataType.class);
         if (type == DataType.DATA) {
+            // The payload is copied to the heap even from pooled buffers: entries outlive
+            // the inbound buffer in caches, batches and state transfers which do not
+            // release them.
             data = ICorfuPayload.fromBuffer(buf, byte[].class);
+            CorfuByteBufAllocator.recordCopied(data.length);
         } else {
             data = null;
         }
@@ -0,0 +1,39 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Log unit records, keyed by address, in the format the log unit stores them: a metadata
+ * header holding the record's length and checksums, followed by the serialized entry.
+ * Records are moved between log units as is, without being decoded into {@link LogData}.
+ */
+@Data
+@AllArgsConstructor
+public class LogRecordsMsg implements ICorfuPayload<LogRecordsMsg> {
+
+    private Map<Long, byte[]> records;
+
+    public LogRecordsMsg(ByteBuf buf) {
+        records = ICorfuPayload.mapFromBuffer(buf, Long.class, byte[].class);
+    }
+
+    /**
+     * Get the records ordered by address.
+     */
+    public List<byte[]> getOrderedRecords() {
+        return new ArrayList<>(new TreeMap<>(records).values());
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, records);
+    }
+}
@@ -0,0 +1,34 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A request for the records a log unit stores at a range of addresses.
+ */
+@Data
+@AllArgsConstructor
+public class LogRecordsRequest implements ICorfuPayload<LogRecordsRequest> {
+
+    /**
+     * First address of the range (inclusive).
+     */
+    private final long start;
+
+    /**
+     * Last address of the range (inclusive).
+     */
+    private final long end;
+
+    public LogRecordsRequest(ByteBuf buf) {
+        start = ICorfuPayload.fromBuffer(buf, Long.class);
+        end = ICorfuPayload.fromBuffer(buf, Long.class);
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        ICorfuPayload.serialize(buf, start);
+        ICorfuPayload.serialize(buf, end);
+    }
+}
@@ -9,6 +9,8 @@ import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.comm.CorfuByteBufAllocator;
+
 
 /**
  * Created by mwei on 10/1/15.
@@ -19,7 +21,9 @@ public class NettyCorfuMessageDecoder extends ByteToMessageDecoder {
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf,
                           List<Object> list) throws Exception {
+        final int readable = byteBuf.readableBytes();
         list.add(CorfuMsg.deserialize(byteBuf));
+        CorfuByteBufAllocator.recordDecoded(readable - byteBuf.readableBytes());
     }
 
     @Override
@@ -5,6 +5,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.comm.CorfuByteBufAllocator;
 
 import java.util.concurrent.atomic.LongAccumulator;
 import java.util.function.LongBinaryOperator;
@@ -23,7 +24,9 @@ public class NettyCorfuMessageEncoder extends MessageToByteEncoder<CorfuMsg> {
                           CorfuMsg corfuMsg,
                           ByteBuf byteBuf) throws Exception {
         try {
+            final int start = byteBuf.writerIndex();
             corfuMsg.serialize(byteBuf);
+            CorfuByteBufAllocator.recordEncoded(byteBuf.writerIndex() - start);
             if(log.isDebugEnabled()) {
                 long prev = maxValue.get();
                 maxValue.accumulate(byteBuf.readableBytes());
@@ -4,6 +4,7 @@ import io.netty.buffer.ByteBuf;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NonNull;
+import org.corfudb.runtime.view.Address;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,19 +23,36 @@ public class StreamsAddressRequest implements ICorfuPayload<StreamsAddressReques
 
     public static final byte ALL_STREAMS = 1; /*To request all streams*/
 
+    public static final byte ALL_STREAMS_DELTA = 2; /*To request addresses of all streams since a global tail*/
+
     /** The type of request, one of the above. */
     final byte reqType;
 
     private final List<StreamAddressRange> streamsRanges;
 
+    /** For ALL_STREAMS_DELTA requests, the log tail of a previous response. */
+    private final long globalTail;
+
     public StreamsAddressRequest(@NonNull List<StreamAddressRange> streamsRanges) {
         reqType = STREAMS;
         this.streamsRanges = streamsRanges;
+        this.globalTail = Address.NON_ADDRESS;
     }
 
     public StreamsAddressRequest(Byte reqType) {
         this.reqType = reqType;
         this.streamsRanges = Collections.EMPTY_LIST;
+        this.globalTail = Address.NON_ADDRESS;
+    }
+
+    /**
+     * Request the addresses of all streams written since a previous response.
+     *
+     * @param globalTail log tail of a previous {@link StreamsAddressResponse}.
+     * @return the request.
+     */
+    public static StreamsAddressRequest deltaSince(long globalTail) {
+        return new StreamsAddressRequest(ALL_STREAMS_DELTA, Collections.EMPTY_LIST, globalTail);
     }
 
     /**
@@ -44,18 +62,26 @@ public class StreamsAddressRequest implements ICorfuPayload<StreamsAddressReques
      */
     public StreamsAddressRequest(ByteBuf buf) {
         reqType = ICorfuPayload.fromBuffer(buf, Byte.class);
-        if (reqType != ALL_STREAMS) {
+        if (reqType == STREAMS) {
             streamsRanges = ICorfuPayload.listFromBuffer(buf, StreamAddressRange.class);
         } else {
             streamsRanges = Collections.EMPTY_LIST;
         }
+
+        if (reqType == ALL_STREAMS_DELTA) {
+            globalTail = ICorfuPayload.fromBuffer(buf, Long.class);
+        } else {
+            globalTail = Address.NON_ADDRESS;
+        }
     }
 
     @Override
     public void doSerialize(ByteBuf buf) {
         ICorfuPayload.serialize(buf, reqType);
-        if (reqType != ALL_STREAMS) {
+        if (reqType == STREAMS) {
             ICorfuPayload.serialize(buf, streamsRanges);
+        } else if (reqType == ALL_STREAMS_DELTA) {
+            ICorfuPayload.serialize(buf, globalTail);
         }
     }
 }
@@ -0,0 +1,107 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import lombok.Data;
+import lombok.Value;
+
+import org.corfudb.util.Utils;
+
+/**
+ * Aggregated transaction aborts: the number of aborts of each cause, and the streams and
+ * conflict parameters involved in the most aborts.
+ */
+@Data
+public class TxAbortStats implements ICorfuPayload<TxAbortStats> {
+
+    /**
+     * Number of aborts, by cause.
+     */
+    private final Map<String, Long> causes;
+
+    /**
+     * Estimated number of aborts of the streams involved in the most aborts, in decreasing order.
+     */
+    private final Map<UUID, Long> hotStreams;
+
+    /**
+     * Estimated number of aborts of the conflict parameters involved in the most aborts,
+     * in decreasing order.
+     */
+    private final Map<ConflictKey, Long> hotKeys;
+
+    public TxAbortStats(Map<String, Long> causes, Map<UUID, Long> hotStreams,
+                        Map<ConflictKey, Long> hotKeys) {
+        this.causes = causes;
+        this.hotStreams = hotStreams;
+        this.hotKeys = hotKeys;
+    }
+
+    /**
+     * Deserialization Constructor from ByteBuf to TxAbortStats.
+     *
+     * @param buf The buffer to deserialize
+     */
+    public TxAbortStats(ByteBuf buf) {
+        causes = new LinkedHashMap<>();
+        int numCauses = buf.readInt();
+        for (int i = 0; i < numCauses; i++) {
+            causes.put(ICorfuPayload.fromBuffer(buf, String.class), buf.readLong());
+        }
+
+        hotStreams = new LinkedHashMap<>();
+        int numStreams = buf.readInt();
+        for (int i = 0; i < numStreams; i++) {
+            hotStreams.put(ICorfuPayload.fromBuffer(buf, UUID.class), buf.readLong());
+        }
+
+        hotKeys = new LinkedHashMap<>();
+        int numKeys = buf.readInt();
+        for (int i = 0; i < numKeys; i++) {
+            UUID streamId = ICorfuPayload.fromBuffer(buf, UUID.class);
+            long conflictParam = buf.readLong();
+            hotKeys.put(new ConflictKey(streamId, conflictParam), buf.readLong());
+        }
+    }
+
+    @Override
+    public void doSerialize(ByteBuf buf) {
+        buf.writeInt(causes.size());
+        causes.forEach((cause, count) -> {
+            ICorfuPayload.serialize(buf, cause);
+            buf.writeLong(count);
+        });
+
+        buf.writeInt(hotStreams.size());
+        hotStreams.forEach((streamId, count) -> {
+            ICorfuPayload.serialize(buf, streamId);
+            buf.writeLong(count);
+        });
+
+        buf.writeInt(hotKeys.size());
+        hotKeys.forEach((key, count) -> {
+            ICorfuPayload.serialize(buf, key.getStreamId());
+            buf.writeLong(key.getConflictParam());
+            buf.writeLong(count);
+        });
+    }
+
+    /**
+     * The fingerprint of a conflict parameter of a stream.
+     */
+    @Value
+    public static class ConflictKey {
+        UUID streamId;
+
+        long conflictParam;
+
+        @Override
+        public String toString() {
+            return Utils.toReadableId(streamId) + ":" + Long.toHexString(conflictParam);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import io.netty.buffer.ByteBuf;
 
 import java.util.Collections;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 import lombok.Getter;
@@ -28,13 +27,14 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
     @Setter
     Token snapshotTimestamp;
 
-    /** A set of poisoned streams, which have a conflict against all updates. */
-
+    /** Fingerprints of the conflict parameters read, arranged by stream IDs.
+     * Streams without conflict parameters have a conflict against all updates. */
     @Getter
-    final Map<UUID, Set<byte[]>> conflictSet;
+    final Map<UUID, long[]> conflictSet;
 
+    /** Fingerprints of the conflict parameters written, arranged by stream IDs. */
     @Getter
-    final Map<UUID, Set<byte[]>>  writeConflictParams;
+    final Map<UUID, long[]> writeConflictParams;
 
     /**
      * Constructor for TxResolutionInfo.
@@ -54,11 +54,12 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
      *
      * @param txId transaction identifier
      * @param snapshotTimestamp transaction snapshot timestamp
-     * @param conflictMap map of conflict parameters, arranged by stream IDs
-     * @param writeConflictParams map of write conflict parameters, arranged by stream IDs
+     * @param conflictMap map of conflict parameter fingerprints, arranged by stream IDs
+     * @param writeConflictParams map of write conflict parameter fingerprints, arranged by
+     *                            stream IDs
      */
-    public TxResolutionInfo(UUID txId, Token snapshotTimestamp, Map<UUID, Set<byte[]>>
-            conflictMap, Map<UUID, Set<byte[]>> writeConflictParams) {
+    public TxResolutionInfo(UUID txId, Token snapshotTimestamp, Map<UUID, long[]>
+            conflictMap, Map<UUID, long[]> writeConflictParams) {
         this.TXid = txId;
         this.snapshotTimestamp = snapshotTimestamp;
         this.conflictSet = conflictMap;
@@ -71,7 +72,7 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
      * <p>The first entry is a long, the snapshot timestamp.
      * The second is an int, the size of the map.
      * Next, entries are serialized one by one, first the key, then each value,
-     * itself a set of objects.</p>
+     * itself a packed array of fingerprints preceded by its length.</p>
      *
      * @param buf        The buffer to deserialize.
      */
@@ -80,27 +81,33 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
         final long epoch = buf.readLong();
         final long sequence = buf.readLong();
         snapshotTimestamp = new Token(epoch, sequence);
+        conflictSet = fingerprintsFromBuffer(buf);
+        writeConflictParams = fingerprintsFromBuffer(buf);
+    }
 
-        // conflictSet
+    private static Map<UUID, long[]> fingerprintsFromBuffer(ByteBuf buf) {
         int numEntries = buf.readInt();
-        ImmutableMap.Builder<UUID, Set<byte[]>> conflictMapBuilder = new ImmutableMap.Builder<>();
-        for (int i = 0; i < numEntries; i++) {
-            UUID k = ICorfuPayload.fromBuffer(buf, UUID.class);
-            Set<byte[]> v = ICorfuPayload.setFromBuffer(buf, byte[].class);
-            conflictMapBuilder.put(k, v);
-        }
-        conflictSet = conflictMapBuilder.build();
-
-        // writeConflictParams
-        numEntries = buf.readInt();
-        ImmutableMap.Builder<UUID, Set<byte[]>> writeMapBuilder = new ImmutableMap.Builder<>();
+        ImmutableMap.Builder<UUID, long[]> builder = new ImmutableMap.Builder<>();
         for (int i = 0; i < numEntries; i++) {
             UUID k = ICorfuPayload.fromBuffer(buf, UUID.class);
-            Set<byte[]> v = ICorfuPayload.setFromBuffer(buf, byte[].class);
-            writeMapBuilder.put(k, v);
+            long[] v = new long[buf.readInt()];
+            for (int j = 0; j < v.length; j++) {
+                v[j] = buf.readLong();
+            }
+            builder.put(k, v);
         }
+        return builder.build();
+    }
 
-        writeConflictParams = writeMapBuilder.build();
+    private static void fingerprintsToBuffer(ByteBuf buf, Map<UUID, long[]> fingerprints) {
+        buf.writeInt(fingerprints.size());
+        fingerprints.forEach((k, v) -> {
+            ICorfuPayload.serialize(buf, k);
+            buf.writeInt(v.length);
+            for (long fingerprint : v) {
+                buf.writeLong(fingerprint);
+            }
+        });
     }
 
     /**
@@ -113,20 +120,8 @@ public class TxResolutionInfo implements ICorfuPayload<TxResolutionInfo> {
         ICorfuPayload.serialize(buf, TXid);
         buf.writeLong(snapshotTimestamp.getEpoch());
         buf.writeLong(snapshotTimestamp.getSequence());
-
-        // conflictSet
-        buf.writeInt(conflictSet.size());
-        conflictSet.entrySet().stream().forEach(x -> {
-            ICorfuPayload.serialize(buf, x.getKey());
-            ICorfuPayload.serialize(buf, x.getValue());
-        });
-
-        // writeConflictParams
-        buf.writeInt(writeConflictParams.size());
-        writeConflictParams.entrySet().stream().forEach(x -> {
-            ICorfuPayload.serialize(buf, x.getKey());
-            ICorfuPayload.serialize(buf, x.getValue());
-        });
+        fingerprintsToBuffer(buf, conflictSet);
+        fingerprintsToBuffer(buf, writeConflictParams);
     }
 
     @Override
@@ -13,6 +13,7 @@ import lombok.Singular;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.comm.ChannelImplementation;
+import org.corfudb.comm.CorfuByteBufAllocator;
 import org.corfudb.protocols.wireprotocol.MsgHandlingFilter;
 import org.corfudb.protocols.wireprotocol.VersionInfo;
 import org.corfudb.recovery.FastObjectLoader;
@@ -38,11 +39,14 @@ import org.corfudb.runtime.view.OrderedGuidGenerator;
 import org.corfudb.runtime.view.SnowflakeGuidGenerator;
 import org.corfudb.runtime.view.SequencerView;
 import org.corfudb.runtime.view.StreamsView;
+import org.corfudb.runtime.view.replication.HedgedReader;
 import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.GitRepositoryState;
 import org.corfudb.util.MetricsUtils;
 import org.corfudb.util.NodeLocator;
 import org.corfudb.util.Sleep;
+import org.corfudb.util.TxAbortAnalytics;
 import org.corfudb.util.UuidUtils;
 import org.corfudb.util.Version;
 
@@ -118,6 +122,12 @@ public class CorfuRuntime {
         @Default
         int bulkReadSize = 10;
 
+        /**
+         * Number of bulk read size chunks a state transfer keeps in flight.
+         */
+        @Default
+        int stateTransferWindow = 4;
+
         /**
          * How much time the Fast Loader has to get the maps up to date.
          *
@@ -161,6 +171,25 @@ public class CorfuRuntime {
          */
         @Default
         long cacheExpiryTime = Long.MAX_VALUE;
+
+        /**
+         * Whether or not reads of committed addresses are hedged to another replica of the chain
+         * when the tail of the chain is slow to respond.
+         */
+        @Default
+        boolean readHedgingEnabled = false;
+
+        /**
+         * Percentile of the read latencies after which a read is hedged.
+         */
+        @Default
+        double readHedgingPercentile = 0.99;
+
+        /**
+         * Minimum time to wait for a read before hedging it.
+         */
+        @Default
+        Duration readHedgingMinDelay = Duration.ofMillis(2);
         // endregion
 
         // region Handshake Parameters
@@ -205,6 +234,14 @@ public class CorfuRuntime {
         @Default
         int trimRetry = 2;
 
+        /**
+         * Maximum age of the global log tail observed in the sequencer's responses for it to be
+         * used as the snapshot of a read-only or snapshot transaction, instead of querying the
+         * sequencer. Zero always queries the sequencer.
+         */
+        @Default
+        Duration snapshotTokenMaxStaleness = Duration.ZERO;
+
         /**
          * Stream Batch Size: number of addresses to fetch in advance when stream address discovery mechanism
          * relies on address maps instead of follow backpointers, i.e., followBackpointersEnabled = false;
@@ -220,6 +257,22 @@ public class CorfuRuntime {
         int checkpointReadBatchSize = 5;
         // endregion
 
+        // region Object Parameters
+        /**
+         * Maximum distance, in addresses, between the version of an object and the oldest
+         * update whose undo record it keeps. Older versions are rebuilt from the log, or a
+         * checkpoint, instead of being rolled back to.
+         */
+        @Default
+        long undoLogHorizon = Long.MAX_VALUE;
+
+        /**
+         * Maximum number of updates whose undo records an object keeps.
+         */
+        @Default
+        int undoLogMaxEntries = Integer.MAX_VALUE;
+        // endregion
+
         //region        Security parameters
         /**
          * True, if TLS is enabled.
@@ -326,6 +379,13 @@ public class CorfuRuntime {
         @Default
         ChannelImplementation socketType = ChannelImplementation.NIO;
 
+        /**
+         * True, if netty channels should allocate from the pooled direct allocator.
+         * This setting is process-wide, see {@link CorfuByteBufAllocator}.
+         */
+        @Default
+        boolean pooledBuffers = false;
+
         /**
          * Number of retries to reconnect to an unresponsive system before invoking the
          * systemDownHandler. This is mainly required to allow the fault detection mechanism
@@ -378,6 +438,14 @@ public class CorfuRuntime {
         @Default
         boolean shutdownNettyEventLoop = true;
 
+        /**
+         * The number of threads which commit the transactions ended asynchronously with
+         * {@link ObjectsView#TXEndAsync()}. 0 means that we will use 2x the number of
+         * processors reported in the system.
+         */
+        @Default
+        int txCommitThreads = 0;
+
         /**
          * Netty channel options, if provided. If no options are set, we default to
          * the defaults in {@link this#DEFAULT_CHANNEL_OPTIONS}.
@@ -503,6 +571,18 @@ public class CorfuRuntime {
      */
     @Getter(lazy = true)
     private final ManagementView managementView = new ManagementView(this);
+    /**
+     * Reads the log unit chains, hedging slow reads of committed addresses.
+     */
+    @Getter(lazy = true)
+    private final HedgedReader hedgedReader = new HedgedReader(parameters);
+
+    /**
+     * Aggregates the aborts of the transactions of this runtime.
+     */
+    @Getter(lazy = true)
+    private final TxAbortAnalytics txAbortAnalytics = new TxAbortAnalytics(getDefaultMetrics(),
+            CorfuComponent.OBJECT + "tx-aborts.", TxAbortAnalytics.DEFAULT_TOP_K);
 
     /**
      * List of initial set of layout servers, i.e., servers specified in
@@ -550,8 +630,10 @@ public class CorfuRuntime {
 
 
     /**
-     * This thread is used by fetchLayout to find a new layout in the system
+     * This thread is used by fetchLayout to find a new layout in the system, and by the
+     * layout management view to prefetch the address space of a new primary sequencer.
      */
+    @Getter
     final ExecutorService runtimeExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
             .setDaemon(true)
             .setNameFormat("CorfuRuntime-%d")
@@ -667,6 +749,11 @@ public class CorfuRuntime {
         // Initialize the Guid Generator
         guidGenerator = new SnowflakeGuidGenerator(System.identityHashCode(this));
 
+        // Pooled buffers are a process-wide setting, so a runtime only ever turns them on.
+        if (parameters.isPooledBuffers()) {
+            CorfuByteBufAllocator.setPooled(true);
+        }
+
         // Generate or set the NettyEventLoop
         nettyEventLoop = parameters.nettyEventLoop == null ? getNewEventLoopGroup()
                 : parameters.nettyEventLoop;
@@ -11,6 +11,8 @@ import org.corfudb.protocols.wireprotocol.FillHoleRequest;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.IMetadata;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.LogRecordsMsg;
+import org.corfudb.protocols.wireprotocol.LogRecordsRequest;
 import org.corfudb.protocols.wireprotocol.MultipleReadRequest;
 import org.corfudb.protocols.wireprotocol.RangeWriteMsg;
 import org.corfudb.protocols.wireprotocol.ReadRequest;
@@ -158,6 +160,32 @@ public class LogUnitClient extends AbstractClient {
         });
     }
 
+    /**
+     * Read the records the log unit stores at a range of addresses, in their stored format.
+     * Addresses which are not written or are trimmed are omitted.
+     *
+     * @param start first address (inclusive).
+     * @param end   last address (inclusive).
+     * @return a completableFuture which returns the records keyed by address on completion.
+     */
+    public CompletableFuture<Map<Long, byte[]>> readRecords(long start, long end) {
+        return sendMessageWithFuture(CorfuMsgType.LOG_RECORDS_REQUEST
+                .payloadMsg(new LogRecordsRequest(start, end)));
+    }
+
+    /**
+     * Write records, in their stored format, to the log unit. The checksums of the records are
+     * validated before any of them is written, and records of addresses already written or
+     * trimmed on the log unit are skipped.
+     *
+     * @param records records keyed by address, as returned by {@link #readRecords(long, long)}.
+     * @return a completable future which returns true on success.
+     */
+    public CompletableFuture<Boolean> writeRecords(Map<Long, byte[]> records) {
+        return sendMessageWithFuture(CorfuMsgType.LOG_RECORDS_WRITE
+                .payloadMsg(new LogRecordsMsg(records)));
+    }
+
     /**
      * Get the global tail maximum address the log unit has written.
      *
@@ -187,6 +215,17 @@ public class LogUnitClient extends AbstractClient {
         return sendMessageWithFuture(CorfuMsgType.LOG_ADDRESS_SPACE_REQUEST.msg());
     }
 
+    /**
+     * Get the address space for all streams in the log, restricted to addresses
+     * greater than or equal to a given address.
+     *
+     * @param fromAddress lowest address (inclusive) to include in the address maps.
+     * @return A CompletableFuture which will complete with the partial address space map.
+     */
+    public CompletableFuture<StreamsAddressResponse> getLogAddressSpace(long fromAddress) {
+        return sendMessageWithFuture(CorfuMsgType.LOG_ADDRESS_SPACE_DELTA_REQUEST.payloadMsg(fromAddress));
+    }
+
     /**
      * Get the starting address of a log unit.
      *
@@ -10,6 +10,7 @@ import lombok.Setter;
 import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
+import org.corfudb.protocols.wireprotocol.LogRecordsMsg;
 import org.corfudb.protocols.wireprotocol.ReadResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.runtime.exceptions.DataCorruptionException;
@@ -170,6 +171,19 @@ public class LogUnitHandler implements IClient, IHandler<LogUnitClient> {
         return msg.getPayload();
     }
 
+    /**
+     * Handle a LOG_RECORDS_RESPONSE message.
+     *
+     * @param msg Incoming Message
+     * @param ctx Context
+     * @param r   Router
+     */
+    @ClientHandler(type = CorfuMsgType.LOG_RECORDS_RESPONSE)
+    private static Object handleLogRecordsResponse(CorfuPayloadMsg<LogRecordsMsg> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload().getRecords();
+    }
+
     /**
      * Handle a ERROR_DATA_CORRUPTION message.
      *
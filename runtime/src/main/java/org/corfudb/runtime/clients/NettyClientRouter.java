@@ -5,6 +5,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
@@ -207,6 +208,9 @@ public class NettyClientRouter extends SimpleChannelInboundHandler<CorfuMsg>
         b.group(eventLoopGroup);
         b.channel(parameters.getSocketType().getChannelClass());
         parameters.getNettyChannelOptions().forEach(b::option);
+        if (parameters.isPooledBuffers()) {
+            b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        }
         b.handler(getChannelInitializer());
         b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConnect);
 
@@ -14,6 +14,7 @@ import org.corfudb.protocols.wireprotocol.StreamsAddressRequest;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.protocols.wireprotocol.TxAbortStats;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 
 /**
@@ -36,6 +37,13 @@ public class SequencerClient extends AbstractClient {
         return sendMessageWithFuture(CorfuMsgType.SEQUENCER_METRICS_REQUEST.msg());
     }
 
+    /**
+     * Requests the transaction aborts aggregated by the sequencer server.
+     */
+    public CompletableFuture<TxAbortStats> requestAbortStats() {
+        return sendMessageWithFuture(CorfuMsgType.SEQUENCER_ABORT_STATS_REQUEST.msg());
+    }
+
     /**
      * Fetches the next available token from the sequencer.
      *
@@ -59,6 +67,29 @@ public class SequencerClient extends AbstractClient {
                 new StreamsAddressRequest(streamsAddressesRange)));
     }
 
+    /**
+     * Retrieves from the sequencer the address space of all streams, along with the
+     * global tail at which it was taken.
+     *
+     * @return address maps of all streams known to the sequencer.
+     */
+    public CompletableFuture<StreamsAddressResponse> getAllStreamsAddressSpace() {
+        return sendMessageWithFuture(CorfuMsgType.STREAMS_ADDRESS_REQUEST.payloadMsg(
+                new StreamsAddressRequest(StreamsAddressRequest.ALL_STREAMS)));
+    }
+
+    /**
+     * Retrieves from the sequencer the addresses of all streams written since a previous
+     * response, so that a client holding an address space snapshot can bring it up to date.
+     *
+     * @param globalTail log tail of a previous {@link StreamsAddressResponse}.
+     * @return addresses of the streams written since globalTail, and the current log tail.
+     */
+    public CompletableFuture<StreamsAddressResponse> getStreamsAddressSpaceDelta(long globalTail) {
+        return sendMessageWithFuture(CorfuMsgType.STREAMS_ADDRESS_REQUEST.payloadMsg(
+                StreamsAddressRequest.deltaSince(globalTail)));
+    }
+
     /**
      * Fetches the next available token from the sequencer.
      *
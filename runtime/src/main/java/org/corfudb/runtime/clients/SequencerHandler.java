@@ -12,6 +12,7 @@ import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerMetrics;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.protocols.wireprotocol.TxAbortStats;
 
 
 /**
@@ -45,6 +46,12 @@ public class SequencerHandler implements IClient, IHandler<SequencerClient> {
         return msg.getPayload();
     }
 
+    @ClientHandler(type = CorfuMsgType.SEQUENCER_ABORT_STATS_RESPONSE)
+    private static Object handleAbortStatsResponse(CorfuPayloadMsg<TxAbortStats> msg,
+                                                   ChannelHandlerContext ctx, IClientRouter r) {
+        return msg.getPayload();
+    }
+
     @ClientHandler(type = CorfuMsgType.TOKEN_RES)
     private static Object handleTokenResponse(CorfuPayloadMsg<TokenResponse> msg,
                                               ChannelHandlerContext ctx, IClientRouter r) {
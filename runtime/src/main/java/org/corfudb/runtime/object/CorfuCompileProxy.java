@@ -5,6 +5,8 @@ import static java.lang.Long.min;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.SMREntry;
@@ -17,6 +19,7 @@ import org.corfudb.runtime.exceptions.NetworkException;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.exceptions.TrimmedUpcallException;
+import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
 import org.corfudb.runtime.object.transactions.AbstractTransactionalContext;
 import org.corfudb.runtime.object.transactions.TransactionalContext;
 import org.corfudb.runtime.view.Address;
@@ -32,6 +35,7 @@ import java.lang.reflect.Constructor;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 /**
@@ -99,6 +103,21 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
      */
     final Object[] args;
 
+    /**
+     * Copies of the object at the pinned snapshots, by address. Each copy is synced once to
+     * its snapshot and never moves, so snapshot transactions at a pinned snapshot neither
+     * roll the underlying object back nor contend for it. The copies are softly referenced,
+     * so they are evicted under memory pressure, and invalidated when the snapshot is unpinned.
+     */
+    private final Cache<Long, VersionLockedObject<T>> snapshotObjects = CacheBuilder.newBuilder()
+            .softValues()
+            .build();
+
+    /**
+     * Creates new copies of the object, for the pinned snapshots.
+     */
+    private final Supplier<VersionLockedObject<T>> snapshotObjectFactory;
+
     private final MetricRegistry metrics;
     /**
      * Metrics: meter (counter), histogram.
@@ -149,6 +168,14 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
         // Since the VLO is thread safe we don't need to use a thread safe stream implementation
         // because the VLO will control access to the stream
         underlyingObject = new VersionLockedObject<T>(this::getNewInstance,
+                new StreamViewSMRAdapter(rt, rt.getStreamsView().getUnsafe(streamID)),
+                upcallTargetMap, undoRecordTargetMap,
+                undoTargetMap, resetSet,
+                rt.getParameters().getUndoLogHorizon(),
+                rt.getParameters().getUndoLogMaxEntries());
+        // A copy is never rolled back, and must not drop the undo records of the
+        // entries it shares with the underlying object, so its undo log is unbounded.
+        snapshotObjectFactory = () -> new VersionLockedObject<T>(this::getNewInstance,
                 new StreamViewSMRAdapter(rt, rt.getStreamsView().getUnsafe(streamID)),
                 upcallTargetMap, undoRecordTargetMap,
                 undoTargetMap, resetSet);
@@ -222,20 +249,36 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
     public long logUpdate(String smrUpdateFunction, final boolean keepUpcallResult,
                           Object[] conflictObject, Object... args) {
         try (Timer.Context context = MetricsUtils.getConditionalContext(timerLogWrite)) {
-            return logUpdateInner(smrUpdateFunction, keepUpcallResult, conflictObject, args);
+            return logUpdateInner(smrUpdateFunction, keepUpcallResult, false,
+                    conflictObject, args);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long logCommutativeUpdate(String smrUpdateFunction, Object[] conflictObject,
+                                     Object... args) {
+        try (Timer.Context context = MetricsUtils.getConditionalContext(timerLogWrite)) {
+            return logUpdateInner(smrUpdateFunction, false, true, conflictObject, args);
         }
     }
 
     private long logUpdateInner(String smrUpdateFunction, final boolean keepUpcallResult,
-                                Object[] conflictObject, Object... args) {
+                                final boolean commutative, Object[] conflictObject,
+                                Object... args) {
         // If we aren't coming from a transactional context,
         // redirect us to a transactional context first.
         if (TransactionalContext.isInTransaction()) {
             try {
                 // We generate an entry to avoid exposing the serializer to the tx context.
                 SMREntry entry = new SMREntry(smrUpdateFunction, args, serializer);
-                return TransactionalContext.getCurrentContext()
-                        .logUpdate(this, entry, conflictObject);
+                return commutative
+                        ? TransactionalContext.getCurrentContext()
+                                .logCommutativeUpdate(this, entry, conflictObject)
+                        : TransactionalContext.getCurrentContext()
+                                .logUpdate(this, entry, conflictObject);
             } catch (Exception e) {
                 log.warn("Update[{}]", this, e);
                 this.abortTransaction(e);
@@ -443,6 +486,32 @@ public class CorfuCompileProxy<T> implements ICorfuSMRProxyInternal<T> {
                 null);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VersionLockedObject<T> getSnapshotObject(long address) {
+        if (!rt.getObjectsView().isSnapshotPinned(address)) {
+            snapshotObjects.invalidate(address);
+            return underlyingObject;
+        }
+
+        try {
+            return snapshotObjects.get(address, snapshotObjectFactory::get);
+        } catch (ExecutionException e) {
+            throw new UnrecoverableCorfuError(e.getCause());
+        }
+    }
+
+    /**
+     * Evict the copy of the object at a snapshot, if there is one.
+     *
+     * @param address The address of the snapshot.
+     */
+    public void evictSnapshotObject(long address) {
+        snapshotObjects.invalidate(address);
+    }
+
     /**
      * Get a new instance of the real underlying object.
      *
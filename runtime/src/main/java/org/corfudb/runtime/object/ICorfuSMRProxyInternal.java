@@ -21,6 +21,15 @@ public interface ICorfuSMRProxyInternal<T> extends ICorfuSMRProxy<T> {
      */
     VersionLockedObject<T> getUnderlyingObject();
 
+    /**
+     * Get the state of the object to read a snapshot from: a copy of the object
+     * at the snapshot if the snapshot is pinned, the underlying object otherwise.
+     *
+     * @param address   The address of the snapshot.
+     * @return          The object to read the snapshot from.
+     */
+    VersionLockedObject<T> getSnapshotObject(long address);
+
     /**
      * Get the serializer used for serializing arguments in the
      * proxy.
@@ -1,5 +1,7 @@
 package org.corfudb.runtime.object;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import lombok.extern.slf4j.Slf4j;
@@ -15,11 +17,14 @@ import org.corfudb.util.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.StampedLock;
@@ -113,6 +118,55 @@ public class VersionLockedObject<T> {
      */
     private final Supplier<T> newObjectFn;
 
+    /**
+     * Marks an update which can not be undone in {@link #undoLog}.
+     */
+    private static final Object NO_UNDO_RECORD = new Object();
+
+    /**
+     * The undo records of the updates of the stream when they are bounded, by address, in the
+     * order the updates of each address were applied. They are kept by this object rather than
+     * on the updates, which are shared with the other objects of the stream, so that dropping
+     * them releases them. Records further than {@link #undoHorizon} addresses behind the latest
+     * update, or beyond the {@link #maxUndoEntries} most recent ones, are dropped: the versions
+     * before them are rebuilt from the log instead of rolled back to.
+     *
+     * <p>When the undo records are unbounded they are kept on the updates, and their memory is
+     * only bounded by the lifetime of the updates in the stream and the address space cache.
+     */
+    private final NavigableMap<Long, List<Object>> undoLog = new TreeMap<>();
+
+    /**
+     * The number of undo records in {@link #undoLog}.
+     */
+    private int undoLogSize;
+
+    /**
+     * Maximum distance, in addresses, from the latest update to the oldest undo record kept.
+     */
+    private final long undoHorizon;
+
+    /**
+     * Maximum number of undo records kept.
+     */
+    private final int maxUndoEntries;
+
+    /**
+     * Whether undo records are bounded, and so tracked in {@link #undoLog}.
+     */
+    private final boolean undoBounded;
+
+    /**
+     * The highest address whose undo records were dropped, which can not be rolled back.
+     */
+    private long undoDroppedAddress = Address.NEVER_READ;
+
+    /**
+     * The address of the last reset whose undo record was generated. Undoing the reset restores
+     * the whole object, so the updates following it at the same address need no undo record.
+     */
+    private long undoResetAddress = Address.NEVER_READ;
+
     /**
      * Correctness Logging
      */
@@ -136,9 +190,38 @@ public class VersionLockedObject<T> {
                                Map<String, IUndoRecordFunction<T>> undoRecordTargets,
                                Map<String, IUndoFunction<T>> undoTargets,
                                Set<String> resetSet) {
+        this(newObjectFn, smrStream, upcallTargets, undoRecordTargets, undoTargets, resetSet,
+                Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The VersionLockedObject maintains a versioned object which is backed by an ISMRStream,
+     * and is optionally backed by an additional optimistic update stream.
+     *
+     * @param newObjectFn       A function passed to instantiate a new instance of this object.
+     * @param smrStream         Stream View backing this object.
+     * @param upcallTargets     UpCall map for this object.
+     * @param undoRecordTargets Undo record function map for this object.
+     * @param undoTargets       Undo functions map.
+     * @param resetSet          Reset set for this object.
+     * @param undoHorizon       Maximum distance, in addresses, of the undo records kept.
+     * @param maxUndoEntries    Maximum number of undo records kept.
+     */
+    public VersionLockedObject(Supplier<T> newObjectFn,
+                               StreamViewSMRAdapter smrStream,
+                               Map<String, ICorfuSMRUpcallTarget<T>> upcallTargets,
+                               Map<String, IUndoRecordFunction<T>> undoRecordTargets,
+                               Map<String, IUndoFunction<T>> undoTargets,
+                               Set<String> resetSet,
+                               long undoHorizon,
+                               int maxUndoEntries) {
         this.smrStream = smrStream;
+        this.undoHorizon = undoHorizon;
+        this.maxUndoEntries = maxUndoEntries;
+        this.undoBounded = undoHorizon != Long.MAX_VALUE || maxUndoEntries != Integer.MAX_VALUE;
 
         this.upcallTargetMap = upcallTargets;
+        SMREntry.registerMethodNames(upcallTargets.keySet());
         this.undoRecordFunctionMap = undoRecordTargets;
         this.undoFunctionMap = undoTargets;
         this.resetSet = resetSet;
@@ -162,6 +245,10 @@ public class VersionLockedObject<T> {
             ts = lock.writeLock();
             pendingUpcalls.removeIf(e -> e < trimMark);
             upcallResults.entrySet().removeIf(e -> e.getKey() < trimMark);
+            // Versions before the trim mark can not be rebuilt, so their undo records are useless
+            while (!undoLog.isEmpty() && undoLog.firstKey() < trimMark) {
+                dropOldestUndoRecordsUnsafe();
+            }
             smrStream.gc(trimMark);
         } finally {
             lock.unlock(ts);
@@ -291,7 +378,21 @@ public class VersionLockedObject<T> {
      */
     public void rollbackObjectUnsafe(long rollbackVersion) {
         log.trace("Rollback[{}] to {}", this, rollbackVersion);
-        rollbackStreamUnsafe(smrStream, rollbackVersion);
+        // Fail before undoing anything if the undo records needed were dropped
+        if (rollbackVersion < undoDroppedAddress) {
+            throw new NoRollbackException(undoDroppedAddress, rollbackVersion);
+        }
+        if (undoBounded) {
+            rollbackUndoLogUnsafe(rollbackVersion);
+        } else {
+            rollbackStreamUnsafe(smrStream, rollbackVersion);
+        }
+        while (!undoLog.isEmpty() && undoLog.lastKey() > getVersionUnsafe()) {
+            undoLogSize -= undoLog.pollLastEntry().getValue().size();
+        }
+        if (undoResetAddress > getVersionUnsafe()) {
+            undoResetAddress = Address.NEVER_READ;
+        }
         log.trace("Rollback[{}] completed", this);
     }
 
@@ -450,6 +551,10 @@ public class VersionLockedObject<T> {
         object = newObjectFn.get();
         smrStream.reset();
         optimisticStream = null;
+        undoLog.clear();
+        undoLogSize = 0;
+        undoDroppedAddress = Address.NEVER_READ;
+        undoResetAddress = Address.NEVER_READ;
     }
 
     /**
@@ -488,24 +593,37 @@ public class VersionLockedObject<T> {
      * @param record The record to undo.
      */
     protected void applyUndoRecordUnsafe(SMREntry record) {
+        final boolean reset = applyUndoRecordUnsafe(record, record.getUndoRecord());
+        if (reset) {
+            // clear the undo record, since it is now
+            // consumed (the object may change)
+            record.clearUndoRecord();
+        }
+    }
+
+    /**
+     * Undo an update with the given undo record.
+     *
+     * @param record     The update to undo.
+     * @param undoRecord The undo record of the update.
+     * @return True if the update was a reset, whose undo record is consumed.
+     */
+    private boolean applyUndoRecordUnsafe(SMREntry record, Object undoRecord) {
         log.trace("Undo[{}] of {}@{} ({})", this, record.getSMRMethod(),
                 record.getEntry() != null ? record.getEntry().getGlobalAddress() : "OPT",
-                record.getUndoRecord());
+                undoRecord);
         IUndoFunction<T> undoFunction =
                 undoFunctionMap.get(record.getSMRMethod());
         // If the undo function exists, apply it.
         if (undoFunction != null) {
-            undoFunction.doUndo(object, record.getUndoRecord(),
+            undoFunction.doUndo(object, undoRecord,
                     record.getSMRArguments());
-            return;
+            return false;
         } else if (resetSet.contains(record.getSMRMethod())) {
             // If this is a reset, undo by restoring the
             // previous state.
-            object = (T) record.getUndoRecord();
-            // clear the undo record, since it is now
-            // consumed (the object may change)
-            record.clearUndoRecord();
-            return;
+            object = (T) undoRecord;
+            return true;
         }
         // Otherwise we don't know how to undo,
         // throw a runtime exception, because
@@ -530,38 +648,154 @@ public class VersionLockedObject<T> {
             throw new RuntimeException("Unknown upcall " + entry.getSMRMethod());
         }
 
-        // No undo record is present
-        // -OR- there this is an optimistic entry, calculate
-        // an undo record.
-        // (in the case of optimistic entries, the snapshot
-        // may have changed since the last time they were
-        // applied, so we need to recalculate undo) --- this
-        // is the case without snapshot isolation
-        if (!entry.isUndoable() || entry.getEntry() == null) {
-            // Can we generate an undo record?
-            IUndoRecordFunction<T> undoRecordTarget =
-                    undoRecordFunctionMap
-                            .get(entry.getSMRMethod());
-            // If there was no previously calculated undo entry
-            if (undoRecordTarget != null) {
-                // calculate the undo record
-                entry.setUndoRecord(undoRecordTarget
-                        .getUndoRecord(object, entry.getSMRArguments()));
-                log.trace("Apply[{}] Undo->{}", this, entry.getUndoRecord());
-            } else if (resetSet.contains(entry.getSMRMethod())) {
-                // This entry actually resets the object. So here
-                // we can safely get a new instance, and add the
-                // previous instance to the undo log.
-                entry.setUndoRecord(object);
-                object = newObjectFn.get();
-                log.trace("Apply[{}] Undo->RESET", this);
+        // An update following a reset at the same address is undone
+        // by undoing the reset, so it needs no undo record. Any undo
+        // record it already has is left alone, since the entry is
+        // shared with the other objects of the stream.
+        final boolean coveredByReset = entry.getEntry() != null
+                && entry.getEntry().getGlobalAddress() == undoResetAddress;
+        if (coveredByReset) {
+            VloMetricsHelper.getUndoCompacted().inc();
+        } else if (undoBounded && entry.getEntry() != null) {
+            // Bounded undo records are kept by this object, so that they
+            // can be released once dropped.
+            addUndoRecordUnsafe(entry, generateUndoRecordUnsafe(entry));
+        } else if (!entry.isUndoable() || entry.getEntry() == null) {
+            // No undo record is present
+            // -OR- there this is an optimistic entry, calculate
+            // an undo record.
+            // (in the case of optimistic entries, the snapshot
+            // may have changed since the last time they were
+            // applied, so we need to recalculate undo) --- this
+            // is the case without snapshot isolation
+            Object undoRecord = generateUndoRecordUnsafe(entry);
+            if (undoRecord != NO_UNDO_RECORD) {
+                entry.setUndoRecord(undoRecord);
             }
         }
 
+        if (!coveredByReset && !undoBounded && entry.getEntry() != null
+                && entry.isUndoable() && resetSet.contains(entry.getSMRMethod())) {
+            undoResetAddress = entry.getEntry().getGlobalAddress();
+        }
+
         // now invoke the upcall
         return target.upcall(object, entry.getSMRArguments());
     }
 
+    /**
+     * Generate the undo record of an update against the current state of the object. A reset
+     * replaces the object with a new instance, and its undo record is the previous instance.
+     *
+     * @param entry The update about to be applied.
+     * @return The undo record, or {@link #NO_UNDO_RECORD} if the update can not be undone.
+     */
+    private Object generateUndoRecordUnsafe(SMREntry entry) {
+        IUndoRecordFunction<T> undoRecordTarget =
+                undoRecordFunctionMap.get(entry.getSMRMethod());
+        if (undoRecordTarget != null) {
+            Object undoRecord = undoRecordTarget.getUndoRecord(object, entry.getSMRArguments());
+            log.trace("Apply[{}] Undo->{}", this, undoRecord);
+            return undoRecord;
+        } else if (resetSet.contains(entry.getSMRMethod())) {
+            // This entry actually resets the object. So here
+            // we can safely get a new instance, and add the
+            // previous instance to the undo log.
+            Object undoRecord = object;
+            object = newObjectFn.get();
+            log.trace("Apply[{}] Undo->RESET", this);
+            return undoRecord;
+        }
+        return NO_UNDO_RECORD;
+    }
+
+    /**
+     * Keep the undo record of an update of the stream, dropping the oldest undo records once
+     * they are beyond the undo horizon or too many.
+     *
+     * @param entry      The update applied.
+     * @param undoRecord Its undo record, or {@link #NO_UNDO_RECORD}.
+     */
+    private void addUndoRecordUnsafe(SMREntry entry, Object undoRecord) {
+        final long address = entry.getEntry().getGlobalAddress();
+        if (undoRecord != NO_UNDO_RECORD && resetSet.contains(entry.getSMRMethod())) {
+            undoResetAddress = address;
+        }
+        undoLog.computeIfAbsent(address, a -> new ArrayList<>()).add(undoRecord);
+        undoLogSize++;
+
+        while (undoLogSize > maxUndoEntries || !undoLog.isEmpty()
+                && address - undoLog.firstKey() > undoHorizon) {
+            dropOldestUndoRecordsUnsafe();
+        }
+    }
+
+    /**
+     * Drop the undo records of the oldest address kept, so that the versions before it can no
+     * longer be rolled back to.
+     */
+    private void dropOldestUndoRecordsUnsafe() {
+        Map.Entry<Long, List<Object>> oldest = undoLog.pollFirstEntry();
+        undoLogSize -= oldest.getValue().size();
+        undoDroppedAddress = Math.max(undoDroppedAddress, oldest.getKey());
+        VloMetricsHelper.getUndoDropped().inc(oldest.getValue().size());
+    }
+
+    /**
+     * Roll back the stream backing this object with the undo records kept in
+     * {@link #undoLog}, from the current stream position until rollbackVersion.
+     *
+     * @param rollbackVersion The version to stop roll back at.
+     * @throws NoRollbackException If an update of the stream has no undo record.
+     */
+    private void rollbackUndoLogUnsafe(long rollbackVersion) {
+        if (smrStream.pos() <= rollbackVersion) {
+            return;
+        }
+
+        List<SMREntry> entries = smrStream.current();
+
+        while (entries != null) {
+            // The updates covered by a reset have no undo record, and need not be undone
+            List<Object> undoRecords = undoLog.remove(smrStream.pos());
+            if (undoRecords == null || undoRecords.contains(NO_UNDO_RECORD)
+                    || undoRecords.size() > entries.size()) {
+                log.trace("rollbackUndoLogUnsafe: updates in address @{} are not undoable",
+                        smrStream.pos());
+                throw new NoRollbackException(smrStream.pos(), rollbackVersion);
+            }
+            undoLogSize -= undoRecords.size();
+            for (int i = undoRecords.size() - 1; i >= 0; i--) {
+                applyUndoRecordUnsafe(entries.get(i), undoRecords.get(i));
+            }
+
+            entries = smrStream.previous();
+
+            if (smrStream.pos() <= rollbackVersion) {
+                return;
+            }
+        }
+
+        throw new NoRollbackException(smrStream.pos(), rollbackVersion);
+    }
+
+    /**
+     * Get the updates of an address which need to be undone to roll it back. Undoing a reset
+     * restores the whole object, so the updates following an undoable reset need not be undone.
+     *
+     * @param entries The updates of an address.
+     * @return The updates to undo, in the order they were applied.
+     */
+    private List<SMREntry> entriesToUndo(List<SMREntry> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            SMREntry entry = entries.get(i);
+            if (entry.isUndoable() && resetSet.contains(entry.getSMRMethod())) {
+                return entries.subList(0, i + 1);
+            }
+        }
+        return entries;
+    }
+
     /**
      * Roll back the given stream by applying undo records in reverse order
      * from the current stream position until rollbackVersion.
@@ -582,6 +816,7 @@ public class VersionLockedObject<T> {
         List<SMREntry> entries = stream.current();
 
         while (entries != null) {
+            entries = entriesToUndo(entries);
             if (entries.stream().allMatch(x -> x.isUndoable())) {
                 // start from the end, process one at a time
                 ListIterator<SMREntry> it =
@@ -648,6 +883,9 @@ public class VersionLockedObject<T> {
                         throw new UnrecoverableCorfuError(e);
                     }
                 });
+        if (undoBounded && stream == smrStream) {
+            VloMetricsHelper.getUndoLogLength().update(undoLogSize);
+        }
     }
 
     /**
@@ -688,6 +926,12 @@ public class VersionLockedObject<T> {
                 "vlo.updated-object-read";
         private static final String VLO_UPDATE = CorfuComponent.OBJECT.toString() + "vlo.update";
         private static final String VLO_GC = CorfuComponent.OBJECT.toString() + "vlo.gc";
+        private static final String VLO_UNDO_LOG_LENGTH = CorfuComponent.OBJECT.toString()
+                + "vlo.undo-log.length";
+        private static final String VLO_UNDO_DROPPED = CorfuComponent.OBJECT.toString()
+                + "vlo.undo-log.dropped";
+        private static final String VLO_UNDO_COMPACTED = CorfuComponent.OBJECT.toString()
+                + "vlo.undo-log.compacted";
 
         private static Timer.Context getOptimisticReadContext() {
             return MetricsUtils.getConditionalContext(metrics.timer(VLO_OPTIMISTIC_READ));
@@ -704,5 +948,17 @@ public class VersionLockedObject<T> {
         private  static Timer.Context getVloGcContext() {
             return MetricsUtils.getConditionalContext(metrics.timer(VLO_GC));
         }
+
+        private static Histogram getUndoLogLength() {
+            return metrics.histogram(VLO_UNDO_LOG_LENGTH);
+        }
+
+        private static Counter getUndoDropped() {
+            return metrics.counter(VLO_UNDO_DROPPED);
+        }
+
+        private static Counter getUndoCompacted() {
+            return metrics.counter(VLO_UNDO_COMPACTED);
+        }
     }
 }
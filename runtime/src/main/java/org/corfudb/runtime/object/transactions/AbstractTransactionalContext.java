@@ -2,6 +2,7 @@ package org.corfudb.runtime.object.transactions;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.google.common.primitives.Longs;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.protocols.logprotocol.MultiObjectSMREntry;
@@ -23,10 +24,10 @@ import org.corfudb.util.MetricsUtils;
 import org.corfudb.util.Utils;
 
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -239,6 +240,20 @@ public abstract class AbstractTransactionalContext implements
     public abstract <T> long logUpdate(ICorfuSMRProxyInternal<T> proxy, SMREntry updateEntry,
                                        Object[] conflictObject);
 
+    /**
+     * Log an SMR update which commutes with the other commutative updates of the object.
+     *
+     * @param proxy          The proxy which generated the update.
+     * @param updateEntry    The entry which we are writing to the log.
+     * @param conflictObject Fine-grained conflict information, if available.
+     * @param <T>            The type of the proxy's underlying object.
+     * @return The address the update was written at.
+     */
+    public <T> long logCommutativeUpdate(ICorfuSMRProxyInternal<T> proxy, SMREntry updateEntry,
+                                         Object[] conflictObject) {
+        return logUpdate(proxy, updateEntry, conflictObject);
+    }
+
     /**
      * Add a given transaction to this transactional context, merging
      * the read and write sets.
@@ -262,11 +277,27 @@ public abstract class AbstractTransactionalContext implements
      */
     public void abortTransaction(TransactionAbortedException ae) {
         AbstractTransactionalContext.log.debug("TXAbort[{}]", this);
+        if (commitAddress != ABORTED_ADDRESS) {
+            recordAbort(ae);
+        }
         commitAddress = ABORTED_ADDRESS;
         completionFuture
                 .completeExceptionally(ae);
     }
 
+    /**
+     * Record an abort in the abort analytics of the runtime.
+     */
+    private void recordAbort(TransactionAbortedException ae) {
+        final UUID conflictStream = TokenResponse.NO_CONFLICT_STREAM.equals(ae.getConflictStream())
+                ? null : ae.getConflictStream();
+        final byte[] conflictKey = ae.getConflictKey();
+        final Long conflictParam = conflictKey != null && conflictKey.length == Long.BYTES
+                ? Longs.fromByteArray(conflictKey) : null;
+        getTransaction().getRuntime().getTxAbortAnalytics()
+                .recordAbort(String.valueOf(ae.getAbortCause()), conflictStream, conflictParam);
+    }
+
     /**
      * Retrieves the current tail from the sequencer, if this
      * is a nested transaction, then inherit the snapshot
@@ -290,12 +321,13 @@ public abstract class AbstractTransactionalContext implements
             return txnBuilderTs;
         } else {
             // Otherwise, fetch a read token from the sequencer the linearize
-            // ourselves against.
-            Token timestamp = getTransaction()
-                    .getRuntime()
-                    .getSequencerView()
-                    .query()
-                    .getToken();
+            // ourselves against. Transactions which only read may reuse a
+            // recently observed one.
+            final CorfuRuntime runtime = getTransaction().getRuntime();
+            final Duration maxStaleness = getTransaction().isReadOnly()
+                    || getTransaction().getType() == TransactionType.SNAPSHOT
+                    ? runtime.getParameters().getSnapshotTokenMaxStaleness() : Duration.ZERO;
+            Token timestamp = runtime.getSequencerView().queryGlobalTail(maxStaleness);
             log.trace("obtainSnapshotTimestamp: sequencer SnapshotTimestamp[{}] {}", this, timestamp);
             return timestamp;
         }
@@ -335,13 +367,26 @@ public abstract class AbstractTransactionalContext implements
         return getWriteSetInfo().add(proxy, updateEntry, conflictObjects);
     }
 
+    /**
+     * Add a commutative update to the transaction optimistic write-set.
+     *
+     * @param proxy           the SMR object for this update
+     * @param updateEntry     the update
+     * @param conflictObjects the conflict objects to add
+     * @return a synthetic "address" in the write-set
+     */
+    long addCommutativeToWriteSet(ICorfuSMRProxyInternal proxy, SMREntry updateEntry,
+                                  Object[] conflictObjects) {
+        return getWriteSetInfo().addCommutative(proxy, updateEntry, conflictObjects);
+    }
+
     /**
      * collect all the conflict-params from the write-set for this transaction
      * into a set.
      *
      * @return A set of longs representing all the conflict params
      */
-    Map<UUID, Set<byte[]>> collectWriteConflictParams() {
+    Map<UUID, long[]> collectWriteConflictParams() {
         return getWriteSetInfo().getHashedConflictSet();
     }
 
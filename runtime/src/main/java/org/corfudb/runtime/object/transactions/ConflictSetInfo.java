@@ -6,10 +6,11 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import net.openhft.hashing.LongHashFunction;
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 
 /**
@@ -23,30 +24,43 @@ public class ConflictSetInfo {
     /** Set of objects this conflict set conflicts with. */
     protected Map<ICorfuSMRProxyInternal, Set<Object>> conflicts = new HashMap<>();
 
+    /** Fingerprints of the conflict objects, arranged by stream IDs. Each conflict
+     * object is hashed once, when it is first added. */
+    @Getter(AccessLevel.NONE)
+    protected Map<UUID, Fingerprints> fingerprints = new HashMap<>();
+
     /** Get a hash for the object, given a proxy. */
     public static byte[] generateHashFromObject(ICorfuSMRProxyInternal p, Object o) {
         return p.getSerializer().hash(o);
     }
 
+    /** Get the 64-bit fingerprint of an object, given a proxy.
+     *
+     * <p>An 8 bytes hash, such as the hash of strings, longs or serialized
+     * objects, is the fingerprint itself. Hashes of other sizes are hashed
+     * again into 64 bits.
+     */
+    public static long generateFingerprint(ICorfuSMRProxyInternal p, Object o) {
+        byte[] hash = generateHashFromObject(p, o);
+        if (hash.length != Long.BYTES) {
+            return LongHashFunction.xx().hashBytes(hash);
+        }
+
+        long fingerprint = 0;
+        for (byte b : hash) {
+            fingerprint = (fingerprint << Byte.SIZE) | (b & 0xFF);
+        }
+        return fingerprint;
+    }
+
     /** Get the hashed conflict set.
-     * @return              The hashed conflict set.
+     * @return              The fingerprints of the conflict objects, arranged by stream IDs,
+     *                      sorted and without duplicates.
      */
-    public Map<UUID, Set<byte[]>> getHashedConflictSet() {
-        return conflicts.entrySet().stream()
-                .collect(Collectors.toMap(
-                        // Key = UUID
-                        e -> e.getKey().getStreamID(),
-                        // Value = Generated hash.
-                        e -> e.getValue().stream()
-                                .map(o -> ConflictSetInfo.generateHashFromObject(e.getKey(), o))
-                                .collect(Collectors.toSet()),
-                        // Merge function, in case key was already mapped
-                        // (If two proxies have the same stream).
-                        (v1,v2) -> {
-                            // Combine the two sets.
-                            v1.addAll(v2);
-                            return v1;
-                        }));
+    public Map<UUID, long[]> getHashedConflictSet() {
+        Map<UUID, long[]> hashedConflictSet = new HashMap<>(fingerprints.size());
+        fingerprints.forEach((streamId, f) -> hashedConflictSet.put(streamId, f.toSortedArray()));
+        return hashedConflictSet;
     }
 
     /** Merge a conflict set into this conflict set.
@@ -54,6 +68,8 @@ public class ConflictSetInfo {
      */
     public void mergeInto(ConflictSetInfo other) {
         conflicts.putAll(other.conflicts);
+        other.fingerprints.forEach((streamId, f) ->
+                fingerprints.computeIfAbsent(streamId, id -> new Fingerprints()).addAll(f));
     }
 
     /** Add an operation into this conflict set. */
@@ -64,14 +80,48 @@ public class ConflictSetInfo {
 
         // Add the conflict objects to the set for this proxy,
         // creating a new set if needed.
-        conflicts.compute(proxy, (p, c) -> {
-            // If key not previously mapped
-            if (c == null) {
-                c = new HashSet<>();
+        Set<Object> c = conflicts.computeIfAbsent(proxy, p -> new HashSet<>());
+        // A stream conflicts with all updates if it has no conflict objects.
+        Fingerprints f = fingerprints.computeIfAbsent(proxy.getStreamID(),
+                id -> new Fingerprints());
+        for (Object conflictObject : conflictObjects) {
+            if (c.add(conflictObject)) {
+                f.add(generateFingerprint(proxy, conflictObject));
             }
-            // Add conflicts to set.
-            c.addAll(Arrays.asList(conflictObjects));
-            return c;
-        });
+        }
+    }
+
+    /** A growable array of fingerprints, deduplicated when it is exported. */
+    static class Fingerprints {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        void add(long fingerprint) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = fingerprint;
+        }
+
+        void addAll(Fingerprints other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+        }
     }
 }
@@ -213,6 +213,20 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
         return addToWriteSet(proxy, updateEntry, conflictObjects);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> long logCommutativeUpdate(ICorfuSMRProxyInternal<T> proxy,
+                                         SMREntry updateEntry,
+                                         Object[] conflictObjects) {
+        log.trace("LogCommutativeUpdate[{},{}] {} ({}) conflictObj={}",
+                this, proxy, updateEntry.getSMRMethod(),
+                updateEntry.getSMRArguments(), conflictObjects);
+
+        return addCommutativeToWriteSet(proxy, updateEntry, conflictObjects);
+    }
+
     /**
      * Commit a transaction into this transaction by merging the read/write
      * sets.
@@ -320,11 +334,17 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
 
     /** Try to commit the optimistic updates to each proxy. */
     protected void tryCommitAllProxies() {
-        // First, get the committed entry
-        // in order to get the backpointers
-        // and the underlying SMREntries.
-        ILogData committedEntry = this.transaction.getRuntime()
-                .getAddressSpaceView().read(commitAddress);
+        // The append cached the write set at the commit address, and its
+        // entries already hold the undo records of the optimistic updates,
+        // so the committed entry doesn't need to be read back from the log.
+        // In the rare case where a copy read from the log replaced it in the
+        // cache, the undo records are transferred to that copy.
+        final ILogData cachedEntry = this.transaction.getRuntime()
+                .getAddressSpaceView().getCachedEntry(commitAddress);
+        final Object cachedWrites = cachedEntry == null ? null
+                : cachedEntry.getPayload(this.transaction.getRuntime());
+        final boolean transferUndoRecords = cachedWrites != null
+                && cachedWrites != collectWriteSetEntries();
 
         updateAllProxies(x -> {
             log.trace("Commit[{}] Committing {}", this,  x);
@@ -334,27 +354,26 @@ public class OptimisticTransactionalContext extends AbstractTransactionalContext
             // it forward to grab those updates
             x.getUnderlyingObject().syncObjectUnsafe(
                         commitAddress - 1);
-            // Also, be nice and transfer the undo
-            // log from the optimistic updates
-            // for this to work the write sets better
-            // be the same
-            List<SMREntry> committedWrites =
-                    getWriteSetEntryList(x.getStreamID());
-            List<SMREntry> entryWrites =
-                    ((ISMRConsumable) committedEntry
-                            .getPayload(this.transaction.getRuntime()))
-                    .getSMRUpdates(x.getStreamID());
-            if (committedWrites.size()
-                    == entryWrites.size()) {
-                IntStream.range(0, committedWrites.size())
-                        .forEach(i -> {
-                            if (committedWrites.get(i)
-                                    .isUndoable()) {
-                                entryWrites.get(i)
-                                        .setUndoRecord(committedWrites.get(i)
-                                                .getUndoRecord());
-                            }
-                        });
+            if (transferUndoRecords) {
+                // for this to work the write sets better
+                // be the same
+                List<SMREntry> committedWrites =
+                        getWriteSetEntryList(x.getStreamID());
+                List<SMREntry> entryWrites =
+                        ((ISMRConsumable) cachedWrites)
+                                .getSMRUpdates(x.getStreamID());
+                if (committedWrites.size()
+                        == entryWrites.size()) {
+                    IntStream.range(0, committedWrites.size())
+                            .forEach(i -> {
+                                if (committedWrites.get(i)
+                                        .isUndoable()) {
+                                    entryWrites.get(i)
+                                            .setUndoRecord(committedWrites.get(i)
+                                                    .getUndoRecord());
+                                }
+                            });
+                }
             }
             // and move the stream pointer to "skip" this commit entry
             x.getUnderlyingObject().seek(commitAddress + 1);
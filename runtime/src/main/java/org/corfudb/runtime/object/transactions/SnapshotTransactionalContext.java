@@ -13,6 +13,7 @@ import org.corfudb.runtime.exceptions.TransactionAbortedException;
 import org.corfudb.runtime.exceptions.TrimmedException;
 import org.corfudb.runtime.object.ICorfuSMRAccess;
 import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.corfudb.runtime.object.VersionLockedObject;
 import org.corfudb.runtime.view.Address;
 
 /**
@@ -47,6 +48,17 @@ public class SnapshotTransactionalContext extends AbstractTransactionalContext {
         // In snapshot transactions, there are no conflicts.
         // Hence, we do not need to add this access to a conflict set
         // do not add: addToReadSet(proxy, conflictObject);
+        final VersionLockedObject<T> snapshotObject =
+                proxy.getSnapshotObject(getSnapshotTimestamp().getSequence());
+        if (snapshotObject != proxy.getUnderlyingObject()) {
+            // The copy at a pinned snapshot is only ever synced to the snapshot,
+            // so once it has been synced it can be read directly.
+            return snapshotObject.access(o -> o.getVersionUnsafe() != Address.NEVER_READ,
+                    o -> {
+                        syncWithRetryUnsafe(o, getSnapshotTimestamp(), proxy, null);
+                    },
+                    o -> accessFunction.access(o));
+        }
         return proxy.getUnderlyingObject().access(o -> o.getVersionUnsafe()
                         == getSnapshotTimestamp().getSequence()
                         && !o.isOptimisticallyModifiedUnsafe(),
@@ -40,6 +40,14 @@ public class Transaction {
     @Default
     final Token snapshot = Token.UNINITIALIZED;;
 
+    /**
+     * Whether the transaction only reads. Read-only transactions may use a
+     * recently observed global tail as their snapshot, see
+     * {@link org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters#snapshotTokenMaxStaleness}.
+     */
+    @Default
+    final boolean readOnly = false;
+
     /**
      * Start the transaction with the parameters given
      * to the builder.
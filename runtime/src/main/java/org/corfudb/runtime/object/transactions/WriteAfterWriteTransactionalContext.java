@@ -15,7 +15,9 @@ import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
  *   <p>(2) Writes in a write-after-write transaction are guaranteed
  *     to commit atomically, if and only if none of the objects
  *     written (the "write set") were modified between the first read
- *     ("first read timestamp") and the time of commit.
+ *     ("first read timestamp") and the time of commit. Objects only
+ *     written by commutative mutators are not checked, their updates
+ *     are applied on top of the concurrent ones.
  *
  * <p>Created by mwei on 11/21/16.
  */
@@ -32,7 +34,7 @@ public class WriteAfterWriteTransactionalContext
     public long commitTransaction() throws TransactionAbortedException {
         log.debug("TX[{}] request write-write commit", this);
 
-        return getConflictSetAndCommit(getWriteSetInfo());
+        return getConflictSetAndCommit(getWriteSetInfo().getNonCommutativeWrites());
     }
 
     @Override
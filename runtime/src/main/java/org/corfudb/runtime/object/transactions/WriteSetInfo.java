@@ -25,7 +25,22 @@ public class WriteSetInfo extends ConflictSetInfo {
     /** The actual updates to mutated objects. */
     MultiObjectSMREntry writeSet = new MultiObjectSMREntry();
 
+    /** The conflict objects written by mutators which are not commutative. */
+    ConflictSetInfo nonCommutativeWrites = new ConflictSetInfo();
+
     public long add(ICorfuSMRProxyInternal proxy, SMREntry updateEntry, Object[] conflictObjects) {
+        synchronized (getRootContext().getTransactionID()) {
+            nonCommutativeWrites.add(proxy, conflictObjects);
+            return addCommutative(proxy, updateEntry, conflictObjects);
+        }
+    }
+
+    /** Add an update which commutes with the other commutative updates of the object.
+     * Its conflict objects are part of the write conflict set, but not of
+     * {@link #getNonCommutativeWrites()}.
+     */
+    public long addCommutative(ICorfuSMRProxyInternal proxy, SMREntry updateEntry,
+                               Object[] conflictObjects) {
         synchronized (getRootContext().getTransactionID()) {
 
             // add the SMRentry to the list of updates for this stream
@@ -44,6 +59,7 @@ public class WriteSetInfo extends ConflictSetInfo {
         }
 
         super.mergeInto(other);
+        nonCommutativeWrites.mergeInto(((WriteSetInfo) other).nonCommutativeWrites);
         affectedStreams.addAll(((WriteSetInfo) other).affectedStreams);
         writeSet.mergeInto(((WriteSetInfo) other).writeSet);
     }
@@ -1,6 +1,7 @@
 package org.corfudb.runtime.view;
 
 import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -100,6 +101,26 @@ public abstract class AbstractView {
         }
     }
 
+    /**
+     * Wait for a layout newer than a stale one, after a {@link WrongEpochException}.
+     *
+     * <p>All the threads which fail with a wrong epoch on the same layout share a single layout
+     * fetch: the threads which find a newer layout already fetched don't fetch it again, and the
+     * others wait for the fetch in flight, if any, see {@link CorfuRuntime#invalidateLayout()}.
+     * The function can be retried right away once a newer layout is fetched.
+     *
+     * @param staleLayout the layout the function failed with
+     * @return true if a newer layout was fetched
+     */
+    private boolean awaitNewerLayout(Layout staleLayout) {
+        CompletableFuture<Layout> layoutFuture = runtime.layout;
+        if (!layoutFuture.isDone() || layoutFuture.isCompletedExceptionally()
+                || layoutFuture.join().getEpoch() <= staleLayout.getEpoch()) {
+            runtime.invalidateLayout();
+        }
+        return getLayoutUninterruptibly().getEpoch() > staleLayout.getEpoch();
+    }
+
     /**
      * Helper function for view to retrieve layouts.
      * This function will retry the given function indefinitely,
@@ -154,6 +175,9 @@ public abstract class AbstractView {
                 if (rethrowAllExceptions) {
                     throw re;
                 }
+                if (re instanceof WrongEpochException && awaitNewerLayout(layout)) {
+                    continue;
+                }
             }
 
             log.info("layoutHelper: Retried {} times, SystemDownHandlerTriggerLimit = {}",
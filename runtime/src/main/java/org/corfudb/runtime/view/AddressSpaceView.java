@@ -89,6 +89,16 @@ public class AddressSpaceView extends AbstractView {
         }
     }
 
+    /**
+     * Get the data of an address from the read cache, without reading it from the log.
+     *
+     * @param address the address to get
+     * @return the cached data, or null if the address is not cached
+     */
+    public @Nullable ILogData getCachedEntry(long address) {
+        return readCache.getIfPresent(address);
+    }
+
     /**
      * Remove all log entries that are less than the trim mark
      */
@@ -369,7 +379,7 @@ public class AddressSpaceView extends AbstractView {
      * Get the first address in the address space.
      */
     public Token getTrimMark() {
-        return layoutHelper(
+        Token logTrimMark = layoutHelper(
                 e -> {
                     long trimMark = e.getLayout().segments.stream()
                             .flatMap(seg -> seg.getStripes().stream())
@@ -394,6 +404,9 @@ public class AddressSpaceView extends AbstractView {
                             .max(Comparator.naturalOrder()).get();
                     return new Token(e.getLayout().getEpoch(), trimMark);
                 });
+        // Trimmed addresses are checkpointed, hence committed.
+        runtime.getHedgedReader().advanceCommittedTail(logTrimMark.getSequence() - 1);
+        return logTrimMark;
     }
 
     /**
@@ -423,6 +436,17 @@ public class AddressSpaceView extends AbstractView {
                 e -> Utils.getLogAddressSpace(e.getLayout(), runtime));
     }
 
+    /**
+     * Get the log address space written at or after a given address.
+     *
+     * @param fromAddress lowest address (inclusive) to retrieve.
+     * @return streams address maps restricted to [fromAddress, log tail] and the log tail.
+     */
+    public StreamsAddressResponse getLogAddressSpace(long fromAddress) {
+        return layoutHelper(
+                e -> Utils.getLogAddressSpace(e.getLayout(), runtime, fromAddress));
+    }
+
     /**
      * Prefix trim the address space.
      *
@@ -461,6 +485,7 @@ public class AddressSpaceView extends AbstractView {
                                     });
                             return null;
                 }, true);
+                runtime.getHedgedReader().advanceCommittedTail(address.getSequence());
                 break;
             } catch (NetworkException | TimeoutException e) {
                 log.warn("prefixTrim: encountered a network error on try {}", x, e);
@@ -3,12 +3,19 @@ package org.corfudb.runtime.view;
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import io.netty.buffer.ByteBuf;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
+import lombok.ToString;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.view.ClusterStatusReport.ClusterStatus;
@@ -24,23 +31,42 @@ import org.corfudb.runtime.view.stream.ThreadSafeStreamView;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * This class represents the layout of a Corfu instance.
+ *
+ * <p>On the wire, a layout is sent in a compact binary encoding, see {@link #serialize(ByteBuf)}.
+ * The encoding, the fingerprint derived from it and the hash code are cached. Layouts are
+ * modified in place (e.g. by the {@link LayoutBuilder}), so their lists, segments and stripes
+ * drop the cache of the layout owning them whenever they are modified. A segment belongs to the
+ * last layout it was added to.
+ *
  * Created by mwei on 12/8/15.
  */
 @Data
+@ToString(exclude = {"encoding", "hash"})
 public class Layout {
 
+    /**
+     * Version of the binary encoding.
+     */
+    private static final byte ENCODING_VERSION = 1;
+
     /**
      * Sorting layouts according to epochs in descending order
      */
@@ -77,7 +103,6 @@ public class Layout {
      * The epoch of this layout.
      */
     @Getter
-    @Setter
     long epoch;
 
     /**
@@ -93,6 +118,23 @@ public class Layout {
     @Getter
     UUID clusterId;
 
+    /**
+     * Cached binary encoding, transient to be excluded from the JSON representation
+     * and from equals and hashCode. Racing threads may each compute it, and the final
+     * fields of {@link Encoding} make it safe to publish without synchronization.
+     * Dropped whenever the layout is modified.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    transient volatile Encoding encoding;
+
+    /**
+     * Cached hash code, or 0 if it is not computed. Dropped whenever the layout is modified.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    transient volatile int hash;
+
     /**
      * Defensive constructor since we can create a Layout from a JSON file.
      * JSON deserialize is forced through this constructor.
@@ -101,21 +143,14 @@ public class Layout {
                   @NonNull List<LayoutSegment> segments, @NonNull List<String> unresponsiveServers,
                   long epoch, @Nullable UUID clusterId) {
 
-        this.layoutServers = layoutServers;
-        this.sequencers = sequencers;
-        this.segments = segments;
-        this.unresponsiveServers = unresponsiveServers;
-        this.epoch = epoch;
-        this.clusterId = clusterId;
-
-        /* Assert that we constructed a valid Layout */
-        if (this.layoutServers.size() == 0) {
+        /* Assert that we construct a valid Layout */
+        if (layoutServers.size() == 0) {
             throw new IllegalArgumentException("Empty list of LayoutServers");
         }
-        if (this.sequencers.size() == 0) {
+        if (sequencers.size() == 0) {
             throw new IllegalArgumentException("Empty list of Sequencers");
         }
-        if (this.segments.size() == 0) {
+        if (segments.size() == 0) {
             throw new IllegalArgumentException("Empty list of segments");
         }
         for (Layout.LayoutSegment segment : segments) {
@@ -124,6 +159,14 @@ public class Layout {
                 throw new IllegalArgumentException("One segment has an empty list of stripes");
             }
         }
+
+        // The lists are copied, so that every modification of the layout goes through them.
+        this.layoutServers = track(layoutServers);
+        this.sequencers = track(sequencers);
+        this.segments = trackSegments(segments);
+        this.unresponsiveServers = track(unresponsiveServers);
+        this.epoch = epoch;
+        this.clusterId = clusterId;
     }
 
     public Layout(List<String> layoutServers, List<String> sequencers, List<LayoutSegment> segments,
@@ -335,22 +378,237 @@ public class Layout {
 
     /**
      *
-     * Layout copy constructor.
+     * Layout copy constructor. The lists of the layout and of its segments are copied,
+     * while the server addresses are immutable and shared.
      *
      * @param layout layout to copy
      */
     public Layout(@Nonnull Layout layout) {
-        Layout layoutCopy = parser.fromJson(layout.asJSONString(), Layout.class);
-        this.layoutServers = layoutCopy.getLayoutServers();
-        this.sequencers = layoutCopy.getSequencers();
-        this.segments = layoutCopy.getSegments();
-        this.unresponsiveServers = layoutCopy.getUnresponsiveServers();
-        this.epoch = layoutCopy.getEpoch();
-        this.clusterId = layoutCopy.clusterId;
+        this.layoutServers = track(layout.getLayoutServers());
+        this.sequencers = track(layout.getSequencers());
+        this.segments = trackSegments(layout.getSegments().stream()
+                .map(LayoutSegment::new)
+                .collect(Collectors.toList()));
+        this.unresponsiveServers = track(layout.getUnresponsiveServers());
+        this.epoch = layout.getEpoch();
+        this.clusterId = layout.clusterId;
+        // The copy is equal to the layout, so it can reuse the same encoding and hash code.
+        this.encoding = layout.encoding;
+        this.hash = layout.hash;
+    }
+
+    private List<String> track(List<String> list) {
+        return new TrackedList<>(list, this::invalidate, null);
+    }
+
+    private List<LayoutSegment> trackSegments(List<LayoutSegment> list) {
+        return new TrackedList<>(list, this::invalidate, segment -> segment.attach(this::invalidate));
+    }
+
+    /**
+     * Drop the cached encoding and hash code, called whenever the layout is modified.
+     */
+    private void invalidate() {
+        encoding = null;
+        hash = 0;
+    }
+
+    public void setLayoutServers(@NonNull List<String> layoutServers) {
+        this.layoutServers = track(layoutServers);
+        invalidate();
+    }
+
+    public void setSequencers(@NonNull List<String> sequencers) {
+        this.sequencers = track(sequencers);
+        invalidate();
+    }
+
+    public void setSegments(@NonNull List<LayoutSegment> segments) {
+        this.segments = trackSegments(segments);
+        invalidate();
+    }
+
+    public void setUnresponsiveServers(@NonNull List<String> unresponsiveServers) {
+        this.unresponsiveServers = track(unresponsiveServers);
+        invalidate();
+    }
+
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+        invalidate();
+    }
+
+    public void setClusterId(@Nullable UUID clusterId) {
+        this.clusterId = clusterId;
+        invalidate();
+    }
+
+    /**
+     * Compare the layouts structurally. Layouts whose encodings are both cached and have
+     * different fingerprints are unequal without comparing them.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof Layout)) {
+            return false;
+        }
+        Layout other = (Layout) o;
+        Encoding mine = encoding;
+        Encoding theirs = other.encoding;
+        if (mine != null && theirs != null && mine.fingerprint != theirs.fingerprint) {
+            return false;
+        }
+        return epoch == other.epoch
+                && Objects.equals(clusterId, other.clusterId)
+                && layoutServers.equals(other.layoutServers)
+                && sequencers.equals(other.sequencers)
+                && segments.equals(other.segments)
+                && unresponsiveServers.equals(other.unresponsiveServers);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(layoutServers, sequencers, segments, unresponsiveServers, epoch,
+                    clusterId);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Binary encoding of a layout and its fingerprint.
+     */
+    @AllArgsConstructor
+    private static class Encoding {
+        final byte[] bytes;
+        final long fingerprint;
+    }
+
+    /**
+     * Get the encoding of this layout, computing it if the layout changed since it was cached.
+     */
+    private Encoding getEncoding() {
+        Encoding current = encoding;
+        if (current == null) {
+            byte[] bytes = encode(this);
+            current = new Encoding(bytes, Hashing.murmur3_128().hashBytes(bytes).asLong());
+            encoding = current;
+        }
+        return current;
+    }
+
+    /**
+     * Get a 64 bit fingerprint of this layout. Equal layouts have the same fingerprint.
+     *
+     * @return the fingerprint of the binary encoding of the layout.
+     */
+    public long getFingerprint() {
+        return getEncoding().fingerprint;
+    }
+
+    /**
+     * Serialize this layout in its binary encoding, prefixed by its length.
+     *
+     * @param buf buffer to serialize to.
+     */
+    public void serialize(@Nonnull ByteBuf buf) {
+        byte[] bytes = getEncoding().bytes;
+        buf.writeInt(bytes.length);
+        buf.writeBytes(bytes);
+    }
+
+    /**
+     * Deserialize a layout serialized by {@link #serialize(ByteBuf)}.
+     *
+     * @param buf buffer to deserialize from.
+     * @return the layout.
+     */
+    public static Layout deserialize(@Nonnull ByteBuf buf) {
+        // The length prefix is only needed by readers skipping the layout.
+        buf.readInt();
+        byte version = buf.readByte();
+        if (version != ENCODING_VERSION) {
+            throw new IllegalArgumentException("Unknown layout encoding version " + version);
+        }
+
+        long epoch = buf.readLong();
+        UUID clusterId = buf.readBoolean() ? new UUID(buf.readLong(), buf.readLong()) : null;
+        List<String> layoutServers = readStrings(buf);
+        List<String> sequencers = readStrings(buf);
+        List<String> unresponsiveServers = readStrings(buf);
+
+        int numSegments = buf.readInt();
+        List<LayoutSegment> segments = new ArrayList<>(numSegments);
+        for (int i = 0; i < numSegments; i++) {
+            ReplicationMode replicationMode = ReplicationMode.values()[buf.readByte()];
+            long start = buf.readLong();
+            long end = buf.readLong();
+            int numStripes = buf.readInt();
+            List<LayoutStripe> stripes = new ArrayList<>(numStripes);
+            for (int j = 0; j < numStripes; j++) {
+                stripes.add(new LayoutStripe(readStrings(buf)));
+            }
+            segments.add(new LayoutSegment(replicationMode, start, end, stripes));
+        }
+
+        return new Layout(layoutServers, sequencers, segments, unresponsiveServers, epoch,
+                clusterId);
+    }
+
+    private static byte[] encode(Layout layout) {
+        ByteArrayDataOutput out = ByteStreams.newDataOutput();
+        out.writeByte(ENCODING_VERSION);
+        out.writeLong(layout.epoch);
+        out.writeBoolean(layout.clusterId != null);
+        if (layout.clusterId != null) {
+            out.writeLong(layout.clusterId.getMostSignificantBits());
+            out.writeLong(layout.clusterId.getLeastSignificantBits());
+        }
+        writeStrings(out, layout.layoutServers);
+        writeStrings(out, layout.sequencers);
+        writeStrings(out, layout.unresponsiveServers);
+
+        out.writeInt(layout.segments.size());
+        for (LayoutSegment segment : layout.segments) {
+            out.writeByte(segment.getReplicationMode().ordinal());
+            out.writeLong(segment.getStart());
+            out.writeLong(segment.getEnd());
+            out.writeInt(segment.getStripes().size());
+            for (LayoutStripe stripe : segment.getStripes()) {
+                writeStrings(out, stripe.getLogServers());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeStrings(ByteArrayDataOutput out, List<String> strings) {
+        out.writeInt(strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuf buf) {
+        int size = buf.readInt();
+        List<String> strings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            byte[] bytes = new byte[buf.readInt()];
+            buf.readBytes(bytes);
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return strings;
     }
 
     public void nextEpoch() {
         epoch += 1;
+        invalidate();
     }
 
     public ImmutableList<String> getActiveLayoutServers() {
@@ -392,11 +650,13 @@ public class Layout {
             @Override
             public IReplicationProtocol getReplicationProtocol(CorfuRuntime r) {
                 if (r.getParameters().isHoleFillingDisabled()) {
-                    return new ChainReplicationProtocol(new NeverHoleFillPolicy(100));
+                    return new ChainReplicationProtocol(new NeverHoleFillPolicy(100),
+                            r.getHedgedReader());
                 } else {
                     return new ChainReplicationProtocol(
                             new ReadWaitHoleFillPolicy(r.getParameters().getHoleFillTimeout(),
-                                    r.getParameters().getHoleFillRetryThreshold()));
+                                    r.getParameters().getHoleFillRetryThreshold()),
+                            r.getHedgedReader());
                 }
             }
 
@@ -546,6 +806,7 @@ public class Layout {
     @Data
     @Getter
     @Setter
+    @ToString(exclude = "onChange")
     public static class LayoutSegment {
         /**
          * The replication mode of the segment.
@@ -567,6 +828,13 @@ public class Layout {
          */
         List<LayoutStripe> stripes;
 
+        /**
+         * Called whenever the segment is modified, set by the layout owning the segment.
+         */
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        transient Runnable onChange;
+
         /**
          * Constructor Layout Segment, contiguous partition in a Corfu Log.
          *
@@ -583,8 +851,63 @@ public class Layout {
             this.replicationMode = replicationMode;
             this.start = start;
             this.end = end;
-            this.stripes = stripes;
+            this.stripes = track(stripes);
+        }
+
+        /**
+         * Copy constructor, copying the lists of the segment.
+         *
+         * @param segment segment to copy
+         */
+        public LayoutSegment(@NonNull LayoutSegment segment) {
+            this.replicationMode = segment.getReplicationMode();
+            this.start = segment.getStart();
+            this.end = segment.getEnd();
+            this.stripes = track(segment.getStripes().stream()
+                    .map(stripe -> new LayoutStripe(stripe.getLogServers()))
+                    .collect(Collectors.toList()));
+        }
+
+        private List<LayoutStripe> track(List<LayoutStripe> list) {
+            return new TrackedList<>(list, this::changed, stripe -> stripe.attach(this::changed));
+        }
+
+        /**
+         * Attach the segment to the layout owning it. Segments deserialized from JSON did not
+         * go through a constructor, so their stripes are only tracked from here on.
+         */
+        void attach(Runnable onChange) {
+            this.onChange = onChange;
+            if (!(stripes instanceof TrackedList)) {
+                stripes = track(stripes);
+            }
+        }
+
+        private void changed() {
+            Runnable current = onChange;
+            if (current != null) {
+                current.run();
+            }
+        }
+
+        public void setReplicationMode(@NonNull ReplicationMode replicationMode) {
+            this.replicationMode = replicationMode;
+            changed();
+        }
+
+        public void setStart(long start) {
+            this.start = start;
+            changed();
+        }
+
+        public void setEnd(long end) {
+            this.end = end;
+            changed();
+        }
 
+        public void setStripes(@NonNull List<LayoutStripe> stripes) {
+            this.stripes = track(stripes);
+            changed();
         }
 
         public int getNumberOfStripes() {
@@ -614,11 +937,150 @@ public class Layout {
 
     @Data
     @Getter
+    @ToString(exclude = "onChange")
     public static class LayoutStripe {
-        final List<String> logServers;
+        @Setter(AccessLevel.NONE)
+        List<String> logServers;
+
+        /**
+         * Called whenever the stripe is modified, set by the segment owning the stripe.
+         */
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        transient Runnable onChange;
 
         public LayoutStripe(@NonNull List<String> logServers) {
-            this.logServers = logServers;
+            this.logServers = new TrackedList<>(logServers, this::changed, null);
+        }
+
+        /**
+         * Attach the stripe to the segment owning it, see {@link LayoutSegment#attach(Runnable)}.
+         */
+        void attach(Runnable onChange) {
+            this.onChange = onChange;
+            if (!(logServers instanceof TrackedList)) {
+                logServers = new TrackedList<>(logServers, this::changed, null);
+            }
+        }
+
+        private void changed() {
+            Runnable current = onChange;
+            if (current != null) {
+                current.run();
+            }
+        }
+    }
+
+    /**
+     * A list of a layout, segment or stripe which reports every modification to its owner,
+     * so that the owning layout drops its cached encoding and hash code. Added elements are
+     * attached to the owner as well.
+     */
+    private static class TrackedList<E> extends ArrayList<E> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Runnable onChange;
+        private final transient Consumer<E> onAdd;
+
+        TrackedList(Collection<? extends E> items, Runnable onChange, @Nullable Consumer<E> onAdd) {
+            super(items);
+            this.onChange = onChange;
+            this.onAdd = onAdd;
+            if (onAdd != null) {
+                forEach(onAdd);
+            }
+        }
+
+        private void added(E item) {
+            if (onAdd != null) {
+                onAdd.accept(item);
+            }
+        }
+
+        private <T> T changed(T result) {
+            onChange.run();
+            return result;
+        }
+
+        @Override
+        public boolean add(E item) {
+            added(item);
+            return changed(super.add(item));
+        }
+
+        @Override
+        public void add(int index, E item) {
+            added(item);
+            super.add(index, item);
+            onChange.run();
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> items) {
+            items.forEach(this::added);
+            return changed(super.addAll(items));
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends E> items) {
+            items.forEach(this::added);
+            return changed(super.addAll(index, items));
+        }
+
+        @Override
+        public E set(int index, E item) {
+            added(item);
+            return changed(super.set(index, item));
+        }
+
+        @Override
+        public E remove(int index) {
+            return changed(super.remove(index));
+        }
+
+        @Override
+        public boolean remove(Object item) {
+            return changed(super.remove(item));
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> items) {
+            return changed(super.removeAll(items));
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> items) {
+            return changed(super.retainAll(items));
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super E> filter) {
+            return changed(super.removeIf(filter));
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            super.removeRange(fromIndex, toIndex);
+            onChange.run();
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<E> operator) {
+            super.replaceAll(operator);
+            forEach(this::added);
+            onChange.run();
+        }
+
+        @Override
+        public void sort(Comparator<? super E> comparator) {
+            super.sort(comparator);
+            onChange.run();
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            onChange.run();
         }
     }
 }
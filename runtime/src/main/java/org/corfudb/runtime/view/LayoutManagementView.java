@@ -2,12 +2,18 @@ package org.corfudb.runtime.view;
 
 import static org.corfudb.util.Utils.getLogTail;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -16,6 +22,8 @@ import javax.annotation.Nonnull;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
+import org.corfudb.runtime.clients.LogUnitClient;
+import org.corfudb.runtime.clients.SequencerClient;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.runtime.CorfuRuntime;
@@ -24,6 +32,9 @@ import org.corfudb.runtime.exceptions.OutrankedException;
 import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.exceptions.RecoveryException;
 import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
+import org.corfudb.util.MetricsUtils;
+import org.corfudb.util.Utils;
 
 /**
  * A view of the Layout Manager to manage reconfigurations of the Corfu Cluster.
@@ -33,6 +44,22 @@ import org.corfudb.util.CFUtils;
 @Slf4j
 public class LayoutManagementView extends AbstractView {
 
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+
+    // Timeline of a layout reconfiguration, see runLayoutReconfiguration.
+    private static final Timer sealTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "seal");
+    private static final Timer prepareTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "prepare");
+    private static final Timer segmentSealTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "segment-seal");
+    private static final Timer commitTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "propose-commit");
+    private static final Timer sequencerBootstrapTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "sequencer-bootstrap");
+    private static final Timer unavailableTimer = metrics.timer(
+            CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "unavailable");
+
     public LayoutManagementView(@NonNull CorfuRuntime runtime) {
         super(runtime);
     }
@@ -50,6 +77,20 @@ public class LayoutManagementView extends AbstractView {
 
     private volatile long lastKnownSequencerEpoch = Layout.INVALID_EPOCH;
 
+    /**
+     * Latest snapshot of the primary sequencer's address space, or null if none was taken.
+     * A new primary sequencer is bootstrapped from this snapshot plus the log address space
+     * written at or after the snapshot's tail, instead of the complete log address space.
+     */
+    private final AtomicReference<StreamsAddressResponse> sequencerSnapshot = new AtomicReference<>();
+
+    /**
+     * Primary sequencer and epoch of the layout the sequencer snapshot was last refreshed
+     * with. The snapshot is only brought up to date with the addresses issued since its tail
+     * while both are unchanged, since a reset sequencer may issue addresses below that tail.
+     */
+    private volatile String sequencerSnapshotSource = null;
+
     /**
      * On restart, if MANAGEMENT_LAYOUT exists in the local datastore.
      * the Management Server attempts to recover the cluster from that layout.
@@ -290,16 +331,12 @@ public class LayoutManagementView extends AbstractView {
 
             // Seal after constructing the layout, so that the system
             // isn't blocked if the builder throws an exception
-            sealEpoch(currentLayout);
-
-            attemptConsensus(newLayout);
+            runLayoutReconfiguration(currentLayout, newLayout, false);
         } else {
-            newLayout = currentLayout;
             log.info("removeNode: Ignoring remove node on {} because it doesn't exist in {}",
                     endpoint, currentLayout);
+            reconfigureSequencerServers(currentLayout, currentLayout, false);
         }
-
-        reconfigureSequencerServers(currentLayout, newLayout, false);
     }
 
     /**
@@ -328,6 +365,16 @@ public class LayoutManagementView extends AbstractView {
      * If not in recovery, we fail with outrankedException.
      * The new committed layout is then verified by invalidating the runtime.
      * Finally we reconfigure the servers (bootstrapping sequencer.)
+     * <p>
+     * The cluster is unavailable from the seal until the sequencer is bootstrapped, so the
+     * steps overlap where correctness allows:
+     * - Paxos starts as soon as a quorum of layout servers is sealed. The log unit seals are
+     * only awaited between the prepare and propose phases, since nothing is accepted before
+     * the propose phase.
+     * - Once the log units are sealed, their address space can no longer change, so the
+     * address space to bootstrap a new primary sequencer with is fetched while the layout is
+     * proposed and committed. It is only used if the proposed layout got committed.
+     * The duration of every step is recorded by the LAYOUT_MANAGEMENT_VIEW timers.
      *
      * @param currentLayout          Layout which needs to be sealed.
      * @param newLayout              New layout to be committed.
@@ -338,17 +385,65 @@ public class LayoutManagementView extends AbstractView {
                                           final boolean forceSequencerRecovery)
             throws OutrankedException {
 
-        // Seals the incremented epoch (Assumes newLayout epoch = currentLayout epoch + 1).
-        sealEpoch(currentLayout);
+        final long start = System.nanoTime();
 
-        attemptConsensus(newLayout);
+        // Seals the incremented epoch (Assumes newLayout epoch = currentLayout epoch + 1).
+        currentLayout.nextEpoch();
+        RuntimeLayout sealedLayout = runtime.getLayoutView().getRuntimeLayout(currentLayout);
+        Map<String, CompletableFuture<Boolean>> sealResults = sealedLayout.sealLayoutServers();
+        final long sealed = System.nanoTime();
+        sealTimer.update(sealed - start, TimeUnit.NANOSECONDS);
+
+        final boolean bootstrapPrimary = forceSequencerRecovery
+                || !currentLayout.getPrimarySequencer().equals(newLayout.getPrimarySequencer());
+        AtomicReference<CompletableFuture<StreamsAddressResponse>> bootstrapAddressSpace =
+                new AtomicReference<>();
+        AtomicReference<StreamsAddressResponse> bootstrapSnapshot = new AtomicReference<>();
+        AtomicReference<Long> prepared = new AtomicReference<>(sealed);
+
+        attemptConsensus(newLayout, () -> {
+            long segmentSealStart = System.nanoTime();
+            prepareTimer.update(segmentSealStart - sealed, TimeUnit.NANOSECONDS);
+
+            sealedLayout.waitForSegmentSeals(sealResults);
+            prepared.set(System.nanoTime());
+            segmentSealTimer.update(prepared.get() - segmentSealStart, TimeUnit.NANOSECONDS);
+
+            if (bootstrapPrimary) {
+                // The snapshot is only read here, the proposed layout may still be outranked.
+                StreamsAddressResponse snapshot = sequencerSnapshot.get();
+                bootstrapSnapshot.set(snapshot);
+                bootstrapAddressSpace.set(CompletableFuture.supplyAsync(
+                        () -> getBootstrapAddressSpace(newLayout, snapshot),
+                        runtime.getRuntimeExecutor()));
+            }
+        });
+        final long committed = System.nanoTime();
+        commitTimer.update(committed - prepared.get(), TimeUnit.NANOSECONDS);
+
+        // The prefetched address space was read from the log units of the proposed layout,
+        // and its snapshot is only consumed once that layout is the committed one.
+        CompletableFuture<StreamsAddressResponse> prefetched = bootstrapAddressSpace.get();
+        if (prefetched != null) {
+            if (runtime.getLayoutView().getLayout().equals(newLayout)) {
+                sequencerSnapshot.compareAndSet(bootstrapSnapshot.get(), null);
+            } else {
+                prefetched = null;
+            }
+        }
 
         //TODO: Since sequencer reset is moved after paxos. Make sure the runtime has the latest
         //TODO: layout view and latest client router epoch. (Use quorum layout fetch.)
         //TODO: Handle condition if primary sequencer is not marked ready, reset fails.
         // Reconfigure servers if required
         // Primary sequencer would be in a not-ready state if its in recovery mode.
-        reconfigureSequencerServers(currentLayout, newLayout, forceSequencerRecovery);
+        reconfigureSequencerServers(currentLayout, newLayout, forceSequencerRecovery, prefetched);
+
+        final long end = System.nanoTime();
+        sequencerBootstrapTimer.update(end - committed, TimeUnit.NANOSECONDS);
+        unavailableTimer.update(end - start, TimeUnit.NANOSECONDS);
+        log.info("runLayoutReconfiguration: epoch {} unavailable for {}ms", newLayout.getEpoch(),
+                TimeUnit.NANOSECONDS.toMillis(end - start));
     }
 
     /**
@@ -369,9 +464,21 @@ public class LayoutManagementView extends AbstractView {
      */
     private void attemptConsensus(Layout layout)
             throws OutrankedException {
+        attemptConsensus(layout, () -> { });
+    }
+
+    /**
+     * Attempt consensus, running a step between the prepare and propose phases.
+     *
+     * @param layout     Layout to propose.
+     * @param onPrepared Step to run once the prepare phase is accepted.
+     * @throws OutrankedException if consensus is outranked.
+     */
+    private void attemptConsensus(Layout layout, Runnable onPrepared)
+            throws OutrankedException {
         // Attempts to update all the layout servers with the modified layout.
         try {
-            runtime.getLayoutView().updateLayout(layout, prepareRank);
+            runtime.getLayoutView().updateLayout(layout, prepareRank, onPrepared);
             prepareRank = 1L;
         } catch (OutrankedException oe) {
             // Update rank since outranked.
@@ -407,6 +514,21 @@ public class LayoutManagementView extends AbstractView {
      */
     public void reconfigureSequencerServers(Layout originalLayout, Layout newLayout,
                                             boolean forceReconfigure) {
+        reconfigureSequencerServers(originalLayout, newLayout, forceReconfigure, null);
+    }
+
+    /**
+     * Reconfigures the sequencer, using an address space fetched ahead of time to bootstrap
+     * a new primary sequencer. The address space is fetched again if the prefetch failed.
+     *
+     * @param originalLayout   Current layout to get the latest state of servers.
+     * @param newLayout        New Layout to be reconfigured.
+     * @param forceReconfigure Flag to force reconfiguration.
+     * @param prefetched       Address space fetched from the sealed log units, or null.
+     */
+    private void reconfigureSequencerServers(Layout originalLayout, Layout newLayout,
+                                             boolean forceReconfigure,
+                                             CompletableFuture<StreamsAddressResponse> prefetched) {
 
         boolean acquiredLocked = recoverSequencerLock.tryLock();
         if (acquiredLocked) {
@@ -428,8 +550,20 @@ public class LayoutManagementView extends AbstractView {
                         || !originalLayout.getPrimarySequencer()
                         .equals(newLayout.getPrimarySequencer())) {
 
-                    StreamsAddressResponse streamsAddressesResponse = runtime.getAddressSpaceView()
-                            .getLogAddressSpace();
+                    StreamsAddressResponse streamsAddressesResponse = null;
+                    if (prefetched != null) {
+                        try {
+                            streamsAddressesResponse = CFUtils.getUninterruptibly(prefetched);
+                        } catch (RuntimeException e) {
+                            log.warn("reconfigureSequencerServers: Prefetch of the address space "
+                                    + "failed, fetching it again.", e);
+                        }
+                    }
+                    if (streamsAddressesResponse == null) {
+                        StreamsAddressResponse snapshot = sequencerSnapshot.get();
+                        streamsAddressesResponse = getBootstrapAddressSpace(snapshot);
+                        sequencerSnapshot.compareAndSet(snapshot, null);
+                    }
 
                     maxTokenRequested = streamsAddressesResponse.getLogTail();
                     streamsAddressSpace = streamsAddressesResponse.getAddressMap();
@@ -460,6 +594,129 @@ public class LayoutManagementView extends AbstractView {
         }
     }
 
+    /**
+     * Take a snapshot of the address space of the primary sequencer in the given layout.
+     * The snapshot replaces any previous one. If the previous snapshot was taken from the
+     * same primary sequencer in the same epoch, only the addresses issued since its tail
+     * are requested and merged into a new snapshot.
+     *
+     * @param layout Layout to use to query the primary sequencer.
+     */
+    public void refreshSequencerSnapshot(@NonNull Layout layout) {
+        SequencerClient sequencer = runtime.getLayoutView().getRuntimeLayout(layout)
+                .getPrimarySequencerClient();
+        String source = layout.getPrimarySequencer() + "@" + layout.getEpoch();
+        StreamsAddressResponse current = sequencerSnapshot.get();
+
+        if (current == null || !source.equals(sequencerSnapshotSource)) {
+            StreamsAddressResponse snapshot = CFUtils.getUninterruptibly(
+                    sequencer.getAllStreamsAddressSpace());
+            sequencerSnapshotSource = source;
+            sequencerSnapshot.set(snapshot);
+            log.debug("refreshSequencerSnapshot: snapshot of {} streams at tail {}",
+                    snapshot.getAddressMap().size(), snapshot.getLogTail());
+            return;
+        }
+
+        StreamsAddressResponse delta = CFUtils.getUninterruptibly(
+                sequencer.getStreamsAddressSpaceDelta(current.getLogTail()));
+
+        // The current snapshot may be read by a concurrent bootstrap, so the address spaces
+        // of the updated streams are merged into copies.
+        Map<UUID, StreamAddressSpace> addressMap = new HashMap<>(current.getAddressMap());
+        delta.getAddressMap().forEach((streamId, addresses) -> {
+            StreamAddressSpace previous = addressMap.get(streamId);
+            if (previous != null) {
+                StreamAddressSpace merged = previous.copy();
+                merged.getAddressMap().or(addresses.getAddressMap());
+                merged.setTrimMark(Math.max(previous.getTrimMark(), addresses.getTrimMark()));
+                addressMap.put(streamId, merged);
+            } else {
+                addressMap.put(streamId, addresses);
+            }
+        });
+
+        // A snapshot consumed in the meantime is not brought back.
+        if (sequencerSnapshot.compareAndSet(current,
+                new StreamsAddressResponse(delta.getLogTail(), addressMap))) {
+            log.debug("refreshSequencerSnapshot: {} streams updated from tail {} to {}",
+                    delta.getAddressMap().size(), current.getLogTail(), delta.getLogTail());
+        }
+    }
+
+    /**
+     * Get the address space to bootstrap a new primary sequencer with.
+     *
+     * <p>If a sequencer snapshot is available, only the addresses at or after the snapshot's
+     * tail are fetched from the log units and merged into the snapshot. The snapshot's tail is
+     * the first address the old primary had not issued, so every address below it is already
+     * accounted for. Addresses trimmed since the snapshot are removed from the merged maps.
+     * The snapshot is left in place, the caller clears it once the new primary sequencer is
+     * known to be bootstrapped from it, and the new primary is snapshotted from scratch.
+     *
+     * @param snapshot Sequencer snapshot to start from, or null.
+     * @return The log tail and address space of every stream.
+     */
+    private StreamsAddressResponse getBootstrapAddressSpace(StreamsAddressResponse snapshot) {
+        if (snapshot == null) {
+            return runtime.getAddressSpaceView().getLogAddressSpace();
+        }
+
+        StreamsAddressResponse delta = runtime.getAddressSpaceView()
+                .getLogAddressSpace(snapshot.getLogTail());
+        long trimMark = runtime.getAddressSpaceView().getTrimMark().getSequence();
+        return mergeSequencerSnapshot(snapshot, delta, trimMark);
+    }
+
+    /**
+     * Get the address space to bootstrap a new primary sequencer with, from the log units of
+     * the given layout instead of the runtime's layout, see
+     * {@link #getBootstrapAddressSpace(StreamsAddressResponse)}.
+     *
+     * @param layout   Layout whose log units are sealed.
+     * @param snapshot Sequencer snapshot to start from, or null.
+     * @return The log tail and address space of every stream.
+     */
+    private StreamsAddressResponse getBootstrapAddressSpace(Layout layout,
+                                                            StreamsAddressResponse snapshot) {
+        if (snapshot == null) {
+            return Utils.getLogAddressSpace(layout, runtime);
+        }
+
+        StreamsAddressResponse delta = Utils.getLogAddressSpace(layout, runtime,
+                snapshot.getLogTail());
+        RuntimeLayout runtimeLayout = runtime.getLayoutView().getRuntimeLayout(layout);
+        long trimMark = layout.getSegments().stream()
+                .flatMap(seg -> seg.getStripes().stream())
+                .flatMap(stripe -> stripe.getLogServers().stream())
+                .map(runtimeLayout::getLogUnitClient)
+                .map(LogUnitClient::getTrimMark)
+                .map(CFUtils::getUninterruptibly)
+                .max(Comparator.naturalOrder()).get();
+        return mergeSequencerSnapshot(snapshot, delta, trimMark);
+    }
+
+    /**
+     * Merge the log address space written at or after the tail of a sequencer snapshot into
+     * the snapshot.
+     */
+    private StreamsAddressResponse mergeSequencerSnapshot(StreamsAddressResponse snapshot,
+                                                          StreamsAddressResponse delta,
+                                                          long trimMark) {
+        // The snapshot may still be read by a concurrent refresh, so it is merged into copies.
+        Map<UUID, StreamAddressSpace> addressMap = new HashMap<>(snapshot.getAddressMap());
+        addressMap.replaceAll((streamId, addressSpace) -> addressSpace.copy());
+        addressMap = Utils.aggregateStreamAddressMap(delta.getAddressMap(), addressMap);
+        addressMap.values().forEach(addressSpace -> addressSpace.trim(trimMark - 1));
+
+        // Tokens issued by the old primary may not have been written, so the new tail
+        // must not fall below the snapshot's tail.
+        long logTail = Math.max(delta.getLogTail(), snapshot.getLogTail() - 1);
+        log.info("getBootstrapAddressSpace: snapshot tail {}, {} streams updated since, log tail {}",
+                snapshot.getLogTail(), delta.getAddressMap().size(), logTail);
+        return new StreamsAddressResponse(logTail, addressMap);
+    }
+
     /**
      * Triggers a new task to bootstrap the sequencer for the specified layout. If there is already
      * a task in progress, this is a no-op.
@@ -72,9 +72,28 @@ public class LayoutView extends AbstractView {
      * @throws OutrankedException outranked exception, i.e., higher rank.
      * @throws WrongEpochException wrong epoch number.
      */
-    @SuppressWarnings("unchecked")
     public void updateLayout(Layout layout, long rank)
             throws QuorumUnreachableException, OutrankedException, WrongEpochException {
+        updateLayout(layout, rank, () -> { });
+    }
+
+    /**
+     * Drives the consensus protocol for persisting the new Layout, and runs a step between
+     * the prepare and the propose phases. Nothing is accepted by the layout servers before
+     * the propose phase, so the step can complete work the new layout depends on, such as
+     * sealing the log units, while the prepare phase is in flight.
+     *
+     * @param layout     The layout to propose.
+     * @param rank       The rank for the proposed layout.
+     * @param onPrepared Step to run once the prepare phase is accepted by a quorum.
+     *
+     * @throws QuorumUnreachableException Thrown if responses not received from a majority of
+     *                                    layout servers.
+     * @throws OutrankedException outranked exception, i.e., higher rank.
+     * @throws WrongEpochException wrong epoch number.
+     */
+    public void updateLayout(Layout layout, long rank, @Nonnull Runnable onPrepared)
+            throws QuorumUnreachableException, OutrankedException, WrongEpochException {
         // Note this step is done because we have added the layout to the Epoch.
         long epoch = layout.getEpoch();
         Layout currentLayout = getLayout();
@@ -92,6 +111,7 @@ public class LayoutView extends AbstractView {
         //phase 1: prepare with a given rank.
         Layout alreadyProposedLayout = prepare(epoch, rank);
         Layout layoutToPropose = alreadyProposedLayout != null ? alreadyProposedLayout : layout;
+        onPrepared.run();
         //phase 2: propose the new layout.
         propose(epoch, rank, layoutToPropose);
         //phase 3: committed
@@ -1,6 +1,8 @@
 package org.corfudb.runtime.view;
 
 import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -27,7 +29,12 @@ import org.corfudb.util.MetricsUtils;
 import javax.annotation.Nonnull;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A view of the objects inside a Corfu instance.
@@ -52,6 +59,18 @@ public class ObjectsView extends AbstractView {
     @Getter
     Map<ObjectID, Object> objectCache = new ConcurrentHashMap<>();
 
+    /**
+     * The threads which commit the transactions ended with {@link #TXEndAsync()},
+     * created on first use. Idle threads terminate.
+     */
+    @Getter(value = AccessLevel.PRIVATE, lazy = true)
+    private final ExecutorService txCommitExecutor = newTxCommitExecutor();
+
+    /**
+     * The number of pins of each pinned snapshot, by address.
+     */
+    private final Map<Long, Integer> pinnedSnapshots = new ConcurrentHashMap<>();
+
     public ObjectsView(@Nonnull final CorfuRuntime runtime) {
         super(runtime);
     }
@@ -145,6 +164,50 @@ public class ObjectsView extends AbstractView {
             return AbstractTransactionalContext.UNCOMMITTED_ADDRESS;
         }
 
+        return commit(context);
+    }
+
+    /**
+     * End the transaction of the current thread asynchronously.
+     *
+     * <p>The transaction is detached from the current thread, which can begin another
+     * transaction right away, and committed by a background thread: the caller does not
+     * wait for the sequencer or the log. Transactions begun before the commit completes
+     * may not observe its updates. A nested transaction is folded into its parent
+     * synchronously, since the parent is still running on the current thread.
+     *
+     * @return A future for the address of the transaction, completed exceptionally
+     *         with a {@link TransactionAbortedException} if the transaction aborts.
+     */
+    @SuppressWarnings({"checkstyle:methodname", "checkstyle:abbreviation"})
+    public CompletableFuture<Long> TXEndAsync() {
+        AbstractTransactionalContext context = TransactionalContext.getCurrentContext();
+        if (context == null || TransactionalContext.isInNestedTransaction()) {
+            CompletableFuture<Long> result = new CompletableFuture<>();
+            try {
+                result.complete(TXEnd());
+            } catch (TransactionAbortedException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        TransactionalContext.removeContext();
+        return CompletableFuture.supplyAsync(() -> {
+            TransactionalContext.newContext(context);
+            return commit(context);
+        }, getTxCommitExecutor());
+    }
+
+    /**
+     * Commit a transaction, which must be the current context of this thread, and remove
+     * it from the thread.
+     *
+     * @param context The transaction to commit.
+     * @return The address of the transaction, if it commits.
+     * @throws TransactionAbortedException If the transaction could not be executed successfully.
+     */
+    private long commit(AbstractTransactionalContext context) {
         // Continue with ending the transaction if the context is not null
         long totalTime = System.currentTimeMillis() - context.getStartTime();
         log.trace("TXEnd[{}] time={} ms", context, totalTime);
@@ -158,10 +221,10 @@ public class ObjectsView extends AbstractView {
         Timer txCommitDurationTimer = context.getMetrics().timer(TXN_COMMIT_TIMER_NAME);
         try (Timer.Context txCommitDuration =
                      MetricsUtils.getConditionalContext(txCommitDurationTimer)){
-            return TransactionalContext.getCurrentContext().commitTransaction();
+            return context.commitTransaction();
         } catch (TransactionAbortedException e) {
             log.warn("TXEnd[{}] Aborted Exception {}", context, e);
-            TransactionalContext.getCurrentContext().abortTransaction(e);
+            context.abortTransaction(e);
             throw e;
         } catch (NetworkException | WriteSizeException e) {
 
@@ -201,6 +264,45 @@ public class ObjectsView extends AbstractView {
         }
     }
 
+    /**
+     * Pin a snapshot. Snapshot transactions at a pinned snapshot read copies of the objects
+     * materialized once at the snapshot and shared by all of them, instead of rolling the
+     * objects back and forth. A snapshot pinned several times stays pinned until it is
+     * unpinned as many times.
+     *
+     * @param snapshot The snapshot to pin.
+     */
+    public void pinSnapshot(@Nonnull Token snapshot) {
+        pinnedSnapshots.merge(snapshot.getSequence(), 1, Integer::sum);
+    }
+
+    /**
+     * Unpin a snapshot, evicting the copies of the objects at the snapshot once it is no
+     * longer pinned.
+     *
+     * @param snapshot The snapshot to unpin.
+     */
+    public void unpinSnapshot(@Nonnull Token snapshot) {
+        final long address = snapshot.getSequence();
+        if (pinnedSnapshots.computeIfPresent(address,
+                (a, pins) -> pins == 1 ? null : pins - 1) == null) {
+            for (Object obj : getObjectCache().values()) {
+                ((CorfuCompileProxy) ((ICorfuSMR) obj).getCorfuSMRProxy())
+                        .evictSnapshotObject(address);
+            }
+        }
+    }
+
+    /**
+     * Query whether a snapshot is pinned.
+     *
+     * @param address The address of the snapshot.
+     * @return True, if the snapshot is pinned.
+     */
+    public boolean isSnapshotPinned(long address) {
+        return pinnedSnapshots.containsKey(address);
+    }
+
     /**
      * Run garbage collection on all opened objects. Note that objects
      * open with the NO_CACHE options will not be gc'd
@@ -212,6 +314,23 @@ public class ObjectsView extends AbstractView {
         }
     }
 
+    /**
+     * Create the executor which commits the transactions ended asynchronously.
+     */
+    private ExecutorService newTxCommitExecutor() {
+        int numThreads = runtime.getParameters().getTxCommitThreads() == 0
+                ? Runtime.getRuntime().availableProcessors() * 2
+                : runtime.getParameters().getTxCommitThreads();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+                1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("TxCommit-%d")
+                        .build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     @Data
     @SuppressWarnings({"checkstyle:abbreviation"})
     public static class ObjectID<T> {
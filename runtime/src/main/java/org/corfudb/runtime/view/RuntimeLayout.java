@@ -1,7 +1,9 @@
 package org.corfudb.runtime.view;
 
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.clients.BaseClient;
@@ -15,11 +17,12 @@ import org.corfudb.runtime.exceptions.QuorumUnreachableException;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.exceptions.unrecoverable.UnrecoverableCorfuError;
 import org.corfudb.runtime.view.Layout.LayoutSegment;
+import org.corfudb.runtime.view.Layout.LayoutStripe;
 
 import javax.annotation.Nonnull;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +33,8 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 @Slf4j
 @Data
+@EqualsAndHashCode(exclude = "routingTable")
+@ToString(exclude = "routingTable")
 public class RuntimeLayout {
 
     @Getter
@@ -64,13 +69,38 @@ public class RuntimeLayout {
         log.debug("Requested move of servers to new epoch {} servers are {}", layout.getEpoch(),
                 layout.getAllServers());
 
+        waitForSegmentSeals(sealLayoutServers());
+    }
+
+    /**
+     * Attempts to move all servers in the system to the epoch of this layout, and waits only
+     * for a response from a quorum of layout servers (n/2 + 1). The seal of the log unit
+     * servers has to be validated with {@link #waitForSegmentSeals(Map)}.
+     *
+     * @return the seal results of all servers in the layout.
+     * @throws WrongEpochException        If a layout server is in a higher epoch.
+     * @throws QuorumUnreachableException If a quorum of layout servers cannot be sealed.
+     */
+    public Map<String, CompletableFuture<Boolean>> sealLayoutServers()
+            throws WrongEpochException, QuorumUnreachableException {
         // Set remote epoch on all servers in layout.
         Map<String, CompletableFuture<Boolean>> resultMap = SealServersHelper.asyncSealServers(this);
 
         // Validate if we received enough layout server responses.
         SealServersHelper.waitForLayoutSeal(layout.getLayoutServers(), resultMap);
-        // Validate if we received enough log unit server responses depending on the
-        // replication mode.
+        return resultMap;
+    }
+
+    /**
+     * Waits for enough log unit servers of every segment to be sealed, depending on the
+     * replication mode of the segment.
+     *
+     * @param resultMap seal results returned by {@link #sealLayoutServers()}.
+     * @throws WrongEpochException        If any log unit server is in a higher epoch.
+     * @throws QuorumUnreachableException If enough log unit servers cannot be sealed.
+     */
+    public void waitForSegmentSeals(@Nonnull Map<String, CompletableFuture<Boolean>> resultMap)
+            throws WrongEpochException, QuorumUnreachableException {
         for (LayoutSegment layoutSegment : layout.getSegments()) {
             layoutSegment.getReplicationMode().validateSegmentSeal(layoutSegment, resultMap);
         }
@@ -88,6 +118,86 @@ public class RuntimeLayout {
     private final Map<Class<? extends IClient>,
             Map<String, IClient>> senderClientMap = new ConcurrentHashMap<>();
 
+    /**
+     * Address to log unit client routing table, built on first use. Layouts are not modified
+     * once a runtime layout is stamped with them, so the table is built at most once per
+     * epoch. Concurrent first uses may each build a table; they are identical as clients are
+     * cached in {@link #senderClientMap}.
+     */
+    private volatile RoutingTable routingTable;
+
+    /**
+     * Immutable, array indexed routing of global addresses to log unit clients.
+     */
+    private static class RoutingTable {
+
+        /**
+         * First address of each segment, in increasing order.
+         */
+        private final long[] segmentStarts;
+
+        /**
+         * Last address (exclusive) of each segment, Long.MAX_VALUE for the open segment.
+         */
+        private final long[] segmentEnds;
+
+        /**
+         * Log unit clients of each segment, stripe and replica.
+         */
+        private final LogUnitClient[][][] clients;
+
+        RoutingTable(RuntimeLayout runtimeLayout) {
+            List<LayoutSegment> segments = runtimeLayout.getLayout().getSegments();
+            segmentStarts = new long[segments.size()];
+            segmentEnds = new long[segments.size()];
+            clients = new LogUnitClient[segments.size()][][];
+
+            for (int i = 0; i < segments.size(); i++) {
+                LayoutSegment segment = segments.get(i);
+                segmentStarts[i] = segment.getStart();
+                segmentEnds[i] = segment.getEnd() == -1 ? Long.MAX_VALUE : segment.getEnd();
+
+                List<LayoutStripe> stripes = segment.getStripes();
+                clients[i] = new LogUnitClient[stripes.size()][];
+                for (int j = 0; j < stripes.size(); j++) {
+                    List<String> logServers = stripes.get(j).getLogServers();
+                    clients[i][j] = new LogUnitClient[logServers.size()];
+                    for (int k = 0; k < logServers.size(); k++) {
+                        clients[i][j][k] = runtimeLayout.getLogUnitClient(logServers.get(k));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Get the log unit clients of the stripe an address belongs to.
+         *
+         * @param address global address.
+         * @return clients of the stripe's replicas, in chain order.
+         */
+        LogUnitClient[] getStripe(long address) {
+            // Binary search for the last segment starting at or before the address
+            int low = 0;
+            int high = segmentStarts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (segmentStarts[mid] <= address) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int segment = low - 1;
+
+            if (segment < 0 || address >= segmentEnds[segment]) {
+                throw new RuntimeException("Unmapped address " + Long.toString(address) + "!");
+            }
+
+            LogUnitClient[][] stripes = clients[segment];
+            return stripes[(int) (address % stripes.length)];
+        }
+    }
+
     /**
      * Updates the local map of clients.
      * The epoch, client tuple is invalidated and overwritten when there is an epoch mismatch.
@@ -100,24 +210,37 @@ public class RuntimeLayout {
      */
     private IClient getClient(final Class<? extends IClient> clientClass,
                               final String endpoint) {
-        return senderClientMap.compute(clientClass, (senderClass, stringEntryMap) -> {
-            Map<String, IClient> endpointClientMap = stringEntryMap;
-            if (endpointClientMap == null) {
-                endpointClientMap = new HashMap<>();
+        // Lock free fast path, computeIfAbsent locks the bin even when the key is present.
+        Map<String, IClient> endpointClientMap = senderClientMap.get(clientClass);
+        if (endpointClientMap == null) {
+            endpointClientMap = senderClientMap.computeIfAbsent(clientClass,
+                    senderClass -> new ConcurrentHashMap<>());
+        }
+
+        IClient client = endpointClientMap.get(endpoint);
+        if (client != null) {
+            return client;
+        }
+
+        return endpointClientMap.computeIfAbsent(endpoint, s -> {
+            try {
+                Constructor<? extends IClient> ctor =
+                        clientClass.getDeclaredConstructor(IClientRouter.class, long.class);
+                return ctor.newInstance(getRuntime().getRouter(endpoint), layout.getEpoch());
+            } catch (NoSuchMethodException | IllegalAccessException | InstantiationException
+                    | InvocationTargetException e) {
+                throw new UnrecoverableCorfuError(e);
             }
+        });
+    }
 
-            endpointClientMap.computeIfAbsent(endpoint, s -> {
-                try {
-                    Constructor<? extends IClient> ctor =
-                            clientClass.getDeclaredConstructor(IClientRouter.class, long.class);
-                    return ctor.newInstance(getRuntime().getRouter(endpoint), layout.getEpoch());
-                } catch (NoSuchMethodException | IllegalAccessException | InstantiationException
-                        | InvocationTargetException e) {
-                    throw new UnrecoverableCorfuError(e);
-                }
-            });
-            return endpointClientMap;
-        }).get(endpoint);
+    private RoutingTable getRoutingTable() {
+        RoutingTable table = routingTable;
+        if (table == null) {
+            table = new RoutingTable(this);
+            routingTable = table;
+        }
+        return table;
     }
 
     public BaseClient getBaseClient(String endpoint) {
@@ -136,8 +259,26 @@ public class RuntimeLayout {
         return (SequencerClient) getClient(SequencerClient.class, endpoint);
     }
 
+    /**
+     * Get the client of a replica of the stripe an address belongs to.
+     *
+     * @param address global address.
+     * @param index   index of the replica in the stripe.
+     * @return log unit client.
+     */
     public LogUnitClient getLogUnitClient(long address, int index) {
-        return getLogUnitClient(layout.getStripe(address).getLogServers().get(index));
+        return getRoutingTable().getStripe(address)[index];
+    }
+
+    /**
+     * Get the number of replicas of the stripe an address belongs to. Equivalent to
+     * {@link Layout#getSegmentLength(long)} without scanning the segments.
+     *
+     * @param address global address.
+     * @return number of log unit servers in the stripe.
+     */
+    public int getSegmentLength(long address) {
+        return getRoutingTable().getStripe(address).length;
     }
 
     public LogUnitClient getLogUnitClient(String endpoint) {
@@ -1,24 +1,30 @@
 package org.corfudb.runtime.view;
 
+import com.codahale.metrics.Counter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 import com.google.common.collect.Lists;
+import lombok.AllArgsConstructor;
+import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.StreamAddressRange;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
+import org.corfudb.protocols.wireprotocol.TokenType;
 import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.util.CFUtils;
 import org.corfudb.util.CorfuComponent;
 import org.corfudb.util.MetricsUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Created by mwei on 12/10/15.
@@ -33,8 +39,16 @@ public class SequencerView extends AbstractView {
     private Timer sequencerDeprecatedNextOneStream;
     private Timer sequencerDeprecatedNextMultipleStream;
     private Timer sequencerTrimCache;
+    private Counter sequencerQueryReused;
     private static MetricRegistry metricRegistry = CorfuRuntime.getDefaultMetrics();
 
+    /**
+     * The highest global log position observed in the sequencer's responses, either a global
+     * tail or an allocated token, piggy-backed on the runtime's sequencer traffic.
+     */
+    private final AtomicReference<ObservedToken> lastObservedToken =
+            new AtomicReference<>(new ObservedToken(Token.UNINITIALIZED, Long.MIN_VALUE));
+
     public SequencerView(CorfuRuntime runtime) {
         super(runtime);
 
@@ -58,6 +72,22 @@ public class SequencerView extends AbstractView {
                 "deprecated-particular-next");
         sequencerDeprecatedNextMultipleStream = metricRegistry.timer(CorfuComponent.CLIENT_SEQUENCER +
                 "deprecated-multiple-next");
+        sequencerQueryReused = metricRegistry.counter(CorfuComponent.CLIENT_SEQUENCER +
+                "query-reused");
+    }
+
+    /**
+     * Record a global log position returned by the sequencer.
+     *
+     * @param token         a global log position
+     * @param requestedTime when the request was sent, in {@link System#nanoTime()}; the
+     *                      global tail was at least at the position since then.
+     */
+    private void observe(Token token, long requestedTime) {
+        lastObservedToken.accumulateAndGet(new ObservedToken(token, requestedTime), (last, observed) -> {
+            int cmp = observed.token.compareTo(last.token);
+            return cmp > 0 || (cmp == 0 && observed.requestedTime > last.requestedTime) ? observed : last;
+        });
     }
 
     /**
@@ -70,8 +100,11 @@ public class SequencerView extends AbstractView {
     public TokenResponse query(UUID... streamIds) {
         try (Timer.Context context = MetricsUtils.getConditionalContext(sequencerQuery)){
             if (streamIds.length == 0) {
-                return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+                final long requestedTime = System.nanoTime();
+                TokenResponse response = layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
                         .nextToken(Collections.emptyList(), 0)));
+                observe(response.getToken(), requestedTime);
+                return response;
             } else {
                 return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
                         .nextToken(Arrays.asList(streamIds), 0)));
@@ -79,6 +112,30 @@ public class SequencerView extends AbstractView {
         }
     }
 
+    /**
+     * Return the global tail of the log, reusing the highest global log position observed in
+     * the sequencer's responses if the global tail was at least at that position less than
+     * {@code maxStaleness} ago, and if it is from the current epoch.
+     *
+     * <p>The position may miss the updates of other clients made during the staleness bound, but
+     * it is never behind the updates made or observed by this runtime.
+     *
+     * @param maxStaleness maximum age of the reused position, zero always queries the sequencer
+     * @return a global log position
+     */
+    public Token queryGlobalTail(Duration maxStaleness) {
+        if (!maxStaleness.isZero()) {
+            final ObservedToken last = lastObservedToken.get();
+            if (System.nanoTime() - last.requestedTime <= maxStaleness.toNanos()
+                    && last.token.getEpoch() == runtime.getLayoutView().getLayout().getEpoch()) {
+                sequencerQueryReused.inc();
+                return last.token;
+            }
+        }
+
+        return query().getToken();
+    }
+
     /**
      * Return the next token in the sequencer for a particular stream.
      *
@@ -87,8 +144,11 @@ public class SequencerView extends AbstractView {
      */
     public TokenResponse next(UUID ... streamIds) {
         try (Timer.Context context = MetricsUtils.getConditionalContext(sequencerNextOneStream)){
-            return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+            final long requestedTime = System.nanoTime();
+            TokenResponse response = layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
                     .nextToken(Arrays.asList(streamIds), 1)));
+            observe(response.getToken(), requestedTime);
+            return response;
         }
     }
 
@@ -127,8 +187,13 @@ public class SequencerView extends AbstractView {
      */
     public TokenResponse next(TxResolutionInfo conflictInfo, UUID ... streamIds) {
         try (Timer.Context context = MetricsUtils.getConditionalContext(sequencerNextMultipleStream)) {
-            return layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
+            final long requestedTime = System.nanoTime();
+            TokenResponse response = layoutHelper(e -> CFUtils.getUninterruptibly(e.getPrimarySequencerClient()
                     .nextToken(Arrays.asList(streamIds), 1, conflictInfo)));
+            if (response.getRespType() == TokenType.NORMAL) {
+                observe(response.getToken(), requestedTime);
+            }
+            return response;
         }
     }
 
@@ -165,4 +230,13 @@ public class SequencerView extends AbstractView {
             runtime.getLayoutView().getRuntimeLayout().getPrimarySequencerClient().trimCache(address);
         }
     }
+
+    /**
+     * A global log position and when it was requested.
+     */
+    @AllArgsConstructor
+    private static class ObservedToken {
+        private final Token token;
+        private final long requestedTime;
+    }
 }
\ No newline at end of file
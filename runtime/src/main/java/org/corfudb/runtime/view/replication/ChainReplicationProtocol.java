@@ -26,8 +26,20 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ChainReplicationProtocol extends AbstractReplicationProtocol {
 
+    /**
+     * Reads the chains, hedging the reads of committed addresses, if set.
+     */
+    @Nullable
+    private final HedgedReader hedgedReader;
+
     public ChainReplicationProtocol(IHoleFillPolicy holeFillPolicy) {
+        this(holeFillPolicy, null);
+    }
+
+    public ChainReplicationProtocol(IHoleFillPolicy holeFillPolicy,
+                                    @Nullable HedgedReader hedgedReader) {
         super(holeFillPolicy);
+        this.hedgedReader = hedgedReader;
     }
 
     /**
@@ -36,7 +48,7 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
     @Override
     public void write(RuntimeLayout runtimeLayout, ILogData data) throws OverwriteException {
         final long globalAddress = data.getGlobalAddress();
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        int numUnits = runtimeLayout.getSegmentLength(globalAddress);
 
         // To reduce the overhead of serialization, we serialize only the
         // first time we write, saving when we go down the chain.
@@ -50,6 +62,9 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
                                 .write(sh.getSerialized()),
                         OverwriteException.class);
                 propagate(runtimeLayout, globalAddress, sh.getSerialized());
+                if (hedgedReader != null) {
+                    hedgedReader.markCommitted(globalAddress);
+                }
             } catch (OverwriteException oe) {
                 // Some other wrote here (usually due to hole fill)
                 // We need to invoke the recovery protocol, in case
@@ -65,13 +80,14 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
      */
     @Override
     public ILogData peek(RuntimeLayout runtimeLayout, long globalAddress) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        int numUnits = runtimeLayout.getSegmentLength(globalAddress);
         log.trace("Read[{}]: chain {}/{}", globalAddress, numUnits, numUnits);
-        // In chain replication, we read from the last unit, though we can optimize if we
-        // know where the committed tail is.
-        ILogData peekResult = CFUtils.getUninterruptibly(runtimeLayout
-                .getLogUnitClient(globalAddress, numUnits - 1)
-                .read(globalAddress)).getAddresses().get(globalAddress);
+        // In chain replication, we read from the last unit. Below the committed tail,
+        // the read is hedged to its predecessor if the last unit is slow to respond.
+        CompletableFuture<ReadResponse> future = hedgedReader == null
+                ? runtimeLayout.getLogUnitClient(globalAddress, numUnits - 1).read(globalAddress)
+                : hedgedReader.read(runtimeLayout, globalAddress);
+        ILogData peekResult = CFUtils.getUninterruptibly(future).getAddresses().get(globalAddress);
 
         return peekResult.isEmpty() ? null : peekResult;
     }
@@ -98,19 +114,21 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
                                        List<Long> addresses,
                                        boolean waitForWrite) {
 
-        // A map of log unit server endpoint to addresses it's responsible for
-        Map<String, List<Long>> serverAddressMap = new HashMap<>();
+        // A map of chains of log unit servers to addresses they're responsible for
+        Map<List<String>, List<Long>> chainAddressMap = new HashMap<>();
 
         for (Long address : addresses) {
             List<String> logServers = runtimeLayout.getLayout().getStripe(address).getLogServers();
-            String logServer = logServers.get(logServers.size() - 1);
-            List<Long> addressList = serverAddressMap.computeIfAbsent(logServer, s -> new ArrayList<>());
+            List<Long> addressList = chainAddressMap.computeIfAbsent(logServers, s -> new ArrayList<>());
             addressList.add(address);
         }
 
-        // Send read requests to log unit servers in parallel
-        List<CompletableFuture<ReadResponse>> futures = serverAddressMap.entrySet().stream()
-                .map(entry -> runtimeLayout.getLogUnitClient(entry.getKey()).readAll(entry.getValue()))
+        // Send read requests to the last log unit server of each chain in parallel
+        List<CompletableFuture<ReadResponse>> futures = chainAddressMap.entrySet().stream()
+                .map(entry -> hedgedReader == null
+                        ? runtimeLayout.getLogUnitClient(entry.getKey().get(entry.getKey().size() - 1))
+                                .readAll(entry.getValue())
+                        : hedgedReader.readAll(runtimeLayout, entry.getKey(), entry.getValue()))
                 .collect(Collectors.toList());
 
         // Merge the read responses from different log unit servers
@@ -182,7 +200,7 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
     private void propagate(RuntimeLayout runtimeLayout,
                            long globalAddress,
                            @Nullable ILogData data) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        int numUnits = runtimeLayout.getSegmentLength(globalAddress);
 
         for (int i = 1; i < numUnits; i++) {
             log.trace("Propagate[{}]: chain {}/{}", Token.of(runtimeLayout.getLayout().getEpoch(),
@@ -271,7 +289,7 @@ public class ChainReplicationProtocol extends AbstractReplicationProtocol {
      */
     @Override
     protected void holeFill(RuntimeLayout runtimeLayout, long globalAddress) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        int numUnits = runtimeLayout.getSegmentLength(globalAddress);
         log.warn("fillHole[{}]: chain head {}/{}", Token.of(runtimeLayout.getLayout().getEpoch(), globalAddress),
                 1, numUnits);
         // In chain replication, we write synchronously to every unit in
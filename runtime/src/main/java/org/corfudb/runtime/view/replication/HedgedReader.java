@@ -0,0 +1,268 @@
+package org.corfudb.runtime.view.replication;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.ReadResponse;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.RuntimeLayout;
+import org.corfudb.util.CFUtils;
+import org.corfudb.util.CorfuComponent;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Reads the replicas of a chain, hedging the reads of committed addresses.
+ *
+ * <p>Reads are sent to the tail of the chain, the only replica guaranteed to hold committed
+ * data only. If the tail doesn't respond within a percentile of its observed read latencies
+ * (e.g. during a GC pause), the read is also sent to its predecessor in the chain and the first
+ * of the two responses is used. The predecessor's response is only used if it has data at every
+ * address read, so that the tail resolves holes and unwritten addresses as usual.
+ *
+ * <p>A replica other than the tail may hold data which is not committed yet, and which can be
+ * lost if that replica is removed from the chain before the write completes. Only the addresses
+ * up to the committed tail, and the addresses this runtime observed committed above it, are
+ * hedged. The committed tail is the highest address such that every address up to it is
+ * committed: it starts at the trim mark of the log, since trimmed addresses are checkpointed,
+ * and advances as this runtime observes the addresses above it committed, i.e. written by this
+ * runtime or read from the tail of its chain. Committed data is the same on every replica of
+ * the chain, since addresses are write-once.
+ *
+ * <p>There is one reader per runtime, see {@link CorfuRuntime#getHedgedReader()}.
+ */
+@Slf4j
+public class HedgedReader {
+
+    private static final MetricRegistry metrics = CorfuRuntime.getDefaultMetrics();
+
+    private static final String HEDGED_READS = CorfuComponent.ADDRESS_SPACE_VIEW + "hedged-reads";
+
+    private static final String HEDGED_READS_WON = CorfuComponent.ADDRESS_SPACE_VIEW
+            + "hedged-reads-won";
+
+    /**
+     * Number of read latencies to observe before hedging reads.
+     */
+    private static final int MIN_SAMPLES = 100;
+
+    /**
+     * Number of committed addresses above the committed tail to keep track of.
+     */
+    private static final int MAX_COMMITTED_ADDRESSES = 16_384;
+
+    private final boolean enabled;
+
+    private final double percentile;
+
+    private final Duration minDelay;
+
+    private final Histogram readLatencies = new Histogram(new ExponentiallyDecayingReservoir());
+
+    private final Histogram readAllLatencies = new Histogram(new ExponentiallyDecayingReservoir());
+
+    private final Counter hedgedReads = metrics.counter(HEDGED_READS);
+
+    private final Counter hedgedReadsWon = metrics.counter(HEDGED_READS_WON);
+
+    /**
+     * Highest address such that every address up to it is known to be committed.
+     */
+    @Getter
+    private volatile long committedTail = Address.NON_ADDRESS;
+
+    /**
+     * Addresses known to be committed above the committed tail.
+     */
+    private final TreeSet<Long> committedAddresses = new TreeSet<>();
+
+    /**
+     * Whether the committed tail was seeded from the trim mark of the log.
+     */
+    private final AtomicBoolean seeded = new AtomicBoolean();
+
+    public HedgedReader(@NonNull CorfuRuntimeParameters parameters) {
+        this.enabled = parameters.isReadHedgingEnabled();
+        this.percentile = parameters.getReadHedgingPercentile();
+        this.minDelay = parameters.getReadHedgingMinDelay();
+    }
+
+    /**
+     * Read an address from its chain.
+     *
+     * @param runtimeLayout runtime layout
+     * @param address       address to read
+     * @return the response of the tail, or of its predecessor if it has data at the address
+     */
+    public CompletableFuture<ReadResponse> read(@NonNull RuntimeLayout runtimeLayout,
+                                                long address) {
+        List<String> chain = runtimeLayout.getLayout().getStripe(address).getLogServers();
+        return read(runtimeLayout, chain, Collections.singletonList(address), readLatencies,
+                endpoint -> runtimeLayout.getLogUnitClient(endpoint).read(address));
+    }
+
+    /**
+     * Read addresses which belong to the same chain.
+     *
+     * @param runtimeLayout runtime layout
+     * @param chain         log servers of the stripe of the addresses
+     * @param addresses     addresses to read
+     * @return the response of the tail, or of its predecessor if it has data at every address
+     */
+    public CompletableFuture<ReadResponse> readAll(@NonNull RuntimeLayout runtimeLayout,
+                                                   @NonNull List<String> chain,
+                                                   @NonNull List<Long> addresses) {
+        return read(runtimeLayout, chain, addresses, readAllLatencies,
+                endpoint -> runtimeLayout.getLogUnitClient(endpoint).readAll(addresses));
+    }
+
+    private CompletableFuture<ReadResponse> read(RuntimeLayout runtimeLayout, List<String> chain,
+                                                 List<Long> addresses, Histogram latencies,
+                                                 Function<String, CompletableFuture<ReadResponse>>
+                                                         reader) {
+        String tail = chain.get(chain.size() - 1);
+        if (!enabled) {
+            return reader.apply(tail);
+        }
+
+        seedCommittedTail(runtimeLayout, tail);
+
+        final long start = System.nanoTime();
+        CompletableFuture<ReadResponse> primary = reader.apply(tail);
+        CompletableFuture<ReadResponse> result = new CompletableFuture<>();
+        primary.whenComplete((response, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(ex);
+                return;
+            }
+            latencies.update(System.nanoTime() - start);
+            response.getAddresses().forEach((address, data) -> {
+                if (!data.isEmpty()) {
+                    markCommitted(address);
+                }
+            });
+            result.complete(response);
+        });
+
+        if (chain.size() < 2 || !isCommitted(addresses)
+                || latencies.getCount() < MIN_SAMPLES) {
+            return result;
+        }
+
+        long delayNanos = Math.max(minDelay.toNanos(),
+                (long) latencies.getSnapshot().getValue(percentile));
+        CFUtils.runAfter(Duration.ofNanos(delayNanos), () -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            String predecessor = chain.get(chain.size() - 2);
+            log.trace("read: Hedging read of {} to {} after {}us", tail, predecessor,
+                    TimeUnit.NANOSECONDS.toMicros(delayNanos));
+            hedgedReads.inc();
+            reader.apply(predecessor).thenAccept(response -> {
+                if (hasData(response, addresses.size()) && result.complete(response)) {
+                    hedgedReadsWon.inc();
+                }
+            });
+        });
+
+        return result;
+    }
+
+    private static boolean hasData(ReadResponse response, long expected) {
+        return response.getAddresses().size() == expected
+                && response.getAddresses().values().stream().noneMatch(LogData::isEmpty);
+    }
+
+    /**
+     * Seed the committed tail from the trim mark of a log unit, once. The committed tail
+     * otherwise only advances from the first address of the log, which a runtime starting to
+     * read in the middle of the log never observes.
+     *
+     * @param runtimeLayout runtime layout
+     * @param endpoint      log unit to query
+     */
+    private void seedCommittedTail(RuntimeLayout runtimeLayout, String endpoint) {
+        if (!seeded.compareAndSet(false, true)) {
+            return;
+        }
+
+        runtimeLayout.getLogUnitClient(endpoint).getTrimMark()
+                .thenAccept(trimMark -> advanceCommittedTail(trimMark - 1))
+                .exceptionally(ex -> {
+                    log.debug("seedCommittedTail: Failed to get the trim mark of {}", endpoint, ex);
+                    seeded.set(false);
+                    return null;
+                });
+    }
+
+    private boolean isCommitted(List<Long> addresses) {
+        long tail = committedTail;
+        synchronized (committedAddresses) {
+            return addresses.stream()
+                    .allMatch(address -> address <= tail || committedAddresses.contains(address));
+        }
+    }
+
+    /**
+     * Record that an address is committed, i.e. that every replica of its chain has it.
+     *
+     * @param address committed address
+     */
+    public void markCommitted(long address) {
+        if (!enabled || address <= committedTail) {
+            return;
+        }
+
+        synchronized (committedAddresses) {
+            if (address > committedTail + 1) {
+                committedAddresses.add(address);
+                if (committedAddresses.size() > MAX_COMMITTED_ADDRESSES) {
+                    committedAddresses.pollLast();
+                }
+                return;
+            }
+
+            advanceCommittedTailUnsafe(address);
+        }
+    }
+
+    /**
+     * Record that every address up to the given address is committed, e.g. because the log is
+     * trimmed up to it.
+     *
+     * @param address address up to which the log is committed
+     */
+    public void advanceCommittedTail(long address) {
+        if (!enabled || address <= committedTail) {
+            return;
+        }
+
+        synchronized (committedAddresses) {
+            advanceCommittedTailUnsafe(address);
+        }
+    }
+
+    private void advanceCommittedTailUnsafe(long address) {
+        long tail = Math.max(committedTail, address);
+        while (!committedAddresses.isEmpty() && committedAddresses.first() <= tail + 1) {
+            tail = Math.max(tail, committedAddresses.pollFirst());
+        }
+        committedTail = tail;
+    }
+}
@@ -73,7 +73,7 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
      */
     @Override
     public ILogData peek(RuntimeLayout runtimeLayout, long address) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(address);
+        int numUnits = runtimeLayout.getSegmentLength(address);
         log.trace("Peek[{}]: quorum {}/{}", address, numUnits, numUnits);
         try {
             ReadResponse readResponse = null;
@@ -121,7 +121,7 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
      */
     @Override
     protected void holeFill(RuntimeLayout runtimeLayout, long globalAddress) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(globalAddress);
+        int numUnits = runtimeLayout.getSegmentLength(globalAddress);
         log.trace("fillHole[{}]: quorum head {}/{}", globalAddress, 1, numUnits);
         try (ILogData.SerializationHandle holeData = createEmptyData(globalAddress,
                 DataType.HOLE, new IMetadata.DataRank(0))) {
@@ -250,7 +250,7 @@ public class QuorumReplicationProtocol extends AbstractReplicationProtocol {
 
     private QuorumFuturesFactory.CompositeFuture<Boolean> getWriteFuture(
             RuntimeLayout runtimeLayout, ILogData data) {
-        int numUnits = runtimeLayout.getLayout().getSegmentLength(data.getGlobalAddress());
+        int numUnits = runtimeLayout.getSegmentLength(data.getGlobalAddress());
         long globalAddress = data.getGlobalAddress();
         CompletableFuture<Boolean>[] futures = new CompletableFuture[numUnits];
         for (int i = 0; i < numUnits; i++) {
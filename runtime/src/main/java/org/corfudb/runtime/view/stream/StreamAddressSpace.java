@@ -138,7 +138,7 @@ public class StreamAddressSpace {
     /**
      * Get addresses in range (end, start], where start > end.
      *
-     * @return Bitmap with addresses in this range.
+     * @return Run-length optimized bitmap with addresses in this range.
      */
     public Roaring64NavigableMap getAddressesInRange(StreamAddressRange range) {
         Roaring64NavigableMap addressesInRange = new Roaring64NavigableMap();
@@ -150,9 +150,43 @@ public class StreamAddressSpace {
                 }
             });
         }
+        addressesInRange.runOptimize();
         return addressesInRange;
     }
 
+    /**
+     * Get addresses greater than or equal to fromAddress. The bitmap is walked backwards
+     * from the tail, so the cost is proportional to the number of addresses returned.
+     *
+     * @param fromAddress lowest address (inclusive) to include.
+     * @return Address space with the same trim mark, holding only addresses in [fromAddress, tail],
+     *         run-length optimized.
+     */
+    public StreamAddressSpace getAddressesFrom(long fromAddress) {
+        Roaring64NavigableMap addresses = new Roaring64NavigableMap();
+        LongIterator it = addressMap.getReverseLongIterator();
+        while (it.hasNext()) {
+            long address = it.next();
+            if (address < fromAddress) {
+                break;
+            }
+            addresses.addLong(address);
+        }
+        addresses.runOptimize();
+        return new StreamAddressSpace(trimMark, addresses);
+    }
+
+    /**
+     * Deep copy of this address space, sharing no state with the original.
+     *
+     * @return a copy of this address space.
+     */
+    public StreamAddressSpace copy() {
+        Roaring64NavigableMap addresses = new Roaring64NavigableMap();
+        addresses.or(addressMap);
+        return new StreamAddressSpace(trimMark, addresses);
+    }
+
     public void setTrimMark(long trimMark) {
         this.trimMark = trimMark;
     }
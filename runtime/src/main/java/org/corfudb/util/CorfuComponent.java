@@ -14,10 +14,14 @@ public enum CorfuComponent {
     OBJECT("corfu.runtime.object."),
     GARBAGE_COLLECTION("corfu.runtime.gc."),
     CLIENT_SEQUENCER("corfu.runtime.sequencer."),
+    LAYOUT_MANAGEMENT_VIEW("corfu.runtime.layout-management-view."),
+    NETTY_BUFFERS("corfu.netty.buffers."),
 
     // Infrastructure components
+    INFRA_FAILURE_DETECTOR("corfu.infrastructure.failure-detector."),
     INFRA_MSG_HANDLER("corfu.infrastructure.message-handler."),
     INFRA_SEQUENCER("corfu.infrastructure.sequencer."),
+    INFRA_STATE_TRANSFER("corfu.infrastructure.state-transfer."),
     INFRA_STREAM_OPS("corfu.infrastructure.stream-ops.");
 
     CorfuComponent(String value) {
@@ -0,0 +1,130 @@
+package org.corfudb.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the most frequent keys of an unbounded stream of keys in bounded memory.
+ *
+ * <p>The frequency of every key is estimated by a count-min sketch, which never underestimates
+ * it and overestimates it by at most {@code 2 / width} of the total count with a probability
+ * of at least {@code 1 - 2^-depth}. The keys with the highest estimates seen so far are kept
+ * as the top-K candidates.
+ *
+ * <p>Keys must implement {@link Object#hashCode()} and {@link Object#equals(Object)}.
+ *
+ * @param <K> the type of the keys
+ */
+public class HeavyHitters<K> {
+
+    private static final int DEPTH = 4;
+
+    private final int mask;
+
+    private final long[][] counts;
+
+    private final int topK;
+
+    private final Map<K, Long> candidates;
+
+    private long total;
+
+    /**
+     * Create a new tracker.
+     *
+     * @param width number of counters per row of the sketch, rounded up to a power of two
+     * @param topK  number of most frequent keys to track
+     */
+    public HeavyHitters(int width, int topK) {
+        if (width <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("width and topK must be positive");
+        }
+        int powerOfTwo = Integer.highestOneBit(width);
+        this.mask = (powerOfTwo == width ? width : powerOfTwo << 1) - 1;
+        this.counts = new long[DEPTH][mask + 1];
+        this.topK = topK;
+        this.candidates = new HashMap<>(topK * 2);
+    }
+
+    /**
+     * Count an occurrence of a key.
+     *
+     * @param key the key
+     * @return the estimated number of occurrences of the key
+     */
+    public synchronized long add(K key) {
+        final long hash = mix(key.hashCode());
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> Integer.SIZE);
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < DEPTH; i++) {
+            long[] row = counts[i];
+            int index = (h1 + i * h2) & mask;
+            estimate = Math.min(estimate, ++row[index]);
+        }
+        total++;
+
+        if (candidates.containsKey(key) || candidates.size() < topK) {
+            candidates.put(key, estimate);
+            return estimate;
+        }
+
+        Map.Entry<K, Long> min = null;
+        for (Map.Entry<K, Long> candidate : candidates.entrySet()) {
+            if (min == null || candidate.getValue() < min.getValue()) {
+                min = candidate;
+            }
+        }
+        if (estimate > min.getValue()) {
+            candidates.remove(min.getKey());
+            candidates.put(key, estimate);
+        }
+        return estimate;
+    }
+
+    /**
+     * Total number of occurrences counted.
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * Get the most frequent keys.
+     *
+     * @return the estimated number of occurrences of the most frequent keys, in decreasing order
+     */
+    public synchronized Map<K, Long> getTop() {
+        List<Map.Entry<K, Long>> top = new ArrayList<>(candidates.entrySet());
+        top.sort(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()));
+        Map<K, Long> result = new LinkedHashMap<>();
+        top.forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * Forget all the occurrences counted so far.
+     */
+    public synchronized void clear() {
+        for (long[] row : counts) {
+            Arrays.fill(row, 0L);
+        }
+        candidates.clear();
+        total = 0;
+    }
+
+    /**
+     * Spread a 32-bit hash code over 64 bits (the finalizer of SplitMix64).
+     */
+    private static long mix(int hashCode) {
+        long z = hashCode * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,102 @@
+package org.corfudb.util;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import lombok.NonNull;
+import org.corfudb.protocols.wireprotocol.TxAbortStats;
+import org.corfudb.protocols.wireprotocol.TxAbortStats.ConflictKey;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates transaction aborts by cause, by stream and by conflict parameter, to find the hot
+ * streams and keys which make transactions retry.
+ *
+ * <p>The number of aborts of each cause is exposed as a counter, and the streams and conflict
+ * parameters involved in the most aborts, estimated with {@link HeavyHitters}, as gauges. They
+ * can also be read as {@link TxAbortStats}.
+ */
+public class TxAbortAnalytics {
+
+    /**
+     * Default number of hot streams and keys tracked.
+     */
+    public static final int DEFAULT_TOP_K = 16;
+
+    private static final int SKETCH_WIDTH = 4096;
+
+    private final MetricRegistry metrics;
+
+    private final String prefix;
+
+    private final Map<String, LongAdder> causes = new ConcurrentHashMap<>();
+
+    private final HeavyHitters<UUID> hotStreams;
+
+    private final HeavyHitters<ConflictKey> hotKeys;
+
+    /**
+     * Create new abort analytics.
+     *
+     * @param metrics registry to expose the analytics in
+     * @param prefix  prefix of the metric names
+     * @param topK    number of hot streams and keys to track
+     */
+    public TxAbortAnalytics(@NonNull MetricRegistry metrics, @NonNull String prefix, int topK) {
+        this.metrics = metrics;
+        this.prefix = prefix;
+        this.hotStreams = new HeavyHitters<>(SKETCH_WIDTH, topK);
+        this.hotKeys = new HeavyHitters<>(SKETCH_WIDTH, topK);
+
+        try {
+            metrics.register(prefix + "hot-streams", (Gauge<Map<String, Long>>) () -> {
+                Map<String, Long> streams = new LinkedHashMap<>();
+                hotStreams.getTop().forEach((id, count) -> streams.put(Utils.toReadableId(id), count));
+                return streams;
+            });
+            metrics.register(prefix + "hot-keys", (Gauge<Map<String, Long>>) () -> {
+                Map<String, Long> keys = new LinkedHashMap<>();
+                hotKeys.getTop().forEach((key, count) -> keys.put(key.toString(), count));
+                return keys;
+            });
+        } catch (IllegalArgumentException e) {
+            // Re-registering metrics during test runs, not a problem
+        }
+    }
+
+    /**
+     * Record an abort.
+     *
+     * @param cause         cause of the abort
+     * @param streamId      stream the conflict occurred on, if known
+     * @param conflictParam fingerprint of the conflict parameter, if known
+     */
+    public void recordAbort(@NonNull String cause, @Nullable UUID streamId,
+                            @Nullable Long conflictParam) {
+        causes.computeIfAbsent(cause, c -> new LongAdder()).increment();
+        metrics.counter(prefix + cause).inc();
+        if (streamId == null) {
+            return;
+        }
+
+        hotStreams.add(streamId);
+        if (conflictParam != null) {
+            hotKeys.add(new ConflictKey(streamId, conflictParam));
+        }
+    }
+
+    /**
+     * Get the aborts recorded so far.
+     */
+    public TxAbortStats getStats() {
+        Map<String, Long> counts = new TreeMap<>();
+        causes.forEach((cause, count) -> counts.put(cause, count.sum()));
+        return new TxAbortStats(counts, hotStreams.getTop(), hotKeys.getTop());
+    }
+}
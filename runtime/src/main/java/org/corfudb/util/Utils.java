@@ -20,8 +20,10 @@ import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.protocols.wireprotocol.TailsResponse;
 import org.corfudb.recovery.RecoveryUtils;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.LogUnitClient;
 import org.corfudb.runtime.view.Address;
 import org.corfudb.runtime.view.Layout;
+import org.corfudb.runtime.view.RuntimeLayout;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -39,7 +41,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Created by crossbach on 5/22/15.
@@ -548,8 +552,13 @@ public class Utils {
         return new TailsResponse(globalTail, globalStreamTails);
     }
 
-    static Map<UUID, StreamAddressSpace> aggregateStreamAddressMap(Map<UUID, StreamAddressSpace> streamAddressSpaceMap,
-                                                                   Map<UUID, StreamAddressSpace> aggregated) {
+    /**
+     * Merge a map of stream address spaces into an aggregated map. Address spaces already
+     * present in the aggregated map are updated in place.
+     */
+    public static Map<UUID, StreamAddressSpace> aggregateStreamAddressMap(
+            Map<UUID, StreamAddressSpace> streamAddressSpaceMap,
+            Map<UUID, StreamAddressSpace> aggregated) {
         for (Map.Entry<UUID, StreamAddressSpace> stream : streamAddressSpaceMap.entrySet()) {
             if (aggregated.containsKey(stream.getKey())) {
                 long currentTrimMark = aggregated.get(stream.getKey()).getTrimMark();
@@ -572,19 +581,47 @@ public class Utils {
      * @return response with all streams addresses and global log tail.
      */
     public static StreamsAddressResponse getLogAddressSpace(Layout layout, CorfuRuntime runtime) {
+        return getLogAddressSpace(layout, runtime, LogUnitClient::getLogAddressSpace);
+    }
+
+    /**
+     * Retrieve the space of addresses of the log written at or after a given address.
+     * This is used to complete a sequencer snapshot on sequencer recovery.
+     *
+     * @param layout latest layout.
+     * @param runtime current runtime.
+     * @param fromAddress lowest address (inclusive) to retrieve.
+     * @return response with the streams addresses at or above fromAddress and the global log tail.
+     */
+    public static StreamsAddressResponse getLogAddressSpace(Layout layout, CorfuRuntime runtime,
+                                                            long fromAddress) {
+        return getLogAddressSpace(layout, runtime, client -> client.getLogAddressSpace(fromAddress));
+    }
+
+    /**
+     * Retrieve an address space from the log unit cluster. This depends on the mode of
+     * replication being used.
+     * CHAIN: Block on the address space of the head log unit in every stripe.
+     * QUORUM: Not supported.
+     *
+     * @param layout  latest layout.
+     * @param runtime current runtime.
+     * @param request the address space request to send to a log unit.
+     * @return response with the merged streams addresses and global log tail.
+     */
+    private static StreamsAddressResponse getLogAddressSpace(
+            Layout layout, CorfuRuntime runtime,
+            Function<LogUnitClient, CompletableFuture<StreamsAddressResponse>> request) {
         Set<StreamsAddressResponse> luResponses = new HashSet<>();
 
         Layout.LayoutSegment segment = layout.getLatestSegment();
+        RuntimeLayout runtimeLayout = runtime.getLayoutView().getRuntimeLayout(layout);
 
-        // Query the tail of the head log unit in every stripe.
         if (segment.getReplicationMode() == Layout.ReplicationMode.CHAIN_REPLICATION) {
+            // Query the head log unit in every stripe.
             for (Layout.LayoutStripe stripe : segment.getStripes()) {
-
-                StreamsAddressResponse res = CFUtils.getUninterruptibly(
-                        runtime.getLayoutView().getRuntimeLayout(layout)
-                                .getLogUnitClient(stripe.getLogServers().get(DEFAULT_LOGUNIT))
-                                .getLogAddressSpace());
-                luResponses.add(res);
+                luResponses.add(CFUtils.getUninterruptibly(request.apply(
+                        runtimeLayout.getLogUnitClient(stripe.getLogServers().get(DEFAULT_LOGUNIT)))));
             }
         } else if (segment.getReplicationMode() == Layout.ReplicationMode.QUORUM_REPLICATION) {
             throw new UnsupportedOperationException();
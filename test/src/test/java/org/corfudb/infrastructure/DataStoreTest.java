@@ -5,6 +5,10 @@ import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -55,8 +59,10 @@ public class DataStoreTest extends AbstractCorfuTest {
         DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
         String value = UUID.randomUUID().toString();
         dataStore.put(String.class, "test", "key", value);
+        dataStore.put(String.class, "test", "key2", value);
 
-        String fileName = PARAMETERS.TEST_TEMP_DIR + File.separator + "test_key" + DataStore.EXTENSION;
+        // Corrupt the first record of the journal
+        String fileName = serviceDir + File.separator + DataStoreJournal.JOURNAL_FILE;
         RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw");
 
         dsFile.seek(value.length() / 2);
@@ -64,11 +70,150 @@ public class DataStoreTest extends AbstractCorfuTest {
         dsFile.close();
 
         // Simulate a restart of data store
-        final DataStore dataStore2 = createPersistDataStore(serviceDir, numRetention, fn -> { });
-        assertThatThrownBy(() -> dataStore2.get(String.class, "test", "key"))
+        assertThatThrownBy(() -> createPersistDataStore(serviceDir, numRetention, fn -> { }))
                 .isInstanceOf(DataCorruptionException.class);
     }
 
+    /**
+     * A record partially written at the end of the journal is discarded on restart,
+     * and the journal is appended to after the last complete record.
+     */
+    @Test
+    public void testTornRecord() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        dataStore.put(String.class, "test", "key", "VALUE");
+        dataStore.put(String.class, "test", "key", "TORN_VALUE");
+
+        String fileName = serviceDir + File.separator + DataStoreJournal.JOURNAL_FILE;
+        RandomAccessFile dsFile = new RandomAccessFile(fileName, "rw");
+        dsFile.setLength(dsFile.length() - 1);
+        dsFile.close();
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("VALUE");
+
+        dataStore.put(String.class, "test", "key", "NEW_VALUE");
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("NEW_VALUE");
+    }
+
+    @Test
+    public void testDeleteWithRestart() {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        dataStore.put(String.class, "test", "key", "VALUE");
+        dataStore.put(String.class, "test", "key2", "VALUE2");
+        dataStore.delete(String.class, "test", "key");
+        assertThat(dataStore.get(String.class, "test", "key")).isNull();
+        assertThat(dataStore.getKeys("test")).containsExactly("key2");
+
+        // Simulate a restart of data store
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(String.class, "test", "key")).isNull();
+        assertThat(dataStore.get(String.class, "test", "key2")).isEqualTo("VALUE2");
+    }
+
+    /**
+     * Keys stored in the file-per-key format are imported into the journal.
+     */
+    @Test
+    public void testLegacyFilesImport() throws IOException {
+        final String numRetention = "10";
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        new File(serviceDir).mkdirs();
+
+        byte[] json = "\"LEGACY_VALUE\"".getBytes();
+        ByteBuffer buffer = ByteBuffer.allocate(json.length + Integer.BYTES);
+        buffer.putInt(DataStore.getChecksum(json));
+        buffer.put(json);
+        File legacyFile = new File(serviceDir, "test_key" + DataStore.EXTENSION);
+        Files.write(legacyFile.toPath(), buffer.array());
+
+        DataStore dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("LEGACY_VALUE");
+        assertThat(legacyFile).doesNotExist();
+
+        dataStore = createPersistDataStore(serviceDir, numRetention, fn -> { });
+        assertThat(dataStore.get(String.class, "test", "key")).isEqualTo("LEGACY_VALUE");
+    }
+
+    /**
+     * The journal is compacted once it grows over the threshold, and only the latest
+     * values remain after a restart.
+     */
+    @Test
+    public void testCompaction() {
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final long compactionThreshold = 1024;
+        final int numKeys = 5;
+        final int numUpdates = 100;
+        DataStore dataStore = new DataStore(new ImmutableMap.Builder<String, Object>()
+                .put("--log-path", serviceDir)
+                .build(), fn -> { }, compactionThreshold);
+
+        for (int i = 0; i < numUpdates; i++) {
+            dataStore.put(Long.class, "test", String.valueOf(i % numKeys), (long) i);
+        }
+
+        long journalSize = new File(serviceDir, DataStoreJournal.JOURNAL_FILE).length();
+        assertThat(journalSize).isLessThanOrEqualTo(compactionThreshold);
+
+        dataStore = createPersistDataStore(serviceDir, "10", fn -> { });
+        for (int i = 0; i < numKeys; i++) {
+            assertThat(dataStore.get(Long.class, "test", String.valueOf(i)))
+                    .isEqualTo((long) (numUpdates - numKeys + i));
+        }
+    }
+
+    /**
+     * A change is only visible once it is durable. A batch which failed to be written is not
+     * applied, and is written by the next sync.
+     */
+    @Test
+    public void testFailedSyncIsNotApplied() throws IOException {
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final Path journalPath = Paths.get(serviceDir, DataStoreJournal.JOURNAL_FILE);
+        DataStoreJournal journal = new DataStoreJournal(Paths.get(serviceDir),
+                DataStoreJournal.DEFAULT_COMPACTION_THRESHOLD);
+        journal.sync(journal.append("key", "0"));
+
+        long sequence = journal.append("key", "1");
+        assertThat(journal.get("key")).isEqualTo("0");
+
+        // The journal can't be opened for writing while a directory takes its place.
+        Files.delete(journalPath);
+        Files.createDirectory(journalPath);
+        assertThatThrownBy(() -> journal.sync(sequence)).isInstanceOf(RuntimeException.class);
+        assertThat(journal.get("key")).isEqualTo("0");
+
+        Files.delete(journalPath);
+        journal.sync(sequence);
+        assertThat(journal.get("key")).isEqualTo("1");
+    }
+
+    /**
+     * Concurrent updates are all durable, whichever writer synced them.
+     */
+    @Test
+    public void testConcurrentPuts() throws Exception {
+        final String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        final int numKeys = 100;
+        final DataStore dataStore = createPersistDataStore(serviceDir, "10", fn -> { });
+
+        scheduleConcurrently(numKeys, key ->
+                dataStore.put(Long.class, "test", String.valueOf(key), (long) key));
+        executeScheduled(PARAMETERS.CONCURRENCY_SOME, PARAMETERS.TIMEOUT_NORMAL);
+
+        DataStore restarted = createPersistDataStore(serviceDir, "10", fn -> { });
+        assertThat(restarted.getKeys("test")).hasSize(numKeys);
+        for (int i = 0; i < numKeys; i++) {
+            assertThat(restarted.get(Long.class, "test", String.valueOf(i))).isEqualTo((long) i);
+        }
+    }
+
     @Test
     public void testPutGetWithRestart() {
         final String numRetention = "10";
@@ -107,7 +252,6 @@ public class DataStoreTest extends AbstractCorfuTest {
     public void testDataStoreCleanup() {
         final int numRetention = 10;
         final String serviceDirPath = PARAMETERS.TEST_TEMP_DIR;
-        File serviceDir = new File(serviceDirPath);
 
         ServerContext serverContext = new ServerContextBuilder()
                 .setMemory(false)
@@ -126,18 +270,17 @@ public class DataStoreTest extends AbstractCorfuTest {
             });
 
             prefixesToClean.forEach(prefix -> {
-                // Cleanup should not be invoked for the first numRetention files,
-                // but start to delete files with smaller epochs after that
-                File[] foundFiles = serviceDir.listFiles((dir, name) -> name.startsWith(prefix));
+                // Cleanup should not be invoked for the first numRetention keys,
+                // but start to delete keys with smaller epochs after that
+                Set<String> foundKeys = dataStore.getKeys(prefix);
                 if (epoch > numRetention) {
-                    assertThat(foundFiles).hasSize(numRetention);
-                    // Check the numRetention files with larger epochs are not deleted
+                    assertThat(foundKeys).hasSize(numRetention);
+                    // Check the numRetention keys with larger epochs are not deleted
                     for (int j = epoch; j > epoch - numRetention; j--) {
-                        String fileName = prefix + "_" + epoch + "KEY" + DataStore.EXTENSION;
-                        assertThat(new File(serviceDir, fileName).exists()).isTrue();
+                        assertThat(foundKeys).contains(j + "KEY");
                     }
                 } else {
-                    assertThat(foundFiles).hasSize(epoch);
+                    assertThat(foundKeys).hasSize(epoch);
                 }
             });
         }
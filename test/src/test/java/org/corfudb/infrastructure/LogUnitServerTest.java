@@ -484,5 +484,42 @@ public class LogUnitServerTest extends AbstractServerTest {
 
         assertThat(s1).hasCorrectCacheSize(randomCacheRatio);
     }
-}
 
+    /**
+     * Records are read through the batch processor, so a read stamped with a sealed epoch is
+     * rejected like the other queries of the log.
+     */
+    @Test
+    public void readRecordsIsRejectedOnceSealed() throws Exception {
+        String serviceDir = PARAMETERS.TEST_TEMP_DIR;
+        LogUnitServer s1 = new LogUnitServer(new ServerContextBuilder()
+                .setLogPath(serviceDir)
+                .setMemory(false)
+                .build());
+        this.router.reset();
+        this.router.addServer(s1);
+
+        final long address = 0L;
+        ByteBuf b = Unpooled.buffer();
+        Serializers.CORFU.serialize("0".getBytes(), b);
+        WriteRequest m = WriteRequest.builder()
+                .data(new LogData(DataType.DATA, b))
+                .build();
+        m.setGlobalAddress(address);
+        m.setBackpointerMap(Collections.emptyMap());
+        sendMessage(CorfuMsgType.WRITE.payloadMsg(m));
+
+        sendMessage(CorfuMsgType.LOG_RECORDS_REQUEST.payloadMsg(new LogRecordsRequest(address, address)));
+        waitForLogUnit(s1);
+        Assertions.assertThat(getLastMessage().getMsgType())
+                .isEqualTo(CorfuMsgType.LOG_RECORDS_RESPONSE);
+        Assertions.assertThat(getLastPayloadMessageAs(LogRecordsMsg.class).getOrderedRecords())
+                .hasSize(1);
+
+        s1.sealServerWithEpoch(1L);
+        sendMessage(CorfuMsgType.LOG_RECORDS_REQUEST.payloadMsg(new LogRecordsRequest(address, address)));
+        waitForLogUnit(s1);
+        Assertions.assertThat(getLastMessage().getMsgType())
+                .isEqualTo(CorfuMsgType.WRONG_EPOCH);
+    }
+}
@@ -2,20 +2,33 @@ package org.corfudb.infrastructure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
 
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import org.corfudb.protocols.wireprotocol.CorfuMsg;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
 import org.corfudb.protocols.wireprotocol.SequencerRecoveryMsg;
+import org.corfudb.protocols.wireprotocol.StreamAddressRange;
+import org.corfudb.protocols.wireprotocol.StreamsAddressRequest;
+import org.corfudb.protocols.wireprotocol.StreamsAddressResponse;
 import org.corfudb.runtime.view.stream.StreamAddressSpace;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.protocols.wireprotocol.TokenRequest;
 import org.corfudb.protocols.wireprotocol.TokenResponse;
 import org.corfudb.protocols.wireprotocol.TokenType;
+import org.corfudb.protocols.wireprotocol.TxAbortStats;
+import org.corfudb.protocols.wireprotocol.TxResolutionInfo;
 import org.corfudb.runtime.view.Address;
+import org.corfudb.util.Utils;
 import org.junit.Before;
 import org.junit.Test;
 import org.roaringbitmap.longlong.Roaring64NavigableMap;
@@ -287,4 +300,301 @@ public class SequencerServerTest extends AbstractServerTest {
                         Collections.emptyMap(), Collections.emptyList()));
     }
 
+    /**
+     * Verifies that a delta request only returns the addresses written since the log tail of
+     * a previous response, and that earlier full snapshots are not modified by later writes.
+     */
+    @Test
+    public void streamsAddressDeltaSinceLogTail() {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        UUID streamB = UUID.nameUUIDFromBytes("streamB".getBytes());
+        final long num = 5;
+
+        for (int i = 0; i < num; i++) {
+            sendMessage(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamA))));
+        }
+
+        sendMessage(CorfuMsgType.STREAMS_ADDRESS_REQUEST.payloadMsg(
+                new StreamsAddressRequest(StreamsAddressRequest.ALL_STREAMS)));
+        StreamsAddressResponse snapshot = getLastPayloadMessageAs(StreamsAddressResponse.class);
+        assertThat(snapshot.getLogTail()).isEqualTo(num);
+
+        for (int i = 0; i < num; i++) {
+            sendMessage(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamB))));
+        }
+        sendMessage(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(1L, Collections.singletonList(streamA))));
+
+        // The snapshot is a copy and does not see the new addresses.
+        assertThat(snapshot.getAddressMap().get(streamA).getAddressMap().getLongCardinality()).isEqualTo(num);
+
+        sendMessage(CorfuMsgType.STREAMS_ADDRESS_REQUEST.payloadMsg(
+                StreamsAddressRequest.deltaSince(snapshot.getLogTail())));
+        StreamsAddressResponse delta = getLastPayloadMessageAs(StreamsAddressResponse.class);
+        assertThat(delta.getLogTail()).isEqualTo(2 * num + 1);
+        assertThat(delta.getAddressMap().get(streamA).getAddressMap().toArray())
+                .containsExactly(2 * num);
+        assertThat(delta.getAddressMap().get(streamB).getAddressMap().getLongCardinality()).isEqualTo(num);
+    }
+
+    /**
+     * Verifies that the transactions of a group commit are resolved in arrival order, each
+     * against the ones committed before it, and get contiguous addresses.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void groupCommitResolvesInArrivalOrder() throws Exception {
+        SequencerServer groupCommitServer = new SequencerServer(new ServerContextBuilder()
+                .setPort(SERVERS.PORT_0)
+                .setSequencerGroupCommitWindow("0")
+                .build());
+        groupCommitServer.setSequencerEpoch(0L);
+        setServer(groupCommitServer);
+
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        final long key1 = 1L;
+        final long key2 = 2L;
+        final Token snapshot = new Token(0L, Address.NON_ADDRESS);
+
+        // tx1 writes key1, tx2 read key1 and conflicts with tx1, tx3 reads and writes key2.
+        List<CorfuMsg> txTokens = new ArrayList<>();
+        for (long[] keys : new long[][]{{key1, key1}, {key1, key2}, {key2, key2}}) {
+            TxResolutionInfo txInfo = new TxResolutionInfo(UUID.randomUUID(), snapshot,
+                    Collections.singletonMap(streamA, new long[]{keys[0]}),
+                    Collections.singletonMap(streamA, new long[]{keys[1]}));
+            txTokens.add(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamA), txInfo))
+                    .setClientID(testClientId)
+                    .setRequestID(requestCounter.getAndIncrement())
+                    .setEpoch(0L));
+        }
+
+        // Deliver all the requests before the group is committed.
+        ExecutorService executor = groupCommitServer.getExecutor(CorfuMsgType.TOKEN_REQ);
+        executor.submit(() -> txTokens.forEach(msg ->
+                groupCommitServer.handleMessage(msg, null, getRouter()))).get();
+        executor.submit(() -> { }).get();
+
+        assertThat(getResponseMessages()).hasSize(txTokens.size());
+        TokenResponse tx1 = ((CorfuPayloadMsg<TokenResponse>) getResponseMessages().get(0)).getPayload();
+        TokenResponse tx2 = ((CorfuPayloadMsg<TokenResponse>) getResponseMessages().get(1)).getPayload();
+        TokenResponse tx3 = ((CorfuPayloadMsg<TokenResponse>) getResponseMessages().get(2)).getPayload();
+
+        assertThat(tx1.getRespType()).isEqualTo(TokenType.NORMAL);
+        assertThat(tx1.getToken()).isEqualTo(new Token(0L, 0L));
+        assertThat(tx1.getBackpointerMap()).containsEntry(streamA, Address.NON_EXIST);
+
+        assertThat(tx2.getRespType()).isEqualTo(TokenType.TX_ABORT_CONFLICT);
+        assertThat(tx2.getToken().getSequence()).isEqualTo(0L);
+        assertThat(tx2.getConflictKey()).isEqualTo(Utils.longToBigEndianByteArray(key1));
+        assertThat(tx2.getConflictStream()).isEqualTo(streamA);
+
+        assertThat(tx3.getRespType()).isEqualTo(TokenType.NORMAL);
+        assertThat(tx3.getToken()).isEqualTo(new Token(0L, 1L));
+        assertThat(tx3.getBackpointerMap()).containsEntry(streamA, 0L);
+        assertThat(groupCommitServer.getGlobalLogTail()).isEqualTo(2L);
+        groupCommitServer.shutdown();
+    }
+
+    /**
+     * Verifies that the aborts are aggregated by cause, stream and conflict key.
+     */
+    @Test
+    public void abortStatsTrackConflictingKeys() {
+        UUID streamA = UUID.nameUUIDFromBytes("streamA".getBytes());
+        final long hotKey = 1L;
+        final Token snapshot = new Token(0L, Address.NON_ADDRESS);
+        final int numAborts = 3;
+
+        for (int i = 0; i <= numAborts; i++) {
+            TxResolutionInfo txInfo = new TxResolutionInfo(UUID.randomUUID(), snapshot,
+                    Collections.singletonMap(streamA, new long[]{hotKey}),
+                    Collections.singletonMap(streamA, new long[]{hotKey}));
+            sendMessage(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamA), txInfo)));
+        }
+
+        sendMessage(CorfuMsgType.SEQUENCER_ABORT_STATS_REQUEST.msg());
+        TxAbortStats stats = getLastPayloadMessageAs(TxAbortStats.class);
+        assertThat(stats.getCauses())
+                .containsEntry(TokenType.TX_ABORT_CONFLICT.toString(), (long) numAborts);
+        assertThat(stats.getHotStreams()).containsKey(streamA);
+        assertThat(stats.getHotKeys())
+                .containsKey(new TxAbortStats.ConflictKey(streamA, hotKey));
+    }
+
+    private static final int NUM_PARTITIONS = 2;
+
+    private SequencerServer partitionedServer() {
+        SequencerServer partitioned = new SequencerServer(new ServerContextBuilder()
+                .setPort(SERVERS.PORT_0)
+                .setSequencerPartitions(Integer.toString(NUM_PARTITIONS))
+                .build());
+        partitioned.setSequencerEpoch(0L);
+        setServer(partitioned);
+        return partitioned;
+    }
+
+    /**
+     * Get a stream owned by the given partition.
+     */
+    private UUID streamInPartition(int partition) {
+        UUID streamId;
+        do {
+            streamId = UUID.randomUUID();
+        } while (SequencerPartition.partitionOf(streamId, NUM_PARTITIONS) != partition);
+        return streamId;
+    }
+
+    /**
+     * Send a message to a partitioned sequencer and wait until the coordinator and all the
+     * partitions have processed it.
+     */
+    private void sendPartitionedMessage(SequencerServer partitioned, CorfuMsg msg) throws Exception {
+        sendMessage(msg);
+        for (ExecutorService executor : partitioned.getExecutors()) {
+            executor.submit(() -> { }).get();
+        }
+    }
+
+    private CorfuMsg txToken(UUID stream, Map<UUID, long[]> readSet, Map<UUID, long[]> writeSet,
+                             Token snapshot) {
+        TxResolutionInfo txInfo = new TxResolutionInfo(UUID.randomUUID(), snapshot, readSet, writeSet);
+        return CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(1L, Collections.singletonList(stream), txInfo));
+    }
+
+    /**
+     * Verifies that a partitioned sequencer resolves a transaction spanning partitions
+     * against the conflict parameters of another partition.
+     */
+    @Test
+    public void partitionedTxConflictAcrossPartitions() throws Exception {
+        SequencerServer partitioned = partitionedServer();
+        UUID streamA = streamInPartition(0);
+        UUID streamB = streamInPartition(1);
+        final long key = 1L;
+        final Token snapshot = new Token(0L, Address.NON_ADDRESS);
+
+        // tx1 writes the key on both partitions' streams.
+        Map<UUID, long[]> writeSet = new HashMap<>();
+        writeSet.put(streamA, new long[]{key});
+        writeSet.put(streamB, new long[]{key});
+        sendPartitionedMessage(partitioned, txToken(streamA, Collections.emptyMap(), writeSet, snapshot));
+        assertThat(getLastPayloadMessageAs(TokenResponse.class).getRespType()).isEqualTo(TokenType.NORMAL);
+
+        // tx2 read the key of streamB before tx1 and writes streamA, which is in another partition.
+        sendPartitionedMessage(partitioned, txToken(streamA,
+                Collections.singletonMap(streamB, new long[]{key}),
+                Collections.singletonMap(streamA, new long[]{key}), snapshot));
+        TokenResponse tx2 = getLastPayloadMessageAs(TokenResponse.class);
+        assertThat(tx2.getRespType()).isEqualTo(TokenType.TX_ABORT_CONFLICT);
+        assertThat(tx2.getConflictStream()).isEqualTo(streamB);
+
+        // tx3 read the key of streamB after tx1 and commits.
+        sendPartitionedMessage(partitioned, txToken(streamA,
+                Collections.singletonMap(streamB, new long[]{key}),
+                Collections.singletonMap(streamA, new long[]{key}), new Token(0L, 0L)));
+        TokenResponse tx3 = getLastPayloadMessageAs(TokenResponse.class);
+        assertThat(tx3.getRespType()).isEqualTo(TokenType.NORMAL);
+        assertThat(tx3.getBackpointerMap()).containsEntry(streamA, 0L);
+        partitioned.shutdown();
+    }
+
+    /**
+     * Verifies that a reset waits for the requests already queued on a busy partition, and
+     * that the partitions serve the reset state once it completes.
+     */
+    @Test
+    public void partitionedResetWaitsForParkedPartitions() throws Exception {
+        SequencerServer partitioned = partitionedServer();
+        UUID streamA = streamInPartition(0);
+        UUID streamB = streamInPartition(1);
+        final long num = 3;
+        final long newTail = 100;
+
+        // Keep partition 0 busy while requests and the reset are queued.
+        CountDownLatch blocked = new CountDownLatch(1);
+        ExecutorService partition0 = partitioned.getExecutors().get(2);
+        partition0.execute(() -> Uninterruptibles.awaitUninterruptibly(blocked));
+
+        for (int i = 0; i < num; i++) {
+            sendMessage(CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamA))));
+        }
+        Map<UUID, StreamAddressSpace> tailMap = new HashMap<>();
+        tailMap.put(streamB, new StreamAddressSpace(Address.NON_ADDRESS,
+                Roaring64NavigableMap.bitmapOf(newTail - 1)));
+        sendMessage(CorfuMsgType.BOOTSTRAP_SEQUENCER.payloadMsg(
+                new SequencerRecoveryMsg(newTail, tailMap, 0L, false)));
+        assertThat(getResponseMessages()).isEmpty();
+
+        blocked.countDown();
+        for (ExecutorService executor : partitioned.getExecutors()) {
+            executor.submit(() -> { }).get();
+        }
+
+        // The queued requests were served before the reset.
+        assertThat(getResponseMessages()).hasSize((int) num + 1);
+        assertThat(getLastMessage().getMsgType()).isEqualTo(CorfuMsgType.ACK);
+        assertThat(partitioned.getGlobalLogTail()).isEqualTo(newTail);
+
+        sendPartitionedMessage(partitioned, CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(0L, Collections.singletonList(streamA))));
+        assertThat(getLastPayloadMessageAs(TokenResponse.class).getToken().getSequence())
+                .isEqualTo(Address.NON_EXIST);
+        sendPartitionedMessage(partitioned, CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(0L, Collections.singletonList(streamB))));
+        assertThat(getLastPayloadMessageAs(TokenResponse.class).getToken().getSequence())
+                .isEqualTo(newTail - 1);
+        partitioned.shutdown();
+    }
+
+    /**
+     * Verifies that a trim is applied to every partition, and that the global tail covers
+     * the tokens issued by all the partitions.
+     */
+    @Test
+    public void partitionedTrimAndGlobalTail() throws Exception {
+        SequencerServer partitioned = partitionedServer();
+        UUID streamA = streamInPartition(0);
+        UUID streamB = streamInPartition(1);
+        final long num = 4;
+        final long trimMark = num;
+
+        for (int i = 0; i < num; i++) {
+            sendPartitionedMessage(partitioned, CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamA))));
+            sendPartitionedMessage(partitioned, CorfuMsgType.TOKEN_REQ.payloadMsg(
+                    new TokenRequest(1L, Collections.singletonList(streamB))));
+        }
+
+        sendPartitionedMessage(partitioned, CorfuMsgType.TOKEN_REQ.payloadMsg(
+                new TokenRequest(0L, Collections.emptyList())));
+        assertThat(getLastPayloadMessageAs(TokenResponse.class).getToken().getSequence())
+                .isEqualTo(2 * num - 1);
+
+        sendPartitionedMessage(partitioned, CorfuMsgType.SEQUENCER_TRIM_REQ.payloadMsg(trimMark));
+        assertThat(getLastMessage().getMsgType()).isEqualTo(CorfuMsgType.ACK);
+
+        // Both partitions dropped the trimmed addresses.
+        List<StreamAddressRange> ranges = new ArrayList<>();
+        ranges.add(new StreamAddressRange(streamA, Address.MAX, Address.NON_ADDRESS));
+        ranges.add(new StreamAddressRange(streamB, Address.MAX, Address.NON_ADDRESS));
+        sendPartitionedMessage(partitioned, CorfuMsgType.STREAMS_ADDRESS_REQUEST.payloadMsg(
+                new StreamsAddressRequest(ranges)));
+        StreamsAddressResponse addresses = getLastPayloadMessageAs(StreamsAddressResponse.class);
+        assertThat(addresses.getLogTail()).isEqualTo(2 * num);
+        assertThat(addresses.getAddressMap().get(streamA).getAddressMap().rankLong(trimMark)).isZero();
+        assertThat(addresses.getAddressMap().get(streamB).getAddressMap().rankLong(trimMark)).isZero();
+
+        // Transactions whose snapshot is below the trim mark abort on either partition.
+        sendPartitionedMessage(partitioned, txToken(streamB, Collections.emptyMap(),
+                Collections.singletonMap(streamB, new long[]{1L}), new Token(0L, trimMark - 1)));
+        assertThat(getLastPayloadMessageAs(TokenResponse.class).getRespType())
+                .isEqualTo(TokenType.TX_ABORT_SEQ_TRIM);
+        partitioned.shutdown();
+    }
 }
@@ -45,6 +45,8 @@ public class ServerContextBuilder {
     String handshakeTimeout = "10";
     String prefix = "";
     String retention = "1000";
+    String sequencerGroupCommitWindow = null;
+    String sequencerPartitions = null;
 
     String clusterId = "auto";
     boolean isTest = true;
@@ -69,6 +71,12 @@ public class ServerContextBuilder {
         }
         if (managementBootstrapEndpoint != null) {
             builder.put("--management-server", managementBootstrapEndpoint);
+        }
+        if (sequencerGroupCommitWindow != null) {
+            builder.put("--sequencer-group-commit-window", sequencerGroupCommitWindow);
+        }
+        if (sequencerPartitions != null) {
+            builder.put("--sequencer-partitions", sequencerPartitions);
         }
          builder
                  .put("--no-verify", noVerify)
@@ -0,0 +1,151 @@
+package org.corfudb.infrastructure;
+
+import com.codahale.metrics.MetricRegistry;
+import org.corfudb.AbstractCorfuTest;
+import org.corfudb.runtime.view.Address;
+import org.corfudb.runtime.view.stream.StreamAddressSpace;
+import org.junit.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TieredStreamAddressMapTest extends AbstractCorfuTest {
+
+    private TieredStreamAddressMap createMap(long maxHotStreams) {
+        return new TieredStreamAddressMap(maxHotStreams, Paths.get(PARAMETERS.TEST_TEMP_DIR),
+                new MetricRegistry());
+    }
+
+    @Test
+    public void spilledStreamsArePagedIn() {
+        final long maxHotStreams = 2;
+        final long numAddresses = 100;
+        UUID[] streams = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+
+        try (TieredStreamAddressMap map = createMap(maxHotStreams)) {
+            for (int i = 0; i < streams.length; i++) {
+                StreamAddressSpace addressSpace = map.getOrCreate(streams[i]);
+                for (long address = 0; address < numAddresses; address++) {
+                    addressSpace.addAddress(address * streams.length + i);
+                }
+            }
+
+            // The first stream is the least recently used and has been spilled.
+            assertThat(map.size()).isEqualTo(streams.length);
+            assertThat(map.containsKey(streams[0])).isTrue();
+
+            StreamAddressSpace pagedIn = map.get(streams[0]);
+            assertThat(pagedIn.getAddressMap().getLongCardinality()).isEqualTo(numAddresses);
+            assertThat(pagedIn.getTail()).isEqualTo((numAddresses - 1) * streams.length);
+            assertThat(map.size()).isEqualTo(streams.length);
+        }
+    }
+
+    @Test
+    public void trimIsAppliedOnPageIn() {
+        final long trimMark = 10;
+        final long numAddresses = 20;
+        UUID spilled = UUID.randomUUID();
+
+        try (TieredStreamAddressMap map = createMap(1)) {
+            StreamAddressSpace addressSpace = map.getOrCreate(spilled);
+            for (long address = 0; address < numAddresses; address++) {
+                addressSpace.addAddress(address);
+            }
+            map.getOrCreate(UUID.randomUUID());
+            map.trim(trimMark);
+
+            // Snapshots read spilled streams without paging them in.
+            try (TieredStreamAddressMap.Snapshot snapshot = map.snapshot()) {
+                Map<UUID, StreamAddressSpace> copy = snapshot.resolve();
+                assertThat(copy.get(spilled).getTrimMark()).isEqualTo(trimMark);
+                assertThat(copy.get(spilled).getAddressMap().getLongCardinality())
+                        .isEqualTo(numAddresses - trimMark - 1);
+            }
+
+            assertThat(map.get(spilled).getTrimMark()).isEqualTo(trimMark);
+        }
+    }
+
+    @Test
+    public void snapshotsOnlyCopyModifiedStreams() {
+        UUID modified = UUID.randomUUID();
+        UUID unmodified = UUID.randomUUID();
+
+        try (TieredStreamAddressMap map = createMap(TieredStreamAddressMap.UNBOUNDED)) {
+            map.getOrCreate(modified).addAddress(0L);
+            map.getOrCreate(unmodified).addAddress(1L);
+            Map<UUID, StreamAddressSpace> first = resolve(map);
+
+            // Writes go to the map's own address spaces, not to the snapshot.
+            map.getOrCreate(modified).addAddress(2L);
+            assertThat(first.get(modified).getAddressMap().getLongCardinality()).isEqualTo(1L);
+
+            Map<UUID, StreamAddressSpace> second = resolve(map);
+            assertThat(second.get(unmodified)).isSameAs(first.get(unmodified));
+            assertThat(second.get(modified)).isNotSameAs(first.get(modified));
+            assertThat(second.get(modified).getTail()).isEqualTo(2L);
+            assertThat(second.get(modified)).isNotSameAs(map.get(modified));
+        }
+    }
+
+    @Test
+    public void snapshotsResolveToTheStateTheyWereTakenAt() {
+        final long trimMark = 1L;
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        try (TieredStreamAddressMap map = createMap(1)) {
+            map.getOrCreate(first).addAddress(0L);
+            TieredStreamAddressMap.Snapshot before = map.snapshot();
+
+            // Modify the first stream, then spill it
+            map.getOrCreate(first).addAddress(1L);
+            map.getOrCreate(second).addAddress(2L);
+            TieredStreamAddressMap.Snapshot spilled = map.snapshot();
+
+            map.trim(trimMark);
+            map.getOrCreate(first).addAddress(3L);
+            map.reset(Collections.emptyMap());
+
+            try {
+                Map<UUID, StreamAddressSpace> beforeCopy = before.resolve();
+                assertThat(beforeCopy).containsOnlyKeys(first);
+                assertThat(beforeCopy.get(first).getAddressMap().toArray()).containsExactly(0L);
+
+                Map<UUID, StreamAddressSpace> spilledCopy = spilled.resolve();
+                assertThat(spilledCopy).containsOnlyKeys(first, second);
+                assertThat(spilledCopy.get(first).getAddressMap().toArray()).containsExactly(0L, 1L);
+                assertThat(spilledCopy.get(second).getAddressMap().toArray()).containsExactly(2L);
+            } finally {
+                before.close();
+                spilled.close();
+            }
+
+            assertThat(resolve(map)).isEmpty();
+        }
+    }
+
+    private Map<UUID, StreamAddressSpace> resolve(TieredStreamAddressMap map) {
+        try (TieredStreamAddressMap.Snapshot snapshot = map.snapshot()) {
+            return snapshot.resolve();
+        }
+    }
+
+    @Test
+    public void unboundedMapNeverSpills() {
+        try (TieredStreamAddressMap map = new TieredStreamAddressMap(TieredStreamAddressMap.UNBOUNDED,
+                null, new MetricRegistry())) {
+            UUID stream = UUID.randomUUID();
+            map.reset(Collections.singletonMap(stream,
+                    new StreamAddressSpace(Address.NON_ADDRESS, new Roaring64NavigableMap())));
+            assertThat(map.get(stream)).isNotNull();
+            assertThat(map.size()).isEqualTo(1);
+        }
+    }
+}
@@ -15,7 +15,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
@@ -405,6 +407,138 @@ public class StreamLogFilesTest extends AbstractCorfuTest {
         log.append(address, new LogData(DataType.DATA, b));
     }
 
+    @Test
+    public void testRecordsRoundTrip() {
+        StreamLogFiles source = new StreamLogFiles(getContext(), false);
+        final long numEntries = 10;
+        final long hole = 5;
+        for (long x = 0; x < numEntries; x++) {
+            if (x == hole) {
+                source.append(x, LogData.getHole(x));
+            } else {
+                writeToLog(source, x);
+            }
+        }
+
+        Map<Long, byte[]> records = source.readRecords(0, numEntries);
+        assertThat(records).hasSize((int) numEntries);
+
+        List<byte[]> ordered = new ArrayList<>(new TreeMap<>(records).values());
+        StreamLog destination = new InMemoryStreamLog();
+        destination.appendRecords(ordered);
+        // Records already present are skipped
+        destination.appendRecords(ordered);
+
+        assertThat(destination.getLogTail()).isEqualTo(numEntries - 1);
+        assertThat(destination.read(hole).isHole()).isTrue();
+        for (long x = 0; x < numEntries; x++) {
+            if (x != hole) {
+                assertThat(destination.read(x).getPayload(null))
+                        .isEqualTo(source.read(x).getPayload(null));
+            }
+        }
+    }
+
+    @Test
+    public void testCorruptedRecordsAreRejected() {
+        StreamLog source = new InMemoryStreamLog();
+        final long numEntries = 3;
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(source, x);
+        }
+
+        List<byte[]> records = new ArrayList<>(new TreeMap<>(source.readRecords(0, numEntries - 1))
+                .values());
+        byte[] last = records.get(records.size() - 1);
+        last[last.length - 1] ^= 1;
+
+        StreamLogFiles destination = new StreamLogFiles(getContext(), false);
+        assertThatThrownBy(() -> destination.appendRecords(records))
+                .isInstanceOf(DataCorruptionException.class);
+        // No record is written when any of them is corrupted
+        assertThat(destination.getLogTail()).isEqualTo(Address.NON_ADDRESS);
+        assertThat(destination.read(0)).isNull();
+    }
+
+    @Test
+    public void testRecordsOverwriteIsRejected() {
+        StreamLog source = new InMemoryStreamLog();
+        final long numEntries = 3;
+        final long written = 1;
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(source, x);
+        }
+        List<byte[]> records = new ArrayList<>(new TreeMap<>(source.readRecords(0, numEntries - 1))
+                .values());
+
+        StreamLogFiles destination = new StreamLogFiles(getContext(), false);
+        destination.append(written, LogData.getHole(written));
+        assertThatThrownBy(() -> destination.appendRecords(records))
+                .isInstanceOf(OverwriteException.class);
+        assertThat(destination.read(written).isHole()).isTrue();
+        assertThat(destination.read(0)).isNull();
+    }
+
+    private StreamLogFiles getSegmentSource(long numEntries) {
+        ServerContext sc = new ServerContextBuilder()
+                .setLogPath(getDirPath() + File.separator + "source")
+                .setMemory(false)
+                .build();
+        StreamLogFiles source = new StreamLogFiles(sc, false);
+        for (long x = 0; x < numEntries; x++) {
+            writeToLog(source, x);
+        }
+        return source;
+    }
+
+    @Test
+    public void testIngestSegment() throws Exception {
+        final long numEntries = 10;
+        StreamLogFiles source = getSegmentSource(numEntries);
+        source.sync(true);
+        File segmentFile = new File(getDirPath() + File.separator + "source"
+                + File.separator + "log" + File.separator + "0.log");
+
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        assertThat(log.ingestSegment(segmentFile.toPath())).isEqualTo((int) numEntries);
+        assertThat(log.getLogTail()).isEqualTo(numEntries - 1);
+        for (long x = 0; x < numEntries; x++) {
+            assertThat(log.read(x).getPayload(null)).isEqualTo(source.read(x).getPayload(null));
+        }
+
+        // The ingested segment accepts new writes, but can't be ingested again
+        writeToLog(log, numEntries);
+        assertThatThrownBy(() -> log.ingestSegment(segmentFile.toPath()))
+                .isInstanceOf(IllegalStateException.class);
+
+        // The ingested segment survives a restart
+        StreamLogFiles restarted = new StreamLogFiles(getContext(), false);
+        assertThat(restarted.getLogTail()).isEqualTo(numEntries);
+        assertThat(restarted.read(0).getPayload(null)).isEqualTo(source.read(0).getPayload(null));
+    }
+
+    @Test
+    public void testIngestCorruptedSegment() throws Exception {
+        StreamLogFiles source = getSegmentSource(2);
+        source.sync(true);
+        File segmentFile = new File(getDirPath() + File.separator + "source"
+                + File.separator + "log" + File.separator + "0.log");
+
+        // Corrupt the payload of the last record
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "rw")) {
+            file.seek(file.length() - 1);
+            int lastByte = file.read();
+            file.seek(file.length() - 1);
+            file.write(lastByte ^ 1);
+        }
+
+        StreamLogFiles log = new StreamLogFiles(getContext(), false);
+        assertThatThrownBy(() -> log.ingestSegment(segmentFile.toPath()))
+                .isInstanceOf(DataCorruptionException.class);
+        assertThat(log.getLogTail()).isEqualTo(Address.NON_ADDRESS);
+        assertThat(log.read(0)).isNull();
+    }
+
     @Test
     public void testWritingFileHeader() throws Exception {
         StreamLogFiles log = new StreamLogFiles(getContext(), false);
@@ -0,0 +1,55 @@
+package org.corfudb.protocols.logprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.corfudb.util.serializer.Serializers;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SMREntryTest {
+
+    private static final String METHOD = "smrEntryTestPut";
+
+    private SMREntry roundTrip(SMREntry entry, ByteBuf serialized) {
+        entry.serialize(serialized);
+        return (SMREntry) LogEntry.deserialize(serialized, null);
+    }
+
+    /** Checks that the arguments of a deserialized entry are deserialized on first
+     * access, and that registered method names are shared.
+     */
+    @Test
+    public void argumentsAreDeserializedOnAccess() {
+        SMREntry.registerMethodNames(Collections.singleton(METHOD));
+        SMREntry entry = new SMREntry(new String(METHOD), new Object[]{"k", "v"},
+                Serializers.PRIMITIVE);
+
+        SMREntry deserialized = roundTrip(entry, Unpooled.buffer());
+
+        assertThat(deserialized.getSMRMethod()).isSameAs(METHOD);
+        assertThat(deserialized.getSMRArguments()).containsExactly("k", "v");
+        assertThat(deserialized.getSMRArguments()).isSameAs(deserialized.getSMRArguments());
+    }
+
+    /** Checks that an entry whose arguments were never deserialized is serialized
+     * back into the same bytes.
+     */
+    @Test
+    public void serializedArgumentsAreWrittenBack() {
+        SMREntry entry = new SMREntry("unregistered", new Object[]{1L, "v"},
+                Serializers.PRIMITIVE);
+        ByteBuf serialized = Unpooled.buffer();
+        SMREntry deserialized = roundTrip(entry, serialized);
+
+        ByteBuf reserialized = Unpooled.buffer();
+        deserialized.serialize(reserialized);
+
+        assertThat(ByteBufUtil.getBytes(reserialized, 0, reserialized.writerIndex()))
+                .isEqualTo(ByteBufUtil.getBytes(serialized, 0, serialized.writerIndex()));
+        assertThat(deserialized.getSMRArguments()).containsExactly(1L, "v");
+    }
+}
@@ -0,0 +1,83 @@
+package org.corfudb.protocols.wireprotocol;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.corfudb.comm.CorfuByteBufAllocator;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.util.CorfuComponent;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogDataTest {
+
+    @After
+    public void resetAllocator() {
+        CorfuByteBufAllocator.setPooled(false);
+    }
+
+    private ByteBuf serialize(LogData ld, ByteBuf buf) {
+        ld.doSerialize(buf);
+        return buf;
+    }
+
+    @Test
+    public void pooledDecodeCopies() {
+        final byte[] payload = "pooled payload".getBytes();
+        ByteBuf in = serialize(new LogData(DataType.DATA, Unpooled.wrappedBuffer(payload)),
+                PooledByteBufAllocator.DEFAULT.directBuffer());
+
+        CorfuByteBufAllocator.setPooled(true);
+        LogData decoded = new LogData(in);
+
+        // The decoded entry holds no reference to the pooled inbound buffer.
+        assertThat(in.refCnt()).isEqualTo(1);
+        in.release();
+
+        assertThat(decoded.getData()).isEqualTo(payload);
+        assertThat(decoded.getSizeEstimate()).isEqualTo(payload.length);
+    }
+
+    @Test
+    public void unpooledDecodeCopies() {
+        final byte[] payload = "heap payload".getBytes();
+        ByteBuf in = serialize(new LogData(DataType.DATA, Unpooled.wrappedBuffer(payload)),
+                Unpooled.buffer());
+
+        LogData decoded = new LogData(in);
+        assertThat(in.refCnt()).isEqualTo(1);
+        assertThat(decoded.getData()).isEqualTo(payload);
+        in.release();
+    }
+
+    @Test
+    public void serializedCacheIsSized() {
+        // An entry built from an object has no serialized bytes until its cache is built.
+        final byte[] payload = "serialized payload".getBytes();
+        LogData ld = new LogData(DataType.DATA, payload);
+        ByteBuf expected = serialize(new LogData(DataType.DATA, payload), Unpooled.buffer());
+
+        CorfuByteBufAllocator.setPooled(true);
+        try (ILogData.SerializationHandle sh = ld.getSerializedForm()) {
+            // The cache is a pooled direct buffer, sized by its contents, not its capacity.
+            assertThat(ld.getSizeEstimate()).isEqualTo(expected.readableBytes());
+        }
+        assertThat(ld.getSizeEstimate()).isEqualTo(expected.readableBytes());
+        expected.release();
+    }
+
+    @Test
+    public void allocationRatesAreExported() {
+        CorfuByteBufAllocator.setPooled(true);
+        final String prefix = CorfuComponent.NETTY_BUFFERS.toString();
+        assertThat(CorfuRuntime.getDefaultMetrics().getMeters())
+                .containsKeys(prefix + "allocated", prefix + "copied-bytes");
+        assertThat(CorfuRuntime.getDefaultMetrics().getGauges())
+                .containsKeys(prefix + "jvm-allocated-bytes", prefix + "gc-count",
+                        prefix + "gc-time", prefix + "pooled-direct-bytes");
+        assertThat((Long) CorfuRuntime.getDefaultMetrics().getGauges()
+                .get(prefix + "gc-count").getValue()).isGreaterThanOrEqualTo(0L);
+    }
+}
@@ -0,0 +1,40 @@
+package org.corfudb.protocols.wireprotocol;
+
+import com.google.common.collect.ImmutableMap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TxResolutionInfoTest {
+
+    @Test
+    public void fingerprintsRoundTrip() {
+        final UUID stream1 = UUID.randomUUID();
+        final UUID stream2 = UUID.randomUUID();
+        final long[] fingerprints = {Long.MIN_VALUE, -1L, 0L, Long.MAX_VALUE};
+        final Token snapshot = new Token(1L, 2L);
+
+        TxResolutionInfo txInfo = new TxResolutionInfo(UUID.randomUUID(), snapshot,
+                ImmutableMap.of(stream1, fingerprints, stream2, new long[0]),
+                Collections.singletonMap(stream1, new long[]{fingerprints[1]}));
+
+        ByteBuf buf = Unpooled.buffer();
+        txInfo.doSerialize(buf);
+        TxResolutionInfo deserialized = new TxResolutionInfo(buf);
+
+        assertThat(buf.isReadable()).isFalse();
+        assertThat(deserialized.getTXid()).isEqualTo(txInfo.getTXid());
+        assertThat(deserialized.getSnapshotTimestamp()).isEqualTo(snapshot);
+        assertThat(deserialized.getConflictSet()).containsOnlyKeys(stream1, stream2);
+        assertThat(deserialized.getConflictSet().get(stream1)).containsExactly(fingerprints);
+        assertThat(deserialized.getConflictSet().get(stream2)).isEmpty();
+        assertThat(deserialized.getWriteConflictParams()).containsOnlyKeys(stream1);
+        assertThat(deserialized.getWriteConflictParams().get(stream1))
+                .containsExactly(fingerprints[1]);
+    }
+}
@@ -568,4 +568,27 @@ public class LogUnitHandlerTest extends AbstractClientTest {
         assertThat(addressSpace.getAddressMap().contains(addressOne));
         assertThat(response.getLogTail()).isEqualTo(addressTwo);
     }
+
+    @Test
+    public void canQueryLogAddressSpaceDelta() throws Exception {
+        final UUID streamA = UUID.randomUUID();
+        final UUID streamB = UUID.randomUUID();
+        final long addressOne = 0L;
+        final long addressTwo = 1L;
+
+        // Stream A is written at address 0, stream B at address 1
+        LogData ldOne = getLogDataWithoutId(addressOne);
+        ldOne.setBackpointerMap(Collections.singletonMap(streamA, Address.NON_ADDRESS));
+        client.write(ldOne).get();
+
+        LogData ldTwo = getLogDataWithoutId(addressTwo);
+        ldTwo.setBackpointerMap(Collections.singletonMap(streamB, Address.NON_ADDRESS));
+        client.write(ldTwo).get();
+
+        // Only the stream written at or after address 1 is returned
+        StreamsAddressResponse response = client.getLogAddressSpace(addressTwo).get();
+        assertThat(response.getLogTail()).isEqualTo(addressTwo);
+        assertThat(response.getAddressMap()).containsOnlyKeys(streamB);
+        assertThat(response.getAddressMap().get(streamB).getAddressMap().contains(addressTwo)).isTrue();
+    }
 }
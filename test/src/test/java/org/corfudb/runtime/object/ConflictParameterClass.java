@@ -6,12 +6,17 @@ import org.corfudb.annotations.CorfuObject;
 import org.corfudb.annotations.Mutator;
 import org.corfudb.annotations.MutatorAccessor;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Created by mwei on 12/15/16.
  */
 @CorfuObject
 public class ConflictParameterClass {
 
+    private final Map<String, Integer> counters = new HashMap<>();
+
     @Mutator(name = "mutatorTest")
     public void mutatorTest(int test1, @ConflictParameter int test2) {
 
@@ -26,4 +31,14 @@ public class ConflictParameterClass {
     public Object mutatorAccessorTest(@ConflictParameter String test1, String test2) {
         return 0;
     }
+
+    @Mutator(name = "commutativeMutatorTest", commutative = true)
+    public void commutativeMutatorTest(@ConflictParameter String test1, int test2) {
+        counters.merge(test1, test2, Integer::sum);
+    }
+
+    @Accessor
+    public int counterTest(@ConflictParameter String test1) {
+        return counters.getOrDefault(test1, 0);
+    }
 }
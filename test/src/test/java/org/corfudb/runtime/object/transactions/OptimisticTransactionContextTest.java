@@ -7,12 +7,16 @@ import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
+import org.corfudb.protocols.logprotocol.ISMRConsumable;
+import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
@@ -82,6 +86,70 @@ public class OptimisticTransactionContextTest extends AbstractTransactionContext
     }
 
 
+    /** Checks that concurrent transactions applying commutative mutations to
+     * the same key both commit, while a concurrent transaction which read the
+     * key aborts.
+     */
+    @Test
+    public void commutativeMutatorsAbortReaders() {
+        ConflictParameterClass testObject = getDefaultRuntime()
+                .getObjectsView().build()
+                .setStreamName("my stream")
+                .setType(ConflictParameterClass.class)
+                .open();
+
+        final String KEY = "key";
+        final int VALUE = 1;
+
+        t(1, this::OptimisticTXBegin);
+        t(1, () -> testObject.accessorTest(KEY, KEY));
+        t(2, this::OptimisticTXBegin);
+        t(3, this::OptimisticTXBegin);
+        t(2, () -> testObject.commutativeMutatorTest(KEY, VALUE));
+        t(3, () -> testObject.commutativeMutatorTest(KEY, VALUE));
+        t(2, () -> assertThat(TransactionalContext.getCurrentContext()
+                .getWriteSetInfo().getConflicts().values().stream()
+                .flatMap(x -> x.stream())
+                .collect(Collectors.toList()))
+                .contains(KEY));
+        t(2, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        t(3, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        t(1, () -> testObject.mutatorTest(VALUE, VALUE));
+        t(1, this::TXEnd)
+                .assertThrows()
+                .isInstanceOf(TransactionAbortedException.class);
+    }
+
+    /** Checks that the conflict parameters are hashed into sorted fingerprints,
+     * without duplicates, arranged by stream.
+     */
+    @Test
+    public void conflictFingerprintsAreDeduplicated() {
+        UUID streamID = UUID.randomUUID();
+        Map<String, String> map = getDefaultRuntime()
+                .getObjectsView().build()
+                .setStreamID(streamID)
+                .setType(SMRMap.class)
+                .open();
+
+        OptimisticTXBegin();
+        map.get("k1");
+        map.get("k2");
+        map.get("k1");
+        map.containsKey("k2");
+
+        Map<UUID, long[]> hashedConflictSet = TransactionalContext.getCurrentContext()
+                .getReadSetInfo().getHashedConflictSet();
+        assertThat(hashedConflictSet).containsOnlyKeys(streamID);
+        assertThat(hashedConflictSet.get(streamID))
+                .hasSize(2)
+                .isSorted();
+
+        getRuntime().getObjectsView().TXAbort();
+    }
+
     @Data
     @AllArgsConstructor
     static class CustomConflictObject {
@@ -274,6 +342,41 @@ public class OptimisticTransactionContextTest extends AbstractTransactionContext
                 .assertDoesNotThrow(TransactionAbortedException.class);
     }
 
+    /** Checks that a commit doesn't read the committed entry back from the log,
+     * and that the cached entry at the commit address holds the undo records.
+     */
+    @Test
+    public void commitDoesNotReadBackCommittedEntry() {
+        UUID streamID = UUID.randomUUID();
+        CorfuRuntime rt = getDefaultRuntime();
+        Map<String, String> map = rt.getObjectsView().build()
+                .setStreamID(streamID)
+                .setType(SMRMap.class)
+                .open();
+        map.put("k1", "v0");
+
+        OptimisticTXBegin();
+        map.put("k1", "v1");
+
+        AtomicInteger reads = new AtomicInteger();
+        addClientRule(rt, new TestRule()
+                .matches(m -> {
+                    if (m.getMsgType().equals(CorfuMsgType.READ_REQUEST)) {
+                        reads.incrementAndGet();
+                    }
+                    return false;
+                }));
+        long commitAddress = rt.getObjectsView().TXEnd();
+
+        assertThat(reads.get()).isZero();
+        ILogData committedEntry = rt.getAddressSpaceView().getCachedEntry(commitAddress);
+        assertThat(committedEntry).isNotNull();
+        assertThat(((ISMRConsumable) committedEntry.getPayload(rt)).getSMRUpdates(streamID))
+                .isNotEmpty()
+                .allMatch(SMREntry::isUndoable);
+        assertThat(map.get("k1")).isEqualTo("v1");
+    }
+
   
     @Data
     @AllArgsConstructor
@@ -75,8 +75,8 @@ public class SequencerServerCacheTest extends AbstractObjectTest {
             }
         });
 
-        final ConflictTxStream firstKey = new ConflictTxStream(UUID.randomUUID(), new byte[]{});
-        final ConflictTxStream secondKey = new ConflictTxStream(UUID.randomUUID(), new byte[]{});
+        final ConflictTxStream firstKey = new ConflictTxStream(UUID.randomUUID(), 0L);
+        final ConflictTxStream secondKey = new ConflictTxStream(UUID.randomUUID(), 0L);
         final long firstValue = 1L;
         final long secondValue = 2L;
         final int iterations = 10;
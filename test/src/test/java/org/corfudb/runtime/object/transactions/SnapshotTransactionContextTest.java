@@ -1,7 +1,13 @@
 package org.corfudb.runtime.object.transactions;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import com.google.common.reflect.TypeToken;
+import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.collections.SMRMap;
+import org.corfudb.runtime.object.ICorfuSMR;
+import org.corfudb.runtime.object.ICorfuSMRProxyInternal;
+import org.corfudb.runtime.object.VersionLockedObject;
 import org.junit.Test;
 
 /**
@@ -65,6 +71,40 @@ public class SnapshotTransactionContextTest extends AbstractTransactionContextTe
         t2(this::TXEnd);
     }
 
+    /** Check that snapshot transactions at a pinned snapshot read a copy of
+     * the object at the snapshot, without rolling back the object.
+     */
+    @Test
+    public void pinnedSnapshotDoesNotRollBackObject() {
+        final Token snapshot = new Token(0L, 2L);
+
+        t(1, () -> put("k" , "v1"));    // TS = 0
+        t(1, () -> put("k" , "v2"));    // TS = 1
+        t(1, () -> put("k" , "v3"));    // TS = 2
+        t(1, () -> put("k" , "v4"));    // TS = 3
+
+        ICorfuSMRProxyInternal<?> proxy = (ICorfuSMRProxyInternal<?>)
+                ((ICorfuSMR<?>) getMap()).getCorfuSMRProxy();
+        VersionLockedObject<?> object = proxy.getUnderlyingObject();
+        final long version = object.getVersionUnsafe();
+
+        getRuntime().getObjectsView().pinSnapshot(snapshot);
+        t(1, this::SnapshotTXBegin);
+        t(1, () -> get("k"))
+                .assertResult().isEqualTo("v3");
+        t(1, this::TXEnd);
+        t(2, this::SnapshotTXBegin);
+        t(2, () -> get("k"))
+                .assertResult().isEqualTo("v3");
+        t(2, this::TXEnd);
+
+        assertThat(object.getVersionUnsafe()).isEqualTo(version);
+        assertThat(proxy.getSnapshotObject(snapshot.getSequence())).isNotSameAs(object);
+
+        getRuntime().getObjectsView().unpinSnapshot(snapshot);
+        assertThat(proxy.getSnapshotObject(snapshot.getSequence())).isSameAs(object);
+    }
+
     /* Test if we can have implicit nested transaction for SnapshotTransactions. */
     @Test
     public void testSnapshotTxNestedImplicitTx() {
@@ -6,6 +6,9 @@ import com.google.common.reflect.TypeToken;
 import java.util.ArrayList;
 import java.util.Map;
 
+import org.corfudb.protocols.wireprotocol.Token;
+import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
 import org.corfudb.runtime.collections.SMRMap;
 import org.corfudb.runtime.exceptions.AbortCause;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
@@ -440,4 +443,80 @@ public class UndoTest extends AbstractTransactionsTest {
             m.put(specialKey + 1, value);
     }
 
+    /**
+     * Checks that an object which keeps a bounded number of undo records still
+     * reads the versions older than them, by rebuilding them from the log.
+     */
+    @Test
+    public void rollbackBeyondUndoLogRebuildsObject() {
+        CorfuRuntime rt = getNewRuntime(CorfuRuntimeParameters.builder()
+                .undoLogMaxEntries(2)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+        Map<String, String> testMap = rt.getObjectsView()
+                .build()
+                .setStreamName("test")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {
+                })
+                .open();
+
+        final int numPuts = 5;
+        for (int i = 0; i < numPuts; i++) {
+            testMap.put(String.valueOf(i), String.valueOf(i));
+        }
+        assertThat(testMap).hasSize(numPuts);
+
+        // Only the undo records of the last two puts are kept
+        rt.getObjectsView().TXBuild()
+                .type(TransactionType.SNAPSHOT)
+                .snapshot(new Token(0L, 1L))
+                .build()
+                .begin();
+        assertThat(testMap).containsOnlyKeys("0", "1");
+        rt.getObjectsView().TXEnd();
+
+        assertThat(testMap).hasSize(numPuts);
+    }
+
+    /**
+     * Checks that an object which keeps a bounded number of undo records rolls
+     * back to the versions they cover, including over a clear.
+     */
+    @Test
+    public void rollbackWithinUndoLogRestoresObject() {
+        CorfuRuntime rt = getNewRuntime(CorfuRuntimeParameters.builder()
+                .undoLogMaxEntries(2)
+                .build())
+                .parseConfigurationString(getDefaultConfigurationString())
+                .connect();
+        Map<String, String> testMap = rt.getObjectsView()
+                .build()
+                .setStreamName("test")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {
+                })
+                .open();
+
+        final int numPuts = 3;
+        for (int i = 0; i < numPuts; i++) {
+            testMap.put(String.valueOf(i), String.valueOf(i));
+        }
+        testMap.put("0", "overwritten");
+        testMap.clear();
+        assertThat(testMap).isEmpty();
+
+        // Undoing the clear and the overwrite uses the two undo records kept
+        final long beforeOverwrite = numPuts - 1;
+        rt.getObjectsView().TXBuild()
+                .type(TransactionType.SNAPSHOT)
+                .snapshot(new Token(0L, beforeOverwrite))
+                .build()
+                .begin();
+        assertThat(testMap)
+                .containsOnlyKeys("0", "1", "2")
+                .containsEntry("0", "0");
+        rt.getObjectsView().TXEnd();
+
+        assertThat(testMap).isEmpty();
+    }
 }
@@ -6,6 +6,7 @@ import org.corfudb.protocols.logprotocol.MultiSMREntry;
 import org.corfudb.protocols.logprotocol.SMREntry;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.runtime.exceptions.TransactionAbortedException;
+import org.corfudb.runtime.object.ConflictParameterClass;
 import org.corfudb.runtime.view.ObjectsView;
 import org.corfudb.runtime.view.stream.IStreamView;
 import org.junit.Test;
@@ -70,4 +71,42 @@ public class WriteAfterWriteTransactionContextTest extends AbstractTransactionCo
         assertThat((String) args[0]).isEqualTo("k");
         assertThat((String) args[1]).isEqualTo("v2");
     }
+
+    /** Checks that concurrent write-after-write transactions applying
+     * commutative mutations to the same key both commit, and that both
+     * mutations are applied, while non commutative mutations abort.
+     */
+    @Test
+    public void concurrentCommutativeModificationsCommit() {
+        ConflictParameterClass testObject = getDefaultRuntime()
+                .getObjectsView().build()
+                .setStreamName("counters")
+                .setType(ConflictParameterClass.class)
+                .open();
+
+        final String KEY = "key";
+        final int DELTA = 1;
+        final int VALUE = 2;
+
+        t(1, this::WWTXBegin);
+        t(2, this::WWTXBegin);
+        t(1, () -> testObject.commutativeMutatorTest(KEY, DELTA));
+        t(2, () -> testObject.commutativeMutatorTest(KEY, DELTA));
+        t(1, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        t(2, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+
+        assertThat(testObject.counterTest(KEY)).isEqualTo(DELTA + DELTA);
+
+        t(1, this::WWTXBegin);
+        t(2, this::WWTXBegin);
+        t(1, () -> testObject.mutatorTest(VALUE, VALUE));
+        t(2, () -> testObject.mutatorTest(VALUE, VALUE));
+        t(1, this::TXEnd)
+                .assertDoesNotThrow(TransactionAbortedException.class);
+        t(2, this::TXEnd)
+                .assertThrows()
+                .isInstanceOf(TransactionAbortedException.class);
+    }
 }
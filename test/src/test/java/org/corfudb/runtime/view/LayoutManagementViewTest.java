@@ -1,13 +1,19 @@
 package org.corfudb.runtime.view;
 
+import com.codahale.metrics.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.corfudb.infrastructure.TestLayoutBuilder;
 import org.corfudb.runtime.CorfuRuntime;
 import org.corfudb.runtime.exceptions.LayoutModificationException;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.view.Layout.ReplicationMode;
+import org.corfudb.runtime.view.stream.IStreamView;
+import org.corfudb.util.CorfuComponent;
 import org.junit.Test;
 
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
@@ -89,4 +95,64 @@ public class LayoutManagementViewTest extends AbstractViewTest{
         // Verify that the epoch hasn't changed
         assertThat(r.getLayoutView().getLayout().getEpoch()).isEqualTo(epoch);
     }
-}
\ No newline at end of file
+
+    /**
+     * Removes the primary sequencer from a chain replicated cluster. The new primary sequencer
+     * is bootstrapped with the address space fetched while the layout is committed, and the
+     * duration of the unavailability is recorded.
+     */
+    @Test
+    public void removePrimarySequencerTest() throws Exception {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+        addServer(SERVERS.PORT_2);
+
+        Layout l = new TestLayoutBuilder()
+                .setEpoch(1L)
+                .addLayoutServer(SERVERS.PORT_0)
+                .addLayoutServer(SERVERS.PORT_1)
+                .addLayoutServer(SERVERS.PORT_2)
+                .addSequencer(SERVERS.PORT_0)
+                .addSequencer(SERVERS.PORT_1)
+                .addSequencer(SERVERS.PORT_2)
+                .buildSegment()
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addLogUnit(SERVERS.PORT_2)
+                .addToSegment()
+                .addToLayout()
+                .build();
+        bootstrapAllServers(l);
+
+        CorfuRuntime r = getRuntime().connect();
+
+        final int numEntries = 5;
+        final UUID streamId = CorfuRuntime.getStreamID("streamA");
+        IStreamView sv = r.getStreamsView().get(streamId);
+        for (int i = 0; i < numEntries; i++) {
+            sv.append("payload".getBytes());
+        }
+        final long streamTail = r.getSequencerView().query(streamId).getSequence();
+
+        Timer unavailable = CorfuRuntime.getDefaultMetrics()
+                .timer(CorfuComponent.LAYOUT_MANAGEMENT_VIEW + "unavailable");
+        final long reconfigurations = unavailable.getCount();
+
+        r.invalidateLayout();
+        Layout layout = new Layout(r.getLayoutView().getLayout());
+        r.getLayoutManagementView().removeNode(layout, getEndpoint(SERVERS.PORT_0));
+
+        r.invalidateLayout();
+        Layout newLayout = r.getLayoutView().getLayout();
+        assertThat(newLayout.getEpoch()).isEqualTo(l.getEpoch() + 1);
+        assertThat(newLayout.getPrimarySequencer()).isEqualTo(getEndpoint(SERVERS.PORT_1));
+
+        // The new primary sequencer resumes from the tails written before the removal.
+        assertThat(r.getSequencerView().query(streamId).getSequence()).isEqualTo(streamTail);
+        assertThat(r.getSequencerView().query().getSequence()).isEqualTo(numEntries - 1);
+        assertThat(unavailable.getCount()).isEqualTo(reconfigurations + 1);
+        log.info("removePrimarySequencerTest: unavailable for {}ms",
+                TimeUnit.NANOSECONDS.toMillis(unavailable.getSnapshot().getMax()));
+    }
+}
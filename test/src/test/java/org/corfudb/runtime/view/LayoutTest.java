@@ -1,6 +1,8 @@
 package org.corfudb.runtime.view;
 
 import groovy.util.logging.Slf4j;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -83,4 +85,77 @@ public class LayoutTest {
         Layout shouldYieldException = Layout.fromJSONString(JSONEmptySequencerListLayout);
     }
 
+    @Test
+    public void binaryEncodingRoundTrip() throws IOException {
+        Layout layout = Layout.fromJSONString(getResourceJSONFileAsString("DefaultLayout.json"));
+        layout.unresponsiveServers.add("localhost:9001");
+
+        ByteBuf buf = Unpooled.buffer();
+        layout.serialize(buf);
+        Layout deserialized = Layout.deserialize(buf);
+
+        assertThat(deserialized).isEqualTo(layout);
+        assertThat(deserialized.getFingerprint()).isEqualTo(layout.getFingerprint());
+        assertThat(buf.readableBytes()).isZero();
+        buf.release();
+    }
+
+    @Test
+    public void copyIsIndependent() throws IOException {
+        Layout layout = Layout.fromJSONString(getResourceJSONFileAsString("DefaultLayout.json"));
+        Layout copy = new Layout(layout);
+        assertThat(copy).isEqualTo(layout);
+
+        copy.getSegments().get(0).getStripes().get(0).getLogServers().add("localhost:9003");
+        copy.getLayoutServers().add("localhost:9003");
+        assertThat(layout.getSegments().get(0).getStripes().get(0).getLogServers())
+                .doesNotContain("localhost:9003");
+        assertThat(layout.getLayoutServers()).doesNotContain("localhost:9003");
+    }
+
+    /**
+     * The cached encoding is not reused once the layout is modified in place.
+     */
+    @Test
+    public void fingerprintFollowsModifications() throws IOException {
+        Layout layout = Layout.fromJSONString(getResourceJSONFileAsString("DefaultLayout.json"));
+        final long fingerprint = layout.getFingerprint();
+        assertThat(new Layout(layout).getFingerprint()).isEqualTo(fingerprint);
+
+        layout.nextEpoch();
+        final long nextEpochFingerprint = layout.getFingerprint();
+        assertThat(nextEpochFingerprint).isNotEqualTo(fingerprint);
+
+        layout.getSegments().get(0).getStripes().get(0).getLogServers().remove(0);
+        assertThat(layout.getFingerprint()).isNotEqualTo(nextEpochFingerprint);
+
+        ByteBuf buf = Unpooled.buffer();
+        layout.serialize(buf);
+        assertThat(Layout.deserialize(buf)).isEqualTo(layout);
+        buf.release();
+    }
+
+    /**
+     * Equality and hash codes follow modifications of the segments, including segments added
+     * to the layout and segments of a layout parsed from JSON.
+     */
+    @Test
+    public void hashCodeFollowsModifications() throws IOException {
+        Layout layout = Layout.fromJSONString(getResourceJSONFileAsString("DefaultLayout.json"));
+        Layout copy = new Layout(layout);
+        assertThat(copy.hashCode()).isEqualTo(layout.hashCode());
+        assertThat(copy.getFingerprint()).isEqualTo(layout.getFingerprint());
+
+        final long end = 100L;
+        copy.getSegments().get(0).setEnd(end);
+        assertThat(copy).isNotEqualTo(layout);
+        assertThat(copy.hashCode()).isNotEqualTo(layout.hashCode());
+        assertThat(copy.getFingerprint()).isNotEqualTo(layout.getFingerprint());
+
+        Layout.LayoutSegment segment = new Layout.LayoutSegment(copy.getLatestSegment());
+        copy.getSegments().add(segment);
+        final long fingerprint = copy.getFingerprint();
+        segment.getStripes().get(0).getLogServers().add("localhost:9003");
+        assertThat(copy.getFingerprint()).isNotEqualTo(fingerprint);
+    }
 }
@@ -13,6 +13,7 @@ import org.corfudb.runtime.view.stream.IStreamView;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -660,4 +661,37 @@ public class LayoutViewTest extends AbstractViewTest {
         assertThat(alreadyProposedLayout3).isEqualTo(l2);
 
     }
+
+    /**
+     * Verifies that the runtime layout routes addresses to the same log unit clients as the
+     * layout's segments and stripes, including at segment boundaries.
+     */
+    @Test
+    public void runtimeLayoutRoutesAddressesToStripes() {
+        final long segmentEnd = 10L;
+        final long numAddresses = 20L;
+        Layout.LayoutSegment closedSegment = new Layout.LayoutSegment(Layout.ReplicationMode.CHAIN_REPLICATION,
+                0L, segmentEnd, Collections.singletonList(new Layout.LayoutStripe(
+                        Collections.singletonList(getEndpoint(SERVERS.PORT_0)))));
+        Layout.LayoutSegment openSegment = new Layout.LayoutSegment(Layout.ReplicationMode.CHAIN_REPLICATION,
+                segmentEnd, -1L, Arrays.asList(
+                        new Layout.LayoutStripe(Arrays.asList(getEndpoint(SERVERS.PORT_0), getEndpoint(SERVERS.PORT_1))),
+                        new Layout.LayoutStripe(Collections.singletonList(getEndpoint(SERVERS.PORT_2)))));
+        Layout l = new Layout(Collections.singletonList(getEndpoint(SERVERS.PORT_0)),
+                Collections.singletonList(getEndpoint(SERVERS.PORT_0)),
+                Arrays.asList(closedSegment, openSegment), 1L, UUID.randomUUID());
+
+        RuntimeLayout runtimeLayout = getDefaultRuntime().getLayoutView().getRuntimeLayout(l);
+        for (long address = 0; address < numAddresses; address++) {
+            List<String> logServers = l.getStripe(address).getLogServers();
+            assertThat(runtimeLayout.getSegmentLength(address)).isEqualTo(l.getSegmentLength(address));
+            for (int i = 0; i < logServers.size(); i++) {
+                assertThat(runtimeLayout.getLogUnitClient(address, i))
+                        .isSameAs(runtimeLayout.getLogUnitClient(logServers.get(i)));
+            }
+        }
+
+        assertThatThrownBy(() -> runtimeLayout.getLogUnitClient(-1L, 0))
+                .isInstanceOf(RuntimeException.class);
+    }
 }
@@ -7,6 +7,7 @@ import com.google.common.collect.Range;
 import com.google.common.reflect.TypeToken;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.corfudb.infrastructure.DataStore;
 import org.corfudb.infrastructure.SequencerServer;
 import org.corfudb.infrastructure.ServerContext;
 import org.corfudb.infrastructure.ServerContextBuilder;
@@ -14,6 +15,9 @@ import org.corfudb.infrastructure.TestLayoutBuilder;
 import org.corfudb.infrastructure.TestServerRouter;
 import org.corfudb.infrastructure.management.FailureDetector;
 import org.corfudb.infrastructure.management.NetworkStretcher;
+import org.corfudb.infrastructure.orchestrator.actions.RestoreRedundancyMergeSegments;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransfer;
+import org.corfudb.infrastructure.orchestrator.actions.StateTransferCheckpoints;
 import org.corfudb.protocols.wireprotocol.ClusterState;
 import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.CorfuPayloadMsg;
@@ -1286,6 +1290,77 @@ public class ManagementViewTest extends AbstractViewTest {
         }
     }
 
+    /**
+     * Transfers the first segment of the following layout to Node 1:
+     * Segment 1: 0 -> 3 (exclusive) Node 0
+     * Segment 2: 3 -> infinity (exclusive) Node 0, Node 1
+     * A checkpoint for addresses Node 1 does not hold is discarded, and a second transfer
+     * resumes from the checkpoint left by the first one instead of writing the segment again.
+     * Merging the segments removes the checkpoint.
+     */
+    @Test
+    public void stateTransferResumesFromCheckpoint() throws Exception {
+        addServer(SERVERS.PORT_0);
+        addServer(SERVERS.PORT_1);
+
+        final long segmentEnd = 3L;
+        final long numEntries = 6L;
+        Layout l1 = new TestLayoutBuilder()
+                .setEpoch(1L)
+                .addLayoutServer(SERVERS.PORT_0)
+                .addLayoutServer(SERVERS.PORT_1)
+                .addSequencer(SERVERS.PORT_0)
+                .buildSegment()
+                .setStart(0L)
+                .setEnd(segmentEnd)
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addToSegment()
+                .addToLayout()
+                .buildSegment()
+                .setStart(segmentEnd)
+                .setEnd(-1L)
+                .buildStripe()
+                .addLogUnit(SERVERS.PORT_0)
+                .addLogUnit(SERVERS.PORT_1)
+                .addToSegment()
+                .addToLayout()
+                .build();
+        bootstrapAllServers(l1);
+
+        CorfuRuntime rt = getNewRuntime(getDefaultNode()).connect();
+        try {
+            IStreamView testStream = rt.getStreamsView().get(CorfuRuntime.getStreamID("test"));
+            for (int i = 0; i < numEntries; i++) {
+                testStream.append("testPayload".getBytes());
+            }
+
+            Layout layout = rt.getLayoutView().getLayout();
+            Layout.LayoutSegment segment = layout.getFirstSegment();
+            StateTransferCheckpoints checkpoints = new StateTransferCheckpoints(
+                    new DataStore(Collections.<String, Object>singletonMap("--memory", true), fn -> { }));
+            checkpoints.put(SERVERS.ENDPOINT_1, segment, segmentEnd - 1);
+
+            StateTransfer.transfer(layout, Collections.singleton(SERVERS.ENDPOINT_1), rt,
+                    segment, checkpoints);
+            assertThat(checkpoints.get(SERVERS.ENDPOINT_1, segment)).contains(segmentEnd);
+            assertThat(getAllNonEmptyData(rt, SERVERS.ENDPOINT_1, segmentEnd - 1)).hasSize((int) segmentEnd);
+
+            StateTransfer.transfer(layout, Collections.singleton(SERVERS.ENDPOINT_1), rt,
+                    segment, checkpoints);
+            assertThat(getAllNonEmptyData(rt, SERVERS.ENDPOINT_1, segmentEnd - 1).entrySet())
+                    .containsOnlyElementsOf(getAllNonEmptyData(rt, SERVERS.ENDPOINT_0, segmentEnd - 1).entrySet());
+
+            // Once the segments are merged in the layout, the checkpoint is removed.
+            new RestoreRedundancyMergeSegments(checkpoints).impl(rt);
+            rt.invalidateLayout();
+            assertThat(rt.getLayoutView().getLayout().getSegments()).hasSize(1);
+            assertThat(checkpoints.get(SERVERS.ENDPOINT_1, segment)).isEmpty();
+        } finally {
+            rt.shutdown();
+        }
+    }
+
     /**
      * The test first creates a layout with 3 segments.
      * Initial layout:
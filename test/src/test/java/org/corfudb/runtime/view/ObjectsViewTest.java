@@ -6,6 +6,8 @@ import com.google.common.reflect.TypeToken;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Semaphore;
 
 import org.corfudb.protocols.logprotocol.LogEntry;
@@ -204,4 +206,56 @@ public class ObjectsViewTest extends AbstractViewTest {
                 .containsEntry("b", "b");
     }
 
+    @Test
+    public void asyncCommitDetachesTransaction()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        Map<String, String> smrMap = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+
+        r.getObjectsView().TXBegin();
+        smrMap.put("a", "b");
+        CompletableFuture<Long> commit = r.getObjectsView().TXEndAsync();
+
+        // The thread is free to run another transaction right away
+        assertThat(r.getObjectsView().TXActive()).isFalse();
+        r.getObjectsView().TXBegin();
+        smrMap.put("c", "d");
+        long address = r.getObjectsView().TXEnd();
+
+        assertThat(commit.get()).isNotEqualTo(address);
+        assertThat(smrMap)
+                .containsEntry("a", "b")
+                .containsEntry("c", "d");
+    }
+
+    @Test
+    public void asyncCommitCompletesExceptionallyOnAbort()
+            throws Exception {
+        CorfuRuntime r = getDefaultRuntime();
+        Map<String, String> smrMap = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .open();
+        Map<String, String> smrMapCopy = r.getObjectsView().build()
+                .setStreamName("map a")
+                .setTypeToken(new TypeToken<SMRMap<String, String>>() {})
+                .addOption(ObjectOpenOptions.NO_CACHE)
+                .open();
+
+        r.getObjectsView().TXBegin();
+        smrMap.get("k");
+        // A concurrent write of the key read by the transaction
+        CompletableFuture.runAsync(() -> smrMapCopy.put("k", "v2")).get();
+        smrMap.put("k", "v1");
+        CompletableFuture<Long> commit = r.getObjectsView().TXEndAsync();
+
+        assertThatThrownBy(commit::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TransactionAbortedException.class);
+        assertThat(smrMap)
+                .containsEntry("k", "v2");
+    }
 }
@@ -1,11 +1,15 @@
 package org.corfudb.runtime.view;
 
 import lombok.Getter;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
 import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.clients.TestRule;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -96,4 +100,31 @@ public class SequencerViewTest extends AbstractViewTest {
         assertThat(r.getSequencerView().next(streamB).getBackpointerMap())
                 .containsEntry(streamB, 1L);
     }
+
+    @Test
+    public void globalTailQueryReusesObservedToken() {
+        CorfuRuntime r = getDefaultRuntime();
+        assertThat(r.getSequencerView().next().getToken())
+                .isEqualTo(new Token(0L, 0L));
+
+        AtomicInteger tokenRequests = new AtomicInteger();
+        addClientRule(r, new TestRule()
+                .matches(m -> {
+                    if (m.getMsgType().equals(CorfuMsgType.TOKEN_REQ)) {
+                        tokenRequests.incrementAndGet();
+                    }
+                    return false;
+                }));
+
+        // The allocated token is reused within the staleness bound.
+        final Duration maxStaleness = Duration.ofMinutes(1);
+        assertThat(r.getSequencerView().queryGlobalTail(maxStaleness))
+                .isEqualTo(new Token(0L, 0L));
+        assertThat(tokenRequests.get()).isZero();
+
+        // Without a staleness bound, the sequencer is queried.
+        assertThat(r.getSequencerView().queryGlobalTail(Duration.ZERO))
+                .isEqualTo(new Token(0L, 0L));
+        assertThat(tokenRequests.get()).isEqualTo(1);
+    }
 }
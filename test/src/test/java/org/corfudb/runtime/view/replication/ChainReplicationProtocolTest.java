@@ -3,7 +3,11 @@ package org.corfudb.runtime.view.replication;
 import org.corfudb.infrastructure.TestLayoutBuilder;
 import org.corfudb.protocols.wireprotocol.ILogData;
 import org.corfudb.protocols.wireprotocol.LogData;
+import org.corfudb.protocols.wireprotocol.CorfuMsgType;
+import org.corfudb.protocols.wireprotocol.Token;
 import org.corfudb.runtime.CorfuRuntime;
+import org.corfudb.runtime.CorfuRuntime.CorfuRuntimeParameters;
+import org.corfudb.runtime.clients.TestRule;
 import org.corfudb.runtime.exceptions.OverwriteException;
 import org.corfudb.runtime.exceptions.WrongEpochException;
 import org.corfudb.runtime.view.RuntimeLayout;
@@ -160,4 +164,108 @@ public class ChainReplicationProtocolTest extends AbstractReplicationProtocolTes
                 .getAddresses().get(0L);
         assertThat(logData.getData()).isNullOrEmpty();
     }
+
+    /**
+     * Reads committed data from the predecessor of the tail of the chain
+     * when the tail doesn't respond to reads.
+     */
+    @Test
+    public void slowTailReadIsHedged() {
+        setupNodes();
+        final CorfuRuntime r = getNewRuntime(CorfuRuntimeParameters.builder()
+                .readHedgingEnabled(true)
+                .build())
+                .parseConfigurationString(SERVERS.ENDPOINT_0)
+                .connect();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final IReplicationProtocol rp = runtimeLayout.getLayout().getReplicationMode(0L)
+                .getReplicationProtocol(r);
+        final int numEntries = 200;
+
+        for (int i = 0; i < numEntries; i++) {
+            rp.write(runtimeLayout, getLogData(i, Integer.toString(i).getBytes()));
+        }
+        assertThat(r.getHedgedReader().getCommittedTail()).isEqualTo(numEntries - 1);
+
+        // Observe the read latencies of the tail
+        for (int i = 0; i < numEntries; i++) {
+            rp.read(runtimeLayout, i);
+        }
+
+        // The tail of the chain stops responding to reads
+        addClientRule(r, SERVERS.ENDPOINT_2, new TestRule()
+                .matches(m -> m.getMsgType().equals(CorfuMsgType.READ_REQUEST))
+                .drop());
+
+        assertThat(rp.read(runtimeLayout, 0L).getPayload(r))
+                .isEqualTo("0".getBytes());
+    }
+
+    /**
+     * Hedges the reads of a runtime which starts reading the log after its trim mark.
+     */
+    @Test
+    public void midLogReadIsHedged() {
+        setupNodes();
+        final CorfuRuntime writer = getNewRuntime(CorfuRuntimeParameters.builder().build())
+                .parseConfigurationString(SERVERS.ENDPOINT_0)
+                .connect();
+        final RuntimeLayout writerLayout = writer.getLayoutView().getRuntimeLayout();
+        final IReplicationProtocol writerRp = writerLayout.getLayout().getReplicationMode(0L)
+                .getReplicationProtocol(writer);
+        final int numEntries = 200;
+        final long trimAddress = 99L;
+        final long readAddress = 150L;
+
+        for (int i = 0; i < numEntries; i++) {
+            writerRp.write(writerLayout, getLogData(i, Integer.toString(i).getBytes()));
+        }
+        writer.getAddressSpaceView().prefixTrim(
+                new Token(writerLayout.getLayout().getEpoch(), trimAddress));
+
+        final CorfuRuntime r = getNewRuntime(CorfuRuntimeParameters.builder()
+                .readHedgingEnabled(true)
+                .build())
+                .parseConfigurationString(SERVERS.ENDPOINT_0)
+                .connect();
+        final RuntimeLayout runtimeLayout = r.getLayoutView().getRuntimeLayout();
+        final IReplicationProtocol rp = runtimeLayout.getLayout().getReplicationMode(0L)
+                .getReplicationProtocol(r);
+
+        // Observe the read latencies of the tail, from the trim mark on
+        for (long i = trimAddress + 1; i < numEntries; i++) {
+            rp.read(runtimeLayout, i);
+        }
+        assertThat(r.getHedgedReader().getCommittedTail()).isEqualTo(numEntries - 1);
+
+        // The tail of the chain stops responding to reads
+        addClientRule(r, SERVERS.ENDPOINT_2, new TestRule()
+                .matches(m -> m.getMsgType().equals(CorfuMsgType.READ_REQUEST))
+                .drop());
+
+        assertThat(rp.read(runtimeLayout, readAddress).getPayload(r))
+                .isEqualTo(Long.toString(readAddress).getBytes());
+    }
+
+    /**
+     * The committed tail only covers addresses all known to be committed.
+     */
+    @Test
+    public void committedTailIsContiguous() {
+        HedgedReader hedgedReader = new HedgedReader(CorfuRuntimeParameters.builder()
+                .readHedgingEnabled(true)
+                .build());
+        final long address1 = 1L;
+        final long address2 = 2L;
+        final long address3 = 3L;
+
+        hedgedReader.markCommitted(address1);
+        assertThat(hedgedReader.getCommittedTail()).isEqualTo(-1L);
+        hedgedReader.markCommitted(0L);
+        assertThat(hedgedReader.getCommittedTail()).isEqualTo(address1);
+        hedgedReader.markCommitted(address3);
+        assertThat(hedgedReader.getCommittedTail()).isEqualTo(address1);
+        hedgedReader.markCommitted(address2);
+        assertThat(hedgedReader.getCommittedTail()).isEqualTo(address3);
+    }
 }
@@ -0,0 +1,41 @@
+package org.corfudb.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HeavyHittersTest {
+
+    @Test
+    public void tracksMostFrequentKeys() {
+        final int width = 256;
+        final int topK = 3;
+        final int numKeys = 1000;
+        final int hotCount = 100;
+        HeavyHitters<Integer> heavyHitters = new HeavyHitters<>(width, topK);
+
+        for (int i = 0; i < numKeys; i++) {
+            heavyHitters.add(i);
+        }
+        for (int i = 0; i < hotCount; i++) {
+            heavyHitters.add(-1);
+            heavyHitters.add(-2);
+            if (i % 2 == 0) {
+                heavyHitters.add(-3);
+            }
+        }
+
+        Map<Integer, Long> top = heavyHitters.getTop();
+        assertThat(top.keySet()).containsOnly(-1, -2, -3);
+        // A count-min sketch never underestimates.
+        assertThat(top.get(-1)).isGreaterThanOrEqualTo(hotCount);
+        assertThat(top.get(-3)).isGreaterThanOrEqualTo(hotCount / 2);
+        assertThat(heavyHitters.getTotal()).isEqualTo(numKeys + hotCount * 2 + hotCount / 2);
+
+        heavyHitters.clear();
+        assertThat(heavyHitters.getTop()).isEmpty();
+        assertThat(heavyHitters.getTotal()).isZero();
+    }
+}